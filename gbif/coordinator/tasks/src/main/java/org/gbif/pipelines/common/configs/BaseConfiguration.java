@@ -11,4 +11,9 @@ public interface BaseConfiguration {
   String getMetaFileName();
 
   boolean eventsEnabled();
+
+  /** Path to store the step cost history, null disables recording */
+  default String getCostHistoryPath() {
+    return null;
+  }
 }
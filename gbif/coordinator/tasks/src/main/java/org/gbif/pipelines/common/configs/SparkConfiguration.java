@@ -70,4 +70,8 @@ public class SparkConfiguration {
 
   @Parameter(names = "--extra-coef-dataset-list")
   public Set<String> extraCoefDatasetSet = Collections.emptySet();
+
+  // Max memory multiplier for wide records, learned by the step cost model
+  @Parameter(names = "--max-width-coef")
+  public double maxWidthCoef = 4d;
 }
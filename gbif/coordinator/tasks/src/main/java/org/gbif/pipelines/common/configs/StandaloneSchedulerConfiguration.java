@@ -0,0 +1,38 @@
+package org.gbif.pipelines.common.configs;
+
+import com.beust.jcommander.Parameter;
+import javax.validation.constraints.Min;
+import lombok.ToString;
+
+/**
+ * Resources of the JVM shared by STANDALONE pipelines running concurrently, stepConfig.poolSize
+ * limits the number of jobs
+ */
+@ToString
+public class StandaloneSchedulerConfiguration {
+
+  @Parameter(names = "--standalone-scheduler-enabled")
+  public boolean enabled = false;
+
+  @Parameter(names = "--standalone-cores")
+  @Min(1)
+  public int cores = Runtime.getRuntime().availableProcessors();
+
+  @Parameter(names = "--standalone-heap-mb")
+  @Min(1)
+  public long heapMb = Runtime.getRuntime().maxMemory() / (1024L * 1024L) * 8L / 10L;
+
+  @Parameter(names = "--standalone-records-per-core")
+  @Min(1)
+  public long recordsPerCore = 250_000L;
+
+  @Parameter(names = "--standalone-base-heap-mb")
+  public long baseHeapMb = 256L;
+
+  @Parameter(names = "--standalone-heap-mb-per-million-records")
+  public long heapMbPerMillionRecords = 1_024L;
+
+  // A waiting job stops smaller jobs from overtaking it after this time
+  @Parameter(names = "--standalone-reserve-after-min")
+  public long reserveAfterMin = 10L;
+}
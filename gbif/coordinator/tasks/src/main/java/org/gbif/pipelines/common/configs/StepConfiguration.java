@@ -39,4 +39,17 @@ public class StepConfiguration {
 
   @Parameter(names = "--events-enabled")
   public boolean eventsEnabled = false;
+
+  // Step cost history, the cost model is not used if the path is not set
+
+  @Parameter(names = "--cost-history-path")
+  public String costHistoryPath;
+
+  @Parameter(names = "--cost-model-min-samples")
+  @Min(3)
+  public int costModelMinSamples = 20;
+
+  @Parameter(names = "--cost-model-history-size")
+  @Min(1)
+  public int costModelHistorySize = 500;
 }
@@ -3,13 +3,23 @@ package org.gbif.pipelines.common.hdfs;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import org.gbif.pipelines.common.configs.AvroWriteConfiguration;
+import org.gbif.pipelines.common.process.StepCostModel;
 
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public class HdfsViewSettings {
 
   /** Computes number of file shards: */
   public static int computeNumberOfShards(AvroWriteConfiguration avroConfig, long recordsNumber) {
-    double shards = recordsNumber / (double) avroConfig.recordsPerAvroFile;
+    return computeNumberOfShards(avroConfig, recordsNumber, 1d);
+  }
+
+  /**
+   * Computes number of file shards, wide records take widthCoef times more space than
+   * avroConfig.recordsPerAvroFile expects, see {@link StepCostModel#widthCoef}
+   */
+  public static int computeNumberOfShards(
+      AvroWriteConfiguration avroConfig, long recordsNumber, double widthCoef) {
+    double shards = recordsNumber * widthCoef / avroConfig.recordsPerAvroFile;
     shards = Math.max(shards, 1d);
     boolean isCeil =
         (shards - Math.floor(shards)) > 0.49d; // Floor if extra shard size is less than 49%
@@ -13,10 +13,17 @@ public class SparkDynamicSettings {
   private final double memoryExtraCoef;
 
   private SparkDynamicSettings(
-      SparkConfiguration sparkConfig, long fileRecordsNumber, boolean useMemoryExtraCoef) {
+      SparkConfiguration sparkConfig,
+      long fileRecordsNumber,
+      boolean useMemoryExtraCoef,
+      double widthCoef) {
     this.memoryExtraCoef = useMemoryExtraCoef ? sparkConfig.memoryExtraCoef : 1d;
-    this.executorNumbers = computeExecutorNumbers(sparkConfig, fileRecordsNumber);
-    this.executorMemory = computeExecutorMemory(sparkConfig, fileRecordsNumber);
+    int executors = computeExecutorNumbers(sparkConfig, fileRecordsNumber);
+    this.executorMemory = computeExecutorMemory(sparkConfig, fileRecordsNumber, widthCoef);
+    this.executorNumbers =
+        widthCoef > 1d
+            ? scaleExecutorNumbers(sparkConfig, fileRecordsNumber, executors, widthCoef)
+            : executors;
   }
 
   // For testing
@@ -28,7 +35,18 @@ public class SparkDynamicSettings {
 
   public static SparkDynamicSettings create(
       SparkConfiguration sparkConfig, long fileRecordsNumber, boolean memoryExtraCoef) {
-    return new SparkDynamicSettings(sparkConfig, fileRecordsNumber, memoryExtraCoef);
+    return new SparkDynamicSettings(sparkConfig, fileRecordsNumber, memoryExtraCoef, 1d);
+  }
+
+  /**
+   * @param widthCoef memory multiplier for wide records, see {@link StepCostModel#widthCoef}
+   */
+  public static SparkDynamicSettings create(
+      SparkConfiguration sparkConfig,
+      long fileRecordsNumber,
+      boolean memoryExtraCoef,
+      double widthCoef) {
+    return new SparkDynamicSettings(sparkConfig, fileRecordsNumber, memoryExtraCoef, widthCoef);
   }
 
   public static SparkDynamicSettings create(
@@ -40,10 +58,9 @@ public class SparkDynamicSettings {
    * Computes the memory for executor in Gb, where min is config.sparkExecutorMemoryGbMin and max is
    * config.sparkExecutorMemoryGbMax
    */
-  private int computeExecutorMemory(SparkConfiguration sparkConfig, long recordsNumber) {
-    int memoryInGb = computePowerFn(sparkConfig, recordsNumber, sparkConfig.powerFnMemoryCoef);
-
-    memoryInGb = (int) Math.ceil(memoryInGb * memoryExtraCoef);
+  private int computeExecutorMemory(
+      SparkConfiguration sparkConfig, long recordsNumber, double widthCoef) {
+    int memoryInGb = computeMemoryInGb(sparkConfig, recordsNumber, widthCoef);
 
     if (memoryInGb < sparkConfig.executorMemoryGbMin) {
       return sparkConfig.executorMemoryGbMin;
@@ -54,6 +71,27 @@ public class SparkDynamicSettings {
     return memoryInGb;
   }
 
+  private int computeMemoryInGb(
+      SparkConfiguration sparkConfig, long recordsNumber, double widthCoef) {
+    int memoryInGb = computePowerFn(sparkConfig, recordsNumber, sparkConfig.powerFnMemoryCoef);
+    return (int) Math.ceil(memoryInGb * memoryExtraCoef * widthCoef);
+  }
+
+  /**
+   * Wide records can require more memory than config.sparkExecutorMemoryGbMax, the part of memory
+   * above the max caused by widthCoef is spread over more executors, where max is
+   * config.sparkConfig.executorInstancesMax
+   */
+  private int scaleExecutorNumbers(
+      SparkConfiguration sparkConfig, long recordsNumber, int executors, double widthCoef) {
+    double max = Math.max(sparkConfig.executorMemoryGbMax, 1);
+    double overflow = Math.max(computeMemoryInGb(sparkConfig, recordsNumber, widthCoef) / max, 1d);
+    double baseOverflow = Math.max(computeMemoryInGb(sparkConfig, recordsNumber, 1d) / max, 1d);
+
+    int scaled = (int) Math.ceil(executors * overflow / baseOverflow);
+    return Math.min(scaled, Math.max(executors, sparkConfig.executorInstancesMax));
+  }
+
   /**
    * Computes the numbers of executors, where min is config.sparkConfig.executorInstancesMin and max
    * is config.sparkConfig.executorInstancesMax
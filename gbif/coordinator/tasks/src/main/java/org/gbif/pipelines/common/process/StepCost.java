@@ -0,0 +1,43 @@
+package org.gbif.pipelines.common.process;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import java.util.Collection;
+import java.util.Set;
+import java.util.stream.Collectors;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.gbif.api.model.pipelines.InterpretationType.RecordType;
+
+/** Measured cost of one pipeline step run, used by {@link StepCostModel} */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class StepCost {
+
+  private static final Set<String> TABLES =
+      RecordType.getAllTables().stream().map(RecordType::name).collect(Collectors.toSet());
+
+  private String datasetKey;
+  private Integer attempt;
+  private String stepType;
+  private String runner;
+  private String datasetType;
+  private long recordsNumber;
+  private int extensionsNumber;
+  private long runtimeMs;
+  // Peak heap usage, only measured for STANDALONE runs
+  private Long peakMemoryMb;
+  private long created;
+
+  /** Counts extension tables requested by the interpretation types of a message */
+  public static int countExtensions(Collection<String> interpretTypes) {
+    if (interpretTypes == null) {
+      return 0;
+    }
+    return (int) interpretTypes.stream().filter(TABLES::contains).count();
+  }
+}
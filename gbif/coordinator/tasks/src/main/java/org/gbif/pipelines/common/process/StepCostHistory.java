@@ -0,0 +1,164 @@
+package org.gbif.pipelines.common.process;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.gbif.api.model.pipelines.StepType;
+import org.gbif.pipelines.core.factory.FileSystemFactory;
+import org.gbif.pipelines.core.pojo.HdfsConfigs;
+
+/**
+ * Stores {@link StepCost} of finished steps as json files, one per run, in
+ * {costHistoryPath}/{stepType}/{datasetKey}_{attempt}.json
+ */
+@Slf4j
+public class StepCostHistory {
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  private static final Cache<String, List<StepCost>> CACHE =
+      CacheBuilder.newBuilder().expireAfterWrite(10, TimeUnit.MINUTES).build();
+
+  private final HdfsConfigs hdfsConfigs;
+  private final String costHistoryPath;
+
+  private StepCostHistory(HdfsConfigs hdfsConfigs, String costHistoryPath) {
+    this.hdfsConfigs = hdfsConfigs;
+    this.costHistoryPath = costHistoryPath;
+  }
+
+  public static StepCostHistory create(HdfsConfigs hdfsConfigs, String costHistoryPath) {
+    return new StepCostHistory(hdfsConfigs, costHistoryPath);
+  }
+
+  public void save(StepCost cost) throws IOException {
+    Path path =
+        new Path(
+            String.join(
+                "/",
+                costHistoryPath,
+                cost.getStepType(),
+                cost.getDatasetKey() + "_" + cost.getAttempt() + ".json"));
+    FileSystem fs = getFileSystem();
+    try (OutputStream os = fs.create(path, true)) {
+      MAPPER.writeValue(os, cost);
+    }
+    log.info("Step cost has been saved - {}", cost);
+  }
+
+  /** Returns up to limit latest costs of the step type, results are cached for 10 minutes */
+  @SneakyThrows
+  public List<StepCost> read(StepType stepType, int limit) {
+    String dir = String.join("/", costHistoryPath, stepType.name());
+    return CACHE.get(dir + ":" + limit, () -> readDir(dir, limit));
+  }
+
+  private List<StepCost> readDir(String dir, int limit) throws IOException {
+    FileSystem fs = getFileSystem();
+    Path dirPath = new Path(dir);
+    if (!fs.exists(dirPath)) {
+      return Collections.emptyList();
+    }
+
+    FileStatus[] statuses = fs.listStatus(dirPath, p -> p.getName().endsWith(".json"));
+    Arrays.sort(statuses, Comparator.comparingLong(FileStatus::getModificationTime).reversed());
+
+    List<StepCost> costs = new ArrayList<>(Math.min(limit, statuses.length));
+    for (int i = 0; i < statuses.length && costs.size() < limit; i++) {
+      try (InputStream is = fs.open(statuses[i].getPath())) {
+        costs.add(MAPPER.readValue(is, StepCost.class));
+      } catch (IOException ex) {
+        log.warn("Can't read step cost file {}", statuses[i].getPath(), ex);
+      }
+    }
+    log.info("Read {} step costs from {}", costs.size(), dir);
+    return costs;
+  }
+
+  private FileSystem getFileSystem() {
+    return FileSystemFactory.getInstance(hdfsConfigs).getFs(costHistoryPath);
+  }
+
+  /**
+   * Starts measuring peak usage of heap memory pools. Memory pools are shared by the whole JVM, if
+   * the coordinator runs other steps at the same time the measurement is discarded, see {@link
+   * PeakHeap#stopMb()}
+   */
+  public static PeakHeap startPeakHeap() {
+    return PeakHeap.start();
+  }
+
+  /** Peak heap measurement of one step, steps running in parallel in the same JVM spoil it */
+  public static class PeakHeap {
+
+    private static final Object MUTEX = new Object();
+    private static int running;
+    private static long started;
+
+    private final long id;
+    private boolean concurrent;
+
+    private PeakHeap(long id, boolean concurrent) {
+      this.id = id;
+      this.concurrent = concurrent;
+    }
+
+    private static PeakHeap start() {
+      synchronized (MUTEX) {
+        running++;
+        started++;
+        if (running == 1) {
+          resetPeakUsage();
+        }
+        return new PeakHeap(started, running > 1);
+      }
+    }
+
+    /**
+     * Stops the measurement and returns the sum of peak usages of heap memory pools in Mb, or null
+     * if another step was started while this one was running
+     */
+    public Long stopMb() {
+      synchronized (MUTEX) {
+        running--;
+        concurrent |= started != id;
+        return concurrent ? null : getPeakUsageMb();
+      }
+    }
+
+    private static void resetPeakUsage() {
+      for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+        if (pool.getType() == MemoryType.HEAP) {
+          pool.resetPeakUsage();
+        }
+      }
+    }
+
+    private static long getPeakUsageMb() {
+      long bytes = 0L;
+      for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+        if (pool.getType() == MemoryType.HEAP) {
+          bytes += pool.getPeakUsage().getUsed();
+        }
+      }
+      return bytes / (1024L * 1024L);
+    }
+  }
+}
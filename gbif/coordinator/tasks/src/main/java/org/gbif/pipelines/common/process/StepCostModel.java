@@ -0,0 +1,204 @@
+package org.gbif.pipelines.common.process;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.gbif.api.model.pipelines.StepRunner;
+import org.gbif.api.model.pipelines.StepType;
+import org.gbif.pipelines.common.configs.StepConfiguration;
+import org.gbif.pipelines.core.pojo.HdfsConfigs;
+
+/**
+ * Cost model fitted on the {@link StepCostHistory} of STANDALONE runs of a step. Peak memory and
+ * runtime are predicted by the log-linear function, fitted by least squares:
+ *
+ * <pre>
+ *   log(y) = a + b * log(1 + records) + c * log(1 + extensions)
+ * </pre>
+ *
+ * <p>The model is not used (not fitted) until it has config.costModelMinSamples runs, and it never
+ * extrapolates to datasets more than {@link #MAX_EXTRAPOLATION} times bigger than the biggest run
+ * seen.
+ */
+@Slf4j
+public class StepCostModel {
+
+  static final double MAX_EXTRAPOLATION = 10d;
+  private static final double RIDGE = 1e-6d;
+
+  private final double[] memoryFn;
+  private final double[] runtimeFn;
+  private final long maxRecordsNumber;
+
+  private StepCostModel(double[] memoryFn, double[] runtimeFn, long maxRecordsNumber) {
+    this.memoryFn = memoryFn;
+    this.runtimeFn = runtimeFn;
+    this.maxRecordsNumber = maxRecordsNumber;
+  }
+
+  /** Model without history, every prediction is empty */
+  public static StepCostModel empty() {
+    return new StepCostModel(null, null, 0L);
+  }
+
+  /**
+   * Fits the model on STANDALONE runs, runs of the same dataset type are used if there are enough
+   * of them
+   */
+  public static StepCostModel fit(List<StepCost> history, String datasetType, int minSamples) {
+    List<StepCost> standalone =
+        history.stream()
+            .filter(c -> StepRunner.STANDALONE.name().equals(c.getRunner()))
+            .filter(c -> c.getRecordsNumber() > 0 && c.getRuntimeMs() > 0)
+            .collect(Collectors.toList());
+
+    List<StepCost> sameType =
+        standalone.stream()
+            .filter(c -> datasetType != null && datasetType.equals(c.getDatasetType()))
+            .collect(Collectors.toList());
+    List<StepCost> samples = sameType.size() >= minSamples ? sameType : standalone;
+
+    List<StepCost> withMemory =
+        samples.stream()
+            .filter(c -> c.getPeakMemoryMb() != null && c.getPeakMemoryMb() > 0)
+            .collect(Collectors.toList());
+
+    double[] memoryFn =
+        withMemory.size() >= minSamples ? fit(withMemory, c -> c.getPeakMemoryMb()) : null;
+    double[] runtimeFn = samples.size() >= minSamples ? fit(samples, StepCost::getRuntimeMs) : null;
+    long maxRecords = samples.stream().mapToLong(StepCost::getRecordsNumber).max().orElse(0L);
+
+    log.info(
+        "Step cost model is fitted on {} runs, memory fn - {}, runtime fn - {}",
+        samples.size(),
+        memoryFn != null,
+        runtimeFn != null);
+    return new StepCostModel(memoryFn, runtimeFn, maxRecords);
+  }
+
+  /**
+   * Reads the step history and fits the model, returns {@link #empty()} if --cost-history-path is
+   * not set
+   */
+  public static StepCostModel load(
+      StepConfiguration stepConfig, StepType stepType, String datasetType) {
+    if (stepConfig.costHistoryPath == null || stepConfig.costHistoryPath.isEmpty()) {
+      return empty();
+    }
+    try {
+      HdfsConfigs hdfsConfigs =
+          HdfsConfigs.create(stepConfig.hdfsSiteConfig, stepConfig.coreSiteConfig);
+      List<StepCost> history =
+          StepCostHistory.create(hdfsConfigs, stepConfig.costHistoryPath)
+              .read(stepType, stepConfig.costModelHistorySize);
+      return fit(history, datasetType, stepConfig.costModelMinSamples);
+    } catch (RuntimeException ex) {
+      log.warn("Can't load step cost history for {}, the model is not used", stepType, ex);
+      return empty();
+    }
+  }
+
+  public Optional<Double> predictMemoryMb(long recordsNumber, int extensionsNumber) {
+    return predict(memoryFn, recordsNumber, extensionsNumber);
+  }
+
+  public Optional<Double> predictRuntimeMs(long recordsNumber, int extensionsNumber) {
+    return predict(runtimeFn, recordsNumber, extensionsNumber);
+  }
+
+  /**
+   * Chooses STANDALONE if predicted peak memory and runtime are within the limits, otherwise
+   * DISTRIBUTED. Returns empty if the model can't predict the cost of the dataset
+   */
+  public Optional<StepRunner> chooseRunner(
+      long recordsNumber, int extensionsNumber, long memoryBudgetMb, long maxRuntimeMs) {
+    Optional<Double> memory = predictMemoryMb(recordsNumber, extensionsNumber);
+    Optional<Double> runtime = predictRuntimeMs(recordsNumber, extensionsNumber);
+    if (!memory.isPresent() || !runtime.isPresent()) {
+      return Optional.empty();
+    }
+    boolean fits = memory.get() <= memoryBudgetMb && runtime.get() <= maxRuntimeMs;
+    log.info(
+        "Predicted STANDALONE peak memory - {}Mb, runtime - {}ms for {} records",
+        memory.get().longValue(),
+        runtime.get().longValue(),
+        recordsNumber);
+    return Optional.of(fits ? StepRunner.STANDALONE : StepRunner.DISTRIBUTED);
+  }
+
+  /**
+   * Memory multiplier caused by extensions, (1 + extensions) ^ c of the memory function, where min
+   * is 1 and max is maxWidthCoef. Returns 1 if the model is not fitted
+   */
+  public double widthCoef(int extensionsNumber, double maxWidthCoef) {
+    if (memoryFn == null) {
+      return 1d;
+    }
+    double coef = Math.exp(memoryFn[2] * Math.log1p(extensionsNumber));
+    return Math.min(Math.max(coef, 1d), Math.max(maxWidthCoef, 1d));
+  }
+
+  private Optional<Double> predict(double[] fn, long recordsNumber, int extensionsNumber) {
+    if (fn == null || recordsNumber > maxRecordsNumber * MAX_EXTRAPOLATION) {
+      return Optional.empty();
+    }
+    double[] x = features(recordsNumber, extensionsNumber);
+    return Optional.of(Math.exp(fn[0] * x[0] + fn[1] * x[1] + fn[2] * x[2]));
+  }
+
+  private static double[] features(long recordsNumber, int extensionsNumber) {
+    return new double[] {1d, Math.log1p(recordsNumber), Math.log1p(extensionsNumber)};
+  }
+
+  /** Solves the normal equations (XtX + ridge) * w = Xt * log(y) */
+  private static double[] fit(List<StepCost> samples, ToDoubleFunction<StepCost> yFn) {
+    double[][] a = new double[3][4];
+    for (StepCost c : samples) {
+      double[] x = features(c.getRecordsNumber(), c.getExtensionsNumber());
+      double y = Math.log(yFn.applyAsDouble(c));
+      for (int i = 0; i < 3; i++) {
+        for (int j = 0; j < 3; j++) {
+          a[i][j] += x[i] * x[j];
+        }
+        a[i][3] += x[i] * y;
+      }
+    }
+    for (int i = 0; i < 3; i++) {
+      a[i][i] += RIDGE;
+    }
+    return solve(a);
+  }
+
+  /** Gaussian elimination with partial pivoting of the augmented 3x4 matrix */
+  private static double[] solve(double[][] a) {
+    int n = a.length;
+    for (int col = 0; col < n; col++) {
+      int pivot = col;
+      for (int row = col + 1; row < n; row++) {
+        if (Math.abs(a[row][col]) > Math.abs(a[pivot][col])) {
+          pivot = row;
+        }
+      }
+      double[] tmp = a[col];
+      a[col] = a[pivot];
+      a[pivot] = tmp;
+      for (int row = col + 1; row < n; row++) {
+        double f = a[row][col] / a[col][col];
+        for (int k = col; k <= n; k++) {
+          a[row][k] -= f * a[col][k];
+        }
+      }
+    }
+    double[] w = new double[n];
+    for (int row = n - 1; row >= 0; row--) {
+      double sum = a[row][n];
+      for (int k = row + 1; k < n; k++) {
+        sum -= a[row][k] * w[k];
+      }
+      w[row] = sum / a[row][row];
+    }
+    return w;
+  }
+}
@@ -43,10 +43,16 @@ import org.gbif.common.messaging.api.messages.PipelineBasedMessage.DatasetInfo;
 import org.gbif.common.messaging.api.messages.PipelinesAbcdMessage;
 import org.gbif.common.messaging.api.messages.PipelinesBalancerMessage;
 import org.gbif.common.messaging.api.messages.PipelinesDwcaMessage;
+import org.gbif.common.messaging.api.messages.PipelinesInterpretedMessage;
 import org.gbif.common.messaging.api.messages.PipelinesRunnerMessage;
+import org.gbif.common.messaging.api.messages.PipelinesVerbatimMessage;
 import org.gbif.common.messaging.api.messages.PipelinesXmlMessage;
 import org.gbif.pipelines.common.PipelinesException;
 import org.gbif.pipelines.common.configs.BaseConfiguration;
+import org.gbif.pipelines.common.process.StepCost;
+import org.gbif.pipelines.common.process.StepCostHistory;
+import org.gbif.pipelines.common.process.StepCostHistory.PeakHeap;
+import org.gbif.pipelines.common.process.StepCostModel;
 import org.gbif.pipelines.common.utils.HdfsUtils;
 import org.gbif.pipelines.core.pojo.HdfsConfigs;
 import org.gbif.registry.ws.client.DatasetClient;
@@ -158,10 +164,25 @@ public class PipelinesCallback<I extends PipelineBasedMessage, O extends Pipelin
 
       log.info("Handler has been started, datasetKey - {}", datasetKey);
       checkIfDatasetIsDeleted();
-      runnable.run();
+      // Only steps running in the coordinator JVM can be measured
+      PeakHeap peakHeap = null;
+      boolean isStandalone = StepRunner.STANDALONE.name().equals(getRunner());
+      if (config.getCostHistoryPath() != null && isStandalone) {
+        peakHeap = StepCostHistory.startPeakHeap();
+      }
+      long startMs = System.currentTimeMillis();
+      Long peakHeapMb;
+      try {
+        runnable.run();
+      } finally {
+        peakHeapMb = peakHeap != null ? peakHeap.stopMb() : null;
+      }
+      long runtimeMs = System.currentTimeMillis() - startMs;
       checkIfDatasetIsDeleted();
       log.info("Handler has been finished, datasetKey - {}", datasetKey);
 
+      saveStepCost(runtimeMs, peakHeapMb);
+
       // update tracking status
       info.ifPresent(i -> updateTrackingStatus(i, PipelineStep.Status.COMPLETED));
 
@@ -500,6 +521,57 @@ public class PipelinesCallback<I extends PipelineBasedMessage, O extends Pipelin
     return StepRunner.UNKNOWN.name();
   }
 
+  /**
+   * Saves the step cost for {@link StepCostModel}, only occurrence steps are recorded. Peak heap is
+   * null for steps running outside of the coordinator or in parallel with other steps.
+   */
+  private void saveStepCost(long runtimeMs, Long peakHeapMb) {
+    if (config.getCostHistoryPath() == null) {
+      return;
+    }
+
+    Long recordsNumber = null;
+    Set<String> interpretTypes = null;
+    DatasetType datasetType = null;
+    if (message instanceof PipelinesVerbatimMessage) {
+      PipelinesVerbatimMessage m = (PipelinesVerbatimMessage) message;
+      recordsNumber =
+          m.getValidationResult() != null ? m.getValidationResult().getNumberOfRecords() : null;
+      interpretTypes = m.getInterpretTypes();
+      datasetType = m.getDatasetType();
+    } else if (message instanceof PipelinesInterpretedMessage) {
+      PipelinesInterpretedMessage m = (PipelinesInterpretedMessage) message;
+      recordsNumber = m.getNumberOfRecords();
+      interpretTypes = m.getInterpretTypes();
+      datasetType = m.getDatasetType();
+    }
+    if (recordsNumber == null || recordsNumber <= 0) {
+      return;
+    }
+
+    String runner = getRunner();
+    StepCost cost =
+        StepCost.builder()
+            .datasetKey(message.getDatasetUuid().toString())
+            .attempt(message.getAttempt())
+            .stepType(stepType.name())
+            .runner(runner)
+            .datasetType(datasetType != null ? datasetType.name() : null)
+            .recordsNumber(recordsNumber)
+            .extensionsNumber(StepCost.countExtensions(interpretTypes))
+            .runtimeMs(runtimeMs)
+            .peakMemoryMb(peakHeapMb)
+            .created(System.currentTimeMillis())
+            .build();
+    try {
+      HdfsConfigs hdfsConfigs =
+          HdfsConfigs.create(config.getHdfsSiteConfig(), config.getCoreSiteConfig());
+      StepCostHistory.create(hdfsConfigs, config.getCostHistoryPath()).save(cost);
+    } catch (Exception ex) {
+      log.warn("Can't save the step cost - {}", cost, ex);
+    }
+  }
+
   private void checkIfDatasetIsDeleted() throws IOException {
     if (datasetClient != null) {
       Function<UUID, Dataset> getDatasetFn =
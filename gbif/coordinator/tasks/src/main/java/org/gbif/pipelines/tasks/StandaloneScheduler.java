@@ -0,0 +1,162 @@
+package org.gbif.pipelines.tasks;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+import org.gbif.pipelines.common.configs.StandaloneSchedulerConfiguration;
+
+/**
+ * Runs STANDALONE pipelines of several datasets concurrently in one JVM. Every job gets cores and
+ * heap computed from the number of records and its own executor with that many threads, a job
+ * waits until the resources are free.
+ *
+ * <p>Small jobs can overtake a waiting big job, but only for config.reserveAfterMin, after that the
+ * oldest waiting job reserves the resources being released.
+ *
+ * <p>If the scheduler is disabled jobs run straight away on the shared executor.
+ */
+@Slf4j
+public class StandaloneScheduler {
+
+  private static final AtomicInteger POOL_COUNTER = new AtomicInteger();
+
+  private final StandaloneSchedulerConfiguration config;
+  private final ExecutorService sharedExecutor;
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition changed = lock.newCondition();
+  private final Deque<Job> waiting = new ArrayDeque<>();
+  private int freeCores;
+  private long freeHeapMb;
+
+  private StandaloneScheduler(
+      StandaloneSchedulerConfiguration config, ExecutorService sharedExecutor) {
+    this.config = config;
+    this.sharedExecutor = sharedExecutor;
+    this.freeCores = config.cores;
+    this.freeHeapMb = config.heapMb;
+  }
+
+  public static StandaloneScheduler create(
+      StandaloneSchedulerConfiguration config, ExecutorService sharedExecutor) {
+    return new StandaloneScheduler(config, sharedExecutor);
+  }
+
+  /**
+   * Waits for resources and runs the job
+   *
+   * @param recordsNumber dataset size, defines cores and heap of the job
+   * @param job pipeline which accepts the executor it must use
+   */
+  public void run(long recordsNumber, Consumer<ExecutorService> job) throws InterruptedException {
+    if (!config.enabled) {
+      job.accept(sharedExecutor);
+      return;
+    }
+
+    Job j = new Job(computeCores(recordsNumber), computeHeapMb(recordsNumber));
+    acquire(j);
+    ExecutorService executor = Executors.newFixedThreadPool(j.cores, threadFactory());
+    try {
+      job.accept(executor);
+    } finally {
+      executor.shutdown();
+      release(j);
+    }
+  }
+
+  int computeCores(long recordsNumber) {
+    long cores = (recordsNumber + config.recordsPerCore - 1) / config.recordsPerCore;
+    return (int) Math.min(Math.max(cores, 1L), config.cores);
+  }
+
+  long computeHeapMb(long recordsNumber) {
+    long heapMb =
+        config.baseHeapMb + (long) Math.ceil(recordsNumber * config.heapMbPerMillionRecords / 1e6);
+    return Math.min(Math.max(heapMb, 1L), config.heapMb);
+  }
+
+  private void acquire(Job job) throws InterruptedException {
+    lock.lock();
+    try {
+      waiting.addLast(job);
+      try {
+        while (!canStart(job)) {
+          log.info(
+              "Job waits for {} cores and {}Mb, free {} cores and {}Mb, waiting jobs - {}",
+              job.cores,
+              job.heapMb,
+              freeCores,
+              freeHeapMb,
+              waiting.size());
+          changed.await();
+        }
+      } finally {
+        waiting.remove(job);
+        // The head of the queue could change
+        changed.signalAll();
+      }
+      freeCores -= job.cores;
+      freeHeapMb -= job.heapMb;
+      log.info(
+          "Job started with {} cores and {}Mb, free {} cores and {}Mb",
+          job.cores,
+          job.heapMb,
+          freeCores,
+          freeHeapMb);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void release(Job job) {
+    lock.lock();
+    try {
+      freeCores += job.cores;
+      freeHeapMb += job.heapMb;
+      changed.signalAll();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private boolean canStart(Job job) {
+    Job oldest = waiting.peekFirst();
+    long reserveAfterMs = TimeUnit.MINUTES.toMillis(config.reserveAfterMin);
+    if (oldest != null
+        && oldest != job
+        && System.currentTimeMillis() - oldest.created >= reserveAfterMs) {
+      return false;
+    }
+    return job.cores <= freeCores && job.heapMb <= freeHeapMb;
+  }
+
+  private static ThreadFactory threadFactory() {
+    String prefix = "standalone-" + POOL_COUNTER.incrementAndGet() + "-";
+    AtomicInteger counter = new AtomicInteger();
+    return r -> {
+      Thread t = new Thread(r, prefix + counter.incrementAndGet());
+      t.setDaemon(true);
+      return t;
+    };
+  }
+
+  private static class Job {
+    private final int cores;
+    private final long heapMb;
+    private final long created = System.currentTimeMillis();
+
+    private Job(int cores, long heapMb) {
+      this.cores = cores;
+      this.heapMb = heapMb;
+    }
+  }
+}
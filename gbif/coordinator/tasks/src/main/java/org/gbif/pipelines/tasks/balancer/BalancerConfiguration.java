@@ -36,4 +36,12 @@ public class BalancerConfiguration {
 
   @Parameter(names = "--validator-repository-path")
   public String validatorRepositoryPath;
+
+  // Limits of a STANDALONE run predicted by the step cost model
+
+  @Parameter(names = "--standalone-memory-budget-mb")
+  public long standaloneMemoryBudgetMb = 8_192L;
+
+  @Parameter(names = "--standalone-max-runtime-min")
+  public long standaloneMaxRuntimeMin = 60L;
 }
@@ -4,14 +4,17 @@ import static org.gbif.pipelines.common.ValidatorPredicate.isValidator;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.gbif.api.model.pipelines.InterpretationType.RecordType;
 import org.gbif.api.model.pipelines.StepRunner;
+import org.gbif.api.model.pipelines.StepType;
 import org.gbif.api.vocabulary.DatasetType;
 import org.gbif.common.messaging.api.MessagePublisher;
 import org.gbif.common.messaging.api.messages.PipelinesBalancerMessage;
@@ -20,6 +23,8 @@ import org.gbif.common.messaging.api.messages.PipelinesInterpretedMessage;
 import org.gbif.pipelines.common.PipelinesVariables.Pipeline;
 import org.gbif.pipelines.common.PipelinesVariables.Pipeline.Conversion;
 import org.gbif.pipelines.common.configs.StepConfiguration;
+import org.gbif.pipelines.common.process.StepCost;
+import org.gbif.pipelines.common.process.StepCostModel;
 import org.gbif.pipelines.common.utils.HdfsUtils;
 import org.gbif.pipelines.core.pojo.HdfsConfigs;
 import org.gbif.pipelines.tasks.balancer.BalancerConfiguration;
@@ -94,8 +99,9 @@ public class InterpretedMessageHandler {
   }
 
   /**
-   * Computes runner type: Strategy 1 - Chooses a runner type by number of records in a dataset
-   * Strategy 2 - Chooses a runner type by calculating verbatim.avro file size
+   * Computes runner type: Strategy 0 - Chooses a runner type by the step cost models of indexing
+   * and hdfs view steps, see {@link StepCostModel} Strategy 1 - Chooses a runner type by number of
+   * records in a dataset Strategy 2 - Chooses a runner type by calculating verbatim.avro file size
    */
   private static StepRunner computeRunner(
       BalancerConfiguration config, PipelinesInterpretedMessage message) throws IOException {
@@ -106,6 +112,15 @@ public class InterpretedMessageHandler {
     StepRunner runner;
     long recordsNumber = Optional.ofNullable(message.getNumberOfRecords()).orElse(0L);
 
+    // Strategy 0: Chooses a runner type by predicted peak memory and runtime
+    if (recordsNumber > 0 && !isValidator(message.getPipelineSteps())) {
+      Optional<StepRunner> predicted = predictRunner(config, message, recordsNumber);
+      if (predicted.isPresent()) {
+        log.info("Records number - {}, predicted Runner type - {}", recordsNumber, predicted.get());
+        return predicted.get();
+      }
+    }
+
     // Strategy 1: Chooses a runner type by number of records in a dataset
     if (recordsNumber > 0) {
 
@@ -139,4 +154,27 @@ public class InterpretedMessageHandler {
 
     throw new IllegalStateException("Runner computation is failed " + datasetId);
   }
+
+  /** STANDALONE only if both steps fit the limits, empty if any model can't predict */
+  private static Optional<StepRunner> predictRunner(
+      BalancerConfiguration config, PipelinesInterpretedMessage message, long recordsNumber) {
+    String datasetType = message.getDatasetType() != null ? message.getDatasetType().name() : null;
+    int extensionsNumber = StepCost.countExtensions(message.getInterpretTypes());
+    long maxRuntimeMs = TimeUnit.MINUTES.toMillis(config.standaloneMaxRuntimeMin);
+
+    StepRunner result = StepRunner.STANDALONE;
+    for (StepType stepType : Arrays.asList(StepType.INTERPRETED_TO_INDEX, StepType.HDFS_VIEW)) {
+      Optional<StepRunner> runner =
+          StepCostModel.load(config.stepConfig, stepType, datasetType)
+              .chooseRunner(
+                  recordsNumber, extensionsNumber, config.standaloneMemoryBudgetMb, maxRuntimeMs);
+      if (!runner.isPresent()) {
+        return Optional.empty();
+      }
+      if (runner.get() == StepRunner.DISTRIBUTED) {
+        result = StepRunner.DISTRIBUTED;
+      }
+    }
+    return Optional.of(result);
+  }
 }
@@ -7,12 +7,14 @@ import java.io.IOException;
 import java.util.HashSet;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.gbif.api.model.pipelines.InterpretationType.RecordType;
 import org.gbif.api.model.pipelines.StepRunner;
+import org.gbif.api.model.pipelines.StepType;
 import org.gbif.api.vocabulary.DatasetType;
 import org.gbif.common.messaging.api.MessagePublisher;
 import org.gbif.common.messaging.api.messages.PipelinesBalancerMessage;
@@ -23,6 +25,8 @@ import org.gbif.pipelines.common.PipelinesVariables.Metrics;
 import org.gbif.pipelines.common.PipelinesVariables.Pipeline;
 import org.gbif.pipelines.common.PipelinesVariables.Pipeline.Conversion;
 import org.gbif.pipelines.common.configs.StepConfiguration;
+import org.gbif.pipelines.common.process.StepCost;
+import org.gbif.pipelines.common.process.StepCostModel;
 import org.gbif.pipelines.common.utils.HdfsUtils;
 import org.gbif.pipelines.core.pojo.HdfsConfigs;
 import org.gbif.pipelines.tasks.balancer.BalancerConfiguration;
@@ -136,8 +140,9 @@ public class VerbatimMessageHandler {
   }
 
   /**
-   * Computes runner type: Strategy 1 - Chooses a runner type by number of records in a dataset
-   * Strategy 2 - Chooses a runner type by calculating verbatim.avro file size
+   * Computes runner type: Strategy 0 - Chooses a runner type by the step cost model, see {@link
+   * StepCostModel} Strategy 1 - Chooses a runner type by number of records in a dataset Strategy 2
+   * - Chooses a runner type by calculating verbatim.avro file size
    */
   private static StepRunner computeRunner(
       BalancerConfiguration config, PipelinesVerbatimMessage message, long recordsNumber)
@@ -148,6 +153,23 @@ public class VerbatimMessageHandler {
 
     StepRunner runner;
 
+    // Strategy 0: Chooses a runner type by predicted peak memory and runtime
+    if (recordsNumber > 0 && !isValidator(message.getPipelineSteps())) {
+      String datasetType =
+          message.getDatasetType() != null ? message.getDatasetType().name() : null;
+      Optional<StepRunner> predicted =
+          StepCostModel.load(config.stepConfig, StepType.VERBATIM_TO_INTERPRETED, datasetType)
+              .chooseRunner(
+                  recordsNumber,
+                  StepCost.countExtensions(message.getInterpretTypes()),
+                  config.standaloneMemoryBudgetMb,
+                  TimeUnit.MINUTES.toMillis(config.standaloneMaxRuntimeMin));
+      if (predicted.isPresent()) {
+        log.info("Records number - {}, predicted Runner type - {}", recordsNumber, predicted.get());
+        return predicted.get();
+      }
+    }
+
     // Strategy 1: Chooses a runner type by number of records in a dataset
     if (recordsNumber > 0) {
 
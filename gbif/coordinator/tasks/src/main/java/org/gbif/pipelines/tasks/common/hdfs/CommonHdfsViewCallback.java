@@ -4,13 +4,13 @@ import com.google.common.base.Strings;
 import java.io.IOException;
 import java.util.Collections;
 import java.util.Set;
-import java.util.concurrent.ExecutorService;
 import java.util.function.Predicate;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.gbif.api.model.pipelines.InterpretationType.RecordType;
 import org.gbif.api.model.pipelines.StepRunner;
 import org.gbif.api.model.pipelines.StepType;
+import org.gbif.api.vocabulary.DatasetType;
 import org.gbif.common.messaging.api.messages.PipelinesEventsInterpretedMessage;
 import org.gbif.common.messaging.api.messages.PipelinesInterpretationMessage;
 import org.gbif.common.messaging.api.messages.PipelinesInterpretedMessage;
@@ -22,9 +22,12 @@ import org.gbif.pipelines.common.process.BeamParametersBuilder;
 import org.gbif.pipelines.common.process.BeamParametersBuilder.BeamParameters;
 import org.gbif.pipelines.common.process.RecordCountReader;
 import org.gbif.pipelines.common.process.SparkDynamicSettings;
+import org.gbif.pipelines.common.process.StepCost;
+import org.gbif.pipelines.common.process.StepCostModel;
 import org.gbif.pipelines.common.utils.HdfsUtils;
 import org.gbif.pipelines.core.pojo.HdfsConfigs;
 import org.gbif.pipelines.ingest.java.pipelines.HdfsViewPipeline;
+import org.gbif.pipelines.tasks.StandaloneScheduler;
 import org.gbif.pipelines.tasks.events.interpretation.EventsInterpretationConfiguration;
 import org.gbif.pipelines.tasks.occurrences.interpretation.InterpreterConfiguration;
 import org.gbif.pipelines.tasks.verbatims.dwca.DwcaToAvroConfiguration;
@@ -35,7 +38,7 @@ import org.gbif.pipelines.tasks.verbatims.dwca.DwcaToAvroConfiguration;
 public class CommonHdfsViewCallback {
 
   private final HdfsViewConfiguration config;
-  private final ExecutorService executor;
+  private final StandaloneScheduler scheduler;
 
   /** Main message processing logic, creates a terminal java process, which runs */
   public Runnable createRunnable(PipelinesInterpretationMessage message) {
@@ -55,7 +58,7 @@ public class CommonHdfsViewCallback {
         if (runnerPr.test(StepRunner.DISTRIBUTED)) {
           runDistributed(message, beamParameters);
         } else if (runnerPr.test(StepRunner.STANDALONE)) {
-          runLocal(beamParameters);
+          runLocal(message, beamParameters);
         }
       } catch (Exception ex) {
         log.error(ex.getMessage(), ex);
@@ -86,8 +89,17 @@ public class CommonHdfsViewCallback {
     return true;
   }
 
-  private void runLocal(BeamParameters beamParameters) {
-    HdfsViewPipeline.run(beamParameters.toArray(), executor);
+  private void runLocal(PipelinesInterpretationMessage message, BeamParameters beamParameters)
+      throws InterruptedException {
+    Long recordsNumber = null;
+    if (message instanceof PipelinesInterpretedMessage) {
+      recordsNumber = ((PipelinesInterpretedMessage) message).getNumberOfRecords();
+    } else if (message instanceof PipelinesEventsInterpretedMessage) {
+      recordsNumber = ((PipelinesEventsInterpretedMessage) message).getNumberOfEventRecords();
+    }
+    scheduler.run(
+        recordsNumber == null ? 0L : recordsNumber,
+        e -> HdfsViewPipeline.run(beamParameters.toArray(), e));
   }
 
   private void runDistributed(PipelinesInterpretationMessage message, BeamParameters beamParameters)
@@ -131,8 +143,10 @@ public class CommonHdfsViewCallback {
     log.info("Calculate job's settings based on {} records", recordsNumber);
     boolean useMemoryExtraCoef =
         config.sparkConfig.extraCoefDatasetSet.contains(message.getDatasetUuid().toString());
+    double widthCoef = useMemoryExtraCoef ? 1d : computeWidthCoef(message);
     SparkDynamicSettings sparkDynamicSettings =
-        SparkDynamicSettings.create(config.sparkConfig, recordsNumber, useMemoryExtraCoef);
+        SparkDynamicSettings.create(
+            config.sparkConfig, recordsNumber, useMemoryExtraCoef, widthCoef);
 
     // App name
     String sparkAppName =
@@ -149,6 +163,18 @@ public class CommonHdfsViewCallback {
         .submitAwaitVoid();
   }
 
+  /** Memory multiplier for wide records, learned from the step history */
+  private double computeWidthCoef(PipelinesInterpretationMessage message) {
+    String datasetType = null;
+    if (message instanceof PipelinesInterpretedMessage) {
+      DatasetType type = ((PipelinesInterpretedMessage) message).getDatasetType();
+      datasetType = type != null ? type.name() : null;
+    }
+    return StepCostModel.load(config.stepConfig, config.stepType, datasetType)
+        .widthCoef(
+            StepCost.countExtensions(message.getInterpretTypes()), config.sparkConfig.maxWidthCoef);
+  }
+
   private int computeNumberOfShards(PipelinesInterpretationMessage message) throws IOException {
     String datasetId = message.getDatasetUuid().toString();
     String attempt = Integer.toString(message.getAttempt());
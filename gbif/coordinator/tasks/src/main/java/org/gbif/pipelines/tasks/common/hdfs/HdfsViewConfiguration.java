@@ -21,6 +21,9 @@ public class HdfsViewConfiguration implements BaseConfiguration {
   @ParametersDelegate @Valid @NotNull
   public AirflowConfiguration airflowConfig = new AirflowConfiguration();
 
+  @ParametersDelegate @Valid
+  public StandaloneSchedulerConfiguration schedulerConfig = new StandaloneSchedulerConfiguration();
+
   @Parameter(names = "--repository-target-path")
   @NotNull
   public String repositoryTargetPath;
@@ -76,4 +79,9 @@ public class HdfsViewConfiguration implements BaseConfiguration {
   public boolean eventsEnabled() {
     return stepConfig.eventsEnabled;
   }
+
+  @Override
+  public String getCostHistoryPath() {
+    return stepConfig.costHistoryPath;
+  }
 }
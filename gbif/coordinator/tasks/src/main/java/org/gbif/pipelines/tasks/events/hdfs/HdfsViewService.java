@@ -10,6 +10,7 @@ import org.gbif.common.messaging.api.MessagePublisher;
 import org.gbif.common.messaging.api.messages.PipelinesInterpretationMessage;
 import org.gbif.pipelines.common.configs.StepConfiguration;
 import org.gbif.pipelines.tasks.ServiceFactory;
+import org.gbif.pipelines.tasks.StandaloneScheduler;
 import org.gbif.pipelines.tasks.common.hdfs.CommonHdfsViewCallback;
 import org.gbif.pipelines.tasks.common.hdfs.HdfsViewConfiguration;
 import org.gbif.registry.ws.client.DatasetClient;
@@ -51,7 +52,9 @@ public class HdfsViewService extends AbstractIdleService {
             .publisher(publisher)
             .historyClient(historyClient)
             .datasetClient(datasetClient)
-            .commonHdfsViewCallback(CommonHdfsViewCallback.create(config, executor))
+            .commonHdfsViewCallback(
+                CommonHdfsViewCallback.create(
+                    config, StandaloneScheduler.create(config.schedulerConfig, executor)))
             .build();
 
     listener.listen(c.queueName, callback.getRouting(), c.poolSize, callback);
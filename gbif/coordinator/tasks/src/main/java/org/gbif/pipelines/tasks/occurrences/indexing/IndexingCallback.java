@@ -5,7 +5,6 @@ import static org.gbif.pipelines.common.ValidatorPredicate.isValidator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.base.Strings;
 import java.util.Collections;
-import java.util.concurrent.ExecutorService;
 import java.util.function.Predicate;
 import lombok.Builder;
 import lombok.extern.slf4j.Slf4j;
@@ -24,8 +23,11 @@ import org.gbif.pipelines.common.process.BeamParametersBuilder;
 import org.gbif.pipelines.common.process.BeamParametersBuilder.BeamParameters;
 import org.gbif.pipelines.common.process.RecordCountReader;
 import org.gbif.pipelines.common.process.SparkDynamicSettings;
+import org.gbif.pipelines.common.process.StepCost;
+import org.gbif.pipelines.common.process.StepCostModel;
 import org.gbif.pipelines.ingest.java.pipelines.InterpretedToEsIndexExtendedPipeline;
 import org.gbif.pipelines.tasks.PipelinesCallback;
+import org.gbif.pipelines.tasks.StandaloneScheduler;
 import org.gbif.pipelines.tasks.StepHandler;
 import org.gbif.pipelines.tasks.occurrences.interpretation.InterpreterConfiguration;
 import org.gbif.pipelines.tasks.verbatims.dwca.DwcaToAvroConfiguration;
@@ -47,7 +49,7 @@ public class IndexingCallback extends AbstractMessageCallback<PipelinesInterpret
   private final PipelinesHistoryClient historyClient;
   private final ValidationWsClient validationClient;
   private final DatasetClient datasetClient;
-  private final ExecutorService executor;
+  private final StandaloneScheduler scheduler;
 
   @Override
   public void handleMessage(PipelinesInterpretedMessage message) {
@@ -161,7 +163,7 @@ public class IndexingCallback extends AbstractMessageCallback<PipelinesInterpret
         if (runnerPr.test(StepRunner.DISTRIBUTED)) {
           runDistributed(message, beamParameters, recordsNumber);
         } else if (runnerPr.test(StepRunner.STANDALONE)) {
-          runLocal(beamParameters);
+          runLocal(beamParameters, recordsNumber);
         }
       } catch (Exception ex) {
         log.error(ex.getMessage(), ex);
@@ -182,8 +184,10 @@ public class IndexingCallback extends AbstractMessageCallback<PipelinesInterpret
         message.getEndpointType());
   }
 
-  private void runLocal(BeamParameters beamParameters) {
-    InterpretedToEsIndexExtendedPipeline.run(beamParameters.toArray(), executor);
+  private void runLocal(BeamParameters beamParameters, long recordsNumber)
+      throws InterruptedException {
+    scheduler.run(
+        recordsNumber, e -> InterpretedToEsIndexExtendedPipeline.run(beamParameters.toArray(), e));
   }
 
   private void runDistributed(
@@ -192,8 +196,10 @@ public class IndexingCallback extends AbstractMessageCallback<PipelinesInterpret
     // Spark dynamic settings
     boolean useMemoryExtraCoef =
         config.sparkConfig.extraCoefDatasetSet.contains(message.getDatasetUuid().toString());
+    double widthCoef = useMemoryExtraCoef ? 1d : computeWidthCoef(message);
     SparkDynamicSettings sparkSettings =
-        SparkDynamicSettings.create(config.sparkConfig, recordsNumber, useMemoryExtraCoef);
+        SparkDynamicSettings.create(
+            config.sparkConfig, recordsNumber, useMemoryExtraCoef, widthCoef);
 
     // App name
     String sparkAppName =
@@ -210,6 +216,14 @@ public class IndexingCallback extends AbstractMessageCallback<PipelinesInterpret
         .submitAwaitVoid();
   }
 
+  /** Memory multiplier for wide records, learned from the step history */
+  private double computeWidthCoef(PipelinesInterpretedMessage message) {
+    String datasetType = message.getDatasetType() != null ? message.getDatasetType().name() : null;
+    return StepCostModel.load(config.stepConfig, getType(message), datasetType)
+        .widthCoef(
+            StepCost.countExtensions(message.getInterpretTypes()), config.sparkConfig.maxWidthCoef);
+  }
+
   private StepType getType(PipelinesInterpretedMessage message) {
     boolean isValidator = isValidator(message.getPipelineSteps(), config.validatorOnly);
     return isValidator ? StepType.VALIDATOR_INTERPRETED_TO_INDEX : StepType.INTERPRETED_TO_INDEX;
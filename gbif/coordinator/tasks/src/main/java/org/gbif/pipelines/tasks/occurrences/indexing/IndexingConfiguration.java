@@ -25,6 +25,9 @@ public class IndexingConfiguration implements BaseConfiguration {
   @ParametersDelegate @Valid @NotNull
   public AirflowConfiguration airflowConfig = new AirflowConfiguration();
 
+  @ParametersDelegate @Valid
+  public StandaloneSchedulerConfiguration schedulerConfig = new StandaloneSchedulerConfiguration();
+
   @Parameter(names = "--meta-file-name")
   public String metaFileName = Pipeline.OCCURRENCE_TO_INDEX + ".yml";
 
@@ -76,4 +79,9 @@ public class IndexingConfiguration implements BaseConfiguration {
   public boolean eventsEnabled() {
     return stepConfig.eventsEnabled;
   }
+
+  @Override
+  public String getCostHistoryPath() {
+    return stepConfig.costHistoryPath;
+  }
 }
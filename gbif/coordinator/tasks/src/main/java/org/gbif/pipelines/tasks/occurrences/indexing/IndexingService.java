@@ -13,6 +13,7 @@ import org.gbif.common.messaging.MessageListener;
 import org.gbif.common.messaging.api.MessagePublisher;
 import org.gbif.pipelines.common.configs.StepConfiguration;
 import org.gbif.pipelines.tasks.ServiceFactory;
+import org.gbif.pipelines.tasks.StandaloneScheduler;
 import org.gbif.registry.ws.client.DatasetClient;
 import org.gbif.registry.ws.client.pipelines.PipelinesHistoryClient;
 import org.gbif.validator.ws.client.ValidationWsClient;
@@ -66,7 +67,7 @@ public class IndexingService extends AbstractIdleService {
             .historyClient(historyClient)
             .httpClient(httpClient)
             .validationClient(validationClient)
-            .executor(executor)
+            .scheduler(StandaloneScheduler.create(config.schedulerConfig, executor))
             .datasetClient(datasetClient)
             .build();
 
@@ -10,7 +10,6 @@ import java.io.IOException;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Optional;
-import java.util.concurrent.ExecutorService;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import lombok.Builder;
@@ -23,6 +22,7 @@ import org.gbif.common.messaging.AbstractMessageCallback;
 import org.gbif.common.messaging.api.MessagePublisher;
 import org.gbif.common.messaging.api.messages.PipelinesInterpretedMessage;
 import org.gbif.common.messaging.api.messages.PipelinesVerbatimMessage;
+import org.gbif.common.messaging.api.messages.PipelinesVerbatimMessage.ValidationResult;
 import org.gbif.common.parsers.date.DateComponentOrdering;
 import org.gbif.dwc.terms.DwcTerm;
 import org.gbif.pipelines.common.GbifApi;
@@ -36,10 +36,13 @@ import org.gbif.pipelines.common.process.BeamParametersBuilder;
 import org.gbif.pipelines.common.process.BeamParametersBuilder.BeamParameters;
 import org.gbif.pipelines.common.process.RecordCountReader;
 import org.gbif.pipelines.common.process.SparkDynamicSettings;
+import org.gbif.pipelines.common.process.StepCost;
+import org.gbif.pipelines.common.process.StepCostModel;
 import org.gbif.pipelines.common.utils.HdfsUtils;
 import org.gbif.pipelines.core.pojo.HdfsConfigs;
 import org.gbif.pipelines.ingest.java.pipelines.VerbatimToOccurrencePipeline;
 import org.gbif.pipelines.tasks.PipelinesCallback;
+import org.gbif.pipelines.tasks.StandaloneScheduler;
 import org.gbif.pipelines.tasks.StepHandler;
 import org.gbif.pipelines.tasks.verbatims.dwca.DwcaToAvroConfiguration;
 import org.gbif.registry.ws.client.DatasetClient;
@@ -58,7 +61,7 @@ public class InterpretationCallback extends AbstractMessageCallback<PipelinesVer
   private final ValidationWsClient validationClient;
   private final DatasetClient datasetClient;
   private final CloseableHttpClient httpClient;
-  private final ExecutorService executor;
+  private final StandaloneScheduler scheduler;
 
   @Override
   public void handleMessage(PipelinesVerbatimMessage message) {
@@ -154,7 +157,7 @@ public class InterpretationCallback extends AbstractMessageCallback<PipelinesVer
         if (runnerPr.test(StepRunner.DISTRIBUTED)) {
           runDistributed(message, beamParameters);
         } else if (runnerPr.test(StepRunner.STANDALONE)) {
-          runLocal(beamParameters);
+          runLocal(message, beamParameters);
         }
 
         log.info("Deleting old attempts directories");
@@ -174,7 +177,16 @@ public class InterpretationCallback extends AbstractMessageCallback<PipelinesVer
 
   private int computeNumberOfShards(PipelinesVerbatimMessage message) {
     Long numberOfRecords = message.getValidationResult().getNumberOfRecords();
-    return HdfsViewSettings.computeNumberOfShards(config.avroConfig, numberOfRecords);
+    return HdfsViewSettings.computeNumberOfShards(
+        config.avroConfig, numberOfRecords, computeWidthCoef(message));
+  }
+
+  /** Memory and size multiplier for wide records, learned from the step history */
+  private double computeWidthCoef(PipelinesVerbatimMessage message) {
+    String datasetType = message.getDatasetType() != null ? message.getDatasetType().name() : null;
+    return StepCostModel.load(config.stepConfig, getType(message), datasetType)
+        .widthCoef(
+            StepCost.countExtensions(message.getInterpretTypes()), config.sparkConfig.maxWidthCoef);
   }
 
   @Override
@@ -204,8 +216,14 @@ public class InterpretationCallback extends AbstractMessageCallback<PipelinesVer
         message.getDatasetType());
   }
 
-  private void runLocal(BeamParameters beamParameters) {
-    VerbatimToOccurrencePipeline.run(beamParameters.toArray(), executor);
+  private void runLocal(PipelinesVerbatimMessage message, BeamParameters beamParameters)
+      throws InterruptedException {
+    long recordsNumber =
+        Optional.ofNullable(message.getValidationResult())
+            .map(ValidationResult::getNumberOfRecords)
+            .orElse(0L);
+    scheduler.run(
+        recordsNumber, e -> VerbatimToOccurrencePipeline.run(beamParameters.toArray(), e));
   }
 
   private void runDistributed(PipelinesVerbatimMessage message, BeamParameters beamParameters)
@@ -232,8 +250,10 @@ public class InterpretationCallback extends AbstractMessageCallback<PipelinesVer
     boolean useMemoryExtraCoef =
         config.sparkConfig.extraCoefDatasetSet.contains(message.getDatasetUuid().toString());
 
+    double widthCoef = useMemoryExtraCoef ? 1d : computeWidthCoef(message);
     SparkDynamicSettings sparkSettings =
-        SparkDynamicSettings.create(config.sparkConfig, recordsNumber, useMemoryExtraCoef);
+        SparkDynamicSettings.create(
+            config.sparkConfig, recordsNumber, useMemoryExtraCoef, widthCoef);
 
     // App name
     String sparkAppName =
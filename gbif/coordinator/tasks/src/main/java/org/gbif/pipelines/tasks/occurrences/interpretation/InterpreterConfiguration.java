@@ -22,6 +22,9 @@ public class InterpreterConfiguration implements BaseConfiguration {
   @ParametersDelegate @Valid @NotNull
   public AvroWriteConfiguration avroConfig = new AvroWriteConfiguration();
 
+  @ParametersDelegate @Valid
+  public StandaloneSchedulerConfiguration schedulerConfig = new StandaloneSchedulerConfiguration();
+
   @Parameter(names = "--meta-file-name")
   public String metaFileName = Pipeline.VERBATIM_TO_OCCURRENCE + ".yml";
 
@@ -76,4 +79,9 @@ public class InterpreterConfiguration implements BaseConfiguration {
   public boolean eventsEnabled() {
     return stepConfig.eventsEnabled;
   }
+
+  @Override
+  public String getCostHistoryPath() {
+    return stepConfig.costHistoryPath;
+  }
 }
@@ -101,6 +101,7 @@ public class DwcaMetricsCollector implements MetricsCollector {
             .corePrefix(config.corePrefix)
             .extensionsPrefix(config.extensionsPrefix)
             .esHost(config.esConfig.hosts)
+            .indexedFieldCounts(IndexedFieldCounts.read(config.stepConfig, message))
             .build()
             .collect();
 
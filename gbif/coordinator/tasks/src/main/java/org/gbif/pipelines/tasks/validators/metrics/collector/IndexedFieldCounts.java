@@ -0,0 +1,49 @@
+package org.gbif.pipelines.tasks.validators.metrics.collector;
+
+import static org.gbif.pipelines.common.PipelinesVariables.Metrics.ATTEMPTED;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.gbif.api.model.pipelines.PipelineStep.MetricInfo;
+import org.gbif.common.messaging.api.messages.PipelinesIndexedMessage;
+import org.gbif.pipelines.common.configs.StepConfiguration;
+import org.gbif.pipelines.common.utils.HdfsUtils;
+import org.gbif.pipelines.core.pojo.HdfsConfigs;
+import org.gbif.pipelines.core.utils.RecordFieldsUtils;
+
+/**
+ * Reads counts of documents by indexed field, which the indexing pipeline saves next to its
+ * metrics file, see {@link RecordFieldsUtils#indexedFieldCountsPath}
+ */
+@Slf4j
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+class IndexedFieldCounts {
+
+  /** Returns counts by field name, or null if the file doesn't exist */
+  static Map<String, Long> read(StepConfiguration stepConfig, PipelinesIndexedMessage message) {
+    String datasetId = message.getDatasetUuid().toString();
+    String attempt = message.getAttempt().toString();
+
+    String path =
+        RecordFieldsUtils.indexedFieldCountsPath(stepConfig.repositoryPath, datasetId, attempt);
+    HdfsConfigs hdfsConfigs =
+        HdfsConfigs.create(stepConfig.hdfsSiteConfig, stepConfig.coreSiteConfig);
+
+    List<MetricInfo> metricInfos = HdfsUtils.readMetricsFromMetaFile(hdfsConfigs, path);
+    if (metricInfos.isEmpty()) {
+      log.info("Indexed field counts are not found - {}, ES will be queried", path);
+      return null;
+    }
+
+    return metricInfos.stream()
+        .collect(
+            Collectors.toMap(
+                mi -> mi.getName().replace(ATTEMPTED, ""),
+                mi -> Long.parseLong(mi.getValue()),
+                Long::sum));
+  }
+}
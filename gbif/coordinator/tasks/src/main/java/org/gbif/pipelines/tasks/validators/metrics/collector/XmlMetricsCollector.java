@@ -64,6 +64,7 @@ public class XmlMetricsCollector implements MetricsCollector {
             .corePrefix(config.corePrefix)
             .extensionsPrefix(config.extensionsPrefix)
             .esHost(config.esConfig.hosts)
+            .indexedFieldCounts(IndexedFieldCounts.read(config.stepConfig, message))
             .build()
             .collect();
 
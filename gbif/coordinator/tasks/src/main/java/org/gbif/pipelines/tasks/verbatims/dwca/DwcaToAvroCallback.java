@@ -147,6 +147,7 @@ public class DwcaToAvroCallback extends AbstractMessageCallback<PipelinesDwcaMes
           HdfsConfigs.create(config.stepConfig.hdfsSiteConfig, config.stepConfig.coreSiteConfig);
       // Run main conversion process
       DwcaToAvroConverter.create()
+          .readerParallelism(config.dwcaReaderParallelism)
           .codecFactory(CodecFactory.fromString(config.avroConfig.compressionType))
           .syncInterval(config.avroConfig.syncInterval)
           .hdfsConfigs(hdfsConfigs)
@@ -5,6 +5,7 @@ import com.beust.jcommander.ParametersDelegate;
 import java.util.Collections;
 import java.util.Set;
 import javax.validation.Valid;
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
 import lombok.ToString;
 import org.gbif.api.model.pipelines.InterpretationType.RecordType;
@@ -26,6 +27,10 @@ public class DwcaToAvroConfiguration implements BaseConfiguration {
   @Parameter(names = "--meta-file-name")
   public String metaFileName = Pipeline.ARCHIVE_TO_VERBATIM + ".yml";
 
+  @Parameter(names = "--dwca-reader-parallelism")
+  @Min(1)
+  public int dwcaReaderParallelism = 1;
+
   @Parameter(names = "--archive-repository")
   @NotNull
   public String archiveRepository;
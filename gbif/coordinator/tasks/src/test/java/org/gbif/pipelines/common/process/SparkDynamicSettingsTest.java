@@ -183,4 +183,20 @@ public class SparkDynamicSettingsTest {
     assertEquals(CONFIG.executorInstancesMax, sparkSettings.getExecutorNumbers());
     assertEquals(CONFIG.executorMemoryGbMax, sparkSettings.getExecutorMemory());
   }
+
+  @Test
+  public void m10RecordsWidthCoefSettingsTest() {
+
+    // State
+    long fileRecordsNumber = 10_000_000;
+
+    // When
+    SparkDynamicSettings sparkSettings =
+        SparkDynamicSettings.create(CONFIG, fileRecordsNumber, false, 2d);
+
+    // Should
+    assertNotNull(sparkSettings);
+    assertEquals(4, sparkSettings.getExecutorNumbers());
+    assertEquals(20, sparkSettings.getExecutorMemory());
+  }
 }
@@ -0,0 +1,37 @@
+package org.gbif.pipelines.common.process;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import org.gbif.pipelines.common.process.StepCostHistory.PeakHeap;
+import org.junit.Test;
+
+public class StepCostHistoryTest {
+
+  @Test
+  public void peakHeapTest() {
+    // When
+    PeakHeap peakHeap = StepCostHistory.startPeakHeap();
+    Long peakHeapMb = peakHeap.stopMb();
+
+    // Should
+    assertNotNull(peakHeapMb);
+  }
+
+  @Test
+  public void concurrentPeakHeapTest() {
+    // State
+    PeakHeap first = StepCostHistory.startPeakHeap();
+    PeakHeap second = StepCostHistory.startPeakHeap();
+
+    // When
+    Long secondMb = second.stopMb();
+    Long firstMb = first.stopMb();
+    Long nextMb = StepCostHistory.startPeakHeap().stopMb();
+
+    // Should
+    assertNull(firstMb);
+    assertNull(secondMb);
+    assertNotNull(nextMb);
+  }
+}
@@ -0,0 +1,113 @@
+package org.gbif.pipelines.common.process;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import org.gbif.api.model.pipelines.StepRunner;
+import org.junit.Test;
+
+public class StepCostModelTest {
+
+  // memory = 10 * records^0.5 * (1 + ext), runtime = 2 * records
+  private static List<StepCost> history(String datasetType, int size) {
+    List<StepCost> list = new ArrayList<>();
+    for (int i = 1; i <= size; i++) {
+      long records = i * 100_000L;
+      int ext = i % 4;
+      list.add(
+          StepCost.builder()
+              .runner(StepRunner.STANDALONE.name())
+              .datasetType(datasetType)
+              .recordsNumber(records)
+              .extensionsNumber(ext)
+              .runtimeMs(2 * records)
+              .peakMemoryMb(Math.round(10 * Math.sqrt(records) * (1 + ext)))
+              .build());
+    }
+    return list;
+  }
+
+  @Test
+  public void notEnoughSamplesTest() {
+
+    // State
+    StepCostModel model = StepCostModel.fit(history("OCCURRENCE", 5), "OCCURRENCE", 10);
+
+    // When
+    Optional<StepRunner> runner = model.chooseRunner(100_000L, 0, 1_000L, 1_000_000L);
+
+    // Should
+    assertFalse(runner.isPresent());
+    assertEquals(1d, model.widthCoef(3, 4d), 0d);
+  }
+
+  @Test
+  public void predictTest() {
+
+    // State
+    StepCostModel model = StepCostModel.fit(history("OCCURRENCE", 30), "OCCURRENCE", 10);
+
+    // When
+    double memory = model.predictMemoryMb(1_000_000L, 1).get();
+    double runtime = model.predictRuntimeMs(1_000_000L, 0).get();
+
+    // Should
+    assertEquals(20_000d, memory, 200d);
+    assertEquals(2_000_000d, runtime, 20_000d);
+    assertEquals(2d, model.widthCoef(1, 4d), 0.05d);
+    assertEquals(4d, model.widthCoef(7, 4d), 0d);
+  }
+
+  @Test
+  public void chooseRunnerTest() {
+
+    // State
+    StepCostModel model = StepCostModel.fit(history("OCCURRENCE", 30), "OCCURRENCE", 10);
+
+    // When
+    Optional<StepRunner> small = model.chooseRunner(10_000L, 0, 8_192L, 600_000L);
+    Optional<StepRunner> big = model.chooseRunner(10_000_000L, 0, 8_192L, 600_000L);
+    Optional<StepRunner> unknown = model.chooseRunner(1_000_000_000L, 0, 8_192L, 600_000L);
+
+    // Should
+    assertEquals(Optional.of(StepRunner.STANDALONE), small);
+    assertEquals(Optional.of(StepRunner.DISTRIBUTED), big);
+    assertFalse(unknown.isPresent());
+  }
+
+  @Test
+  public void datasetTypeTest() {
+
+    // State
+    List<StepCost> costs = new ArrayList<>(history("OCCURRENCE", 20));
+    for (StepCost c : history("CHECKLIST", 20)) {
+      c.setRuntimeMs(c.getRuntimeMs() * 10);
+      costs.add(c);
+    }
+
+    // When
+    StepCostModel occurrence = StepCostModel.fit(costs, "OCCURRENCE", 10);
+    StepCostModel checklist = StepCostModel.fit(costs, "CHECKLIST", 10);
+
+    // Should
+    assertEquals(2_000_000d, occurrence.predictRuntimeMs(1_000_000L, 0).get(), 20_000d);
+    assertEquals(20_000_000d, checklist.predictRuntimeMs(1_000_000L, 0).get(), 200_000d);
+  }
+
+  @Test
+  public void countExtensionsTest() {
+
+    // When
+    int count =
+        StepCost.countExtensions(
+            Arrays.asList("OCCURRENCE", "MEASUREMENT_OR_FACT_TABLE", "IDENTIFICATION_TABLE"));
+
+    // Should
+    assertEquals(2, count);
+    assertEquals(0, StepCost.countExtensions(null));
+  }
+}
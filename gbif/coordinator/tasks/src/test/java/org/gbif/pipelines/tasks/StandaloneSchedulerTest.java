@@ -0,0 +1,186 @@
+package org.gbif.pipelines.tasks;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.gbif.pipelines.common.configs.StandaloneSchedulerConfiguration;
+import org.junit.After;
+import org.junit.Test;
+
+public class StandaloneSchedulerTest {
+
+  private final ExecutorService callers = Executors.newCachedThreadPool();
+
+  @After
+  public void shutdown() {
+    callers.shutdownNow();
+  }
+
+  private static StandaloneSchedulerConfiguration config(long reserveAfterMin) {
+    StandaloneSchedulerConfiguration config = new StandaloneSchedulerConfiguration();
+    config.enabled = true;
+    config.cores = 4;
+    config.heapMb = 1_000L;
+    config.recordsPerCore = 1L;
+    config.baseHeapMb = 0L;
+    config.heapMbPerMillionRecords = 100_000_000L;
+    config.reserveAfterMin = reserveAfterMin;
+    return config;
+  }
+
+  private void submit(StandaloneScheduler scheduler, long records, Runnable job) {
+    callers.submit(
+        () -> {
+          scheduler.run(records, e -> job.run());
+          return null;
+        });
+  }
+
+  @Test
+  public void demandTest() {
+
+    // State
+    StandaloneSchedulerConfiguration config = new StandaloneSchedulerConfiguration();
+    config.cores = 8;
+    config.heapMb = 4_096L;
+    config.recordsPerCore = 100_000L;
+    config.baseHeapMb = 256L;
+    config.heapMbPerMillionRecords = 1_024L;
+
+    // When
+    StandaloneScheduler scheduler = StandaloneScheduler.create(config, null);
+
+    // Should
+    assertEquals(1, scheduler.computeCores(0L));
+    assertEquals(2, scheduler.computeCores(150_000L));
+    assertEquals(8, scheduler.computeCores(10_000_000L));
+    assertEquals(256L, scheduler.computeHeapMb(0L));
+    assertEquals(1_280L, scheduler.computeHeapMb(1_000_000L));
+    assertEquals(4_096L, scheduler.computeHeapMb(10_000_000L));
+  }
+
+  @Test
+  public void disabledTest() throws InterruptedException {
+
+    // State
+    ExecutorService shared = Executors.newSingleThreadExecutor();
+    StandaloneSchedulerConfiguration config = config(10L);
+    config.enabled = false;
+    AtomicReference<ExecutorService> used = new AtomicReference<>();
+
+    // When
+    StandaloneScheduler.create(config, shared).run(1_000_000_000L, used::set);
+
+    // Should
+    assertEquals(shared, used.get());
+    shared.shutdown();
+  }
+
+  @Test
+  public void concurrentJobsTest() throws InterruptedException {
+
+    // State
+    StandaloneScheduler scheduler = StandaloneScheduler.create(config(10L), null);
+    CountDownLatch bothRunning = new CountDownLatch(2);
+    CountDownLatch finished = new CountDownLatch(2);
+    Runnable job =
+        () -> {
+          bothRunning.countDown();
+          try {
+            bothRunning.await(10, TimeUnit.SECONDS);
+          } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+          }
+          finished.countDown();
+        };
+
+    // When
+    submit(scheduler, 2L, job);
+    submit(scheduler, 2L, job);
+
+    // Should
+    assertTrue(finished.await(10, TimeUnit.SECONDS));
+    assertEquals(0L, bothRunning.getCount());
+  }
+
+  @Test
+  public void bigJobWaitsTest() throws InterruptedException {
+
+    // State
+    StandaloneScheduler scheduler = StandaloneScheduler.create(config(10L), null);
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch bigStarted = new CountDownLatch(1);
+    CountDownLatch smallStarted = new CountDownLatch(1);
+
+    // When
+    submit(
+        scheduler,
+        2L,
+        () -> {
+          started.countDown();
+          await(release);
+        });
+    assertTrue(started.await(10, TimeUnit.SECONDS));
+    submit(scheduler, 4L, bigStarted::countDown);
+    submit(scheduler, 1L, smallStarted::countDown);
+
+    // Should
+    assertTrue(smallStarted.await(10, TimeUnit.SECONDS));
+    assertFalse(bigStarted.await(200, TimeUnit.MILLISECONDS));
+    release.countDown();
+    assertTrue(bigStarted.await(10, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void reservationTest() throws InterruptedException {
+
+    // State
+    StandaloneScheduler scheduler = StandaloneScheduler.create(config(0L), null);
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch started = new CountDownLatch(1);
+    List<String> order = new CopyOnWriteArrayList<>();
+
+    // When
+    submit(
+        scheduler,
+        2L,
+        () -> {
+          started.countDown();
+          await(release);
+        });
+    assertTrue(started.await(10, TimeUnit.SECONDS));
+    submit(scheduler, 4L, () -> order.add("big"));
+    Thread.sleep(200);
+    CountDownLatch smallFinished = new CountDownLatch(1);
+    submit(
+        scheduler,
+        1L,
+        () -> {
+          order.add("small");
+          smallFinished.countDown();
+        });
+
+    // Should
+    assertFalse(smallFinished.await(200, TimeUnit.MILLISECONDS));
+    release.countDown();
+    assertTrue(smallFinished.await(10, TimeUnit.SECONDS));
+    assertEquals("big", order.get(0));
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(10, TimeUnit.SECONDS);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
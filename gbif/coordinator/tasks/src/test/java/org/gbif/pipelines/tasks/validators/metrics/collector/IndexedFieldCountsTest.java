@@ -0,0 +1,73 @@
+package org.gbif.pipelines.tasks.validators.metrics.collector;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import org.gbif.api.vocabulary.EndpointType;
+import org.gbif.common.messaging.api.messages.PipelinesIndexedMessage;
+import org.gbif.pipelines.common.beam.metrics.MetricsHandler;
+import org.gbif.pipelines.common.beam.options.EsIndexingPipelineOptions;
+import org.gbif.pipelines.common.beam.options.PipelinesOptionsFactory;
+import org.gbif.pipelines.common.configs.StepConfiguration;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class IndexedFieldCountsTest {
+
+  private static final UUID DATASET_KEY = UUID.fromString("675a1bfd-9bcc-46ea-a417-1f68f23a10f6");
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void roundTripTest() {
+    // State
+    String repositoryPath = folder.getRoot().getAbsolutePath();
+    EsIndexingPipelineOptions options =
+        PipelinesOptionsFactory.createIndexing(
+            new String[] {
+              "--datasetId=" + DATASET_KEY,
+              "--attempt=2",
+              "--runner=SparkRunner",
+              "--metaFileName=occurrence-to-index.yml",
+              "--inputPath=" + repositoryPath,
+              "--targetPath=" + repositoryPath
+            });
+
+    // When
+    MetricsHandler.saveIndexedFieldCounts(
+        options, "maximumElevationInMetersAttempted: 3\norganismIdAttempted: 1\n", false);
+    Map<String, Long> counts = IndexedFieldCounts.read(stepConfig(repositoryPath), message(2));
+
+    // Should
+    Map<String, Long> expected = new HashMap<>();
+    expected.put("maximumElevationInMeters", 3L);
+    expected.put("organismId", 1L);
+    assertEquals(expected, counts);
+  }
+
+  @Test
+  public void missingFileTest() {
+    // When
+    Map<String, Long> counts =
+        IndexedFieldCounts.read(stepConfig(folder.getRoot().getAbsolutePath()), message(1));
+
+    // Should
+    assertNull(counts);
+  }
+
+  private static StepConfiguration stepConfig(String repositoryPath) {
+    StepConfiguration stepConfig = new StepConfiguration();
+    stepConfig.repositoryPath = repositoryPath;
+    return stepConfig;
+  }
+
+  private static PipelinesIndexedMessage message(int attempt) {
+    return new PipelinesIndexedMessage(
+        DATASET_KEY, attempt, Collections.emptySet(), null, null, EndpointType.DWC_ARCHIVE);
+  }
+}
@@ -3,6 +3,7 @@ package org.gbif.pipelines.keygen;
 import static org.gbif.pipelines.keygen.HBaseLockingKeyService.NUMBER_OF_BUCKETS;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
@@ -11,6 +12,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
@@ -169,6 +171,76 @@ public class HBaseLockingKeyServiceIT {
     HBASE_SERVER.keyService.generateKey(new HashSet<>(Arrays.asList("ABCD", "EFGH")), datasetKey);
   }
 
+  @Test
+  public void testBatchExistingAndNewKeys() {
+    // setup: one of the sets has a key already
+    Set<String> existing = new HashSet<>(Arrays.asList("a", "b"));
+    KeyLookupResult expected = HBASE_SERVER.keyService.generateKey(existing, "boo");
+
+    // test: batch with the existing set, a set sharing a unique id with it and new sets
+    Set<String> sharing = new HashSet<>(Arrays.asList("b", "c"));
+    Set<String> new1 = Collections.singleton("d");
+    Set<String> new2 = Collections.singleton("e");
+    Map<Set<String>, KeyLookupResult> result =
+        HBASE_SERVER.keyService.generateKeys(Arrays.asList(existing, sharing, new1, new2), "boo");
+
+    assertEquals(4, result.size());
+    assertEquals(expected.getKey(), result.get(existing).getKey());
+    assertFalse(result.get(existing).isCreated());
+    assertEquals(expected.getKey(), result.get(sharing).getKey());
+    assertFalse(result.get(sharing).isCreated());
+    assertTrue(result.get(new1).isCreated());
+    assertTrue(result.get(new2).isCreated());
+    assertNotEquals(result.get(new1).getKey(), result.get(new2).getKey());
+    assertNotEquals(expected.getKey(), result.get(new1).getKey());
+
+    Map<Set<String>, KeyLookupResult> found =
+        HBASE_SERVER.keyService.findKeys(Arrays.asList(existing, new1, new2), "boo");
+    assertEquals(result.get(new1).getKey(), found.get(new1).getKey());
+    assertEquals(result.get(new2).getKey(), found.get(new2).getKey());
+    assertEquals(expected.getKey(), found.get(existing).getKey());
+  }
+
+  @Test
+  public void testBatchConflictingIds() throws IOException {
+    // setup: 2 rows with different lookupkeys and assigned ids
+    String datasetKey = "fakeuuid";
+
+    byte[] lookupKey1 = HBaseStore.saltKey(datasetKey + "|ABCD", NUMBER_OF_BUCKETS);
+    Put put = new Put(lookupKey1);
+    put.addColumn(
+        HbaseServer.CF, Bytes.toBytes(Columns.LOOKUP_STATUS_COLUMN), Bytes.toBytes("ALLOCATED"));
+    put.addColumn(HbaseServer.CF, Bytes.toBytes(Columns.LOOKUP_KEY_COLUMN), Bytes.toBytes(1L));
+    try (Table lookupTable = HBASE_SERVER.connection.getTable(HbaseServer.LOOKUP_TABLE)) {
+      lookupTable.put(put);
+
+      byte[] lookupKey2 = HBaseStore.saltKey(datasetKey + "|EFGH", NUMBER_OF_BUCKETS);
+      put = new Put(lookupKey2);
+      put.addColumn(
+          HbaseServer.CF, Bytes.toBytes(Columns.LOOKUP_STATUS_COLUMN), Bytes.toBytes("ALLOCATED"));
+      put.addColumn(HbaseServer.CF, Bytes.toBytes(Columns.LOOKUP_KEY_COLUMN), Bytes.toBytes(2L));
+      lookupTable.put(put);
+    }
+
+    // test: the conflicting set gets the error key, other sets of the batch get their keys
+    Set<String> conflicting = new HashSet<>(Arrays.asList("ABCD", "EFGH"));
+    Set<String> existing = Collections.singleton("ABCD");
+    Set<String> created = Collections.singleton("IJKL");
+    Map<Set<String>, KeyLookupResult> result =
+        HBASE_SERVER.keyService.generateKeys(
+            Arrays.asList(conflicting, existing, created), datasetKey);
+
+    assertEquals(Keygen.getErrorKey().longValue(), result.get(conflicting).getKey());
+    assertEquals(1L, result.get(existing).getKey());
+    assertTrue(result.get(created).isCreated());
+    assertNotEquals(Keygen.getErrorKey().longValue(), result.get(created).getKey());
+
+    Map<Set<String>, KeyLookupResult> found =
+        HBASE_SERVER.keyService.findKeys(Arrays.asList(conflicting, created), datasetKey);
+    assertEquals(Keygen.getErrorKey().longValue(), found.get(conflicting).getKey());
+    assertEquals(result.get(created).getKey(), found.get(created).getKey());
+  }
+
   @Test
   public void testStaleLock() throws IOException {
     String datasetKey = UUID.randomUUID().toString();
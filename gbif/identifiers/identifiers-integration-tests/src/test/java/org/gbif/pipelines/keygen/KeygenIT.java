@@ -2,12 +2,18 @@ package org.gbif.pipelines.keygen;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import org.gbif.pipelines.keygen.api.KeyLookupResult;
 import org.gbif.pipelines.resources.HbaseServer;
 import org.junit.Before;
@@ -210,4 +216,113 @@ public class KeygenIT {
     // Should
     assertTrue(key.isPresent());
   }
+
+  @Test
+  public void testBatchExistingAndNewKeys() {
+
+    // State
+    SimpleOccurrenceRecord existingRecord = SimpleOccurrenceRecord.create();
+    existingRecord.setOccurrenceId("occurrenceId");
+    existingRecord.setTriplet("triplet");
+
+    SimpleOccurrenceRecord newRecord = SimpleOccurrenceRecord.create();
+    newRecord.setOccurrenceId("newOccurrenceId");
+
+    SimpleOccurrenceRecord emptyRecord = SimpleOccurrenceRecord.create();
+
+    KeyLookupResult expected =
+        HBASE_SERVER.keyService.generateKey(
+            new HashSet<>(Arrays.asList("occurrenceId", "triplet")));
+
+    List<OccurrenceRecord> records = Arrays.asList(existingRecord, newRecord, emptyRecord);
+
+    // When
+    List<Optional<Long>> foundKeys =
+        Keygen.getKeys(HBASE_SERVER.keyService, true, true, false, records);
+    List<Optional<Long>> keys = Keygen.getKeys(HBASE_SERVER.keyService, true, true, true, records);
+    Optional<Long> newKey = Keygen.getKey(HBASE_SERVER.keyService, true, true, false, newRecord);
+
+    // Should
+    assertEquals(
+        Arrays.asList(
+            Optional.of(expected.getKey()), Optional.empty(), Optional.of(Keygen.getErrorKey())),
+        foundKeys);
+
+    assertEquals(3, keys.size());
+    assertEquals(Optional.of(expected.getKey()), keys.get(0));
+    assertTrue(keys.get(1).isPresent());
+    assertNotEquals(keys.get(0), keys.get(1));
+    assertEquals(newKey, keys.get(1));
+    assertEquals(Optional.of(Keygen.getErrorKey()), keys.get(2));
+  }
+
+  @Test
+  public void testBatchFallbackToSingleKeys() {
+
+    // State
+    SimpleOccurrenceRecord existingRecord = SimpleOccurrenceRecord.create();
+    existingRecord.setOccurrenceId("occurrenceId");
+
+    SimpleOccurrenceRecord newRecord = SimpleOccurrenceRecord.create();
+    newRecord.setOccurrenceId("newOccurrenceId");
+
+    KeyLookupResult expected =
+        HBASE_SERVER.keyService.generateKey(Collections.singleton("occurrenceId"));
+
+    // When
+    List<Optional<Long>> keys =
+        Keygen.getKeys(
+            new FailingBatchKeyService(HBASE_SERVER.keyService),
+            true,
+            true,
+            true,
+            Arrays.asList(existingRecord, newRecord));
+
+    // Should
+    assertEquals(Optional.of(expected.getKey()), keys.get(0));
+    assertTrue(keys.get(1).isPresent());
+    assertNotEquals(Optional.of(Keygen.getErrorKey()), keys.get(1));
+    assertEquals(keys.get(1), Keygen.getKey(HBASE_SERVER.keyService, true, true, false, newRecord));
+  }
+
+  /** Delegates to the key service, but fails batch calls */
+  private static class FailingBatchKeyService implements HBaseLockingKey {
+
+    private final HBaseLockingKey keyService;
+
+    private FailingBatchKeyService(HBaseLockingKey keyService) {
+      this.keyService = keyService;
+    }
+
+    @Override
+    public KeyLookupResult generateKey(Set<String> uniqueStrings, String scope) {
+      return keyService.generateKey(uniqueStrings, scope);
+    }
+
+    @Override
+    public KeyLookupResult generateKey(Set<String> uniqueStrings) {
+      return keyService.generateKey(uniqueStrings);
+    }
+
+    @Override
+    public Optional<KeyLookupResult> findKey(Set<String> uniqueStrings, String scope) {
+      return keyService.findKey(uniqueStrings, scope);
+    }
+
+    @Override
+    public Optional<KeyLookupResult> findKey(Set<String> uniqueStrings) {
+      return keyService.findKey(uniqueStrings);
+    }
+
+    @Override
+    public Map<Set<String>, KeyLookupResult> generateKeys(
+        Collection<Set<String>> uniqueStringsList) {
+      throw new IllegalStateException("Batch failed");
+    }
+
+    @Override
+    public void close() {
+      // NOP
+    }
+  }
 }
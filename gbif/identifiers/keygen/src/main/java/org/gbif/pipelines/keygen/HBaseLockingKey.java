@@ -1,5 +1,8 @@
 package org.gbif.pipelines.keygen;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import org.gbif.pipelines.keygen.api.KeyLookupResult;
@@ -14,5 +17,40 @@ public interface HBaseLockingKey {
 
   Optional<KeyLookupResult> findKey(Set<String> uniqueStrings);
 
+  /**
+   * Finds keys for many sets of unique strings, sets without a key are absent in the result. Sets
+   * with inconsistent keys are mapped to the {@link Keygen#getErrorKey()} key. The default
+   * implementation looks keys up one by one.
+   */
+  default Map<Set<String>, KeyLookupResult> findKeys(Collection<Set<String>> uniqueStringsList) {
+    Map<Set<String>, KeyLookupResult> result = new HashMap<>();
+    for (Set<String> uniqueStrings : uniqueStringsList) {
+      try {
+        findKey(uniqueStrings).ifPresent(r -> result.put(uniqueStrings, r));
+      } catch (IllegalStateException ex) {
+        result.put(uniqueStrings, new KeyLookupResult(Keygen.getErrorKey(), false));
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Retrieves or creates keys for many sets of unique strings. Sets with inconsistent keys are
+   * mapped to the {@link Keygen#getErrorKey()} key. The default implementation generates keys one
+   * by one.
+   */
+  default Map<Set<String>, KeyLookupResult> generateKeys(
+      Collection<Set<String>> uniqueStringsList) {
+    Map<Set<String>, KeyLookupResult> result = new HashMap<>();
+    for (Set<String> uniqueStrings : uniqueStringsList) {
+      try {
+        result.put(uniqueStrings, generateKey(uniqueStrings));
+      } catch (IllegalStateException ex) {
+        result.put(uniqueStrings, new KeyLookupResult(Keygen.getErrorKey(), false));
+      }
+    }
+    return result;
+  }
+
   void close();
 }
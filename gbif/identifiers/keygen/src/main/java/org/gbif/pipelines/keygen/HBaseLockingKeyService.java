@@ -7,7 +7,9 @@ import com.google.common.annotations.VisibleForTesting;
 import java.io.Serializable;
 import java.security.SecureRandom;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -54,6 +56,7 @@ public class HBaseLockingKeyService implements HBaseLockingKey, Serializable {
   private static final long serialVersionUID = -3128096563237268387L;
 
   private static final long WAIT_BEFORE_RETRY_MS = 250; // wait when collision
+  private static final long MAX_WAIT_BEFORE_RETRY_MS = 5_000; // max wait for batched retries
   private static final int WAIT_SKEW = 100; // randomises wait to reduce races
   private static final long STALE_LOCK_TIME =
       60 * 1000L; // time to wait for other party to complete
@@ -262,6 +265,225 @@ public class HBaseLockingKeyService implements HBaseLockingKey, Serializable {
     return generateKey(uniqueStrings, datasetId);
   }
 
+  /**
+   * Batched version of {@link #generateKey(Set, String)}. Every round reads the lookup rows of all
+   * pending sets using a single multi-get, takes the locks using a single batch of check-and-mutate
+   * operations and reserves all new keys using a single counter increment. Sets which hit a lock
+   * held by another party release their locks and are retried in the next round with a growing
+   * backoff. Sets with inconsistent keys are mapped to the {@link Keygen#getErrorKey()} key.
+   */
+  public Map<Set<String>, KeyLookupResult> generateKeys(
+      Collection<Set<String>> uniqueStringsList, String scope) {
+    checkNotNull(uniqueStringsList, "uniqueStringsList can't be null");
+    Map<Set<String>, KeyLookupResult> result = new HashMap<>();
+    Map<Set<String>, Set<String>> pending = buildLookupKeys(uniqueStringsList, scope);
+    byte[] lockId = Bytes.toBytes(UUID.randomUUID().toString());
+
+    for (int attempt = 0; !pending.isEmpty(); attempt++) {
+      if (attempt > 0) {
+        log.debug("Failed to get locks for {} sets, trying again", pending.size());
+        waitBeforeRetry(attempt);
+      }
+      pending = generateKeysRound(pending, lockId, result);
+    }
+    return result;
+  }
+
+  @Override
+  public Map<Set<String>, KeyLookupResult> generateKeys(Collection<Set<String>> uniqueStringsList) {
+    return generateKeys(uniqueStringsList, datasetId);
+  }
+
+  /**
+   * One round of the batched key generation
+   *
+   * @return sets which couldn't get all locks and must be retried
+   */
+  private Map<Set<String>, Set<String>> generateKeysRound(
+      Map<Set<String>, Set<String>> pending,
+      byte[] lockId,
+      Map<Set<String>, KeyLookupResult> result) {
+
+    // all of our locks will have the same timestamp
+    long now = System.currentTimeMillis();
+
+    List<String> allLookupKeys =
+        pending.values().stream().flatMap(Set::stream).distinct().collect(Collectors.toList());
+    Result[] rows = lookupTableStore.getRows(allLookupKeys);
+    Map<String, Result> rowMap = new HashMap<>(allLookupKeys.size());
+    for (int i = 0; i < rows.length; i++) {
+      rowMap.put(allLookupKeys.get(i), rows[i]);
+    }
+
+    Map<Set<String>, Set<String>> retryMap = new LinkedHashMap<>();
+    Map<Set<String>, Long> foundKeyMap = new HashMap<>();
+    Map<Set<String>, int[]> lockRangeMap = new LinkedHashMap<>();
+    List<String> lockKeys = new ArrayList<>();
+    List<byte[]> expectedLocks = new ArrayList<>();
+
+    for (Map.Entry<Set<String>, Set<String>> entry : pending.entrySet()) {
+      Long foundKey = null;
+      boolean failed = false;
+      boolean conflict = false;
+      int from = lockKeys.size();
+
+      for (String lookupKey : entry.getValue()) {
+        Result row = rowMap.get(lookupKey);
+        String rawStatus =
+            ResultReader.getString(
+                row, Columns.OCCURRENCE_COLUMN_FAMILY, Columns.LOOKUP_STATUS_COLUMN, null);
+        byte[] existingLock =
+            ResultReader.getBytes(
+                row, Columns.OCCURRENCE_COLUMN_FAMILY, Columns.LOOKUP_LOCK_COLUMN, null);
+        Long key =
+            ResultReader.getLong(
+                row, Columns.OCCURRENCE_COLUMN_FAMILY, Columns.LOOKUP_KEY_COLUMN, null);
+
+        if (rawStatus != null && KeyStatus.valueOf(rawStatus) == KeyStatus.ALLOCATED) {
+          // even if existingLock is != null, ALLOCATED means the key exists and is final
+          if (foundKey == null) {
+            foundKey = key;
+          } else if (foundKey.longValue() != key.longValue()) {
+            conflict = true;
+            break;
+          }
+        } else if (existingLock == null) {
+          // lock is ours for the taking, expecting null for lockId
+          lockKeys.add(lookupKey);
+          expectedLocks.add(null);
+        } else {
+          Long existingLockTs =
+              ResultReader.getTimestamp(
+                  row, Columns.OCCURRENCE_COLUMN_FAMILY, Columns.LOOKUP_LOCK_COLUMN);
+          if (now - existingLockTs > STALE_LOCK_TIME) {
+            // Someone died before releasing lock, expecting lock to match the existing lock
+            lockKeys.add(lookupKey);
+            expectedLocks.add(existingLock);
+          } else {
+            // someone has a current lock, we need to give up and try again
+            failed = true;
+            break;
+          }
+        }
+      }
+
+      if (conflict || failed) {
+        // drop lock requests of this set, nothing has been locked yet
+        lockKeys.subList(from, lockKeys.size()).clear();
+        expectedLocks.subList(from, expectedLocks.size()).clear();
+        if (conflict) {
+          log.error("Found inconsistent occurrence keys for lookup keys {}", entry.getValue());
+          result.put(entry.getKey(), new KeyLookupResult(Keygen.getErrorKey(), false));
+        } else {
+          retryMap.put(entry.getKey(), entry.getValue());
+        }
+        continue;
+      }
+
+      if (foundKey != null) {
+        foundKeyMap.put(entry.getKey(), foundKey);
+      }
+      lockRangeMap.put(entry.getKey(), new int[] {from, lockKeys.size()});
+    }
+
+    // take all locks using a single batch
+    boolean[] gotLocks =
+        lookupTableStore.checkAndPut(
+            lockKeys,
+            Columns.LOOKUP_LOCK_COLUMN,
+            lockId,
+            Columns.LOOKUP_LOCK_COLUMN,
+            expectedLocks,
+            now);
+
+    List<String> heldLocks = new ArrayList<>();
+    List<Set<String>> lockedSets = new ArrayList<>();
+    for (Map.Entry<Set<String>, int[]> entry : lockRangeMap.entrySet()) {
+      boolean gotAll = true;
+      for (int i = entry.getValue()[0]; i < entry.getValue()[1]; i++) {
+        if (gotLocks[i]) {
+          heldLocks.add(lockKeys.get(i));
+        } else {
+          gotAll = false;
+        }
+      }
+      if (gotAll) {
+        lockedSets.add(entry.getKey());
+      } else {
+        retryMap.put(entry.getKey(), pending.get(entry.getKey()));
+      }
+    }
+
+    // reserve all new keys at once and write keys with the ALLOCATED status
+    long newKeysCount = lockedSets.stream().filter(k -> !foundKeyMap.containsKey(k)).count();
+    long[] newKeys = getNextKeys((int) newKeysCount);
+    Map<String, Long> allocatingMap = new HashMap<>();
+    int newKeyIdx = 0;
+    for (Set<String> uniqueStrings : lockedSets) {
+      Long foundKey = foundKeyMap.get(uniqueStrings);
+      long key = foundKey != null ? foundKey : newKeys[newKeyIdx++];
+      result.put(uniqueStrings, new KeyLookupResult(key, foundKey == null));
+      int[] range = lockRangeMap.get(uniqueStrings);
+      for (int i = range[0]; i < range[1]; i++) {
+        allocatingMap.put(lockKeys.get(i), key);
+      }
+    }
+    lookupTableStore.putLongStrings(
+        allocatingMap,
+        Columns.LOOKUP_KEY_COLUMN,
+        Columns.LOOKUP_STATUS_COLUMN,
+        KeyStatus.ALLOCATED.toString());
+
+    // release all locks taken in this round
+    lookupTableStore.delete(heldLocks, Columns.LOOKUP_LOCK_COLUMN);
+
+    return retryMap;
+  }
+
+  /** Waits longer for every next attempt, up to MAX_WAIT_BEFORE_RETRY_MS */
+  private void waitBeforeRetry(int attempt) {
+    long wait = Math.min(WAIT_BEFORE_RETRY_MS << Math.min(attempt - 1, 5), MAX_WAIT_BEFORE_RETRY_MS);
+    try {
+      TimeUnit.MILLISECONDS.sleep(wait + random.nextInt(WAIT_SKEW) - random.nextInt(WAIT_SKEW));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /** Builds lookup keys for every non empty set of unique strings */
+  private static Map<Set<String>, Set<String>> buildLookupKeys(
+      Collection<Set<String>> uniqueStringsList, String scope) {
+    Map<Set<String>, Set<String>> lookupKeysMap = new LinkedHashMap<>();
+    for (Set<String> uniqueStrings : uniqueStringsList) {
+      if (!uniqueStrings.isEmpty()) {
+        lookupKeysMap.putIfAbsent(uniqueStrings, OccurrenceKeyBuilder.buildKeys(uniqueStrings, scope));
+      }
+    }
+    return lookupKeysMap;
+  }
+
+  /**
+   * Provides the next available keys, see {@link #getNextKey()}. Keys left in the reserved batch
+   * are used first, the rest is reserved using a single counter increment.
+   */
+  private synchronized long[] getNextKeys(int count) {
+    long[] keys = new long[count];
+    int i = 0;
+    while (i < count && currentKey < maxReservedKeyInclusive) {
+      keys[i++] = ++currentKey;
+    }
+    if (i < count) {
+      long reserve = Math.max(count - i, BATCHED_ID_SIZE);
+      maxReservedKeyInclusive =
+          counterTableStore.incrementColumnValue(COUNTER_ROW, Columns.COUNTER_COLUMN, reserve);
+      currentKey = maxReservedKeyInclusive - reserve;
+      while (i < count) {
+        keys[i++] = ++currentKey;
+      }
+    }
+    return keys;
+  }
+
   /**
    * Provides the next available key. Because throughput of an incrementColumnValue is limited by
    * HBase to a few thousand calls per second, this implementation reserves a batch of IDs at a
@@ -341,6 +563,73 @@ public class HBaseLockingKeyService implements HBaseLockingKey, Serializable {
     return findKey(uniqueStrings, datasetId);
   }
 
+  /**
+   * Batched version of {@link #findKey(Set, String)}, all lookup keys are read using a single
+   * multi-get and missing lookup keys are filled using a single batch of puts. Sets with
+   * inconsistent keys are mapped to the {@link Keygen#getErrorKey()} key.
+   */
+  public Map<Set<String>, KeyLookupResult> findKeys(
+      Collection<Set<String>> uniqueStringsList, String scope) {
+    checkNotNull(uniqueStringsList, "uniqueStringsList can't be null");
+    checkNotNull(scope, "scope can't be null");
+
+    Map<Set<String>, Set<String>> lookupKeysMap = buildLookupKeys(uniqueStringsList, scope);
+    List<String> allLookupKeys =
+        lookupKeysMap.values().stream()
+            .flatMap(Set::stream)
+            .distinct()
+            .collect(Collectors.toList());
+
+    Result[] rows = lookupTableStore.getRows(allLookupKeys, Columns.LOOKUP_KEY_COLUMN);
+    Map<String, Long> foundOccurrenceKeys = new HashMap<>(allLookupKeys.size());
+    for (int i = 0; i < rows.length; i++) {
+      Long occurrenceKey =
+          ResultReader.getLong(
+              rows[i], Columns.OCCURRENCE_COLUMN_FAMILY, Columns.LOOKUP_KEY_COLUMN, null);
+      if (occurrenceKey != null) {
+        foundOccurrenceKeys.put(allLookupKeys.get(i), occurrenceKey);
+      }
+    }
+
+    Map<Set<String>, KeyLookupResult> result = new HashMap<>();
+    Map<String, Long> missingKeys = new HashMap<>();
+    for (Map.Entry<Set<String>, Set<String>> entry : lookupKeysMap.entrySet()) {
+      Long resultKey = null;
+      boolean conflict = false;
+      for (String lookupKey : entry.getValue()) {
+        Long occurrenceKey = foundOccurrenceKeys.get(lookupKey);
+        if (occurrenceKey != null) {
+          if (resultKey == null) {
+            resultKey = occurrenceKey;
+          } else if (resultKey.longValue() != occurrenceKey.longValue()) {
+            conflict = true;
+          }
+        }
+      }
+
+      if (conflict) {
+        log.error("Found inconsistent occurrence keys for lookup keys {}", entry.getValue());
+        result.put(entry.getKey(), new KeyLookupResult(Keygen.getErrorKey(), false));
+      } else if (resultKey != null) {
+        result.put(entry.getKey(), new KeyLookupResult(resultKey, false));
+        // fill in the lookup table with the missing entries
+        for (String lookupKey : entry.getValue()) {
+          if (!foundOccurrenceKeys.containsKey(lookupKey)) {
+            missingKeys.put(lookupKey, resultKey);
+          }
+        }
+      }
+    }
+
+    lookupTableStore.putLongs(missingKeys, Columns.LOOKUP_KEY_COLUMN);
+    return result;
+  }
+
+  @Override
+  public Map<Set<String>, KeyLookupResult> findKeys(Collection<Set<String>> uniqueStringsList) {
+    return findKeys(uniqueStringsList, datasetId);
+  }
+
   @SneakyThrows
   public Map<String, Long> findKeysByScope(String scope, Long maxResultSize) {
     Map<String, Long> keysMap = new HashMap<>();
@@ -1,9 +1,15 @@
 package org.gbif.pipelines.keygen;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -72,6 +78,123 @@ public class Keygen {
     return keyResult.map(KeyLookupResult::getKey);
   }
 
+  /**
+   * Batched version of {@link #getKey(HBaseLockingKey, boolean, boolean, boolean,
+   * OccurrenceRecord)}, looks up and generates keys for all records using a few batch calls instead
+   * of several calls per record. If a batch call fails, keys of the records are requested one by
+   * one.
+   *
+   * @return keys in the same order as records
+   */
+  public static List<Optional<Long>> getKeys(
+      HBaseLockingKey keygenService,
+      boolean useTriplet,
+      boolean useOccurrenceId,
+      boolean generateIfAbsent,
+      List<OccurrenceRecord> records) {
+
+    List<Optional<Long>> result = new ArrayList<>(records.size());
+    try {
+      // Finds keys for single occurrenceIds and triplets
+      Map<Set<String>, KeyLookupResult> occurrenceIdKeys =
+          useOccurrenceId
+              ? keygenService.findKeys(
+                  singletons(records.stream().map(OccurrenceRecord::getOccurrenceId)))
+              : Collections.emptyMap();
+      Map<Set<String>, KeyLookupResult> tripletKeys =
+          useTriplet && useOccurrenceId
+              ? keygenService.findKeys(
+                  singletons(records.stream().map(OccurrenceRecord::getTriplet)))
+              : Collections.emptyMap();
+
+      // Collects unique strings the same way as the single record version
+      List<Set<String>> uniqueStringsList = new ArrayList<>(records.size());
+      for (OccurrenceRecord record : records) {
+        Set<String> uniqueStrings = new HashSet<>(2);
+        Optional<String> occurrenceId =
+            useOccurrenceId ? record.getOccurrenceId() : Optional.empty();
+        KeyLookupResult keyForOccurrence =
+            occurrenceId.map(id -> occurrenceIdKeys.get(Collections.singleton(id))).orElse(null);
+        if (keyForOccurrence != null) {
+          result.add(Optional.of(keyForOccurrence.getKey()));
+          uniqueStringsList.add(uniqueStrings);
+          continue;
+        }
+        occurrenceId.ifPresent(uniqueStrings::add);
+
+        if (useTriplet) {
+          if (uniqueStrings.isEmpty()) {
+            record.getTriplet().ifPresent(uniqueStrings::add);
+          } else {
+            record
+                .getTriplet()
+                .filter(t -> tripletKeys.containsKey(Collections.singleton(t)))
+                .ifPresent(uniqueStrings::add);
+          }
+        }
+
+        result.add(uniqueStrings.isEmpty() ? Optional.of(ERROR_KEY) : null);
+        uniqueStringsList.add(uniqueStrings);
+      }
+
+      // Finds or generates keys
+      List<Set<String>> pending = new ArrayList<>();
+      for (int i = 0; i < result.size(); i++) {
+        if (result.get(i) == null) {
+          pending.add(uniqueStringsList.get(i));
+        }
+      }
+      Map<Set<String>, KeyLookupResult> keys = new HashMap<>(keygenService.findKeys(pending));
+      if (generateIfAbsent) {
+        List<Set<String>> absent =
+            pending.stream().filter(us -> !keys.containsKey(us)).collect(Collectors.toList());
+        if (!absent.isEmpty()) {
+          log.info("GBIF IDs weren't found, generating {} new keys", absent.size());
+          keys.putAll(keygenService.generateKeys(absent));
+        }
+      }
+
+      for (int i = 0; i < result.size(); i++) {
+        if (result.get(i) == null) {
+          KeyLookupResult keyResult = keys.get(uniqueStringsList.get(i));
+          result.set(i, Optional.ofNullable(keyResult).map(KeyLookupResult::getKey));
+        }
+      }
+    } catch (RuntimeException ex) {
+      log.warn("Batch of {} keys failed, getting keys one by one", records.size(), ex);
+      return getKeysOneByOne(keygenService, useTriplet, useOccurrenceId, generateIfAbsent, records);
+    }
+
+    return result;
+  }
+
+  /** Fallback of the batched version, a failed record doesn't fail other records */
+  private static List<Optional<Long>> getKeysOneByOne(
+      HBaseLockingKey keygenService,
+      boolean useTriplet,
+      boolean useOccurrenceId,
+      boolean generateIfAbsent,
+      List<OccurrenceRecord> records) {
+    List<Optional<Long>> result = new ArrayList<>(records.size());
+    for (OccurrenceRecord record : records) {
+      try {
+        result.add(getKey(keygenService, useTriplet, useOccurrenceId, generateIfAbsent, record));
+      } catch (RuntimeException ex) {
+        log.error(ex.getMessage(), ex);
+        result.add(Optional.of(ERROR_KEY));
+      }
+    }
+    return result;
+  }
+
+  private static List<Set<String>> singletons(Stream<Optional<String>> values) {
+    return values
+        .filter(Optional::isPresent)
+        .map(v -> Collections.singleton(v.get()))
+        .distinct()
+        .collect(Collectors.toList());
+  }
+
   public static String getSaltedKey(Long key) {
     long salt = key % 100;
     String result = salt + ":" + key;
@@ -5,8 +5,13 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import com.google.common.annotations.VisibleForTesting;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import javax.annotation.Nullable;
 import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.CheckAndMutate;
+import org.apache.hadoop.hbase.client.CheckAndMutateResult;
 import org.apache.hadoop.hbase.client.Connection;
 import org.apache.hadoop.hbase.client.Delete;
 import org.apache.hadoop.hbase.client.Get;
@@ -219,6 +224,166 @@ public class HBaseStore<T> {
     return success;
   }
 
+  /**
+   * Returns HBase Result objects matching the given keys, using a single multi-get.
+   *
+   * @param keys the primary keys of the requested rows
+   * @param columnNames the columns to return, all columns if empty
+   * @return HBase Results in the order of the keys
+   * @throws ServiceUnavailableException if there are errors when communicating with HBase
+   */
+  public Result[] getRows(List<T> keys, String... columnNames) {
+    checkNotNull(keys, "keys can't be null");
+    if (keys.isEmpty()) {
+      return new Result[0];
+    }
+
+    List<Get> gets = new ArrayList<>(keys.size());
+    for (T key : keys) {
+      Get get = new Get(convertKey(checkNotNull(key, KEY_CANT_BE_NULL_MSG)));
+      for (String columnName : columnNames) {
+        get.addColumn(cfBytes, Bytes.toBytes(columnName));
+      }
+      gets.add(get);
+    }
+
+    try (Table table = connection.getTable(tableName)) {
+      return table.get(gets);
+    } catch (IOException e) {
+      throw new ServiceUnavailableException(HBASE_READ_ERROR_MSG, e);
+    }
+  }
+
+  /**
+   * Batched version of {@link #checkAndPut(Object, String, byte[], String, byte[], Long)}, puts the
+   * same value into every row, each row is checked against its own expected value.
+   *
+   * @param keys the primary keys of the rows
+   * @param putColumn the column where the new value will be stored
+   * @param putValue the new value to put
+   * @param checkColumn the column to check
+   * @param checkValues the expected values of the checkColumn, null means the cell must not exist
+   * @param ts the timestamp to write on the puts (if null, the current timestamp will be used)
+   * @return true for every row where the condition was met and the put was successful
+   * @throws ServiceUnavailableException if there are errors when communicating with HBase
+   */
+  public boolean[] checkAndPut(
+      List<T> keys,
+      String putColumn,
+      byte[] putValue,
+      String checkColumn,
+      List<byte[]> checkValues,
+      @Nullable Long ts) {
+    checkNotNull(keys, "keys can't be null");
+    checkNotNull(putColumn, "putColumn can't be null");
+    checkNotNull(putValue, "putValue can't be null");
+    checkNotNull(checkColumn, "checkColumn can't be null");
+    checkArgument(keys.size() == checkValues.size(), "keys and checkValues must have same size");
+    if (keys.isEmpty()) {
+      return new boolean[0];
+    }
+
+    List<CheckAndMutate> mutations = new ArrayList<>(keys.size());
+    for (int i = 0; i < keys.size(); i++) {
+      byte[] byteKey = convertKey(checkNotNull(keys.get(i), KEY_CANT_BE_NULL_MSG));
+      Put put = new Put(byteKey);
+      if (ts != null && ts > 0) {
+        put.addColumn(cfBytes, Bytes.toBytes(putColumn), ts, putValue);
+      } else {
+        put.addColumn(cfBytes, Bytes.toBytes(putColumn), putValue);
+      }
+      CheckAndMutate.Builder builder = CheckAndMutate.newBuilder(byteKey);
+      byte[] checkValue = checkValues.get(i);
+      if (checkValue == null) {
+        builder.ifNotExists(cfBytes, Bytes.toBytes(checkColumn));
+      } else {
+        builder.ifEquals(cfBytes, Bytes.toBytes(checkColumn), checkValue);
+      }
+      mutations.add(builder.build(put));
+    }
+
+    try (Table table = connection.getTable(tableName)) {
+      List<CheckAndMutateResult> results = table.checkAndMutate(mutations);
+      boolean[] success = new boolean[results.size()];
+      for (int i = 0; i < results.size(); i++) {
+        success[i] = results.get(i).isSuccess();
+      }
+      return success;
+    } catch (IOException e) {
+      throw new ServiceUnavailableException(HBASE_READ_ERROR_MSG, e);
+    }
+  }
+
+  /** Batched version of {@link #putLongString(Object, String, long, String, String)} */
+  public void putLongStrings(
+      Map<T, Long> values, String columnName, String columnName2, String value2) {
+    checkNotNull(values, "values can't be null");
+    if (values.isEmpty()) {
+      return;
+    }
+
+    List<Put> puts = new ArrayList<>(values.size());
+    values.forEach(
+        (key, value) -> {
+          Put put = new Put(convertKey(checkNotNull(key, KEY_CANT_BE_NULL_MSG)));
+          put.addColumn(cfBytes, Bytes.toBytes(columnName), Bytes.toBytes(value));
+          put.addColumn(cfBytes, Bytes.toBytes(columnName2), Bytes.toBytes(value2));
+          puts.add(put);
+        });
+
+    try (Table table = connection.getTable(tableName)) {
+      table.put(puts);
+    } catch (IOException e) {
+      throw new ServiceUnavailableException(HBASE_READ_ERROR_MSG, e);
+    }
+  }
+
+  /** Batched version of {@link #putLong(Object, String, long)} */
+  public void putLongs(Map<T, Long> values, String columnName) {
+    checkNotNull(values, "values can't be null");
+    if (values.isEmpty()) {
+      return;
+    }
+
+    List<Put> puts = new ArrayList<>(values.size());
+    values.forEach(
+        (key, value) -> {
+          Put put = new Put(convertKey(checkNotNull(key, KEY_CANT_BE_NULL_MSG)));
+          put.addColumn(cfBytes, Bytes.toBytes(columnName), Bytes.toBytes(value));
+          puts.add(put);
+        });
+
+    try (Table table = connection.getTable(tableName)) {
+      table.put(puts);
+    } catch (IOException e) {
+      throw new ServiceUnavailableException(HBASE_READ_ERROR_MSG, e);
+    }
+  }
+
+  /** Batched version of {@link #delete(Object, String...)}, deletes the columns in every row */
+  public void delete(List<T> keys, String... columns) {
+    checkNotNull(keys, "keys can't be null");
+    checkArgument(columns.length > 0, "columns can't be empty");
+    if (keys.isEmpty()) {
+      return;
+    }
+
+    List<Delete> deletes = new ArrayList<>(keys.size());
+    for (T key : keys) {
+      Delete delete = new Delete(convertKey(checkNotNull(key, KEY_CANT_BE_NULL_MSG)));
+      for (String column : columns) {
+        delete.addColumn(cfBytes, Bytes.toBytes(column));
+      }
+      deletes.add(delete);
+    }
+
+    try (Table table = connection.getTable(tableName)) {
+      table.delete(deletes);
+    } catch (IOException e) {
+      throw new ServiceUnavailableException(HBASE_READ_ERROR_MSG, e);
+    }
+  }
+
   // TODO: fix deletions generally and add javadoc
   public void delete(T key, String... columns) {
     checkNotNull(key, KEY_CANT_BE_NULL_MSG);
@@ -28,6 +28,7 @@ import org.apache.beam.sdk.transforms.join.KeyedPCollectionTuple;
 import org.apache.beam.sdk.values.KV;
 import org.apache.beam.sdk.values.PCollection;
 import org.apache.beam.sdk.values.PCollectionList;
+import org.apache.beam.sdk.values.PCollectionTuple;
 import org.apache.beam.sdk.values.PCollectionView;
 import org.apache.beam.sdk.values.TypeDescriptor;
 import org.gbif.dwc.terms.DwcTerm;
@@ -64,6 +65,7 @@ import org.gbif.pipelines.transforms.core.DerivedMetadataTransform;
 import org.gbif.pipelines.transforms.core.EventCoreTransform;
 import org.gbif.pipelines.transforms.core.EventInheritedFieldsFn;
 import org.gbif.pipelines.transforms.core.InheritedFieldsTransform;
+import org.gbif.pipelines.transforms.core.LineageIndexTransform;
 import org.gbif.pipelines.transforms.core.LocationInheritedFieldsFn;
 import org.gbif.pipelines.transforms.core.LocationTransform;
 import org.gbif.pipelines.transforms.core.TaxonomyTransform;
@@ -210,14 +212,19 @@ public class EventToEsIndexPipeline {
             .eventCoreTransform(eventCoreTransform)
             .build();
 
-    PCollection<KV<String, LocationInheritedRecord>> locationInheritedRecords =
-        inheritedFields.inheritLocationFields();
-
-    PCollection<KV<String, TemporalInheritedRecord>> temporalInheritedRecords =
-        inheritedFields.inheritTemporalFields();
-
-    PCollection<KV<String, EventInheritedRecord>> eventInheritedRecords =
-        inheritedFields.inheritEventFields();
+    PCollection<KV<String, LocationInheritedRecord>> locationInheritedRecords;
+    PCollection<KV<String, TemporalInheritedRecord>> temporalInheritedRecords;
+    PCollection<KV<String, EventInheritedRecord>> eventInheritedRecords;
+    if (options.getUseLineageIndex()) {
+      PCollectionTuple inherited = inheritedFields.inheritAllFields();
+      locationInheritedRecords = inherited.get(LineageIndexTransform.LOCATION_TAG);
+      temporalInheritedRecords = inherited.get(LineageIndexTransform.TEMPORAL_TAG);
+      eventInheritedRecords = inherited.get(LineageIndexTransform.EVENT_TAG);
+    } else {
+      locationInheritedRecords = inheritedFields.inheritLocationFields();
+      temporalInheritedRecords = inheritedFields.inheritTemporalFields();
+      eventInheritedRecords = inheritedFields.inheritEventFields();
+    }
 
     PCollection<KV<String, DerivedMetadataRecord>> derivedMetadataRecordCollection =
         DerivedMetadata.builder()
@@ -565,5 +572,11 @@ public class EventToEsIndexPipeline {
           .apply("Extract parent features", Combine.perKey(new EventInheritedFieldsFn()))
           .setCoder(AvroKvCoder.of(EventInheritedRecord.class));
     }
+
+    /** Computes location, temporal and event inherited fields in one pass over a lineage index */
+    PCollectionTuple inheritAllFields() {
+      return LineageIndexTransform.inheritFields(
+          eventCoreCollection, locationCollection, temporalCollection);
+    }
   }
 }
@@ -6,12 +6,15 @@ import static org.gbif.pipelines.common.PipelinesVariables.Pipeline.ALL_AVRO;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.util.HashSet;
+import java.util.Optional;
 import java.util.Set;
 import java.util.function.Function;
 import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.avro.specific.SpecificRecordBase;
 import org.apache.beam.sdk.Pipeline;
 import org.apache.beam.sdk.PipelineResult;
 import org.apache.beam.sdk.transforms.Create;
@@ -37,7 +40,11 @@ import org.gbif.pipelines.ingest.pipelines.interpretation.TransformsFactory;
 import org.gbif.pipelines.io.avro.ExtendedRecord;
 import org.gbif.pipelines.io.avro.IdentifierRecord;
 import org.gbif.pipelines.io.avro.MetadataRecord;
+import org.gbif.pipelines.io.avro.Record;
+import org.gbif.pipelines.transforms.Transform;
 import org.gbif.pipelines.transforms.common.CheckTransforms;
+import org.gbif.pipelines.transforms.common.FilterRecordsTransform;
+import org.gbif.pipelines.transforms.common.FusedInterpretationTransform;
 import org.gbif.pipelines.transforms.common.UniqueGbifIdTransform;
 import org.gbif.pipelines.transforms.core.BasicTransform;
 import org.gbif.pipelines.transforms.core.GrscicollTransform;
@@ -241,7 +248,14 @@ public class VerbatimToOccurrencePipeline {
     }
 
     PCollection<ExtendedRecord> filteredUniqueRecords = uniqueRecords;
-    if (useExtendedRecordWriteIO(types)) {
+    if (useExtendedRecordWriteIO(types) && options.getUseSideInputIdJoin()) {
+      // Broadcast valid GBIF ids instead of shuffling verbatim records
+      PCollectionView<long[]> validIdsView =
+          uniqueGbifId.apply("Collect valid GBIF ids", FilterRecordsTransform.validIdsView());
+
+      filteredUniqueRecords =
+          uniqueRecords.apply("Filter verbatim", FilterRecordsTransform.filter(validIdsView));
+    } else if (useExtendedRecordWriteIO(types)) {
       // Filter record with identical identifiers
       PCollection<KV<String, IdentifierRecord>> uniqueGbifIdRecordsKv =
           uniqueGbifId.apply("Map to GBIF ids record KV", idTransform.toKv());
@@ -260,10 +274,6 @@ public class VerbatimToOccurrencePipeline {
                   transformsFactory.createFilterRecordsTransform(verbatimTransform, idTransform));
     }
 
-    filteredUniqueRecords
-        .apply("Check verbatim transform condition", verbatimTransform.check(types))
-        .apply("Write verbatim to avro", verbatimTransform.write(pathFn).withoutSharding());
-
     uniqueGbifId
         .apply(
             "Check clustering transform condition",
@@ -271,45 +281,76 @@ public class VerbatimToOccurrencePipeline {
         .apply("Interpret clustering", clusteringTransform.interpret())
         .apply("Write clustering to avro", clusteringTransform.write(pathFn).withoutSharding());
 
-    filteredUniqueRecords
-        .apply("Check basic transform condition", basicTransform.check(types))
-        .apply("Interpret basic", basicTransform.interpret())
-        .apply("Write basic to avro", basicTransform.write(pathFn).withoutSharding());
-
-    filteredUniqueRecords
-        .apply("Check temporal transform condition", temporalTransform.check(types))
-        .apply("Interpret temporal", temporalTransform.interpret())
-        .apply("Write temporal to avro", temporalTransform.write(pathFn).withoutSharding());
-
-    filteredUniqueRecords
-        .apply("Check multimedia transform condition", multimediaTransform.check(types))
-        .apply("Interpret multimedia", multimediaTransform.interpret())
-        .apply("Write multimedia to avro", multimediaTransform.write(pathFn).withoutSharding());
-
-    filteredUniqueRecords
-        .apply("Check image transform condition", imageTransform.check(types))
-        .apply("Interpret image", imageTransform.interpret())
-        .apply("Write image to avro", imageTransform.write(pathFn).withoutSharding());
-
-    filteredUniqueRecords
-        .apply("Check audubon transform condition", audubonTransform.check(types))
-        .apply("Interpret audubon", audubonTransform.interpret())
-        .apply("Write audubon to avro", audubonTransform.write(pathFn).withoutSharding());
-
-    filteredUniqueRecords
-        .apply("Check taxonomy transform condition", taxonomyTransform.check(types))
-        .apply("Interpret taxonomy", taxonomyTransform.interpret())
-        .apply("Write taxon to avro", taxonomyTransform.write(pathFn).withoutSharding());
-
-    filteredUniqueRecords
-        .apply("Check grscicoll transform condition", grscicollTransform.check(types))
-        .apply("Interpret grscicoll", grscicollTransform.interpret(metadataView))
-        .apply("Write grscicoll to avro", grscicollTransform.write(pathFn).withoutSharding());
-
-    filteredUniqueRecords
-        .apply("Check location transform condition", locationTransform.check(types))
-        .apply("Interpret location", locationTransform.interpret(metadataView))
-        .apply("Write location to avro", locationTransform.write(pathFn).withoutSharding());
+    if (options.getUseFusedInterpretation()) {
+      FusedInterpretationTransform fusedTransform =
+          FusedInterpretationTransform.create(metadataView);
+      // Verbatim records are written as they are, without interpretation counters
+      if (verbatimTransform.checkType(types)) {
+        fusedTransform.with(verbatimTransform, (er, mdr) -> Optional.of(er));
+      }
+      Stream.<Transform<ExtendedRecord, ?>>of(
+              basicTransform,
+              temporalTransform,
+              multimediaTransform,
+              imageTransform,
+              audubonTransform,
+              taxonomyTransform)
+          .filter(t -> t.checkType(types))
+          .forEach(fusedTransform::with);
+      if (grscicollTransform.checkType(types)) {
+        fusedTransform.with(grscicollTransform, grscicollTransform::processElement);
+      }
+      if (locationTransform.checkType(types)) {
+        fusedTransform.with(locationTransform, locationTransform::processElement);
+      }
+
+      PCollectionTuple interpreted = filteredUniqueRecords.apply("Interpret", fusedTransform);
+      fusedTransform.getTransforms().forEach(t -> writeAvro(interpreted, t, pathFn));
+    } else {
+      filteredUniqueRecords
+          .apply("Check verbatim transform condition", verbatimTransform.check(types))
+          .apply("Write verbatim to avro", verbatimTransform.write(pathFn).withoutSharding());
+
+      filteredUniqueRecords
+          .apply("Check basic transform condition", basicTransform.check(types))
+          .apply("Interpret basic", basicTransform.interpret())
+          .apply("Write basic to avro", basicTransform.write(pathFn).withoutSharding());
+
+      filteredUniqueRecords
+          .apply("Check temporal transform condition", temporalTransform.check(types))
+          .apply("Interpret temporal", temporalTransform.interpret())
+          .apply("Write temporal to avro", temporalTransform.write(pathFn).withoutSharding());
+
+      filteredUniqueRecords
+          .apply("Check multimedia transform condition", multimediaTransform.check(types))
+          .apply("Interpret multimedia", multimediaTransform.interpret())
+          .apply("Write multimedia to avro", multimediaTransform.write(pathFn).withoutSharding());
+
+      filteredUniqueRecords
+          .apply("Check image transform condition", imageTransform.check(types))
+          .apply("Interpret image", imageTransform.interpret())
+          .apply("Write image to avro", imageTransform.write(pathFn).withoutSharding());
+
+      filteredUniqueRecords
+          .apply("Check audubon transform condition", audubonTransform.check(types))
+          .apply("Interpret audubon", audubonTransform.interpret())
+          .apply("Write audubon to avro", audubonTransform.write(pathFn).withoutSharding());
+
+      filteredUniqueRecords
+          .apply("Check taxonomy transform condition", taxonomyTransform.check(types))
+          .apply("Interpret taxonomy", taxonomyTransform.interpret())
+          .apply("Write taxon to avro", taxonomyTransform.write(pathFn).withoutSharding());
+
+      filteredUniqueRecords
+          .apply("Check grscicoll transform condition", grscicollTransform.check(types))
+          .apply("Interpret grscicoll", grscicollTransform.interpret(metadataView))
+          .apply("Write grscicoll to avro", grscicollTransform.write(pathFn).withoutSharding());
+
+      filteredUniqueRecords
+          .apply("Check location transform condition", locationTransform.check(types))
+          .apply("Interpret location", locationTransform.interpret(metadataView))
+          .apply("Write location to avro", locationTransform.write(pathFn).withoutSharding());
+    }
 
     log.info("Running the pipeline");
     PipelineResult result = p.run();
@@ -342,6 +383,17 @@ public class VerbatimToOccurrencePipeline {
     log.info("Pipeline has been finished");
   }
 
+  private static <T extends SpecificRecordBase & Record> void writeAvro(
+      PCollectionTuple tuple,
+      Transform<ExtendedRecord, T> transform,
+      UnaryOperator<String> pathFn) {
+    tuple
+        .get(transform.getTag())
+        .apply(
+            "Write " + transform.getBaseName() + " to avro",
+            transform.write(pathFn).withoutSharding());
+  }
+
   private static boolean useGbifIdReadIO(Set<String> types) {
     return types.contains(RecordType.VERBATIM.name())
         || types.contains(RecordType.CLUSTERING.name())
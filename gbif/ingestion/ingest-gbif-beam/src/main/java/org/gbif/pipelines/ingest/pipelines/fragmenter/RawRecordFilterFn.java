@@ -36,10 +36,6 @@ public class RawRecordFilterFn extends DoFn<RawRecord, RawRecord> {
 
   @ProcessElement
   public void processElement(@Element RawRecord rr, OutputReceiver<RawRecord> out) {
-    boolean isNewRawRecord = HbaseStore.isNewRawRecord(table, rr);
-    if (isNewRawRecord) {
-      HbaseStore.populateCreatedDate(table, rr);
-      out.output(rr);
-    }
+    HbaseStore.getNewRawRecord(table, rr).ifPresent(out::output);
   }
 }
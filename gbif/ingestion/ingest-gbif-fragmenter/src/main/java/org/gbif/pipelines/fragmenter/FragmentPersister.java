@@ -13,6 +13,7 @@ import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.Phaser;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 import lombok.Builder;
 import lombok.NonNull;
@@ -39,8 +40,9 @@ import org.gbif.pipelines.keygen.config.KeygenConfig;
  *
  * <p>Processing workflow: 1. Read a dwca/xml archive 2. Collect raw records into small batches
  * (batch size is configurable) 3. Get or create GBIF id for each element of the batch and create
- * keys (salt + ":" + GBIF id) 4. Get **dateCreated** from the table using GBIF id, if a record is
- * exist 5. Create HBase put(create new or update existing) records and upload them into HBase
+ * keys (salt + ":" + GBIF id) 4. Get **hashValue** and **dateCreated** of the whole batch from the
+ * table using a single multi-get, skip records with the same hash value 5. Create HBase put(create
+ * new or update existing) records and upload them into HBase
  *
  * <pre>{@code
  * long recordsProcessed = FragmentsUploader.dwcaBuilder()
@@ -88,6 +90,8 @@ public class FragmentPersister {
 
   @Builder.Default private ExecutorService executor = Executors.newSingleThreadExecutor();
 
+  @Builder.Default private int hbaseIoThreads = 8;
+
   private Integer backPressure;
 
   private Connection hbaseConnection;
@@ -106,6 +110,7 @@ public class FragmentPersister {
     // Init values
     final Phaser phaser = new Phaser(1);
     final AtomicInteger occurrenceCounter = new AtomicInteger(0);
+    final AtomicLong skippedCounter = new AtomicLong(0);
     final Queue<List<OccurrenceRecord>> rows = new LinkedBlockingQueue<>();
     final Consumer<OccurrenceRecord> addRowFn =
         r -> Optional.ofNullable(rows.peek()).ifPresent(req -> req.add(r));
@@ -120,8 +125,12 @@ public class FragmentPersister {
 
     rows.add(new ArrayList<>(batchSize));
 
+    // Dedicated bounded pool for HBase batch calls, instead of the default per table pool
+    final ExecutorService hbaseIoExecutor = Executors.newFixedThreadPool(hbaseIoThreads);
+
     log.info("Uploadind fragments from {}", pathToArchive);
-    try (Table fragmenterTable = connection.getTable(TableName.valueOf(tableName));
+    try (Table fragmenterTable =
+            connection.getTable(TableName.valueOf(tableName), hbaseIoExecutor);
         UniquenessValidator validator = UniquenessValidator.getNewInstance()) {
 
       // Main function receives batch and puts it into HBase fragmenterTable
@@ -136,7 +145,9 @@ public class FragmentPersister {
                     generateIdIfAbsent,
                     l);
 
+            int converted = list.size();
             list = HbaseStore.filterRecordsByHash(fragmenterTable, list);
+            skippedCounter.addAndGet(converted - list.size());
 
             if (!list.isEmpty()) {
               HbaseStore.putRecords(fragmenterTable, datasetKey, attempt, endpointType, list);
@@ -184,8 +195,17 @@ public class FragmentPersister {
 
       // Wait for all async jobs
       phaser.arriveAndAwaitAdvance();
+    } finally {
+      hbaseIoExecutor.shutdown();
     }
 
+    log.info(
+        "{}_{}: Pushed [{}] changed records, skipped [{}] unchanged records",
+        datasetKey,
+        attempt,
+        occurrenceCounter.get(),
+        skippedCounter.get());
+
     return occurrenceCounter.get();
   }
 
@@ -4,6 +4,7 @@ import static java.nio.charset.StandardCharsets.UTF_8;
 
 import java.io.IOException;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -13,6 +14,7 @@ import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.hadoop.hbase.client.Get;
 import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.Result;
 import org.apache.hadoop.hbase.client.Table;
 import org.apache.hadoop.hbase.util.Bytes;
 import org.gbif.api.vocabulary.EndpointType;
@@ -33,6 +35,10 @@ public class HbaseStore {
   private static final byte[] DUQ_BYTES = Bytes.toBytes("dateUpdated");
   private static final byte[] HVQ_BYTES = Bytes.toBytes("hashValue");
 
+  /**
+   * Puts records into the table, records must have created dates populated, see {@link
+   * #filterRecordsByHash(Table, List)}
+   */
   @SneakyThrows
   public static void putRecords(
       Table table,
@@ -43,7 +49,6 @@ public class HbaseStore {
 
     List<Put> putList =
         fragmentsList.stream()
-            .map(rr -> populateCreatedDate(table, rr))
             .map(
                 rawRecord -> createFragmentPut(datasetKey, attempt, endpointType.name(), rawRecord))
             .collect(Collectors.toList());
@@ -51,41 +56,65 @@ public class HbaseStore {
     table.put(putList);
   }
 
-  @SneakyThrows
-  public static boolean isNewRawRecord(Table table, RawRecord raw) {
+  /**
+   * Reads the hash value and the created date of the record using a single get
+   *
+   * @return a copy of the record with the created date populated, or empty if the stored record has
+   *     the same hash value
+   */
+  public static Optional<RawRecord> getNewRawRecord(Table table, RawRecord raw) {
     try {
-      Get get = createHashValueGet(raw.getKey());
-      byte[] value = table.get(get).value();
-      if (value != null) {
-        return !raw.getHashValue().equals(new String(value, UTF_8));
-      }
-      return true;
+      return toNewRawRecord(raw, table.get(createHashValueAndCreatedDateGet(raw.getKey())));
     } catch (IOException ex) {
       throw new PipelinesException(ex);
     }
   }
 
-  @SneakyThrows
-  public static List<RawRecord> filterRecordsByHash(Table table, List<RawRecord> fragmentsMap) {
-    return fragmentsMap.parallelStream()
-        .filter(rr -> isNewRawRecord(table, rr))
-        .collect(Collectors.toList());
-  }
+  /**
+   * Filters out records with the same hash value as the stored ones and populates created dates of
+   * existing records. Hash values and created dates of the whole batch are read using a single
+   * multi-get.
+   */
+  public static List<RawRecord> filterRecordsByHash(Table table, List<RawRecord> fragmentsList) {
+    if (fragmentsList.isEmpty()) {
+      return fragmentsList;
+    }
 
-  @SneakyThrows
-  public static RawRecord populateCreatedDate(Table table, RawRecord rawRecord) {
+    List<Get> getList =
+        fragmentsList.stream()
+            .map(rr -> createHashValueAndCreatedDateGet(rr.getKey()))
+            .collect(Collectors.toList());
+
+    try {
+      Result[] results = table.get(getList);
+      List<RawRecord> result = new ArrayList<>(fragmentsList.size());
+      for (int i = 0; i < results.length; i++) {
+        toNewRawRecord(fragmentsList.get(i), results[i]).ifPresent(result::add);
+      }
+      return result;
+    } catch (IOException ex) {
+      throw new PipelinesException(ex);
+    }
+  }
 
-    Get get = createCreatedDateGet(rawRecord.getKey());
+  private static Optional<RawRecord> toNewRawRecord(RawRecord rawRecord, Result result) {
+    byte[] hashValue = result.getValue(FF_BYTES, HVQ_BYTES);
+    if (hashValue != null && rawRecord.getHashValue().equals(new String(hashValue, UTF_8))) {
+      return Optional.empty();
+    }
 
-    byte[] value = table.get(get).value();
-    if (value != null) {
+    byte[] createdDate = result.getValue(FF_BYTES, DCQ_BYTES);
+    if (createdDate != null) {
       // To avoid Beam mutation issue
-      RawRecord r = RawRecord.create(rawRecord.getKey(), rawRecord.getRecordBody());
-      r.setCreatedDate(Bytes.toLong(value));
-      return r;
+      return Optional.of(
+          new RawRecord(
+              rawRecord.getKey(),
+              rawRecord.getRecordBody(),
+              rawRecord.getHashValue(),
+              Bytes.toLong(createdDate)));
     }
 
-    return rawRecord;
+    return Optional.of(rawRecord);
   }
 
   public static Put createFragmentPut(
@@ -107,15 +136,10 @@ public class HbaseStore {
     return put;
   }
 
-  private static Get createCreatedDateGet(String key) {
-    Get get = new Get(Bytes.toBytes(key));
-    get.addColumn(FF_BYTES, DCQ_BYTES);
-    return get;
-  }
-
-  private static Get createHashValueGet(String key) {
+  private static Get createHashValueAndCreatedDateGet(String key) {
     Get get = new Get(Bytes.toBytes(key));
     get.addColumn(FF_BYTES, HVQ_BYTES);
+    get.addColumn(FF_BYTES, DCQ_BYTES);
     return get;
   }
 
@@ -1,9 +1,9 @@
 package org.gbif.pipelines.fragmenter.record;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -24,14 +24,15 @@ public class OccurrenceRecordConverter {
       boolean generateIdIfAbsent,
       List<OccurrenceRecord> recordUnitList) {
 
-    return recordUnitList.stream()
-        .map(
-            r ->
-                convert(
-                    keygenService, validator, useTriplet, useOccurrenceId, generateIdIfAbsent, r))
-        .filter(Optional::isPresent)
-        .map(Optional::get)
-        .collect(Collectors.toList());
+    List<Optional<Long>> keys =
+        Keygen.getKeys(
+            keygenService, useTriplet, useOccurrenceId, generateIdIfAbsent, recordUnitList);
+
+    List<RawRecord> result = new ArrayList<>(recordUnitList.size());
+    for (int i = 0; i < recordUnitList.size(); i++) {
+      toRawRecord(validator, keys.get(i), recordUnitList.get(i)).ifPresent(result::add);
+    }
+    return result;
   }
 
   public static Optional<RawRecord> convert(
@@ -49,6 +50,11 @@ public class OccurrenceRecordConverter {
       log.error(ex.getMessage(), ex);
     }
 
+    return toRawRecord(validator, key, or);
+  }
+
+  private static Optional<RawRecord> toRawRecord(
+      Predicate<String> validator, Optional<Long> key, OccurrenceRecord or) {
     if (!key.isPresent()
         || Keygen.getErrorKey().equals(key.get())
         || !validator.test(key.toString())) {
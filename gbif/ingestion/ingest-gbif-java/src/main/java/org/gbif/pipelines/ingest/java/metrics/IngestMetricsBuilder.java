@@ -13,6 +13,9 @@ import static org.gbif.pipelines.common.PipelinesVariables.Metrics.DUPLICATE_IDS
 import static org.gbif.pipelines.common.PipelinesVariables.Metrics.EXTENDED_MEASUREMENT_OR_FACT_TABLE_RECORDS_COUNT;
 import static org.gbif.pipelines.common.PipelinesVariables.Metrics.FILTER_ER_BASED_ON_GBIF_ID;
 import static org.gbif.pipelines.common.PipelinesVariables.Metrics.GBIF_ID_RECORDS_COUNT;
+import static org.gbif.pipelines.common.PipelinesVariables.Metrics.GEOCODE_CACHE_HIT_COUNT;
+import static org.gbif.pipelines.common.PipelinesVariables.Metrics.GEOCODE_CACHE_LOAD_TIME_MS;
+import static org.gbif.pipelines.common.PipelinesVariables.Metrics.GEOCODE_CACHE_MISS_COUNT;
 import static org.gbif.pipelines.common.PipelinesVariables.Metrics.GEL_IMAGE_TABLE_RECORDS_COUNT;
 import static org.gbif.pipelines.common.PipelinesVariables.Metrics.GERMPLASM_ACCESSION_TABLE_RECORDS_COUNT;
 import static org.gbif.pipelines.common.PipelinesVariables.Metrics.GRSCICOLL_RECORDS_COUNT;
@@ -21,6 +24,7 @@ import static org.gbif.pipelines.common.PipelinesVariables.Metrics.IDENTICAL_OBJ
 import static org.gbif.pipelines.common.PipelinesVariables.Metrics.IDENTIFICATION_TABLE_RECORDS_COUNT;
 import static org.gbif.pipelines.common.PipelinesVariables.Metrics.IDENTIFIER_TABLE_RECORDS_COUNT;
 import static org.gbif.pipelines.common.PipelinesVariables.Metrics.IMAGE_RECORDS_COUNT;
+import static org.gbif.pipelines.common.PipelinesVariables.Metrics.INDEXED_FIELDS_NAMESPACE;
 import static org.gbif.pipelines.common.PipelinesVariables.Metrics.INVALID_GBIF_ID_COUNT;
 import static org.gbif.pipelines.common.PipelinesVariables.Metrics.LOAN_TABLE_RECORDS_COUNT;
 import static org.gbif.pipelines.common.PipelinesVariables.Metrics.LOCATION_RECORDS_COUNT;
@@ -32,6 +36,9 @@ import static org.gbif.pipelines.common.PipelinesVariables.Metrics.MEASUREMENT_T
 import static org.gbif.pipelines.common.PipelinesVariables.Metrics.MEASUREMENT_TRIAL_TABLE_RECORDS_COUNT;
 import static org.gbif.pipelines.common.PipelinesVariables.Metrics.METADATA_RECORDS_COUNT;
 import static org.gbif.pipelines.common.PipelinesVariables.Metrics.MULTIMEDIA_RECORDS_COUNT;
+import static org.gbif.pipelines.common.PipelinesVariables.Metrics.NAME_MATCH_CACHE_HIT_COUNT;
+import static org.gbif.pipelines.common.PipelinesVariables.Metrics.NAME_MATCH_CACHE_LOAD_TIME_MS;
+import static org.gbif.pipelines.common.PipelinesVariables.Metrics.NAME_MATCH_CACHE_MISS_COUNT;
 import static org.gbif.pipelines.common.PipelinesVariables.Metrics.OCCURRENCE_EXT_COUNT;
 import static org.gbif.pipelines.common.PipelinesVariables.Metrics.PERMIT_TABLE_RECORDS_COUNT;
 import static org.gbif.pipelines.common.PipelinesVariables.Metrics.PREPARATION_TABLE_RECORDS_COUNT;
@@ -47,7 +54,9 @@ import static org.gbif.pipelines.common.PipelinesVariables.Metrics.VERBATIM_RECO
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import org.gbif.pipelines.common.beam.metrics.IngestMetrics;
+import org.gbif.pipelines.core.utils.RecordFieldsUtils;
 import org.gbif.pipelines.ingest.java.pipelines.VerbatimToOccurrencePipeline;
+import org.gbif.pipelines.io.avro.json.OccurrenceJsonRecord;
 import org.gbif.pipelines.transforms.common.FilterRecordsTransform;
 import org.gbif.pipelines.transforms.common.UniqueGbifIdTransform;
 import org.gbif.pipelines.transforms.common.UniqueIdTransform;
@@ -112,7 +121,13 @@ public class IngestMetricsBuilder {
         .addMetric(UniqueIdTransform.class, UNIQUE_IDS_COUNT)
         .addMetric(UniqueIdTransform.class, DUPLICATE_IDS_COUNT)
         .addMetric(UniqueIdTransform.class, IDENTICAL_OBJECTS_COUNT)
-        .addMetric(OccurrenceExtensionTransform.class, OCCURRENCE_EXT_COUNT);
+        .addMetric(OccurrenceExtensionTransform.class, OCCURRENCE_EXT_COUNT)
+        .addMetric(LocationTransform.class, GEOCODE_CACHE_HIT_COUNT)
+        .addMetric(LocationTransform.class, GEOCODE_CACHE_MISS_COUNT)
+        .addMetric(LocationTransform.class, GEOCODE_CACHE_LOAD_TIME_MS)
+        .addMetric(TaxonomyTransform.class, NAME_MATCH_CACHE_HIT_COUNT)
+        .addMetric(TaxonomyTransform.class, NAME_MATCH_CACHE_MISS_COUNT)
+        .addMetric(TaxonomyTransform.class, NAME_MATCH_CACHE_LOAD_TIME_MS);
   }
 
   /**
@@ -120,7 +135,12 @@ public class IngestMetricsBuilder {
    * org.gbif.pipelines.ingest.java.pipelines.InterpretedToEsIndexExtendedPipeline}
    */
   public static IngestMetrics createInterpretedToEsIndexMetrics() {
-    return IngestMetrics.create().addMetric(OccurrenceJsonTransform.class, AVRO_TO_JSON_COUNT);
+    IngestMetrics metrics =
+        IngestMetrics.create().addMetric(OccurrenceJsonTransform.class, AVRO_TO_JSON_COUNT);
+    // Counts of documents by indexed field, used by the validator
+    RecordFieldsUtils.fieldPaths(OccurrenceJsonRecord.getClassSchema())
+        .forEach(field -> metrics.addMetric(INDEXED_FIELDS_NAMESPACE, field));
+    return metrics;
   }
 
   /** {@link IngestMetrics} for hdfs tables */
@@ -29,12 +29,10 @@ import static org.gbif.pipelines.ingest.java.transforms.InterpretedAvroReader.re
 
 import java.time.LocalDateTime;
 import java.util.Collections;
-import java.util.List;
-import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import lombok.AccessLevel;
@@ -77,17 +75,15 @@ import org.gbif.pipelines.core.pojo.HdfsConfigs;
 import org.gbif.pipelines.core.utils.FsUtils;
 import org.gbif.pipelines.core.utils.HdfsViewUtils;
 import org.gbif.pipelines.ingest.java.metrics.IngestMetricsBuilder;
+import org.gbif.pipelines.ingest.java.transforms.InterpretedRecordsReader;
+import org.gbif.pipelines.ingest.java.transforms.MultiTableRecordWriter;
+import org.gbif.pipelines.ingest.java.transforms.MultiTableRecordWriter.Table;
 import org.gbif.pipelines.ingest.java.transforms.OccurrenceHdfsRecordConverter;
-import org.gbif.pipelines.ingest.java.transforms.TableConverter;
 import org.gbif.pipelines.ingest.java.transforms.TableRecordWriter;
 import org.gbif.pipelines.ingest.utils.HdfsViewAvroUtils;
 import org.gbif.pipelines.ingest.utils.SharedLockUtils;
 import org.gbif.pipelines.io.avro.AudubonRecord;
 import org.gbif.pipelines.io.avro.BasicRecord;
-import org.gbif.pipelines.io.avro.ClusteringRecord;
-import org.gbif.pipelines.io.avro.EventCoreRecord;
-import org.gbif.pipelines.io.avro.ExtendedRecord;
-import org.gbif.pipelines.io.avro.IdentifierRecord;
 import org.gbif.pipelines.io.avro.ImageRecord;
 import org.gbif.pipelines.io.avro.LocationRecord;
 import org.gbif.pipelines.io.avro.MeasurementOrFactRecord;
@@ -233,624 +229,256 @@ public class HdfsViewPipeline {
     FsUtils.deleteInterpretIfExist(
         hdfsConfigs, options.getInputPath(), datasetId, attempt, coreTerm, deleteTypes);
 
-    Function<InterpretationType, String> pathFn =
-        st -> {
-          String id = datasetId + '_' + attempt + AVRO_EXTENSION;
-          return PathBuilder.buildFilePathViewUsingInputPath(
-              options, recordType, st.name().toLowerCase(), id);
-        };
-
     log.info("Init metrics");
     IngestMetrics metrics = IngestMetricsBuilder.createInterpretedToHdfsViewMetrics();
 
     log.info("Creating pipeline");
 
-    // Reading all avro files in parallel
-    CompletableFuture<Map<String, MetadataRecord>> metadataMapFeature =
-        readAvroAsFuture(options, coreTerm, executor, MetadataTransform.builder().create());
-
-    CompletableFuture<Map<String, ExtendedRecord>> verbatimMapFeature =
-        readAvroAsFuture(options, coreTerm, executor, VerbatimTransform.create());
-
-    CompletableFuture<Map<String, IdentifierRecord>> idMapFeature =
-        readAvroAsFuture(options, coreTerm, executor, GbifIdTransform.builder().create());
-
-    CompletableFuture<Map<String, ClusteringRecord>> clusteringMapFeature =
-        readAvroAsFuture(options, coreTerm, executor, ClusteringTransform.builder().create());
-
-    CompletableFuture<Map<String, BasicRecord>> basicMapFeature =
-        readAvroAsFuture(options, coreTerm, executor, BasicTransform.builder().create());
-
-    CompletableFuture<Map<String, TemporalRecord>> temporalMapFeature =
-        readAvroAsFuture(options, coreTerm, executor, TemporalTransform.builder().create());
-
-    CompletableFuture<Map<String, LocationRecord>> locationMapFeature =
-        readAvroAsFuture(options, coreTerm, executor, LocationTransform.builder().create());
-
-    CompletableFuture<Map<String, TaxonRecord>> taxonMapFeature =
-        readAvroAsFuture(options, coreTerm, executor, TaxonomyTransform.builder().create());
-
-    CompletableFuture<Map<String, GrscicollRecord>> grscicollMapFeature =
-        readAvroAsFuture(options, coreTerm, executor, GrscicollTransform.builder().create());
-
-    CompletableFuture<Map<String, MultimediaRecord>> multimediaMapFeature =
-        readAvroAsFuture(options, coreTerm, executor, MultimediaTransform.builder().create());
-
-    CompletableFuture<Map<String, ImageRecord>> imageMapFeature =
-        readAvroAsFuture(options, coreTerm, executor, ImageTransform.builder().create());
-
-    CompletableFuture<Map<String, AudubonRecord>> audubonMapFeature =
-        readAvroAsFuture(options, coreTerm, executor, AudubonTransform.builder().create());
-
-    Map<String, IdentifierRecord> idRecordMap = idMapFeature.get();
-    MetadataRecord metadataRecord = metadataMapFeature.get().values().iterator().next();
-
-    OccurrenceHdfsRecordConverter.OccurrenceHdfsRecordConverterBuilder occurrenceBuilder =
-        OccurrenceHdfsRecordConverter.builder()
-            .metrics(metrics)
-            .metadata(metadataRecord)
-            .verbatimMap(verbatimMapFeature.get())
-            .temporalMap(temporalMapFeature.get())
-            .locationMap(locationMapFeature.get())
-            .taxonMap(taxonMapFeature.get())
-            .multimediaMap(multimediaMapFeature.get())
-            .imageMap(imageMapFeature.get())
-            .audubonMap(audubonMapFeature.get());
+    MetadataRecord metadataRecord =
+        readAvroAsFuture(options, coreTerm, executor, MetadataTransform.builder().create())
+            .get()
+            .values()
+            .iterator()
+            .next();
+
+    VerbatimTransform verbatimTr = VerbatimTransform.create();
+    ClusteringTransform clusteringTr = ClusteringTransform.builder().create();
+    BasicTransform basicTr = BasicTransform.builder().create();
+    TemporalTransform temporalTr = TemporalTransform.builder().create();
+    LocationTransform locationTr = LocationTransform.builder().create();
+    TaxonomyTransform taxonomyTr = TaxonomyTransform.builder().create();
+    GrscicollTransform grscicollTr = GrscicollTransform.builder().create();
+    MultimediaTransform multimediaTr = MultimediaTransform.builder().create();
+    ImageTransform imageTr = ImageTransform.builder().create();
+    AudubonTransform audubonTr = AudubonTransform.builder().create();
+    EventCoreTransform eventCoreTr = EventCoreTransform.builder().create();
+
+    // Reading all avro files in parallel, or merging sorted avro files chunk by chunk
+    InterpretedRecordsReader.InterpretedRecordsReaderBuilder readerBuilder =
+        InterpretedRecordsReader.builder()
+            .options(options)
+            .coreTerm(coreTerm)
+            .executor(executor)
+            .idTransform(GbifIdTransform.builder().create())
+            .transform(verbatimTr)
+            .transform(temporalTr)
+            .transform(locationTr)
+            .transform(taxonomyTr)
+            .transform(multimediaTr)
+            .transform(imageTr)
+            .transform(audubonTr);
 
     if (OCCURRENCE == recordType) {
-      occurrenceBuilder
-          .basicMap(basicMapFeature.get())
-          .grscicollMap(grscicollMapFeature.get())
-          .clusteringMap(clusteringMapFeature.get());
+      readerBuilder.transform(basicTr).transform(grscicollTr).transform(clusteringTr);
     }
 
     if (RecordType.EVENT == recordType) {
-      CompletableFuture<Map<String, EventCoreRecord>> eventCoreMapFeature =
-          readAvroAsFuture(options, coreTerm, executor, EventCoreTransform.builder().create());
-      occurrenceBuilder.eventCoreRecordMap(eventCoreMapFeature.get());
+      readerBuilder.transform(eventCoreTr);
     }
 
-    // OccurrenceHdfsRecord
-    TableRecordWriter.<OccurrenceHdfsRecord>builder()
-        .recordFunction(occurrenceBuilder.build().getFn())
-        .identifierRecords(idRecordMap.values())
-        .targetPathFn(pathFn)
-        .schema(OccurrenceHdfsRecord.getClassSchema())
-        .executor(executor)
-        .options(options)
-        .types(Collections.singleton(recordType.name()))
-        .recordType(recordType)
-        .build()
-        .write();
-
-    // MeasurementOrFactTable
-    Function<IdentifierRecord, List<MeasurementOrFactTable>> measurementOrFactFn =
-        TableConverter.<MeasurementOrFactTable>builder()
-            .metrics(metrics)
-            .converterFn(MeasurementOrFactTableConverter::convert)
-            .metadataRecord(metadataRecord)
-            .counterName(MEASUREMENT_OR_FACT_TABLE_RECORDS_COUNT)
-            .verbatimMap(verbatimMapFeature.get())
-            .build()
-            .getFn();
-
-    TableRecordWriter.<MeasurementOrFactTable>builder()
-        .recordFunction(measurementOrFactFn)
-        .identifierRecords(idRecordMap.values())
-        .targetPathFn(pathFn)
-        .schema(MeasurementOrFactTable.getClassSchema())
-        .executor(executor)
-        .options(options)
-        .recordType(MEASUREMENT_OR_FACT_TABLE)
-        .types(types)
-        .build()
-        .write();
-
-    // IdentificationTable
-    Function<IdentifierRecord, List<IdentificationTable>> identificationFn =
-        TableConverter.<IdentificationTable>builder()
-            .metrics(metrics)
-            .converterFn(IdentificationTableConverter::convert)
-            .metadataRecord(metadataRecord)
-            .counterName(IDENTIFICATION_TABLE_RECORDS_COUNT)
-            .verbatimMap(verbatimMapFeature.get())
-            .build()
-            .getFn();
-
-    TableRecordWriter.<IdentificationTable>builder()
-        .recordFunction(identificationFn)
-        .identifierRecords(idRecordMap.values())
-        .targetPathFn(pathFn)
-        .schema(IdentificationTable.getClassSchema())
-        .executor(executor)
-        .options(options)
-        .recordType(IDENTIFICATION_TABLE)
-        .types(types)
-        .build()
-        .write();
-
-    // ResourceRelationTable
-    Function<IdentifierRecord, List<ResourceRelationshipTable>> resourceRelationFn =
-        TableConverter.<ResourceRelationshipTable>builder()
-            .metrics(metrics)
-            .converterFn(ResourceRelationshipTableConverter::convert)
-            .metadataRecord(metadataRecord)
-            .counterName(RESOURCE_RELATIONSHIP_TABLE_RECORDS_COUNT)
-            .verbatimMap(verbatimMapFeature.get())
-            .build()
-            .getFn();
-
-    TableRecordWriter.<ResourceRelationshipTable>builder()
-        .recordFunction(resourceRelationFn)
-        .identifierRecords(idRecordMap.values())
-        .targetPathFn(pathFn)
-        .schema(ResourceRelationshipTable.getClassSchema())
-        .executor(executor)
-        .options(options)
-        .recordType(RESOURCE_RELATIONSHIP_TABLE)
-        .types(types)
-        .build()
-        .write();
-
-    // AmplificationTable
-    Function<IdentifierRecord, List<AmplificationTable>> amplificationFn =
-        TableConverter.<AmplificationTable>builder()
-            .metrics(metrics)
-            .converterFn(AmplificationTableConverter::convert)
-            .metadataRecord(metadataRecord)
-            .counterName(AMPLIFICATION_TABLE_RECORDS_COUNT)
-            .verbatimMap(verbatimMapFeature.get())
-            .build()
-            .getFn();
-
-    TableRecordWriter.<AmplificationTable>builder()
-        .recordFunction(amplificationFn)
-        .identifierRecords(idRecordMap.values())
-        .targetPathFn(pathFn)
-        .schema(AmplificationTable.getClassSchema())
-        .executor(executor)
-        .options(options)
-        .recordType(AMPLIFICATION_TABLE)
-        .types(types)
-        .build()
-        .write();
-
-    // CloningTable
-    Function<IdentifierRecord, List<CloningTable>> cloningFn =
-        TableConverter.<CloningTable>builder()
-            .metrics(metrics)
-            .converterFn(CloningTableConverter::convert)
-            .metadataRecord(metadataRecord)
-            .counterName(CLONING_TABLE_RECORDS_COUNT)
-            .verbatimMap(verbatimMapFeature.get())
-            .build()
-            .getFn();
-
-    TableRecordWriter.<CloningTable>builder()
-        .recordFunction(cloningFn)
-        .identifierRecords(idRecordMap.values())
-        .targetPathFn(pathFn)
-        .schema(CloningTable.getClassSchema())
-        .executor(executor)
-        .options(options)
-        .recordType(CLONING_TABLE)
-        .types(types)
-        .build()
-        .write();
-
-    // GelImageTable
-    Function<IdentifierRecord, List<GelImageTable>> gelImageFn =
-        TableConverter.<GelImageTable>builder()
-            .metrics(metrics)
-            .converterFn(GelImageTableConverter::convert)
-            .metadataRecord(metadataRecord)
-            .counterName(GEL_IMAGE_TABLE_RECORDS_COUNT)
-            .verbatimMap(verbatimMapFeature.get())
-            .build()
-            .getFn();
-
-    TableRecordWriter.<GelImageTable>builder()
-        .recordFunction(gelImageFn)
-        .identifierRecords(idRecordMap.values())
-        .targetPathFn(pathFn)
-        .schema(GelImageTable.getClassSchema())
-        .executor(executor)
-        .options(options)
-        .recordType(GEL_IMAGE_TABLE)
-        .types(types)
-        .build()
-        .write();
-
-    // LoanTable
-    Function<IdentifierRecord, List<LoanTable>> loanFn =
-        TableConverter.<LoanTable>builder()
-            .metrics(metrics)
-            .converterFn(LoanTableConverter::convert)
-            .metadataRecord(metadataRecord)
-            .counterName(LOAN_TABLE_RECORDS_COUNT)
-            .verbatimMap(verbatimMapFeature.get())
-            .build()
-            .getFn();
-
-    TableRecordWriter.<LoanTable>builder()
-        .recordFunction(loanFn)
-        .identifierRecords(idRecordMap.values())
-        .targetPathFn(pathFn)
-        .schema(LoanTable.getClassSchema())
-        .executor(executor)
-        .options(options)
-        .recordType(LOAN_TABLE)
-        .types(types)
-        .build()
-        .write();
-
-    // MaterialSampleTable
-    Function<IdentifierRecord, List<MaterialSampleTable>> materialSampleFn =
-        TableConverter.<MaterialSampleTable>builder()
-            .metrics(metrics)
-            .converterFn(MaterialSampleTableConverter::convert)
-            .metadataRecord(metadataRecord)
-            .counterName(MATERIAL_SAMPLE_TABLE_RECORDS_COUNT)
-            .verbatimMap(verbatimMapFeature.get())
-            .build()
-            .getFn();
-
-    TableRecordWriter.<MaterialSampleTable>builder()
-        .recordFunction(materialSampleFn)
-        .identifierRecords(idRecordMap.values())
-        .targetPathFn(pathFn)
-        .schema(MaterialSampleTable.getClassSchema())
-        .executor(executor)
-        .options(options)
-        .recordType(MATERIAL_SAMPLE_TABLE)
-        .types(types)
-        .build()
-        .write();
-
-    // PermitTable
-    Function<IdentifierRecord, List<PermitTable>> permitFn =
-        TableConverter.<PermitTable>builder()
-            .metrics(metrics)
-            .converterFn(PermitTableConverter::convert)
-            .metadataRecord(metadataRecord)
-            .counterName(PERMIT_TABLE_RECORDS_COUNT)
-            .verbatimMap(verbatimMapFeature.get())
-            .build()
-            .getFn();
-
-    TableRecordWriter.<PermitTable>builder()
-        .recordFunction(permitFn)
-        .identifierRecords(idRecordMap.values())
-        .targetPathFn(pathFn)
-        .schema(PermitTable.getClassSchema())
-        .executor(executor)
-        .options(options)
-        .recordType(PERMIT_TABLE)
-        .types(types)
-        .build()
-        .write();
-
-    // PreparationTable
-    Function<IdentifierRecord, List<PreparationTable>> preparationFn =
-        TableConverter.<PreparationTable>builder()
-            .metrics(metrics)
-            .converterFn(PreparationTableConverter::convert)
-            .metadataRecord(metadataRecord)
-            .counterName(PREPARATION_TABLE_RECORDS_COUNT)
-            .verbatimMap(verbatimMapFeature.get())
-            .build()
-            .getFn();
-
-    TableRecordWriter.<PreparationTable>builder()
-        .recordFunction(preparationFn)
-        .identifierRecords(idRecordMap.values())
-        .targetPathFn(pathFn)
-        .schema(PreparationTable.getClassSchema())
-        .executor(executor)
-        .options(options)
-        .recordType(PREPARATION_TABLE)
-        .types(types)
-        .build()
-        .write();
-
-    // PreservationTable
-    Function<IdentifierRecord, List<PreservationTable>> preservationFn =
-        TableConverter.<PreservationTable>builder()
-            .metrics(metrics)
-            .converterFn(PreservationTableConverter::convert)
-            .metadataRecord(metadataRecord)
-            .counterName(PRESERVATION_TABLE_RECORDS_COUNT)
-            .verbatimMap(verbatimMapFeature.get())
-            .build()
-            .getFn();
-
-    TableRecordWriter.<PreservationTable>builder()
-        .recordFunction(preservationFn)
-        .identifierRecords(idRecordMap.values())
-        .targetPathFn(pathFn)
-        .schema(PreservationTable.getClassSchema())
-        .executor(executor)
-        .options(options)
-        .recordType(PRESERVATION_TABLE)
-        .types(types)
-        .build()
-        .write();
-
-    // MeasurementScoreTable
-    Function<IdentifierRecord, List<GermplasmMeasurementScoreTable>> measurementScoreFn =
-        TableConverter.<GermplasmMeasurementScoreTable>builder()
-            .metrics(metrics)
-            .converterFn(GermplasmMeasurementScoreTableConverter::convert)
-            .metadataRecord(metadataRecord)
-            .counterName(MEASUREMENT_SCORE_TABLE_RECORDS_COUNT)
-            .verbatimMap(verbatimMapFeature.get())
-            .build()
-            .getFn();
-
-    TableRecordWriter.<GermplasmMeasurementScoreTable>builder()
-        .recordFunction(measurementScoreFn)
-        .identifierRecords(idRecordMap.values())
-        .targetPathFn(pathFn)
-        .schema(GermplasmMeasurementScoreTable.getClassSchema())
-        .executor(executor)
-        .options(options)
-        .recordType(GERMPLASM_MEASUREMENT_SCORE_TABLE)
-        .types(types)
-        .build()
-        .write();
-
-    // MeasurementTraitTable
-    Function<IdentifierRecord, List<GermplasmMeasurementTraitTable>> measurementTraitFn =
-        TableConverter.<GermplasmMeasurementTraitTable>builder()
-            .metrics(metrics)
-            .converterFn(GermplasmMeasurementTraitTableConverter::convert)
-            .metadataRecord(metadataRecord)
-            .counterName(MEASUREMENT_TRAIT_TABLE_RECORDS_COUNT)
-            .verbatimMap(verbatimMapFeature.get())
-            .build()
-            .getFn();
-
-    TableRecordWriter.<GermplasmMeasurementTraitTable>builder()
-        .recordFunction(measurementTraitFn)
-        .identifierRecords(idRecordMap.values())
-        .targetPathFn(pathFn)
-        .schema(GermplasmMeasurementTraitTable.getClassSchema())
-        .executor(executor)
-        .options(options)
-        .recordType(GERMPLASM_MEASUREMENT_TRAIT_TABLE)
-        .types(types)
-        .build()
-        .write();
-
-    // MeasurementTrialTable
-    Function<IdentifierRecord, List<GermplasmMeasurementTrialTable>> measurementTrialFn =
-        TableConverter.<GermplasmMeasurementTrialTable>builder()
-            .metrics(metrics)
-            .converterFn(GermplasmMeasurementTrialTableConverter::convert)
-            .metadataRecord(metadataRecord)
-            .counterName(MEASUREMENT_TRIAL_TABLE_RECORDS_COUNT)
-            .verbatimMap(verbatimMapFeature.get())
-            .build()
-            .getFn();
-
-    TableRecordWriter.<GermplasmMeasurementTrialTable>builder()
-        .recordFunction(measurementTrialFn)
-        .identifierRecords(idRecordMap.values())
-        .targetPathFn(pathFn)
-        .schema(GermplasmMeasurementTrialTable.getClassSchema())
-        .executor(executor)
-        .options(options)
-        .recordType(GERMPLASM_MEASUREMENT_TRIAL_TABLE)
-        .types(types)
-        .build()
-        .write();
-
-    // GermplasmAccessionTable
-    Function<IdentifierRecord, List<GermplasmAccessionTable>> germplasmAccessionFn =
-        TableConverter.<GermplasmAccessionTable>builder()
-            .metrics(metrics)
-            .converterFn(GermplasmAccessionTableConverter::convert)
-            .metadataRecord(metadataRecord)
-            .counterName(GERMPLASM_ACCESSION_TABLE_RECORDS_COUNT)
-            .verbatimMap(verbatimMapFeature.get())
-            .build()
-            .getFn();
-
-    TableRecordWriter.<GermplasmAccessionTable>builder()
-        .recordFunction(germplasmAccessionFn)
-        .identifierRecords(idRecordMap.values())
-        .targetPathFn(pathFn)
-        .schema(GermplasmAccessionTable.getClassSchema())
-        .executor(executor)
-        .options(options)
-        .recordType(GERMPLASM_ACCESSION_TABLE)
-        .types(types)
-        .build()
-        .write();
-
-    // ExtendedMeasurementOrFactTable
-    Function<IdentifierRecord, List<ExtendedMeasurementOrFactTable>> extendedMeasurementOrFactFn =
-        TableConverter.<ExtendedMeasurementOrFactTable>builder()
-            .metrics(metrics)
-            .converterFn(ExtendedMeasurementOrFactTableConverter::convert)
-            .metadataRecord(metadataRecord)
-            .counterName(EXTENDED_MEASUREMENT_OR_FACT_TABLE_RECORDS_COUNT)
-            .verbatimMap(verbatimMapFeature.get())
-            .build()
-            .getFn();
-
-    TableRecordWriter.<ExtendedMeasurementOrFactTable>builder()
-        .recordFunction(extendedMeasurementOrFactFn)
-        .identifierRecords(idRecordMap.values())
-        .targetPathFn(pathFn)
-        .schema(ExtendedMeasurementOrFactTable.getClassSchema())
-        .executor(executor)
-        .options(options)
-        .recordType(EXTENDED_MEASUREMENT_OR_FACT_TABLE)
-        .types(types)
-        .build()
-        .write();
-
-    // ChronometricAgeTable
-    Function<IdentifierRecord, List<ChronometricAgeTable>> chronometricAgeFn =
-        TableConverter.<ChronometricAgeTable>builder()
-            .metrics(metrics)
-            .converterFn(ChronometricAgeTableConverter::convert)
-            .metadataRecord(metadataRecord)
-            .counterName(CHRONOMETRIC_AGE_TABLE_RECORDS_COUNT)
-            .verbatimMap(verbatimMapFeature.get())
-            .build()
-            .getFn();
-
-    TableRecordWriter.<ChronometricAgeTable>builder()
-        .recordFunction(chronometricAgeFn)
-        .identifierRecords(idRecordMap.values())
-        .targetPathFn(pathFn)
-        .schema(ChronometricAgeTable.getClassSchema())
-        .executor(executor)
-        .options(options)
-        .recordType(CHRONOMETRIC_AGE_TABLE)
-        .types(types)
-        .build()
-        .write();
-
-    // ReferencesTable
-    Function<IdentifierRecord, List<ReferenceTable>> referencesFn =
-        TableConverter.<ReferenceTable>builder()
-            .metrics(metrics)
-            .converterFn(ReferenceTableConverter::convert)
-            .metadataRecord(metadataRecord)
-            .counterName(REFERENCE_TABLE_RECORDS_COUNT)
-            .verbatimMap(verbatimMapFeature.get())
-            .build()
-            .getFn();
-
-    TableRecordWriter.<ReferenceTable>builder()
-        .recordFunction(referencesFn)
-        .identifierRecords(idRecordMap.values())
-        .targetPathFn(pathFn)
-        .schema(ReferenceTable.getClassSchema())
-        .executor(executor)
-        .options(options)
-        .recordType(REFERENCE_TABLE)
-        .types(types)
-        .build()
-        .write();
-
-    // IdentifierTable
-    Function<IdentifierRecord, List<IdentifierTable>> identifierFn =
-        TableConverter.<IdentifierTable>builder()
-            .metrics(metrics)
-            .converterFn(IdentifierTableConverter::convert)
-            .metadataRecord(metadataRecord)
-            .counterName(IDENTIFIER_TABLE_RECORDS_COUNT)
-            .verbatimMap(verbatimMapFeature.get())
-            .build()
-            .getFn();
-
-    TableRecordWriter.<IdentifierTable>builder()
-        .recordFunction(identifierFn)
-        .identifierRecords(idRecordMap.values())
-        .targetPathFn(pathFn)
-        .schema(IdentifierTable.getClassSchema())
-        .executor(executor)
-        .options(options)
-        .recordType(IDENTIFIER_TABLE)
-        .types(types)
-        .build()
-        .write();
-
-    // DnaDerivedDataTable
-    Function<IdentifierRecord, List<DnaDerivedDataTable>> dnaDerivedDataFn =
-        TableConverter.<DnaDerivedDataTable>builder()
-            .metrics(metrics)
-            .converterFn(DnaDerivedDataTableConverter::convert)
-            .metadataRecord(metadataRecord)
-            .counterName(DNA_DERIVED_DATA_TABLE_RECORDS_COUNT)
-            .verbatimMap(verbatimMapFeature.get())
-            .build()
-            .getFn();
-
-    TableRecordWriter.<DnaDerivedDataTable>builder()
-        .recordFunction(dnaDerivedDataFn)
-        .identifierRecords(idRecordMap.values())
-        .targetPathFn(pathFn)
-        .schema(DnaDerivedDataTable.getClassSchema())
-        .executor(executor)
-        .options(options)
-        .recordType(DNA_DERIVED_DATA_TABLE)
-        .types(types)
-        .build()
-        .write();
-
-    // AudubonTable
-    Function<IdentifierRecord, List<AudubonTable>> audubonFn =
-        TableConverter.<AudubonTable>builder()
-            .metrics(metrics)
-            .converterFn(AudubonTableConverter::convert)
-            .metadataRecord(metadataRecord)
-            .counterName(AUDUBON_TABLE_RECORDS_COUNT)
-            .verbatimMap(verbatimMapFeature.get())
-            .build()
-            .getFn();
-
-    TableRecordWriter.<AudubonTable>builder()
-        .recordFunction(audubonFn)
-        .identifierRecords(idRecordMap.values())
-        .targetPathFn(pathFn)
-        .schema(AudubonTable.getClassSchema())
-        .executor(executor)
-        .options(options)
-        .recordType(AUDUBON_TABLE)
-        .types(types)
-        .build()
-        .write();
-
-    // ImageTable
-    Function<IdentifierRecord, List<ImageTable>> imageFn =
-        TableConverter.<ImageTable>builder()
-            .metrics(metrics)
-            .converterFn(ImageTableConverter::convert)
-            .metadataRecord(metadataRecord)
-            .counterName(IMAGE_TABLE_RECORDS_COUNT)
-            .verbatimMap(verbatimMapFeature.get())
-            .build()
-            .getFn();
-
-    TableRecordWriter.<ImageTable>builder()
-        .recordFunction(imageFn)
-        .identifierRecords(idRecordMap.values())
-        .targetPathFn(pathFn)
-        .schema(ImageTable.getClassSchema())
-        .executor(executor)
-        .options(options)
-        .recordType(IMAGE_TABLE)
-        .types(types)
-        .build()
-        .write();
-
-    // MultimediaTable
-    Function<IdentifierRecord, List<MultimediaTable>> multimediaFn =
-        TableConverter.<MultimediaTable>builder()
-            .metrics(metrics)
-            .converterFn(MultimediaTableConverter::convert)
-            .metadataRecord(metadataRecord)
-            .counterName(MULTIMEDIA_TABLE_RECORDS_COUNT)
-            .verbatimMap(verbatimMapFeature.get())
-            .build()
-            .getFn();
-
-    TableRecordWriter.<MultimediaTable>builder()
-        .recordFunction(multimediaFn)
-        .identifierRecords(idRecordMap.values())
-        .targetPathFn(pathFn)
-        .schema(MultimediaTable.getClassSchema())
-        .executor(executor)
-        .options(options)
-        .recordType(MULTIMEDIA_TABLE)
-        .types(types)
+    // Every chunk is written into its own files, all of them are moved together
+    AtomicInteger chunkCounter = new AtomicInteger();
+    readerBuilder
         .build()
-        .write();
+        .read(
+            chunk -> {
+              int chunkIdx = chunkCounter.getAndIncrement();
+              String postfix = chunkIdx == 0 ? "" : "_" + chunkIdx;
+              Function<InterpretationType, String> pathFn =
+                  st -> {
+                    String id = datasetId + '_' + attempt + postfix + AVRO_EXTENSION;
+                    return PathBuilder.buildFilePathViewUsingInputPath(
+                        options, recordType, st.name().toLowerCase(), id);
+                  };
+
+              OccurrenceHdfsRecordConverter.OccurrenceHdfsRecordConverterBuilder
+                  occurrenceBuilder =
+                      OccurrenceHdfsRecordConverter.builder()
+                          .metrics(metrics)
+                          .metadata(metadataRecord)
+                          .verbatimMap(chunk.get(verbatimTr))
+                          .temporalMap(chunk.get(temporalTr))
+                          .locationMap(chunk.get(locationTr))
+                          .taxonMap(chunk.get(taxonomyTr))
+                          .multimediaMap(chunk.get(multimediaTr))
+                          .imageMap(chunk.get(imageTr))
+                          .audubonMap(chunk.get(audubonTr));
+
+              if (OCCURRENCE == recordType) {
+                occurrenceBuilder
+                    .basicMap(chunk.get(basicTr))
+                    .grscicollMap(chunk.get(grscicollTr))
+                    .clusteringMap(chunk.get(clusteringTr));
+              }
+
+              if (RecordType.EVENT == recordType) {
+                occurrenceBuilder.eventCoreRecordMap(chunk.get(eventCoreTr));
+              }
+
+              // OccurrenceHdfsRecord
+              TableRecordWriter.<OccurrenceHdfsRecord>builder()
+                  .recordFunction(occurrenceBuilder.build().getFn())
+                  .identifierRecords(chunk.getIdentifiers())
+                  .targetPathFn(pathFn)
+                  .schema(OccurrenceHdfsRecord.getClassSchema())
+                  .executor(executor)
+                  .options(options)
+                  .types(Collections.singleton(recordType.name()))
+                  .recordType(recordType)
+                  .build()
+                  .write();
+
+              // Extension tables, all tables are written in one pass over the identifier records
+              MultiTableRecordWriter.builder()
+                  .identifierRecords(chunk.getIdentifiers())
+                  .verbatimMap(chunk.get(verbatimTr))
+                  .metadataRecord(metadataRecord)
+                  .metrics(metrics)
+                  .targetPathFn(pathFn)
+                  .executor(executor)
+                  .options(options)
+                  .types(types)
+                  .table(
+                      Table.create(
+                          MEASUREMENT_OR_FACT_TABLE,
+                          MeasurementOrFactTable.getClassSchema(),
+                          MEASUREMENT_OR_FACT_TABLE_RECORDS_COUNT,
+                          MeasurementOrFactTableConverter::convert))
+                  .table(
+                      Table.create(
+                          IDENTIFICATION_TABLE,
+                          IdentificationTable.getClassSchema(),
+                          IDENTIFICATION_TABLE_RECORDS_COUNT,
+                          IdentificationTableConverter::convert))
+                  .table(
+                      Table.create(
+                          RESOURCE_RELATIONSHIP_TABLE,
+                          ResourceRelationshipTable.getClassSchema(),
+                          RESOURCE_RELATIONSHIP_TABLE_RECORDS_COUNT,
+                          ResourceRelationshipTableConverter::convert))
+                  .table(
+                      Table.create(
+                          AMPLIFICATION_TABLE,
+                          AmplificationTable.getClassSchema(),
+                          AMPLIFICATION_TABLE_RECORDS_COUNT,
+                          AmplificationTableConverter::convert))
+                  .table(
+                      Table.create(
+                          CLONING_TABLE,
+                          CloningTable.getClassSchema(),
+                          CLONING_TABLE_RECORDS_COUNT,
+                          CloningTableConverter::convert))
+                  .table(
+                      Table.create(
+                          GEL_IMAGE_TABLE,
+                          GelImageTable.getClassSchema(),
+                          GEL_IMAGE_TABLE_RECORDS_COUNT,
+                          GelImageTableConverter::convert))
+                  .table(
+                      Table.create(
+                          LOAN_TABLE,
+                          LoanTable.getClassSchema(),
+                          LOAN_TABLE_RECORDS_COUNT,
+                          LoanTableConverter::convert))
+                  .table(
+                      Table.create(
+                          MATERIAL_SAMPLE_TABLE,
+                          MaterialSampleTable.getClassSchema(),
+                          MATERIAL_SAMPLE_TABLE_RECORDS_COUNT,
+                          MaterialSampleTableConverter::convert))
+                  .table(
+                      Table.create(
+                          PERMIT_TABLE,
+                          PermitTable.getClassSchema(),
+                          PERMIT_TABLE_RECORDS_COUNT,
+                          PermitTableConverter::convert))
+                  .table(
+                      Table.create(
+                          PREPARATION_TABLE,
+                          PreparationTable.getClassSchema(),
+                          PREPARATION_TABLE_RECORDS_COUNT,
+                          PreparationTableConverter::convert))
+                  .table(
+                      Table.create(
+                          PRESERVATION_TABLE,
+                          PreservationTable.getClassSchema(),
+                          PRESERVATION_TABLE_RECORDS_COUNT,
+                          PreservationTableConverter::convert))
+                  .table(
+                      Table.create(
+                          GERMPLASM_MEASUREMENT_SCORE_TABLE,
+                          GermplasmMeasurementScoreTable.getClassSchema(),
+                          MEASUREMENT_SCORE_TABLE_RECORDS_COUNT,
+                          GermplasmMeasurementScoreTableConverter::convert))
+                  .table(
+                      Table.create(
+                          GERMPLASM_MEASUREMENT_TRAIT_TABLE,
+                          GermplasmMeasurementTraitTable.getClassSchema(),
+                          MEASUREMENT_TRAIT_TABLE_RECORDS_COUNT,
+                          GermplasmMeasurementTraitTableConverter::convert))
+                  .table(
+                      Table.create(
+                          GERMPLASM_MEASUREMENT_TRIAL_TABLE,
+                          GermplasmMeasurementTrialTable.getClassSchema(),
+                          MEASUREMENT_TRIAL_TABLE_RECORDS_COUNT,
+                          GermplasmMeasurementTrialTableConverter::convert))
+                  .table(
+                      Table.create(
+                          GERMPLASM_ACCESSION_TABLE,
+                          GermplasmAccessionTable.getClassSchema(),
+                          GERMPLASM_ACCESSION_TABLE_RECORDS_COUNT,
+                          GermplasmAccessionTableConverter::convert))
+                  .table(
+                      Table.create(
+                          EXTENDED_MEASUREMENT_OR_FACT_TABLE,
+                          ExtendedMeasurementOrFactTable.getClassSchema(),
+                          EXTENDED_MEASUREMENT_OR_FACT_TABLE_RECORDS_COUNT,
+                          ExtendedMeasurementOrFactTableConverter::convert))
+                  .table(
+                      Table.create(
+                          CHRONOMETRIC_AGE_TABLE,
+                          ChronometricAgeTable.getClassSchema(),
+                          CHRONOMETRIC_AGE_TABLE_RECORDS_COUNT,
+                          ChronometricAgeTableConverter::convert))
+                  .table(
+                      Table.create(
+                          REFERENCE_TABLE,
+                          ReferenceTable.getClassSchema(),
+                          REFERENCE_TABLE_RECORDS_COUNT,
+                          ReferenceTableConverter::convert))
+                  .table(
+                      Table.create(
+                          IDENTIFIER_TABLE,
+                          IdentifierTable.getClassSchema(),
+                          IDENTIFIER_TABLE_RECORDS_COUNT,
+                          IdentifierTableConverter::convert))
+                  .table(
+                      Table.create(
+                          DNA_DERIVED_DATA_TABLE,
+                          DnaDerivedDataTable.getClassSchema(),
+                          DNA_DERIVED_DATA_TABLE_RECORDS_COUNT,
+                          DnaDerivedDataTableConverter::convert))
+                  .table(
+                      Table.create(
+                          AUDUBON_TABLE,
+                          AudubonTable.getClassSchema(),
+                          AUDUBON_TABLE_RECORDS_COUNT,
+                          AudubonTableConverter::convert))
+                  .table(
+                      Table.create(
+                          IMAGE_TABLE,
+                          ImageTable.getClassSchema(),
+                          IMAGE_TABLE_RECORDS_COUNT,
+                          ImageTableConverter::convert))
+                  .table(
+                      Table.create(
+                          MULTIMEDIA_TABLE,
+                          MultimediaTable.getClassSchema(),
+                          MULTIMEDIA_TABLE_RECORDS_COUNT,
+                          MultimediaTableConverter::convert))
+                  .build()
+                  .write();
+            });
 
     // Move files
     Mutex.Action action = () -> HdfsViewAvroUtils.cleanAndMove(options);
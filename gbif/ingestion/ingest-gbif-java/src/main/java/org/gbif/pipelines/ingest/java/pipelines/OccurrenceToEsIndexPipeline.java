@@ -3,8 +3,6 @@ package org.gbif.pipelines.ingest.java.pipelines;
 import static org.gbif.pipelines.ingest.java.transforms.InterpretedAvroReader.readAvroAsFuture;
 
 import java.time.LocalDateTime;
-import java.util.Map;
-import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.function.Function;
@@ -22,10 +20,9 @@ import org.gbif.pipelines.common.beam.options.PipelinesOptionsFactory;
 import org.gbif.pipelines.core.io.ElasticsearchWriter;
 import org.gbif.pipelines.ingest.java.metrics.IngestMetricsBuilder;
 import org.gbif.pipelines.ingest.java.transforms.IndexRequestConverter;
+import org.gbif.pipelines.ingest.java.transforms.InterpretedRecordsReader;
 import org.gbif.pipelines.io.avro.AudubonRecord;
 import org.gbif.pipelines.io.avro.BasicRecord;
-import org.gbif.pipelines.io.avro.ClusteringRecord;
-import org.gbif.pipelines.io.avro.ExtendedRecord;
 import org.gbif.pipelines.io.avro.IdentifierRecord;
 import org.gbif.pipelines.io.avro.ImageRecord;
 import org.gbif.pipelines.io.avro.LocationRecord;
@@ -132,74 +129,78 @@ public class OccurrenceToEsIndexPipeline {
 
     log.info("Creating pipeline");
     log.info("Reading avro files...");
-    // Reading all avro files in parallel
-    CompletableFuture<Map<String, MetadataRecord>> metadataMapFeature =
-        readAvroAsFuture(options, CORE_TERM, executor, MetadataTransform.builder().create());
-
-    CompletableFuture<Map<String, ExtendedRecord>> verbatimMapFeature =
-        readAvroAsFuture(options, CORE_TERM, executor, VerbatimTransform.create());
-
-    CompletableFuture<Map<String, IdentifierRecord>> idMapFeature =
-        readAvroAsFuture(options, CORE_TERM, executor, GbifIdTransform.builder().create());
-
-    CompletableFuture<Map<String, ClusteringRecord>> clusteringMapFeature =
-        readAvroAsFuture(options, CORE_TERM, executor, ClusteringTransform.builder().create());
-
-    CompletableFuture<Map<String, BasicRecord>> basicMapFeature =
-        readAvroAsFuture(options, CORE_TERM, executor, BasicTransform.builder().create());
-
-    CompletableFuture<Map<String, TemporalRecord>> temporalMapFeature =
-        readAvroAsFuture(options, CORE_TERM, executor, TemporalTransform.builder().create());
-
-    CompletableFuture<Map<String, LocationRecord>> locationMapFeature =
-        readAvroAsFuture(options, CORE_TERM, executor, LocationTransform.builder().create());
-
-    CompletableFuture<Map<String, TaxonRecord>> taxonMapFeature =
-        readAvroAsFuture(options, CORE_TERM, executor, TaxonomyTransform.builder().create());
-
-    CompletableFuture<Map<String, GrscicollRecord>> grscicollMapFeature =
-        readAvroAsFuture(options, CORE_TERM, executor, GrscicollTransform.builder().create());
-
-    CompletableFuture<Map<String, MultimediaRecord>> multimediaMapFeature =
-        readAvroAsFuture(options, CORE_TERM, executor, MultimediaTransform.builder().create());
-
-    CompletableFuture<Map<String, ImageRecord>> imageMapFeature =
-        readAvroAsFuture(options, CORE_TERM, executor, ImageTransform.builder().create());
-
-    CompletableFuture<Map<String, AudubonRecord>> audubonMapFeature =
-        readAvroAsFuture(options, CORE_TERM, executor, AudubonTransform.builder().create());
-
-    Function<IdentifierRecord, IndexRequest> indexRequestFn =
-        IndexRequestConverter.builder()
-            .metrics(metrics)
-            .esIndexName(options.getEsIndexName())
-            .esDocumentId(options.getEsDocumentId())
-            .metadata(metadataMapFeature.get().values().iterator().next())
-            .verbatimMap(verbatimMapFeature.get())
-            .clusteringMap(clusteringMapFeature.get())
-            .basicMap(basicMapFeature.get())
-            .temporalMap(temporalMapFeature.get())
-            .locationMap(locationMapFeature.get())
-            .taxonMap(taxonMapFeature.get())
-            .grscicollMap(grscicollMapFeature.get())
-            .multimediaMap(multimediaMapFeature.get())
-            .imageMap(imageMapFeature.get())
-            .audubonMap(audubonMapFeature.get())
-            .build()
-            .getFn();
-
-    log.info("Pushing data into Elasticsearch");
-    ElasticsearchWriter.<IdentifierRecord>builder()
-        .esHosts(options.getEsHosts())
-        .esMaxBatchSize(options.getEsMaxBatchSize())
-        .esMaxBatchSizeBytes(options.getEsMaxBatchSizeBytes())
-        .executor(executor)
-        .syncModeThreshold(options.getSyncThreshold())
-        .indexRequestFn(indexRequestFn)
-        .records(idMapFeature.get().values())
-        .backPressure(options.getBackPressure())
-        .build()
-        .write();
+    MetadataRecord metadata =
+        readAvroAsFuture(options, CORE_TERM, executor, MetadataTransform.builder().create())
+            .get()
+            .values()
+            .iterator()
+            .next();
+
+    VerbatimTransform verbatimTr = VerbatimTransform.create();
+    ClusteringTransform clusteringTr = ClusteringTransform.builder().create();
+    BasicTransform basicTr = BasicTransform.builder().create();
+    TemporalTransform temporalTr = TemporalTransform.builder().create();
+    LocationTransform locationTr = LocationTransform.builder().create();
+    TaxonomyTransform taxonomyTr = TaxonomyTransform.builder().create();
+    GrscicollTransform grscicollTr = GrscicollTransform.builder().create();
+    MultimediaTransform multimediaTr = MultimediaTransform.builder().create();
+    ImageTransform imageTr = ImageTransform.builder().create();
+    AudubonTransform audubonTr = AudubonTransform.builder().create();
+
+    // Reading all avro files in parallel, or merging sorted avro files chunk by chunk, one ES
+    // client is used for all chunks
+    try (ElasticsearchWriter<IdentifierRecord> writer =
+        ElasticsearchWriter.<IdentifierRecord>builder()
+            .esHosts(options.getEsHosts())
+            .esMaxBatchSize(options.getEsMaxBatchSize())
+            .esMaxBatchSizeBytes(options.getEsMaxBatchSizeBytes())
+            .executor(executor)
+            .syncModeThreshold(options.getSyncThreshold())
+            .backPressure(options.getBackPressure())
+            .esTargetBatchLatencyMs(options.getEsTargetBatchLatencyMs())
+            .esMaxRetries(options.getEsMaxRetries())
+            .build()) {
+      InterpretedRecordsReader.builder()
+          .options(options)
+          .coreTerm(CORE_TERM)
+          .executor(executor)
+          .idTransform(GbifIdTransform.builder().create())
+          .transform(verbatimTr)
+          .transform(clusteringTr)
+          .transform(basicTr)
+          .transform(temporalTr)
+          .transform(locationTr)
+          .transform(taxonomyTr)
+          .transform(grscicollTr)
+          .transform(multimediaTr)
+          .transform(imageTr)
+          .transform(audubonTr)
+          .build()
+          .read(
+              chunk -> {
+                Function<IdentifierRecord, IndexRequest> indexRequestFn =
+                    IndexRequestConverter.builder()
+                        .metrics(metrics)
+                        .esIndexName(options.getEsIndexName())
+                        .esDocumentId(options.getEsDocumentId())
+                        .metadata(metadata)
+                        .verbatimMap(chunk.get(verbatimTr))
+                        .clusteringMap(chunk.get(clusteringTr))
+                        .basicMap(chunk.get(basicTr))
+                        .temporalMap(chunk.get(temporalTr))
+                        .locationMap(chunk.get(locationTr))
+                        .taxonMap(chunk.get(taxonomyTr))
+                        .grscicollMap(chunk.get(grscicollTr))
+                        .multimediaMap(chunk.get(multimediaTr))
+                        .imageMap(chunk.get(imageTr))
+                        .audubonMap(chunk.get(audubonTr))
+                        .build()
+                        .getFn();
+
+                log.info("Pushing data into Elasticsearch");
+                writer.write(chunk.getIdentifiers(), indexRequestFn);
+              });
+    }
 
     MetricsHandler.saveCountersToTargetPathFile(options, metrics.getMetricsResult());
     log.info("Pipeline has been finished - {}", LocalDateTime.now());
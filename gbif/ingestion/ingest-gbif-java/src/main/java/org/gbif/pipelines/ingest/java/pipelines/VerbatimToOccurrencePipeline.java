@@ -3,10 +3,12 @@ package org.gbif.pipelines.ingest.java.pipelines;
 import static org.gbif.api.model.pipelines.InterpretationType.RecordType;
 import static org.gbif.pipelines.common.PipelinesVariables.Metrics.DUPLICATE_IDS_COUNT;
 import static org.gbif.pipelines.ingest.java.transforms.InterpretedAvroWriter.createAvroWriter;
+import static org.gbif.pipelines.ingest.java.transforms.InterpretedAvroWriter.sortById;
 
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -17,7 +19,7 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.function.Consumer;
 import java.util.function.Function;
-import java.util.stream.Stream;
+import java.util.function.UnaryOperator;
 import lombok.AccessLevel;
 import lombok.Cleanup;
 import lombok.NoArgsConstructor;
@@ -29,6 +31,7 @@ import org.gbif.pipelines.common.beam.options.InterpretationPipelineOptions;
 import org.gbif.pipelines.common.beam.options.PipelinesOptionsFactory;
 import org.gbif.pipelines.common.beam.utils.PathBuilder;
 import org.gbif.pipelines.core.io.AvroReader;
+import org.gbif.pipelines.core.io.UniqueIdIndex;
 import org.gbif.pipelines.core.pojo.HdfsConfigs;
 import org.gbif.pipelines.core.utils.FsUtils;
 import org.gbif.pipelines.ingest.java.pipelines.interpretation.Shutdown;
@@ -60,7 +63,7 @@ import org.slf4j.MDC;
  * Pipeline sequence:
  *
  * <pre>
- *    1) Reads verbatim.avro file
+ *    1) Reads verbatim.avro file, the whole file or chunk by chunk using --useStreamingMode=true
  *    2) Interprets and converts avro {@link org.gbif.pipelines.io.avro.ExtendedRecord} file to:
  *      {@link org.gbif.pipelines.io.avro.MetadataRecord},
  *      {@link org.gbif.pipelines.io.avro.BasicRecord},
@@ -192,18 +195,48 @@ public class VerbatimToOccurrencePipeline {
       }
 
       // Read DWCA and replace default values
-      Map<String, ExtendedRecord> erMap =
-          AvroReader.readUniqueRecords(
-              hdfsConfigs,
-              ExtendedRecord.class,
-              options.getInputPath(),
-              () -> transformsFactory.getMetrics().incMetric(DUPLICATE_IDS_COUNT));
-
-      Map<String, ExtendedRecord> erExtMap = occExtensionTr.transform(erMap);
-      erExtMap = extensionFilterTr.transform(erExtMap);
-      defaultValuesTr.replaceDefaultValues(erExtMap);
+      UnaryOperator<Map<String, ExtendedRecord>> prepareFn =
+          erMap -> {
+            Map<String, ExtendedRecord> erExtMap = occExtensionTr.transform(erMap);
+            erExtMap = extensionFilterTr.transform(erExtMap);
+            defaultValuesTr.replaceDefaultValues(erExtMap);
+            return erExtMap;
+          };
+
+      // Source of verbatim records, the whole map at once or chunk by chunk in streaming mode
+      Consumer<Consumer<Map<String, ExtendedRecord>>> erSource;
+      long recordsNumber;
+      if (options.getUseStreamingMode()) {
+        log.info("Streaming mode, chunk size - {}", options.getStreamingChunkSize());
+        UniqueIdIndex erIdIndex =
+            AvroReader.indexUniqueRecords(
+                hdfsConfigs,
+                ExtendedRecord.class,
+                options.getInputPath(),
+                () -> transformsFactory.getMetrics().incMetric(DUPLICATE_IDS_COUNT));
+        recordsNumber = erIdIndex.size();
+        erSource =
+            chunkFn ->
+                AvroReader.readUniqueRecords(
+                    hdfsConfigs,
+                    ExtendedRecord.class,
+                    options.getInputPath(),
+                    erIdIndex,
+                    options.getStreamingChunkSize(),
+                    chunk -> chunkFn.accept(prepareFn.apply(chunk)));
+      } else {
+        Map<String, ExtendedRecord> erExtMap =
+            prepareFn.apply(
+                AvroReader.readUniqueRecords(
+                    hdfsConfigs,
+                    ExtendedRecord.class,
+                    options.getInputPath(),
+                    () -> transformsFactory.getMetrics().incMetric(DUPLICATE_IDS_COUNT)));
+        recordsNumber = erExtMap.size();
+        erSource = chunkFn -> chunkFn.accept(erExtMap);
+      }
 
-      boolean useSyncMode = options.getSyncThreshold() > erExtMap.size();
+      boolean useSyncMode = options.getSyncThreshold() > recordsNumber;
 
       // Skip interpretation and use avro reader when partial intepretation is activated
       Function<ExtendedRecord, Optional<IdentifierRecord>> idFn;
@@ -240,13 +273,19 @@ public class VerbatimToOccurrencePipeline {
       UniqueGbifIdTransform gbifIdTransform =
           UniqueGbifIdTransform.builder()
               .executor(executor)
-              .erMap(erExtMap)
+              .erMap(Collections.emptyMap())
               .idTransformFn(idFn)
               .useSyncMode(useSyncMode)
               .skipTransform(options.isUseExtendedRecordId())
               .counterFn(transformsFactory.getIncMetricFn())
-              .build()
-              .run();
+              .build();
+
+      erSource.accept(
+          chunk -> {
+            // The same id can appear in different chunks after the occurrence extension transform
+            chunk.keySet().removeIf(gbifIdTransform.getErIdMap()::containsKey);
+            gbifIdTransform.run(chunk);
+          });
 
       log.info("Starting rest of interpretations...");
 
@@ -273,10 +312,11 @@ public class VerbatimToOccurrencePipeline {
         // Create interpretation function
         Consumer<ExtendedRecord> interpretAllFn =
             er -> {
-              IdentifierRecord idInvalid = gbifIdTransform.getIdInvalidMap().get(er.getId());
+              // Entries are removed to release memory as records are interpreted
+              IdentifierRecord idInvalid = gbifIdTransform.getIdInvalidMap().remove(er.getId());
 
               if (idInvalid == null) {
-                IdentifierRecord id = gbifIdTransform.getErIdMap().get(er.getId());
+                IdentifierRecord id = gbifIdTransform.getErIdMap().remove(er.getId());
 
                 // Can be null if there are GBIF id collisstions and identifiers stage dropped
                 // duplicates
@@ -323,38 +363,37 @@ public class VerbatimToOccurrencePipeline {
             };
 
         // Run async writing for GbifId
-        Stream<CompletableFuture<Void>> streamIds = Stream.empty();
+        CompletableFuture<Void> idsFuture = CompletableFuture.completedFuture(null);
         if (useGbifIdWriteIO(types) || useAbsentGbifIdReadIO(types)) {
           Collection<IdentifierRecord> idCollection = gbifIdTransform.getIdMap().values();
-          if (useSyncMode) {
-            streamIds =
-                Stream.of(
-                    CompletableFuture.runAsync(
-                        () -> idCollection.forEach(gbifIdWriter::append), executor));
-          } else {
-            streamIds =
-                idCollection.stream()
-                    .map(v -> CompletableFuture.runAsync(() -> gbifIdWriter.append(v), executor));
-          }
+          idsFuture = runAsync(idCollection, gbifIdWriter::append, useSyncMode, executor);
         }
 
-        // Run async interpretation and writing for all records
-        Stream<CompletableFuture<Void>> streamAll;
-        Collection<ExtendedRecord> erCollection = erExtMap.values();
-        if (useSyncMode) {
-          streamAll =
-              Stream.of(
-                  CompletableFuture.runAsync(() -> erCollection.forEach(interpretAllFn), executor));
-        } else {
-          streamAll =
-              erCollection.stream()
-                  .map(v -> CompletableFuture.runAsync(() -> interpretAllFn.accept(v), executor));
-        }
+        // Run async interpretation and writing for all records, waiting for every chunk
+        erSource.accept(
+            chunk -> runAsync(chunk.values(), interpretAllFn, useSyncMode, executor).join());
 
         // Wait for all features
-        CompletableFuture<?>[] futures =
-            Stream.concat(streamIds, streamAll).toArray(CompletableFuture[]::new);
-        CompletableFuture.allOf(futures).get();
+        idsFuture.get();
+      }
+
+      if (options.getUseSortedAvro()) {
+        log.info("Sorting interpreted avro files by id...");
+        sortById(
+            options,
+            CORE_TERM,
+            executor,
+            gbifIdTr,
+            verbatimTr,
+            clusteringTr,
+            basicTr,
+            temporalTr,
+            multimediaTr,
+            imageTr,
+            audubonTr,
+            taxonomyTr,
+            grscicollTr,
+            locationTr);
       }
 
     } catch (Exception e) {
@@ -365,6 +404,7 @@ public class VerbatimToOccurrencePipeline {
     }
 
     log.info("Save metrics into the file and set files owner");
+    transformsFactory.drainCacheMetrics();
     String metadataPath =
         PathBuilder.buildDatasetAttemptPath(options, options.getMetaFileName(), false);
     if (!FsUtils.fileExists(hdfsConfigs, metadataPath) || useGbifIdWriteIO(types)) {
@@ -375,6 +415,21 @@ public class VerbatimToOccurrencePipeline {
     log.info("Pipeline has been finished - {}", LocalDateTime.now());
   }
 
+  private static <T> CompletableFuture<Void> runAsync(
+      Collection<T> collection,
+      Consumer<T> consumer,
+      boolean useSyncMode,
+      ExecutorService executor) {
+    if (useSyncMode) {
+      return CompletableFuture.runAsync(() -> collection.forEach(consumer), executor);
+    }
+    CompletableFuture<?>[] futures =
+        collection.stream()
+            .map(v -> CompletableFuture.runAsync(() -> consumer.accept(v), executor))
+            .toArray(CompletableFuture[]::new);
+    return CompletableFuture.allOf(futures);
+  }
+
   private static boolean useGbifIdWriteIO(Set<String> types) {
     return types.contains(RecordType.IDENTIFIER.name()) || types.contains(RecordType.ALL.name());
   }
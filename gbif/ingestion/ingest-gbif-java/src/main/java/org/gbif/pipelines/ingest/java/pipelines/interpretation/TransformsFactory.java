@@ -1,5 +1,6 @@
 package org.gbif.pipelines.ingest.java.pipelines.interpretation;
 
+import java.util.ArrayList;
 import java.util.List;
 import lombok.Getter;
 import org.gbif.common.parsers.date.DateComponentOrdering;
@@ -15,6 +16,7 @@ import org.gbif.pipelines.core.functions.SerializableConsumer;
 import org.gbif.pipelines.core.functions.SerializableSupplier;
 import org.gbif.pipelines.core.pojo.HdfsConfigs;
 import org.gbif.pipelines.core.ws.metadata.MetadataServiceClient;
+import org.gbif.pipelines.factory.CachedKeyValueStore;
 import org.gbif.pipelines.factory.ClusteringServiceFactory;
 import org.gbif.pipelines.factory.FileVocabularyFactory;
 import org.gbif.pipelines.factory.GeocodeKvStoreFactory;
@@ -55,6 +57,8 @@ public class TransformsFactory {
   private final HdfsConfigs hdfsConfigs;
   private final PipelinesConfig config;
   private final List<DateComponentOrdering> dateComponentOrdering;
+  private final List<SerializableSupplier<? extends KeyValueStore<?, ?>>> kvStoreSuppliers =
+      new ArrayList<>();
 
   private TransformsFactory(InterpretationPipelineOptions options) {
     this.options = options;
@@ -72,6 +76,11 @@ public class TransformsFactory {
     return new TransformsFactory(options);
   }
 
+  /** Adds cache counters of the KV stores used by the created transforms to the metrics */
+  public void drainCacheMetrics() {
+    kvStoreSuppliers.forEach(s -> CachedKeyValueStore.drainMetrics(s.get(), metrics::incMetric));
+  }
+
   public MetadataTransform createMetadataTransform() {
     SerializableSupplier<MetadataServiceClient> metadataServiceClientSupplier = null;
     if (options.getUseMetadataWsCalls() && !options.getTestMode()) {
@@ -142,6 +151,7 @@ public class TransformsFactory {
         nameUsageMatchServiceSupplier = null;
     if (!options.getTestMode()) {
       nameUsageMatchServiceSupplier = NameUsageMatchStoreFactory.getInstanceSupplier(config);
+      kvStoreSuppliers.add(nameUsageMatchServiceSupplier);
     }
     return TaxonomyTransform.builder()
         .kvStoreSupplier(nameUsageMatchServiceSupplier)
@@ -171,6 +181,7 @@ public class TransformsFactory {
     SerializableSupplier<KeyValueStore<LatLng, GeocodeResponse>> geocodeServiceSupplier = null;
     if (!options.getTestMode()) {
       geocodeServiceSupplier = GeocodeKvStoreFactory.getInstanceSupplier(hdfsConfigs, config);
+      kvStoreSuppliers.add(geocodeServiceSupplier);
     }
     return LocationTransform.builder()
         .geocodeKvStoreSupplier(geocodeServiceSupplier)
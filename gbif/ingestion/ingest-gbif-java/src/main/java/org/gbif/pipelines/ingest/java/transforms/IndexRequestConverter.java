@@ -12,6 +12,7 @@ import org.elasticsearch.action.index.IndexRequest;
 import org.gbif.pipelines.common.beam.metrics.IngestMetrics;
 import org.gbif.pipelines.core.converters.MultimediaConverter;
 import org.gbif.pipelines.core.converters.OccurrenceJsonConverter;
+import org.gbif.pipelines.core.utils.RecordFieldsUtils;
 import org.gbif.pipelines.io.avro.AudubonRecord;
 import org.gbif.pipelines.io.avro.BasicRecord;
 import org.gbif.pipelines.io.avro.ClusteringRecord;
@@ -83,6 +84,7 @@ public class IndexRequestConverter {
               .convert();
 
       metrics.incMetric(AVRO_TO_JSON_COUNT);
+      RecordFieldsUtils.forEachPresentField(json, metrics::incMetric);
 
       IndexRequest indexRequest = new IndexRequest(esIndexName).source(json.toString(), JSON);
 
@@ -1,8 +1,13 @@
 package org.gbif.pipelines.ingest.java.transforms;
 
+import static org.gbif.pipelines.common.PipelinesVariables.Pipeline.ALL_AVRO;
 import static org.gbif.pipelines.common.PipelinesVariables.Pipeline.AVRO_EXTENSION;
 import static org.gbif.pipelines.core.utils.FsUtils.createParentDirectories;
 
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import lombok.SneakyThrows;
@@ -12,6 +17,8 @@ import org.apache.hadoop.fs.Path;
 import org.gbif.dwc.terms.DwcTerm;
 import org.gbif.pipelines.common.beam.options.InterpretationPipelineOptions;
 import org.gbif.pipelines.common.beam.utils.PathBuilder;
+import org.gbif.pipelines.core.io.AvroSorter;
+import org.gbif.pipelines.core.io.ShardedDataFileWriter;
 import org.gbif.pipelines.core.io.SyncDataFileWriter;
 import org.gbif.pipelines.core.io.SyncDataFileWriterBuilder;
 import org.gbif.pipelines.core.pojo.HdfsConfigs;
@@ -29,16 +36,31 @@ public class InterpretedAvroWriter {
       DwcTerm term,
       String id,
       String baseName) {
+    HdfsConfigs hdfsConfigs =
+        HdfsConfigs.create(options.getHdfsSiteConfig(), options.getCoreSiteConfig());
+
+    if (options.getUseShardedWriters()) {
+      return ShardedDataFileWriter.<T>builder()
+          .schema(transform.getAvroSchema())
+          .codec(options.getAvroCompressionType())
+          .syncInterval(options.getAvroSyncInterval())
+          .maxShardBytes(options.getShardedWriterMaxBytes())
+          .outputStreamFn(
+              shard -> {
+                String shardId = id + "-" + shard + AVRO_EXTENSION;
+                return createOutputStream(
+                    hdfsConfigs,
+                    PathBuilder.buildPathInterpretUsingTargetPath(options, term, baseName, shardId));
+              })
+          .build();
+    }
+
     String pathString =
         PathBuilder.buildPathInterpretUsingTargetPath(options, term, baseName, id + AVRO_EXTENSION);
-    Path path = new Path(pathString);
-    FileSystem fs =
-        createParentDirectories(
-            HdfsConfigs.create(options.getHdfsSiteConfig(), options.getCoreSiteConfig()), path);
     return SyncDataFileWriterBuilder.builder()
         .schema(transform.getAvroSchema())
         .codec(options.getAvroCompressionType())
-        .outputStream(fs.create(path))
+        .outputStream(createOutputStream(hdfsConfigs, pathString))
         .syncInterval(options.getAvroSyncInterval())
         .build()
         .createSyncDataFileWriter();
@@ -48,4 +70,42 @@ public class InterpretedAvroWriter {
       InterpretationPipelineOptions options, Transform<?, T> transform, DwcTerm term, String id) {
     return createAvroWriter(options, transform, term, id, transform.getBaseName());
   }
+
+  /**
+   * Rewrites avro files of every transform as runs sorted by id, in parallel, see {@link
+   * AvroSorter}. The run size is {@link InterpretationPipelineOptions#getStreamingChunkSize()}
+   */
+  public static void sortById(
+      InterpretationPipelineOptions options,
+      DwcTerm term,
+      ExecutorService executor,
+      Transform<?, ?>... transforms) {
+    HdfsConfigs hdfsConfigs =
+        HdfsConfigs.create(options.getHdfsSiteConfig(), options.getCoreSiteConfig());
+    CompletableFuture<?>[] futures =
+        Arrays.stream(transforms)
+            .map(
+                t -> {
+                  String path =
+                      PathBuilder.buildPathInterpretUsingTargetPath(
+                          options, term, t.getBaseName(), ALL_AVRO);
+                  Runnable sortFn =
+                      () ->
+                          AvroSorter.sortById(
+                              hdfsConfigs,
+                              t.getReturnClazz(),
+                              path,
+                              options.getStreamingChunkSize());
+                  return CompletableFuture.runAsync(sortFn, executor);
+                })
+            .toArray(CompletableFuture[]::new);
+    CompletableFuture.allOf(futures).join();
+  }
+
+  @SneakyThrows
+  private static OutputStream createOutputStream(HdfsConfigs hdfsConfigs, String pathString) {
+    Path path = new Path(pathString);
+    FileSystem fs = createParentDirectories(hdfsConfigs, path);
+    return fs.create(path);
+  }
 }
@@ -0,0 +1,162 @@
+package org.gbif.pipelines.ingest.java.transforms;
+
+import static org.gbif.pipelines.common.PipelinesVariables.Pipeline.ALL_AVRO;
+import static org.gbif.pipelines.ingest.java.transforms.InterpretedAvroReader.readAvroAsFuture;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Singular;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.avro.specific.SpecificRecordBase;
+import org.gbif.dwc.terms.DwcTerm;
+import org.gbif.pipelines.common.beam.options.InterpretationPipelineOptions;
+import org.gbif.pipelines.common.beam.utils.PathBuilder;
+import org.gbif.pipelines.core.io.SortedAvroReader;
+import org.gbif.pipelines.core.pojo.HdfsConfigs;
+import org.gbif.pipelines.io.avro.IdentifierRecord;
+import org.gbif.pipelines.io.avro.Record;
+import org.gbif.pipelines.transforms.Transform;
+
+/**
+ * Joins interpreted records of several types with identifier records and passes them to a consumer
+ * in chunks.
+ *
+ * <p>By default all avro files are read into memory in parallel and passed as a single chunk. If
+ * the interpretation wrote files sorted by id ({@link
+ * InterpretationPipelineOptions#getUseSortedAvro()}), all record types are merged in one streaming
+ * pass and only one chunk of {@link InterpretationPipelineOptions#getStreamingChunkSize()}
+ * identifiers is kept in memory.
+ */
+@Slf4j
+@Builder
+public class InterpretedRecordsReader {
+
+  @NonNull private final InterpretationPipelineOptions options;
+  @NonNull private final DwcTerm coreTerm;
+  @NonNull private final ExecutorService executor;
+  @NonNull private final Transform<?, IdentifierRecord> idTransform;
+  @Singular private final List<Transform<?, ?>> transforms;
+
+  public void read(Consumer<Chunk> chunkConsumer) {
+    if (options.getUseSortedAvro()) {
+      log.info("Merging sorted avro files, chunk size - {}", options.getStreamingChunkSize());
+      readSorted(chunkConsumer);
+    } else {
+      readAll(chunkConsumer);
+    }
+  }
+
+  @SneakyThrows
+  private void readAll(Consumer<Chunk> chunkConsumer) {
+    CompletableFuture<Map<String, IdentifierRecord>> idFuture =
+        readAvroAsFuture(options, coreTerm, executor, idTransform);
+
+    Map<String, CompletableFuture<? extends Map<String, ?>>> futures = new HashMap<>();
+    for (Transform<?, ?> transform : transforms) {
+      String name = transform.getBaseName();
+      futures.put(name, readAvroAsFuture(options, coreTerm, executor, transform));
+    }
+
+    Chunk chunk = new Chunk(idFuture.get());
+    for (Map.Entry<String, CompletableFuture<? extends Map<String, ?>>> e : futures.entrySet()) {
+      chunk.records.put(e.getKey(), e.getValue().get());
+    }
+    chunkConsumer.accept(chunk);
+  }
+
+  @SneakyThrows
+  private void readSorted(Consumer<Chunk> chunkConsumer) {
+    int chunkSize = Math.max(1, options.getStreamingChunkSize());
+    Map<String, SortedAvroReader<?>> readers = new HashMap<>();
+    try (SortedAvroReader<IdentifierRecord> idReader = open(idTransform)) {
+      for (Transform<?, ?> transform : transforms) {
+        readers.put(transform.getBaseName(), open(transform));
+      }
+
+      Chunk chunk = new Chunk(new LinkedHashMap<>());
+      while (idReader.hasNext()) {
+        IdentifierRecord id = idReader.next();
+        chunk.identifiers.put(id.getId(), id);
+        for (Map.Entry<String, SortedAvroReader<?>> e : readers.entrySet()) {
+          Record r = e.getValue().seek(id.getId());
+          if (r != null) {
+            chunk.getOrCreate(e.getKey()).put(id.getId(), r);
+          }
+        }
+        if (chunk.identifiers.size() >= chunkSize) {
+          chunkConsumer.accept(chunk);
+          chunk = new Chunk(new LinkedHashMap<>());
+        }
+      }
+      if (!chunk.identifiers.isEmpty()) {
+        chunkConsumer.accept(chunk);
+      }
+    } finally {
+      closeAll(readers.values());
+    }
+  }
+
+  private <T extends SpecificRecordBase & Record> SortedAvroReader<T> open(
+      Transform<?, T> transform) {
+    String path =
+        PathBuilder.buildPathInterpretUsingInputPath(
+            options, coreTerm, transform.getBaseName(), ALL_AVRO);
+    return SortedAvroReader.open(
+        HdfsConfigs.create(options.getHdfsSiteConfig(), options.getCoreSiteConfig()),
+        transform.getReturnClazz(),
+        path);
+  }
+
+  private static void closeAll(Collection<SortedAvroReader<?>> readers) throws IOException {
+    IOException exception = null;
+    for (SortedAvroReader<?> reader : new ArrayList<>(readers)) {
+      try {
+        reader.close();
+      } catch (IOException ex) {
+        exception = ex;
+      }
+    }
+    if (exception != null) {
+      throw exception;
+    }
+  }
+
+  /** Identifier records and the records of every joined type with the same ids */
+  public static class Chunk {
+
+    private final Map<String, IdentifierRecord> identifiers;
+    private final Map<String, Map<String, ?>> records = new HashMap<>();
+
+    private Chunk(Map<String, IdentifierRecord> identifiers) {
+      this.identifiers = identifiers;
+    }
+
+    public Collection<IdentifierRecord> getIdentifiers() {
+      return identifiers.values();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> getOrCreate(String name) {
+      return (Map<String, Object>) records.computeIfAbsent(name, k -> new HashMap<>());
+    }
+
+    /** Records of the transform type, empty if the transform was not joined */
+    @SuppressWarnings("unchecked")
+    public <T extends SpecificRecordBase & Record> Map<String, T> get(Transform<?, T> transform) {
+      return (Map<String, T>)
+          records.getOrDefault(transform.getBaseName(), Collections.emptyMap());
+    }
+  }
+}
@@ -0,0 +1,144 @@
+package org.gbif.pipelines.ingest.java.transforms;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Singular;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.avro.Schema;
+import org.apache.avro.specific.SpecificRecordBase;
+import org.gbif.api.model.pipelines.InterpretationType;
+import org.gbif.pipelines.common.beam.metrics.IngestMetrics;
+import org.gbif.pipelines.common.beam.options.InterpretationPipelineOptions;
+import org.gbif.pipelines.core.io.SyncDataFileWriter;
+import org.gbif.pipelines.core.pojo.ErIdrMdrContainer;
+import org.gbif.pipelines.io.avro.ExtendedRecord;
+import org.gbif.pipelines.io.avro.IdentifierRecord;
+import org.gbif.pipelines.io.avro.MetadataRecord;
+import org.gbif.pipelines.transforms.common.CheckTransforms;
+
+/**
+ * Writes all extension tables in one pass over the identifier records. Every identifier is joined
+ * with its verbatim record once and the result is passed to the converters of all enabled tables.
+ * Each table has its own avro writer, batches of identifiers are converted in parallel.
+ */
+@Slf4j
+@Builder
+public class MultiTableRecordWriter {
+
+  @NonNull private final InterpretationPipelineOptions options;
+  @NonNull private final Collection<IdentifierRecord> identifierRecords;
+  @NonNull private final Map<String, ExtendedRecord> verbatimMap;
+  @NonNull private final MetadataRecord metadataRecord;
+  @NonNull private final Function<InterpretationType, String> targetPathFn;
+  @NonNull private final ExecutorService executor;
+  @NonNull private final Set<String> types;
+  @NonNull private final IngestMetrics metrics;
+  @Singular private final List<Table<?>> tables;
+
+  @Builder.Default private final int batchSize = 10_000;
+
+  @SneakyThrows
+  public void write() {
+    List<TableSink<?>> sinks = new ArrayList<>(tables.size());
+    try {
+      for (Table<?> table : tables) {
+        if (CheckTransforms.checkRecordType(types, table.getRecordType())) {
+          sinks.add(createSink(table));
+        }
+      }
+      if (sinks.isEmpty()) {
+        return;
+      }
+
+      log.info("Writing {} tables in one pass", sinks.size());
+      boolean useSyncMode = options.getSyncThreshold() > identifierRecords.size();
+      if (useSyncMode) {
+        identifierRecords.forEach(id -> fanOut(id, sinks));
+      } else {
+        CompletableFuture.allOf(asyncWrite(sinks)).get();
+      }
+    } finally {
+      closeAll(sinks);
+    }
+  }
+
+  private CompletableFuture<?>[] asyncWrite(List<TableSink<?>> sinks) {
+    List<IdentifierRecord> ids = new ArrayList<>(identifierRecords);
+    int size = Math.max(1, batchSize);
+    CompletableFuture<?>[] futures = new CompletableFuture[(ids.size() + size - 1) / size];
+    for (int i = 0; i < futures.length; i++) {
+      List<IdentifierRecord> batch = ids.subList(i * size, Math.min(ids.size(), (i + 1) * size));
+      futures[i] =
+          CompletableFuture.runAsync(() -> batch.forEach(id -> fanOut(id, sinks)), executor);
+    }
+    return futures;
+  }
+
+  private void fanOut(IdentifierRecord id, List<TableSink<?>> sinks) {
+    ExtendedRecord er = verbatimMap.get(id.getId());
+    // Tables are built from extensions only, a record without extensions produces no rows
+    if (er == null || er.getExtensions() == null || er.getExtensions().isEmpty()) {
+      return;
+    }
+    ErIdrMdrContainer container = ErIdrMdrContainer.create(er, id, metadataRecord);
+    for (TableSink<?> sink : sinks) {
+      sink.accept(container);
+    }
+  }
+
+  private <T extends SpecificRecordBase> TableSink<T> createSink(Table<T> table) {
+    String path = targetPathFn.apply(table.getRecordType());
+    SyncDataFileWriter<T> writer =
+        TableRecordWriter.createWriter(options, table.getSchema(), path);
+    return new TableSink<>(table, writer);
+  }
+
+  private static void closeAll(List<TableSink<?>> sinks) throws IOException {
+    IOException exception = null;
+    for (TableSink<?> sink : sinks) {
+      try {
+        sink.writer.close();
+      } catch (IOException ex) {
+        exception = ex;
+      }
+    }
+    if (exception != null) {
+      throw exception;
+    }
+  }
+
+  /** Extension table, the converter maps the joined records into table rows */
+  @Getter
+  @AllArgsConstructor(staticName = "create")
+  public static class Table<T extends SpecificRecordBase> {
+    private final InterpretationType recordType;
+    private final Schema schema;
+    private final String counterName;
+    private final Function<ErIdrMdrContainer, List<T>> converterFn;
+  }
+
+  @AllArgsConstructor
+  private class TableSink<T extends SpecificRecordBase> {
+    private final Table<T> table;
+    private final SyncDataFileWriter<T> writer;
+
+    private void accept(ErIdrMdrContainer container) {
+      for (T row : table.getConverterFn().apply(container)) {
+        writer.append(row);
+        metrics.incMetric(table.getCounterName());
+      }
+    }
+  }
+}
@@ -62,9 +62,15 @@ public class TableRecordWriter<T> {
   }
 
   /** Create an AVRO file writer */
-  @SneakyThrows
   private SyncDataFileWriter<T> createWriter(InterpretationPipelineOptions options) {
-    Path path = new Path(targetPathFn.apply(recordType));
+    return createWriter(options, schema, targetPathFn.apply(recordType));
+  }
+
+  /** Create an AVRO file writer for the schema and the target path */
+  @SneakyThrows
+  static <T> SyncDataFileWriter<T> createWriter(
+      InterpretationPipelineOptions options, Schema schema, String targetPath) {
+    Path path = new Path(targetPath);
     FileSystem verbatimFs =
         createParentDirectories(
             HdfsConfigs.create(options.getHdfsSiteConfig(), options.getCoreSiteConfig()), path);
@@ -0,0 +1,161 @@
+package org.gbif.pipelines.ingest.java.transforms;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import lombok.SneakyThrows;
+import org.apache.avro.specific.SpecificRecordBase;
+import org.apache.commons.io.FileUtils;
+import org.gbif.dwc.terms.DwcTerm;
+import org.gbif.pipelines.common.beam.options.InterpretationPipelineOptions;
+import org.gbif.pipelines.common.beam.options.PipelinesOptionsFactory;
+import org.gbif.pipelines.core.io.SyncDataFileWriter;
+import org.gbif.pipelines.ingest.java.transforms.InterpretedRecordsReader.Chunk;
+import org.gbif.pipelines.io.avro.BasicRecord;
+import org.gbif.pipelines.io.avro.IdentifierRecord;
+import org.gbif.pipelines.io.avro.Record;
+import org.gbif.pipelines.io.avro.TemporalRecord;
+import org.gbif.pipelines.transforms.Transform;
+import org.gbif.pipelines.transforms.core.BasicTransform;
+import org.gbif.pipelines.transforms.core.TemporalTransform;
+import org.gbif.pipelines.transforms.specific.GbifIdTransform;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class InterpretedRecordsReaderTest {
+
+  private static final DwcTerm CORE_TERM = DwcTerm.Occurrence;
+
+  private final String outputFile = getClass().getResource("/").getFile() + "sorted-avro";
+
+  private final GbifIdTransform idTransform = GbifIdTransform.builder().create();
+  private final BasicTransform basicTransform = BasicTransform.builder().create();
+  private final TemporalTransform temporalTransform = TemporalTransform.builder().create();
+
+  @After
+  public void clean() {
+    FileUtils.deleteQuietly(new File(outputFile));
+  }
+
+  @Test
+  public void sortedReaderTest() {
+
+    // State
+    InterpretationPipelineOptions options = createOptions(true);
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    write(options, idTransform, id("5"), id("1"), id("3"), id("2"), id("4"));
+    write(options, basicTransform, basic("4"), basic("1"), basic("6"), basic("2"));
+    write(options, temporalTransform, temporal("0"), temporal("3"), temporal("5"));
+    InterpretedAvroWriter.sortById(
+        options, CORE_TERM, executor, idTransform, basicTransform, temporalTransform);
+
+    // When
+    List<Chunk> chunks = read(options, executor);
+
+    // Should
+    Assert.assertEquals(3, chunks.size());
+    Assert.assertEquals(
+        Arrays.asList("1", "2", "3", "4", "5"),
+        chunks.stream()
+            .flatMap(c -> c.getIdentifiers().stream())
+            .map(IdentifierRecord::getId)
+            .collect(Collectors.toList()));
+    Assert.assertEquals(Arrays.asList("1", "2", "4"), ids(chunks, basicTransform));
+    Assert.assertEquals(Arrays.asList("3", "5"), ids(chunks, temporalTransform));
+
+    Assert.assertEquals(Arrays.asList("1", "2"), ids(chunks.get(0), basicTransform));
+    Assert.assertTrue(chunks.get(0).get(temporalTransform).isEmpty());
+    Assert.assertEquals(Arrays.asList("4"), ids(chunks.get(1), basicTransform));
+    Assert.assertEquals(Arrays.asList("3"), ids(chunks.get(1), temporalTransform));
+    Assert.assertTrue(chunks.get(2).get(basicTransform).isEmpty());
+    Assert.assertEquals(Arrays.asList("5"), ids(chunks.get(2), temporalTransform));
+  }
+
+  @Test
+  public void allReaderTest() {
+
+    // State
+    InterpretationPipelineOptions options = createOptions(false);
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    write(options, idTransform, id("2"), id("1"), id("3"));
+    write(options, basicTransform, basic("2"), basic("4"));
+    write(options, temporalTransform, temporal("1"));
+
+    // When
+    List<Chunk> chunks = read(options, executor);
+
+    // Should
+    Assert.assertEquals(1, chunks.size());
+    Assert.assertEquals(3, chunks.get(0).getIdentifiers().size());
+    Assert.assertEquals(Arrays.asList("2", "4"), ids(chunks.get(0), basicTransform));
+    Assert.assertEquals(Arrays.asList("1"), ids(chunks.get(0), temporalTransform));
+  }
+
+  private InterpretationPipelineOptions createOptions(boolean useSortedAvro) {
+    String[] args = {
+      "--datasetId=d596fccb-2319-42eb-b13b-986c932780ad",
+      "--attempt=1",
+      "--interpretationTypes=ALL",
+      "--runner=SparkRunner",
+      "--inputPath=" + outputFile,
+      "--targetPath=" + outputFile,
+      "--streamingChunkSize=2",
+      "--useSortedAvro=" + useSortedAvro
+    };
+    return PipelinesOptionsFactory.createInterpretation(args);
+  }
+
+  private List<Chunk> read(InterpretationPipelineOptions options, ExecutorService executor) {
+    List<Chunk> chunks = new ArrayList<>();
+    InterpretedRecordsReader.builder()
+        .options(options)
+        .coreTerm(CORE_TERM)
+        .executor(executor)
+        .idTransform(idTransform)
+        .transform(basicTransform)
+        .transform(temporalTransform)
+        .build()
+        .read(chunks::add);
+    return chunks;
+  }
+
+  @SafeVarargs
+  @SneakyThrows
+  private static <T extends SpecificRecordBase & Record> void write(
+      InterpretationPipelineOptions options, Transform<?, T> transform, T... records) {
+    try (SyncDataFileWriter<T> writer =
+        InterpretedAvroWriter.createAvroWriter(options, transform, CORE_TERM, "1")) {
+      Arrays.stream(records).forEach(writer::append);
+    }
+  }
+
+  private static <T extends SpecificRecordBase & Record> List<String> ids(
+      List<Chunk> chunks, Transform<?, T> transform) {
+    return chunks.stream().flatMap(c -> ids(c, transform).stream()).collect(Collectors.toList());
+  }
+
+  private static <T extends SpecificRecordBase & Record> List<String> ids(
+      Chunk chunk, Transform<?, T> transform) {
+    return new ArrayList<>(new TreeMap<>(chunk.get(transform)).keySet());
+  }
+
+  private static IdentifierRecord id(String id) {
+    return IdentifierRecord.newBuilder().setId(id).setInternalId(id).build();
+  }
+
+  private static BasicRecord basic(String id) {
+    return BasicRecord.newBuilder().setId(id).build();
+  }
+
+  private static TemporalRecord temporal(String id) {
+    return TemporalRecord.newBuilder().setId(id).build();
+  }
+}
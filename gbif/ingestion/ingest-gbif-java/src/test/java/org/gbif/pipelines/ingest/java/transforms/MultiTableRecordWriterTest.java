@@ -0,0 +1,155 @@
+package org.gbif.pipelines.ingest.java.transforms;
+
+import static org.gbif.api.model.pipelines.InterpretationType.RecordType.IDENTIFICATION_TABLE;
+import static org.gbif.api.model.pipelines.InterpretationType.RecordType.MEASUREMENT_OR_FACT_TABLE;
+import static org.gbif.api.model.pipelines.InterpretationType.RecordType.OCCURRENCE;
+import static org.gbif.pipelines.common.PipelinesVariables.Metrics.IDENTIFICATION_TABLE_RECORDS_COUNT;
+import static org.gbif.pipelines.common.PipelinesVariables.Metrics.MEASUREMENT_OR_FACT_TABLE_RECORDS_COUNT;
+import static org.gbif.pipelines.common.PipelinesVariables.Pipeline.AVRO_EXTENSION;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import org.apache.avro.file.DataFileReader;
+import org.apache.avro.io.DatumReader;
+import org.apache.avro.specific.SpecificDatumReader;
+import org.gbif.api.model.pipelines.InterpretationType;
+import org.gbif.dwc.terms.DwcTerm;
+import org.gbif.pipelines.common.beam.metrics.IngestMetrics;
+import org.gbif.pipelines.common.beam.options.InterpretationPipelineOptions;
+import org.gbif.pipelines.common.beam.options.PipelinesOptionsFactory;
+import org.gbif.pipelines.common.beam.utils.PathBuilder;
+import org.gbif.pipelines.core.pojo.ErIdrMdrContainer;
+import org.gbif.pipelines.ingest.java.metrics.IngestMetricsBuilder;
+import org.gbif.pipelines.ingest.java.transforms.MultiTableRecordWriter.Table;
+import org.gbif.pipelines.io.avro.ExtendedRecord;
+import org.gbif.pipelines.io.avro.IdentifierRecord;
+import org.gbif.pipelines.io.avro.MetadataRecord;
+import org.gbif.pipelines.io.avro.OccurrenceHdfsRecord;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MultiTableRecordWriterTest {
+
+  @Test
+  public void writerSyncTest() throws IOException {
+    assertTables();
+  }
+
+  @Test
+  public void writerAsyncTest() throws IOException {
+    assertTables("--syncThreshold=0");
+  }
+
+  private void assertTables(String... extraArgs) throws IOException {
+
+    // State
+    String gbifID = "777";
+
+    IdentifierRecord idRecord =
+        IdentifierRecord.newBuilder().setId("1").setInternalId(gbifID).build();
+    IdentifierRecord noExtIdRecord =
+        IdentifierRecord.newBuilder().setId("2").setInternalId("778").build();
+    IdentifierRecord noErIdRecord =
+        IdentifierRecord.newBuilder().setId("3").setInternalId("779").build();
+    List<IdentifierRecord> list = Arrays.asList(idRecord, noExtIdRecord, noErIdRecord);
+
+    Map<String, List<Map<String, String>>> ext =
+        Collections.singletonMap(
+            DwcTerm.Identification.qualifiedName(),
+            Collections.singletonList(Collections.singletonMap("k", "v")));
+    Map<String, ExtendedRecord> verbatimMap = new HashMap<>();
+    verbatimMap.put("1", ExtendedRecord.newBuilder().setId("1").setExtensions(ext).build());
+    verbatimMap.put("2", ExtendedRecord.newBuilder().setId("2").build());
+
+    Function<ErIdrMdrContainer, List<OccurrenceHdfsRecord>> fn =
+        c -> {
+          OccurrenceHdfsRecord hdfsRecord = new OccurrenceHdfsRecord();
+          hdfsRecord.setGbifid(c.getIdr().getInternalId());
+          return Collections.singletonList(hdfsRecord);
+        };
+
+    String outputFile = getClass().getResource("/hdfsview/occurrence/").getFile();
+
+    List<String> args =
+        new ArrayList<>(
+            Arrays.asList(
+                "--datasetId=d596fccb-2319-42eb-b13b-986c932780ad",
+                "--attempt=146",
+                "--runner=SparkRunner",
+                "--inputPath=" + outputFile,
+                "--targetPath=" + outputFile,
+                "--interpretationTypes=MEASUREMENT_OR_FACT_TABLE",
+                "--interpretationTypes=IDENTIFICATION_TABLE"));
+    args.addAll(Arrays.asList(extraArgs));
+    InterpretationPipelineOptions options =
+        PipelinesOptionsFactory.createInterpretation(args.toArray(new String[0]));
+
+    Function<InterpretationType, String> pathFn =
+        st -> {
+          String id = options.getDatasetId() + '_' + options.getAttempt() + AVRO_EXTENSION;
+          return PathBuilder.buildFilePathViewUsingInputPath(
+              options, OCCURRENCE, st.name().toLowerCase(), id);
+        };
+
+    IngestMetrics metrics = IngestMetricsBuilder.createInterpretedToHdfsViewMetrics();
+
+    // When
+    MultiTableRecordWriter.builder()
+        .identifierRecords(list)
+        .verbatimMap(verbatimMap)
+        .metadataRecord(MetadataRecord.newBuilder().setDatasetKey("key").build())
+        .metrics(metrics)
+        .targetPathFn(pathFn)
+        .executor(Executors.newSingleThreadExecutor())
+        .options(options)
+        .types(options.getInterpretationTypes())
+        .batchSize(1)
+        .table(
+            Table.create(
+                MEASUREMENT_OR_FACT_TABLE,
+                OccurrenceHdfsRecord.getClassSchema(),
+                MEASUREMENT_OR_FACT_TABLE_RECORDS_COUNT,
+                fn))
+        .table(
+            Table.create(
+                IDENTIFICATION_TABLE,
+                OccurrenceHdfsRecord.getClassSchema(),
+                IDENTIFICATION_TABLE_RECORDS_COUNT,
+                fn))
+        .build()
+        .write();
+
+    // Should
+    for (InterpretationType type : Arrays.asList(MEASUREMENT_OR_FACT_TABLE, IDENTIFICATION_TABLE)) {
+      File result = new File(pathFn.apply(type));
+      Assert.assertTrue(result.exists());
+
+      DatumReader<OccurrenceHdfsRecord> datumReader =
+          new SpecificDatumReader<>(OccurrenceHdfsRecord.class);
+      int count = 0;
+      try (DataFileReader<OccurrenceHdfsRecord> dataFileReader =
+          new DataFileReader<>(result, datumReader)) {
+        while (dataFileReader.hasNext()) {
+          OccurrenceHdfsRecord record = dataFileReader.next();
+          Assert.assertEquals(gbifID, record.getGbifid());
+          count++;
+        }
+      }
+      Assert.assertEquals(1, count);
+
+      Files.deleteIfExists(result.toPath());
+    }
+
+    Assert.assertEquals(1L, metrics.incMetric(MEASUREMENT_OR_FACT_TABLE_RECORDS_COUNT, 0L));
+    Assert.assertEquals(1L, metrics.incMetric(IDENTIFICATION_TABLE_RECORDS_COUNT, 0L));
+  }
+}
@@ -4,6 +4,7 @@ import static org.gbif.dwc.terms.DwcTerm.Event;
 import static org.gbif.dwc.terms.DwcTerm.Occurrence;
 import static org.gbif.pipelines.validator.metrics.request.OccurrenceIssuesRequestBuilder.HITS_AGGREGATION;
 import static org.gbif.pipelines.validator.metrics.request.OccurrenceIssuesRequestBuilder.ISSUES_AGGREGATION;
+import static org.gbif.pipelines.validator.metrics.request.TermCountRequestBuilder.getCount;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -13,13 +14,16 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import lombok.Builder;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
+import org.elasticsearch.action.search.MultiSearchRequest;
+import org.elasticsearch.action.search.MultiSearchResponse;
 import org.elasticsearch.action.search.SearchRequest;
+import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.client.RequestOptions;
-import org.elasticsearch.client.core.CountRequest;
 import org.elasticsearch.search.SearchHit;
 import org.elasticsearch.search.aggregations.Aggregation;
 import org.elasticsearch.search.aggregations.bucket.terms.ParsedStringTerms;
@@ -30,11 +34,11 @@ import org.gbif.api.vocabulary.OccurrenceIssue;
 import org.gbif.dwc.terms.Term;
 import org.gbif.pipelines.common.PipelinesVariables.Pipeline.Indexing;
 import org.gbif.pipelines.validator.factory.ElasticsearchClientFactory;
+import org.gbif.pipelines.validator.metrics.RawToInterpreted;
 import org.gbif.pipelines.validator.metrics.request.ExtensionTermCountRequestBuilder;
 import org.gbif.pipelines.validator.metrics.request.ExtensionTermCountRequestBuilder.ExtTermCountRequest;
 import org.gbif.pipelines.validator.metrics.request.OccurrenceIssuesRequestBuilder;
 import org.gbif.pipelines.validator.metrics.request.TermCountRequestBuilder;
-import org.gbif.pipelines.validator.metrics.request.TermCountRequestBuilder.TermCountRequest;
 import org.gbif.validator.api.DwcFileType;
 import org.gbif.validator.api.EvaluationCategory;
 import org.gbif.validator.api.Metrics;
@@ -44,7 +48,8 @@ import org.gbif.validator.api.Metrics.IssueSample;
 import org.gbif.validator.api.Metrics.TermInfo;
 
 /**
- * The class collects all necessary metrics using ES API, there are 4 main queries. such as:
+ * The class collects all necessary metrics using ES API, all queries are sent as one _msearch
+ * request. The queries are:
  *
  * <pre>
  * 1) Query total documents count
@@ -52,6 +57,9 @@ import org.gbif.validator.api.Metrics.TermInfo;
  * 3) Query extensions terms and return term, and raw terms count
  * 4) Query all issues and return issue value, and 5 terms samples
  * </pre>
+ *
+ * <p>Occurrence core terms are not queried if the indexing pipeline has already counted indexed
+ * fields, see {@link #indexedFieldCounts}.
  */
 @Slf4j
 @Builder
@@ -64,79 +72,91 @@ public class IndexMetricsCollector {
   private final String corePrefix;
   private final String extensionsPrefix;
 
+  /** Counts of documents by indexed field, saved by the indexing pipeline. Optional */
+  private final Map<String, Long> indexedFieldCounts;
+
   /** Collect all metrics using ES API */
   public Metrics collect() {
 
+    MultiSearch search = new MultiSearch();
+
     fileInfos.stream()
         .filter(f -> f.getRowType() != null)
         .forEach(
             fileInfo -> {
               if (fileInfo.getRowType().equals(Occurrence.qualifiedName())) {
-                collectOccurrnceInfo(fileInfo);
+                collectOccurrnceInfo(search, fileInfo);
               } else if (fileInfo.getRowType().equals(Event.qualifiedName())
                   && fileInfo.getFileType() == DwcFileType.CORE) {
-                collectEventInfo(fileInfo);
+                collectEventInfo(search, fileInfo);
               } else if (!fileInfo.getRowType().equals(Occurrence.qualifiedName())
                   && fileInfo.getFileType() == DwcFileType.EXTENSION) {
-                collectExtensionInfo(fileInfo);
+                collectExtensionInfo(search, fileInfo);
               }
             });
 
+    search.execute();
+
     return Metrics.builder().fileInfos(fileInfos).build();
   }
 
-  private void collectOccurrnceInfo(FileInfo fileInfo) {
-    fileInfo.setIndexedCount(queryOccurrenceDocCount());
-    fileInfo.setIssues(queryOccurrenceIssuesCount());
-    for (TermInfo ti : fileInfo.getTerms()) {
-      queryOccurrenceCoreTermsCount(ti.getTerm()).ifPresent(ti::setInterpretedIndexed);
-    }
+  private void collectOccurrnceInfo(MultiSearch search, FileInfo fileInfo) {
+    search.add(docCountRequest(), r -> fileInfo.setIndexedCount(getCount(r)));
+    search.add(issuesRequest(), r -> fileInfo.setIssues(collectIssueInfos(r)));
+    collectCoreTermsInfo(search, fileInfo, indexedFieldCounts);
   }
 
-  private void collectEventInfo(FileInfo fileInfo) {
-    fileInfo.setIndexedCount(queryOccurrenceDocCount());
+  private void collectEventInfo(MultiSearch search, FileInfo fileInfo) {
+    search.add(docCountRequest(), r -> fileInfo.setIndexedCount(getCount(r)));
+    // Field counts are collected for occurrence documents only
+    collectCoreTermsInfo(search, fileInfo, null);
+  }
+
+  private void collectCoreTermsInfo(
+      MultiSearch search, FileInfo fileInfo, Map<String, Long> fieldCounts) {
     for (TermInfo ti : fileInfo.getTerms()) {
-      queryOccurrenceCoreTermsCount(ti.getTerm()).ifPresent(ti::setInterpretedIndexed);
+      if (fieldCounts != null) {
+        // Absent counter means that no document has the field
+        RawToInterpreted.getInterpretedField(ti.getTerm())
+            .map(field -> fieldCounts.getOrDefault(field, 0L))
+            .ifPresent(ti::setInterpretedIndexed);
+      } else {
+        coreTermCountRequest(ti.getTerm())
+            .ifPresent(request -> search.add(request, r -> ti.setInterpretedIndexed(getCount(r))));
+      }
     }
   }
 
-  private void collectExtensionInfo(FileInfo fileInfo) {
+  private void collectExtensionInfo(MultiSearch search, FileInfo fileInfo) {
     String extPrefix = extensionsPrefix + "." + fileInfo.getRowType();
     for (TermInfo ti : fileInfo.getTerms()) {
-      ti.setInterpretedIndexed(queryExtensionTermsCount(extPrefix, ti.getTerm()));
+      search.add(
+          extensionTermCountRequest(extPrefix, ti.getTerm()),
+          r -> ti.setInterpretedIndexed(extensionTermCount(r)));
     }
   }
 
   /** Query indexed document count by datasetKey */
-  @SneakyThrows
-  private Long queryOccurrenceDocCount() {
-    TermCountRequest request =
-        TermCountRequestBuilder.builder()
-            .termValue(key.toString())
-            .indexName(index)
-            .build()
-            .getRequest();
-
-    return ElasticsearchClientFactory.getInstance(esHost)
-        .count(request.getRawCountRequest(), RequestOptions.DEFAULT)
-        .getCount();
+  private SearchRequest docCountRequest() {
+    return TermCountRequestBuilder.builder()
+        .termValue(key.toString())
+        .indexName(index)
+        .build()
+        .getRequest()
+        .getRawCountRequest();
   }
 
   /** Aggregate all issues and return 5 samples per issue */
-  @SneakyThrows
-  private List<IssueInfo> queryOccurrenceIssuesCount() {
-    SearchRequest request =
-        OccurrenceIssuesRequestBuilder.builder()
-            .termValue(key.toString())
-            .indexName(index)
-            .build()
-            .getRequest();
+  private SearchRequest issuesRequest() {
+    return OccurrenceIssuesRequestBuilder.builder()
+        .termValue(key.toString())
+        .indexName(index)
+        .build()
+        .getRequest();
+  }
 
-    Aggregation aggregation =
-        ElasticsearchClientFactory.getInstance(esHost)
-            .search(request, RequestOptions.DEFAULT)
-            .getAggregations()
-            .get(ISSUES_AGGREGATION);
+  private List<IssueInfo> collectIssueInfos(SearchResponse response) {
+    Aggregation aggregation = response.getAggregations().get(ISSUES_AGGREGATION);
 
     return ((ParsedStringTerms) aggregation)
         .getBuckets().stream().map(this::collectIssueInfo).collect(Collectors.toList());
@@ -188,34 +208,20 @@ public class IndexMetricsCollector {
         .build();
   }
 
-  /** Aggregate occurrence terms and return term count */
-  @SneakyThrows
-  private Optional<Long> queryOccurrenceCoreTermsCount(String term) {
-
-    TermCountRequest tcr =
-        TermCountRequestBuilder.builder()
-            .termValue(key.toString())
-            .prefix(corePrefix)
-            .indexName(index)
-            .term(term)
-            .build()
-            .getRequest();
-
-    Optional<CountRequest> countRequest = tcr.getInterpretedCountRequest();
-    Long interpretedCount = null;
-    if (countRequest.isPresent()) {
-      interpretedCount =
-          ElasticsearchClientFactory.getInstance(esHost)
-              .count(countRequest.get(), RequestOptions.DEFAULT)
-              .getCount();
-    }
-
-    return Optional.ofNullable(interpretedCount);
+  /** Count occurrence documents with the interpreted term */
+  private Optional<SearchRequest> coreTermCountRequest(String term) {
+    return TermCountRequestBuilder.builder()
+        .termValue(key.toString())
+        .prefix(corePrefix)
+        .indexName(index)
+        .term(term)
+        .build()
+        .getRequest()
+        .getInterpretedCountRequest();
   }
 
   /** Aggregate extensions term and return term count */
-  @SneakyThrows
-  private Long queryExtensionTermsCount(String prefix, String term) {
+  private SearchRequest extensionTermCountRequest(String prefix, String term) {
     ExtTermCountRequest etcr =
         ExtensionTermCountRequestBuilder.builder()
             .prefix(prefix)
@@ -225,12 +231,48 @@ public class IndexMetricsCollector {
             .build()
             .getRequest();
 
+    return etcr.getSearchRequest();
+  }
+
+  private static Long extensionTermCount(SearchResponse response) {
     Aggregation aggregation =
-        ElasticsearchClientFactory.getInstance(esHost)
-            .search(etcr.getSearchRequest(), RequestOptions.DEFAULT)
-            .getAggregations()
-            .get(ExtensionTermCountRequestBuilder.AGGREGATION);
+        response.getAggregations().get(ExtensionTermCountRequestBuilder.AGGREGATION);
 
     return ((ParsedValueCount) aggregation).getValue();
   }
+
+  /** Collects search requests and sends them as one _msearch request */
+  private class MultiSearch {
+
+    private final MultiSearchRequest request = new MultiSearchRequest();
+    private final List<Consumer<SearchResponse>> handlers = new ArrayList<>();
+
+    private void add(SearchRequest searchRequest, Consumer<SearchResponse> handler) {
+      request.add(searchRequest);
+      handlers.add(handler);
+    }
+
+    @SneakyThrows
+    private void execute() {
+      if (handlers.isEmpty()) {
+        return;
+      }
+
+      MultiSearchResponse.Item[] items =
+          ElasticsearchClientFactory.getInstance(esHost)
+              .msearch(request, RequestOptions.DEFAULT)
+              .getResponses();
+
+      // A failed query fails the whole collection, metrics must not be published partially
+      for (MultiSearchResponse.Item item : items) {
+        if (item.isFailure()) {
+          throw new IllegalStateException(
+              "Metrics query failed - " + item.getFailureMessage(), item.getFailure());
+        }
+      }
+      for (int i = 0; i < items.length; i++) {
+        handlers.get(i).accept(items[i].getResponse());
+      }
+    }
+  }
 }
@@ -5,16 +5,20 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
-import org.elasticsearch.client.core.CountRequest;
+import org.elasticsearch.action.search.SearchRequest;
+import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.index.query.BoolQueryBuilder;
+import org.elasticsearch.index.query.QueryBuilder;
 import org.elasticsearch.index.query.QueryBuilders;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
 import org.gbif.pipelines.validator.metrics.RawToInterpreted;
 
 /**
- * Similir to _count API call
+ * Similir to _count API call, but as a search request with total hits only, so term counts can be
+ * sent together in one _msearch call
  *
- * <p>{ "query": { "bool": { "must": [ { "term": { "datasetKey": { "value":
- * "675a1bfd-9bcc-46ea-a417-1f68f23a10f6" } } }, { "exists": { "field":
+ * <p>{ "size": 0, "track_total_hits": true, "query": { "bool": { "must": [ { "term": {
+ * "datasetKey": { "value": "675a1bfd-9bcc-46ea-a417-1f68f23a10f6" } } }, { "exists": { "field":
  * "verbatim.core.http://rs.tdwg.org/dwc/terms/country" } } ] } } }
  */
 @Slf4j
@@ -28,13 +32,13 @@ public class TermCountRequestBuilder {
   private final String term;
 
   public TermCountRequest getRequest() {
-    CountRequest rawRequest = getRawCountRequest();
-    CountRequest interpretedRequest = getinterpretedCountRequest().orElse(null);
+    SearchRequest rawRequest = getRawCountRequest();
+    SearchRequest interpretedRequest = getinterpretedCountRequest().orElse(null);
 
     return TermCountRequest.create(term, rawRequest, interpretedRequest);
   }
 
-  private Optional<CountRequest> getinterpretedCountRequest() {
+  private Optional<SearchRequest> getinterpretedCountRequest() {
     if (term == null) {
       return Optional.empty();
     }
@@ -45,10 +49,10 @@ public class TermCountRequestBuilder {
                 QueryBuilders.boolQuery()
                     .must(QueryBuilders.termQuery(termName, this.termValue))
                     .must(QueryBuilders.existsQuery(field)))
-        .map(bqb -> new CountRequest().query(bqb).indices(indexName));
+        .map(this::countRequest);
   }
 
-  private CountRequest getRawCountRequest() {
+  private SearchRequest getRawCountRequest() {
     BoolQueryBuilder boolQueryBuilder =
         QueryBuilders.boolQuery().must(QueryBuilders.termQuery(termName, this.termValue));
 
@@ -58,17 +62,28 @@ public class TermCountRequestBuilder {
       boolQueryBuilder = boolQueryBuilder.must(QueryBuilders.existsQuery(exists));
     }
 
-    return new CountRequest().query(boolQueryBuilder).indices(indexName);
+    return countRequest(boolQueryBuilder);
+  }
+
+  private SearchRequest countRequest(QueryBuilder query) {
+    return new SearchRequest()
+        .source(new SearchSourceBuilder().size(0).trackTotalHits(true).query(query))
+        .indices(indexName);
+  }
+
+  /** Returns the number of documents matched by a count request */
+  public static long getCount(SearchResponse response) {
+    return response.getHits().getTotalHits().value;
   }
 
   @AllArgsConstructor(staticName = "create")
   public static class TermCountRequest {
 
     @Getter private final String term;
-    @Getter private final CountRequest rawCountRequest;
-    private final CountRequest interpretedCountRequest;
+    @Getter private final SearchRequest rawCountRequest;
+    private final SearchRequest interpretedCountRequest;
 
-    public Optional<CountRequest> getInterpretedCountRequest() {
+    public Optional<SearchRequest> getInterpretedCountRequest() {
       return Optional.ofNullable(interpretedCountRequest);
     }
   }
@@ -39,6 +39,7 @@ public class IndexMetricsCollectorIT {
   // files for testing
   private static final Path MAPPINGS_PATH = Paths.get("mappings/verbatim-mapping.json");
   private static final String IDX_NAME = "validator";
+  private static final String DATASET_KEY = "675a1bfd-9bcc-46ea-a417-1f68f23a10f6";
 
   /** {@link ClassRule} requires this field to be public. */
   @ClassRule public static final EsServer ES_SERVER = new EsServer();
@@ -51,44 +52,9 @@ public class IndexMetricsCollectorIT {
   @Test
   public void collecorTest() {
     // State
+    createIndexWithDocuments();
 
-    String datasetKey = "675a1bfd-9bcc-46ea-a417-1f68f23a10f6";
-
-    String documentOne =
-        "{\"datasetKey\":\"675a1bfd-9bcc-46ea-a417-1f68f23a10f6\",\"id\":\"bla\",\"maximumElevationInMeters\":2.2,\"issues\":"
-            + "[\"GEODETIC_DATUM_ASSUMED_WGS84\",\"ELEVATION_UNLIKELY\"],\"verbatim\":{\"core\":"
-            + "{\"http://rs.tdwg.org/dwc/terms/maximumElevationInMeters\":\"1150\","
-            + "\"http://rs.tdwg.org/dwc/terms/organismID\":\"251\",\"http://rs.tdwg.org/dwc/terms/bed\":\"251\"},\"extensions\":"
-            + "{\"http://rs.tdwg.org/dwc/terms/MeasurementOrFact\":[{\"http://rs.tdwg.org/dwc/terms/measurementValue\":"
-            + "\"1.7\"},{\"http://rs.tdwg.org/dwc/terms/measurementValue\":\"5.0\"},"
-            + "{\"http://rs.tdwg.org/dwc/terms/measurementValue\":\"5.83\"}]}}}";
-
-    String documentTwo =
-        "{\"datasetKey\":\"675a1bfd-9bcc-46ea-a417-1f68f23a10f6\",\"id\":\"bla1\",\"maximumElevationInMeters\":3.2,\"issues\":"
-            + "[\"RANDOM_ISSUE\"],\"verbatim\":{\"core\":{\"http://rs.tdwg.org/dwc/terms/maximumElevationInMeters\":\"2150\","
-            + "\"http://rs.tdwg.org/dwc/terms/organismID\":\"251\",\"http://rs.tdwg.org/dwc/terms/bed\":\"351\"},\"extensions\":"
-            + "{\"http://rs.tdwg.org/dwc/terms/MeasurementOrFact\":[{\"http://rs.tdwg.org/dwc/terms/measurementValue\":"
-            + "\"2.7\"},{\"http://rs.tdwg.org/dwc/terms/measurementValue\":\"6.0\"},"
-            + "{\"http://rs.tdwg.org/dwc/terms/measurementValue\":\"6.83\"}]}}}";
-
-    String documentThree =
-        "{\"datasetKey\":\"675a1bfd-9bcc-46ea-a417-1f68f23a10f6\",\"id\":\"bla2\",\"maximumElevationInMeters\":3.2,"
-            + "\"issues\":[\"RANDOM_ISSUE\"],\"verbatim\":{\"core\":{}}}";
-
-    EsIndex.createIndex(
-        ES_SERVER.getEsConfig(),
-        IndexParams.builder()
-            .indexName(IDX_NAME)
-            .settingsType(INDEXING)
-            .pathMappings(MAPPINGS_PATH)
-            .build());
-
-    EsService.indexDocument(ES_SERVER.getEsClient(), IDX_NAME, 1L, documentOne);
-    EsService.indexDocument(ES_SERVER.getEsClient(), IDX_NAME, 2L, documentTwo);
-    EsService.indexDocument(ES_SERVER.getEsClient(), IDX_NAME, 3L, documentThree);
-    EsService.refreshIndex(ES_SERVER.getEsClient(), IDX_NAME);
-
-    // When
+    // When, core term counts are queried in ES without indexed field counts
 
     // Occurrence
     TermInfo maximumElevationInMeters =
@@ -131,7 +97,7 @@ public class IndexMetricsCollectorIT {
     Metrics result =
         IndexMetricsCollector.builder()
             .fileInfos(new ArrayList<>(Arrays.asList(occurrenceFileInfo, extensionFileInfo)))
-            .key(UUID.fromString(datasetKey))
+            .key(UUID.fromString(DATASET_KEY))
             .index(IDX_NAME)
             .corePrefix("verbatim.core")
             .extensionsPrefix("verbatim.extensions")
@@ -245,6 +211,142 @@ public class IndexMetricsCollectorIT {
     assertFalse(countyOpt.isPresent());
   }
 
+  @Test
+  public void indexedFieldCountsTest() {
+    // State
+    createIndexWithDocuments();
+
+    TermInfo maximumElevationInMeters =
+        TermInfo.builder()
+            .term(DwcTerm.maximumElevationInMeters.qualifiedName())
+            .rawIndexed(2L)
+            .build();
+    TermInfo organismID =
+        TermInfo.builder().term(DwcTerm.organismID.qualifiedName()).rawIndexed(2L).build();
+    TermInfo bed = TermInfo.builder().term(DwcTerm.bed.qualifiedName()).rawIndexed(2L).build();
+
+    FileInfo occurrenceFileInfo =
+        FileInfo.builder()
+            .fileName("file.txt")
+            .fileType(DwcFileType.CORE)
+            .rowType(DwcTerm.Occurrence.qualifiedName())
+            .count(3L)
+            .terms(new ArrayList<>(Arrays.asList(maximumElevationInMeters, organismID, bed)))
+            .build();
+
+    // Differs from the ES count to make sure the counts map is used
+    Map<String, Long> indexedFieldCounts =
+        Collections.singletonMap("maximumElevationInMeters", 2L);
+
+    // When
+    Metrics result =
+        IndexMetricsCollector.builder()
+            .fileInfos(new ArrayList<>(Collections.singletonList(occurrenceFileInfo)))
+            .key(UUID.fromString(DATASET_KEY))
+            .index(IDX_NAME)
+            .corePrefix("verbatim.core")
+            .extensionsPrefix("verbatim.extensions")
+            .esHost(ES_SERVER.getEsConfig().getRawHosts())
+            .indexedFieldCounts(indexedFieldCounts)
+            .build()
+            .collect();
+
+    // Should
+    Optional<FileInfo> coreOpt = getFileInfo(result, DwcTerm.Occurrence);
+    assertTrue(coreOpt.isPresent());
+
+    FileInfo core = coreOpt.get();
+    assertEquals(Long.valueOf(3L), core.getIndexedCount());
+    assertEquals(3, core.getIssues().size());
+
+    List<TermInfo> resCoreTerms = core.getTerms();
+    assertTermInfo(
+        resCoreTerms,
+        TermInfo.builder()
+            .term(DwcTerm.maximumElevationInMeters.qualifiedName())
+            .rawIndexed(2L)
+            .interpretedIndexed(2L)
+            .build());
+
+    // Absent counter means that no document has the field
+    assertTermInfo(
+        resCoreTerms,
+        TermInfo.builder()
+            .term(DwcTerm.organismID.qualifiedName())
+            .rawIndexed(2L)
+            .interpretedIndexed(0L)
+            .build());
+
+    // Terms without an interpreted field are not counted
+    assertTermInfo(
+        resCoreTerms,
+        TermInfo.builder()
+            .term(DwcTerm.bed.qualifiedName())
+            .rawIndexed(2L)
+            .interpretedIndexed(null)
+            .build());
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void failedQueryTest() {
+    // State
+    FileInfo occurrenceFileInfo =
+        FileInfo.builder()
+            .fileName("file.txt")
+            .fileType(DwcFileType.CORE)
+            .rowType(DwcTerm.Occurrence.qualifiedName())
+            .count(3L)
+            .terms(new ArrayList<>())
+            .build();
+
+    // When
+    IndexMetricsCollector.builder()
+        .fileInfos(new ArrayList<>(Collections.singletonList(occurrenceFileInfo)))
+        .key(UUID.fromString(DATASET_KEY))
+        .index("missing-index")
+        .corePrefix("verbatim.core")
+        .extensionsPrefix("verbatim.extensions")
+        .esHost(ES_SERVER.getEsConfig().getRawHosts())
+        .build()
+        .collect();
+  }
+
+  private void createIndexWithDocuments() {
+    String documentOne =
+        "{\"datasetKey\":\"675a1bfd-9bcc-46ea-a417-1f68f23a10f6\",\"id\":\"bla\",\"maximumElevationInMeters\":2.2,\"issues\":"
+            + "[\"GEODETIC_DATUM_ASSUMED_WGS84\",\"ELEVATION_UNLIKELY\"],\"verbatim\":{\"core\":"
+            + "{\"http://rs.tdwg.org/dwc/terms/maximumElevationInMeters\":\"1150\","
+            + "\"http://rs.tdwg.org/dwc/terms/organismID\":\"251\",\"http://rs.tdwg.org/dwc/terms/bed\":\"251\"},\"extensions\":"
+            + "{\"http://rs.tdwg.org/dwc/terms/MeasurementOrFact\":[{\"http://rs.tdwg.org/dwc/terms/measurementValue\":"
+            + "\"1.7\"},{\"http://rs.tdwg.org/dwc/terms/measurementValue\":\"5.0\"},"
+            + "{\"http://rs.tdwg.org/dwc/terms/measurementValue\":\"5.83\"}]}}}";
+
+    String documentTwo =
+        "{\"datasetKey\":\"675a1bfd-9bcc-46ea-a417-1f68f23a10f6\",\"id\":\"bla1\",\"maximumElevationInMeters\":3.2,\"issues\":"
+            + "[\"RANDOM_ISSUE\"],\"verbatim\":{\"core\":{\"http://rs.tdwg.org/dwc/terms/maximumElevationInMeters\":\"2150\","
+            + "\"http://rs.tdwg.org/dwc/terms/organismID\":\"251\",\"http://rs.tdwg.org/dwc/terms/bed\":\"351\"},\"extensions\":"
+            + "{\"http://rs.tdwg.org/dwc/terms/MeasurementOrFact\":[{\"http://rs.tdwg.org/dwc/terms/measurementValue\":"
+            + "\"2.7\"},{\"http://rs.tdwg.org/dwc/terms/measurementValue\":\"6.0\"},"
+            + "{\"http://rs.tdwg.org/dwc/terms/measurementValue\":\"6.83\"}]}}}";
+
+    String documentThree =
+        "{\"datasetKey\":\"675a1bfd-9bcc-46ea-a417-1f68f23a10f6\",\"id\":\"bla2\",\"maximumElevationInMeters\":3.2,"
+            + "\"issues\":[\"RANDOM_ISSUE\"],\"verbatim\":{\"core\":{}}}";
+
+    EsIndex.createIndex(
+        ES_SERVER.getEsConfig(),
+        IndexParams.builder()
+            .indexName(IDX_NAME)
+            .settingsType(INDEXING)
+            .pathMappings(MAPPINGS_PATH)
+            .build());
+
+    EsService.indexDocument(ES_SERVER.getEsClient(), IDX_NAME, 1L, documentOne);
+    EsService.indexDocument(ES_SERVER.getEsClient(), IDX_NAME, 2L, documentTwo);
+    EsService.indexDocument(ES_SERVER.getEsClient(), IDX_NAME, 3L, documentThree);
+    EsService.refreshIndex(ES_SERVER.getEsClient(), IDX_NAME);
+  }
+
   private Optional<FileInfo> getFileInfo(Metrics metrics, String term) {
     return metrics.getFileInfos().stream().filter(x -> x.getRowType().equals(term)).findAny();
   }
@@ -0,0 +1,107 @@
+package au.org.ala.clustering;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.gbif.pipelines.core.parsers.clustering.OccurrenceRelationships;
+import org.gbif.pipelines.core.parsers.clustering.RelationshipAssertion;
+
+/**
+ * Keeps the comparison of clustering candidates near-linear. Groups bigger than the cutoff are
+ * split into sub-blocks by secondary keys (year and month, then coordinates rounded to 0.1 degree),
+ * sub-blocks which are still too big are compared with a sorted-neighbourhood window instead of
+ * every pair.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class CandidateBlocking {
+
+  private static final List<Function<HashKeyOccurrence, String>> SECONDARY_KEYS =
+      Collections.unmodifiableList(
+          Arrays.asList(
+              o -> o.getYear() + "|" + o.getMonth(),
+              o -> round(o.getDecimalLatitude()) + "|" + round(o.getDecimalLongitude())));
+
+  private static final Comparator<HashKeyOccurrence> NEIGHBOURHOOD_ORDER =
+      Comparator.comparing(
+              HashKeyOccurrence::getEventDate, Comparator.nullsLast(Comparator.naturalOrder()))
+          .thenComparing(
+              HashKeyOccurrence::getDecimalLatitude,
+              Comparator.nullsLast(Comparator.naturalOrder()))
+          .thenComparing(
+              HashKeyOccurrence::getDecimalLongitude,
+              Comparator.nullsLast(Comparator.naturalOrder()))
+          .thenComparing(HashKeyOccurrence::getId, Comparator.nullsLast(Comparator.naturalOrder()));
+
+  /** Splits the group by secondary keys until every sub-block is below the cutoff */
+  public static List<ClusteringCandidates> subBlock(
+      ClusteringCandidates source, int candidatesCutoff) {
+    List<ClusteringCandidates> result = new ArrayList<>();
+    subBlock(source.getHashKey(), source.getCandidates(), candidatesCutoff, 0, result);
+    return result;
+  }
+
+  private static void subBlock(
+      String hashKey,
+      List<HashKeyOccurrence> candidates,
+      int candidatesCutoff,
+      int level,
+      List<ClusteringCandidates> result) {
+    if (candidates.size() < 2) {
+      return;
+    }
+    if (candidates.size() < candidatesCutoff || level == SECONDARY_KEYS.size()) {
+      result.add(ClusteringCandidates.builder().hashKey(hashKey).candidates(candidates).build());
+      return;
+    }
+    Map<String, List<HashKeyOccurrence>> blocks =
+        candidates.stream()
+            .collect(
+                Collectors.groupingBy(
+                    SECONDARY_KEYS.get(level), LinkedHashMap::new, Collectors.toList()));
+    blocks.forEach(
+        (key, block) ->
+            subBlock(hashKey + "|" + key, block, candidatesCutoff, level + 1, result));
+  }
+
+  /**
+   * Compares every pair of candidates if there are fewer than candidatesCutoff of them, otherwise
+   * sorts the candidates and compares each one with the next window candidates
+   */
+  public static List<ClusterPair> comparePairs(
+      List<HashKeyOccurrence> candidates, int candidatesCutoff, int window) {
+    List<HashKeyOccurrence> sorted = candidates;
+    int maxDistance = candidates.size();
+    if (candidates.size() >= candidatesCutoff) {
+      sorted = new ArrayList<>(candidates);
+      sorted.sort(NEIGHBOURHOOD_ORDER);
+      maxDistance = Math.max(window, 1);
+    }
+
+    List<ClusterPair> pairs = new ArrayList<>();
+    for (int i = 0; i < sorted.size(); i++) {
+      HashKeyOccurrence o1 = sorted.get(i);
+      int last = Math.min(sorted.size() - 1, i + maxDistance);
+      for (int j = i + 1; j <= last; j++) {
+        HashKeyOccurrence o2 = sorted.get(j);
+        RelationshipAssertion<HashKeyOccurrence> assertion =
+            OccurrenceRelationships.generate(o1, o2);
+        if (assertion != null) {
+          pairs.add(ClusterPair.builder().o1(o1).o2(o2).assertion(assertion).build());
+        }
+      }
+    }
+    return pairs;
+  }
+
+  private static Long round(Double value) {
+    return value == null ? null : Math.round(value * 10);
+  }
+}
@@ -11,4 +11,26 @@ import lombok.NoArgsConstructor;
 public class ALANameMatchConfig implements Serializable {
 
   private Boolean matchOnTaxonID = true;
+
+  // Max number of names sent to the name matching service in one request, 1 disables batching
+  private Integer batchSize = 50;
+
+  // Time to wait for other names to fill a batch
+  private Long batchMaxWaitMillis = 20L;
+
+  // Number of batch requests sent at the same time
+  private Integer batchParallelism = 4;
+
+  // Local file to keep name matches between runs, not set disables the persistent cache. The file
+  // is discarded if cachePersistVersion differs or it is older than cachePersistMaxAgeDays
+  private String cachePersistPath;
+
+  // Max number of name matches kept in the persistent cache
+  private Long cachePersistMaxEntries = 1_000_000L;
+
+  // Version of the name index, change it after the name index is rebuilt to discard old matches
+  private String cachePersistVersion;
+
+  // Max age of the persistent cache, matches are loaded again afterwards
+  private Integer cachePersistMaxAgeDays = 7;
 }
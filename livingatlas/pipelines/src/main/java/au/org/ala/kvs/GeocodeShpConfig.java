@@ -13,4 +13,11 @@ public class GeocodeShpConfig implements Serializable {
   private ShapeFile eez;
   private ShapeFile stateProvince;
   private ShapeFile biome;
+  /**
+   * Coordinates are snapped to tiles of this number of decimal places and intersection results are
+   * cached per tile, 5 = approx 1m. Not set disables the cache
+   */
+  private Integer intersectCacheDecimalPlaces;
+  /** Max number of cached tiles per SHP file */
+  private Long intersectCacheSize;
 }
@@ -1,5 +1,6 @@
 package au.org.ala.kvs.cache;
 
+import au.org.ala.kvs.ALANameMatchConfig;
 import au.org.ala.kvs.ALAPipelinesConfig;
 import au.org.ala.names.ws.api.NameMatchService;
 import au.org.ala.names.ws.api.NameSearch;
@@ -7,8 +8,10 @@ import au.org.ala.names.ws.api.NameUsageMatch;
 import au.org.ala.names.ws.client.ALANameUsageMatchServiceClient;
 import au.org.ala.utils.WsUtils;
 import au.org.ala.ws.ClientConfiguration;
-import au.org.ala.ws.ClientException;
 import java.io.IOException;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.gbif.kvs.KeyValueStore;
@@ -66,46 +69,44 @@ public class ALANameMatchKVStoreFactory {
     return cache2kBackedKVStore(wsClient, closeHandler, config);
   }
 
-  /** Builds a KV Store backed by the rest client. */
+  /**
+   * Builds a KV Store backed by the rest client. Misses are batched and coalesced by {@link
+   * BatchingKeyValueStore}, single names are matched with the single name request.
+   */
   private static KeyValueStore<NameSearch, NameUsageMatch> cache2kBackedKVStore(
       NameMatchService nameMatchService, Command closeHandler, ALAPipelinesConfig config) {
 
+    ALANameMatchConfig matchConfig =
+        Optional.ofNullable(config.getAlaNameMatchConfig()).orElse(new ALANameMatchConfig());
+
     KeyValueStore<NameSearch, NameUsageMatch> kvs =
-        new KeyValueStore<NameSearch, NameUsageMatch>() {
-          @Override
-          public NameUsageMatch get(NameSearch key) {
-            Exception ex = null;
-            try {
-              for (int i = 0; i < config.getAlaNameMatch().getRetryConfig().getMaxAttempts(); i++) {
-                try {
-                  return nameMatchService.match(key);
-                } catch (ClientException exception) {
-                  log.error(
-                      "ClientException contacting the species match service with key: "
-                          + key.toString(),
-                      exception);
-                  ex = exception;
-                  Thread.sleep(
-                      config.getAlaNameMatch().getRetryConfig().getInitialIntervalMillis());
-                } catch (Exception ex1) {
-                  log.error(
-                      "Exception contacting the species match service with key: " + key.toString(),
-                      ex1);
-                  ex = ex1;
-                  Thread.sleep(5000);
-                }
-              }
-            } catch (InterruptedException ie) {
-              // NOP
-            }
-            throw new PipelinesException(ex);
-          }
+        BatchingKeyValueStore.<NameSearch, NameUsageMatch>builder()
+            .loader(
+                keys ->
+                    keys.size() == 1
+                        ? Collections.singletonList(nameMatchService.match(keys.get(0)))
+                        : nameMatchService.match(keys))
+            .closeHandler(closeHandler)
+            .batchSize(matchConfig.getBatchSize())
+            .maxWaitMillis(matchConfig.getBatchMaxWaitMillis())
+            .parallelism(matchConfig.getBatchParallelism())
+            .retryConfig(config.getAlaNameMatch().getRetryConfig())
+            .keyClass(NameSearch.class)
+            .valueClass(NameUsageMatch.class)
+            .persistPath(matchConfig.getCachePersistPath())
+            .persistMaxEntries(matchConfig.getCachePersistMaxEntries())
+            .persistVersion(matchConfig.getCachePersistVersion())
+            .persistMaxAgeMillis(
+                Optional.ofNullable(matchConfig.getCachePersistMaxAgeDays())
+                    .map(TimeUnit.DAYS::toMillis)
+                    .orElse(null))
+            .build();
+
+    if (matchConfig.getCachePersistPath() != null) {
+      // The store is a JVM singleton, pipelines don't close it
+      Runtime.getRuntime().addShutdownHook(new Thread(kvs::close));
+    }
 
-          @Override
-          public void close() {
-            closeHandler.execute();
-          }
-        };
     return KeyValueCache.cache(
         kvs, config.getAlaNameMatch().getCacheSizeMb(), NameSearch.class, NameUsageMatch.class);
   }
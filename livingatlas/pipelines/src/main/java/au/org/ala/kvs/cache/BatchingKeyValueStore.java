@@ -0,0 +1,348 @@
+package au.org.ala.kvs.cache;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.gbif.kvs.KeyValueStore;
+import org.gbif.kvs.hbase.Command;
+import org.gbif.pipelines.common.PipelinesException;
+import org.gbif.pipelines.core.config.model.RetryConfig;
+
+/**
+ * Key value store which loads values from a web service in batches. Misses of concurrent callers
+ * are collected for up to maxWaitMillis into batches of up to batchSize keys, identical keys
+ * waiting for a batch are loaded once. Failed batches are retried with a jittered exponential
+ * backoff.
+ *
+ * <p>If persistPath is set, loaded values are kept and written to the local file on {@link
+ * #close()}, the file is read back on creation so the next run starts warm. The first line of the
+ * file is a header with persistVersion and the creation time of the cached values. The file is
+ * discarded if the version differs, for example after the name index was rebuilt, or if it is
+ * older than persistMaxAgeMillis.
+ *
+ * <p>Once the store is closed, callers still waiting for a value fail and {@link #get(Object)}
+ * throws {@link IllegalStateException}.
+ */
+@Slf4j
+public class BatchingKeyValueStore<K, V> implements KeyValueStore<K, V> {
+
+  /** Loads values of keys, in the order of keys */
+  @FunctionalInterface
+  public interface BatchLoader<K, V> {
+    List<V> load(List<K> keys) throws Exception;
+  }
+
+  private final BatchLoader<K, V> loader;
+  private final Command closeHandler;
+  private final int batchSize;
+  private final long maxWaitMillis;
+  private final RetryConfig retryConfig;
+  private final Class<K> keyClass;
+  private final Class<V> valueClass;
+  private final String persistPath;
+  private final long persistMaxEntries;
+  private final String persistVersion;
+  private final long persistMaxAgeMillis;
+
+  private final ObjectMapper mapper = new ObjectMapper();
+  private final Map<K, V> persisted = new ConcurrentHashMap<>();
+  private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+  private final BlockingQueue<K> queue = new LinkedBlockingQueue<>();
+  private final ExecutorService workers;
+  private final Thread dispatcher;
+  private volatile boolean closed = false;
+  private volatile long persistCreated = System.currentTimeMillis();
+
+  @Builder
+  private BatchingKeyValueStore(
+      BatchLoader<K, V> loader,
+      Command closeHandler,
+      Integer batchSize,
+      Long maxWaitMillis,
+      Integer parallelism,
+      RetryConfig retryConfig,
+      Class<K> keyClass,
+      Class<V> valueClass,
+      String persistPath,
+      Long persistMaxEntries,
+      String persistVersion,
+      Long persistMaxAgeMillis) {
+    this.loader = loader;
+    this.closeHandler = closeHandler;
+    this.batchSize = batchSize == null ? 1 : Math.max(batchSize, 1);
+    this.maxWaitMillis = maxWaitMillis == null ? 0L : Math.max(maxWaitMillis, 0L);
+    this.retryConfig = retryConfig == null ? new RetryConfig() : retryConfig;
+    this.keyClass = keyClass;
+    this.valueClass = valueClass;
+    this.persistPath = persistPath;
+    this.persistMaxEntries = persistMaxEntries == null ? Long.MAX_VALUE : persistMaxEntries;
+    this.persistVersion = persistVersion;
+    this.persistMaxAgeMillis =
+        persistMaxAgeMillis == null ? Long.MAX_VALUE : Math.max(persistMaxAgeMillis, 0L);
+
+    int threads = parallelism == null ? 1 : Math.max(parallelism, 1);
+    this.workers =
+        Executors.newFixedThreadPool(
+            threads,
+            r -> {
+              Thread t = new Thread(r, "batching-kvs-worker");
+              t.setDaemon(true);
+              return t;
+            });
+    this.dispatcher = new Thread(this::dispatch, "batching-kvs-dispatcher");
+    this.dispatcher.setDaemon(true);
+    this.dispatcher.start();
+
+    if (isPersisted()) {
+      read();
+    }
+  }
+
+  @Override
+  public V get(K key) {
+    checkNotClosed();
+    V value = persisted.get(key);
+    if (value != null) {
+      return value;
+    }
+    CompletableFuture<V> future =
+        inFlight.computeIfAbsent(
+            key,
+            k -> {
+              queue.add(k);
+              return new CompletableFuture<>();
+            });
+    // The store could be closed after the first check, before the key was registered
+    if (closed) {
+      failPending();
+    }
+    try {
+      return future.get();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new PipelinesException(ex);
+    } catch (ExecutionException ex) {
+      checkNotClosed();
+      throw new PipelinesException(ex.getCause());
+    }
+  }
+
+  @Override
+  public void close() {
+    closed = true;
+    dispatcher.interrupt();
+    workers.shutdown();
+    failPending();
+    if (isPersisted()) {
+      write();
+    }
+    if (closeHandler != null) {
+      closeHandler.execute();
+    }
+  }
+
+  private void checkNotClosed() {
+    if (closed) {
+      throw new IllegalStateException("Key value store is closed");
+    }
+  }
+
+  /** Fails keys which are waiting for a batch or being loaded, they won't be loaded anymore */
+  private void failPending() {
+    queue.clear();
+    for (K key : new ArrayList<>(inFlight.keySet())) {
+      CompletableFuture<V> future = inFlight.remove(key);
+      if (future != null) {
+        future.completeExceptionally(new IllegalStateException("Key value store is closed"));
+      }
+    }
+  }
+
+  /** Collects keys into batches and passes them to workers */
+  private void dispatch() {
+    while (!closed) {
+      try {
+        K first = queue.poll(100, TimeUnit.MILLISECONDS);
+        if (first == null) {
+          continue;
+        }
+        List<K> batch = new ArrayList<>(batchSize);
+        batch.add(first);
+        long deadline = System.currentTimeMillis() + maxWaitMillis;
+        while (batch.size() < batchSize) {
+          long wait = deadline - System.currentTimeMillis();
+          K next = wait > 0 ? queue.poll(wait, TimeUnit.MILLISECONDS) : queue.poll();
+          if (next == null) {
+            break;
+          }
+          batch.add(next);
+        }
+        workers.execute(() -> load(batch));
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+    }
+  }
+
+  private void load(List<K> batch) {
+    Exception error = null;
+    int maxAttempts = Math.max(retryConfig.getMaxAttempts(), 1);
+    for (int attempt = 0; attempt < maxAttempts; attempt++) {
+      try {
+        List<V> values = loader.load(batch);
+        if (values == null || values.size() != batch.size()) {
+          int received = values == null ? 0 : values.size();
+          throw new PipelinesException(
+              "Expected " + batch.size() + " values, received " + received);
+        }
+        for (int i = 0; i < batch.size(); i++) {
+          complete(batch.get(i), values.get(i));
+        }
+        return;
+      } catch (Exception ex) {
+        log.error("Exception loading a batch of {} keys, attempt {}", batch.size(), attempt, ex);
+        error = ex;
+        if (attempt + 1 < maxAttempts && !sleep(attempt)) {
+          break;
+        }
+      }
+    }
+    for (K key : batch) {
+      CompletableFuture<V> future = inFlight.remove(key);
+      if (future != null) {
+        future.completeExceptionally(error);
+      }
+    }
+  }
+
+  private void complete(K key, V value) {
+    if (isPersisted() && value != null && persisted.size() < persistMaxEntries) {
+      persisted.put(key, value);
+    }
+    CompletableFuture<V> future = inFlight.remove(key);
+    if (future != null) {
+      future.complete(value);
+    }
+  }
+
+  /** Exponential backoff randomized by randomizationFactor, returns false if interrupted */
+  private boolean sleep(int attempt) {
+    double interval =
+        retryConfig.getInitialIntervalMillis() * Math.pow(retryConfig.getMultiplier(), attempt);
+    double jitter = retryConfig.getRandomizationFactor();
+    interval *= 1d + jitter * (2d * ThreadLocalRandom.current().nextDouble() - 1d);
+    try {
+      TimeUnit.MILLISECONDS.sleep(Math.max(0L, (long) interval));
+      return true;
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+
+  private boolean isPersisted() {
+    return persistPath != null && !persistPath.isEmpty();
+  }
+
+  private void read() {
+    Path path = Paths.get(persistPath);
+    if (!Files.exists(path)) {
+      return;
+    }
+    try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+      String line = reader.readLine();
+      Header header = line == null ? null : mapper.readValue(line, Header.class);
+      if (!isValid(header)) {
+        log.info("Cached values in {} are outdated, starting with empty cache", persistPath);
+        return;
+      }
+      persistCreated = header.getCreated();
+      while ((line = reader.readLine()) != null && persisted.size() < persistMaxEntries) {
+        Entry entry = mapper.readValue(line, Entry.class);
+        persisted.put(
+            mapper.treeToValue(entry.getKey(), keyClass),
+            mapper.treeToValue(entry.getValue(), valueClass));
+      }
+      log.info("Read {} cached values from {}", persisted.size(), persistPath);
+    } catch (IOException ex) {
+      log.warn("Can't read cached values from {}, starting with empty cache", persistPath, ex);
+      persisted.clear();
+      persistCreated = System.currentTimeMillis();
+    }
+  }
+
+  /** The header must have the same version and must not be expired */
+  private boolean isValid(Header header) {
+    if (header == null || !Objects.equals(persistVersion, header.getVersion())) {
+      return false;
+    }
+    long age = System.currentTimeMillis() - header.getCreated();
+    return age >= 0 && age <= persistMaxAgeMillis;
+  }
+
+  private void write() {
+    Path path = Paths.get(persistPath);
+    Path tmp = Paths.get(persistPath + ".tmp");
+    try {
+      if (path.getParent() != null) {
+        Files.createDirectories(path.getParent());
+      }
+      try (BufferedWriter writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+        writer.write(mapper.writeValueAsString(new Header(persistVersion, persistCreated)));
+        writer.newLine();
+        for (Map.Entry<K, V> e : persisted.entrySet()) {
+          writer.write(
+              mapper.writeValueAsString(
+                  new Entry(mapper.valueToTree(e.getKey()), mapper.valueToTree(e.getValue()))));
+          writer.newLine();
+        }
+      }
+      Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      log.info("Wrote {} cached values to {}", persisted.size(), persistPath);
+    } catch (IOException ex) {
+      log.warn("Can't write cached values to {}", persistPath, ex);
+    }
+  }
+
+  @Data
+  @NoArgsConstructor
+  @AllArgsConstructor
+  static class Header {
+    private String version;
+    private long created;
+  }
+
+  @Data
+  @NoArgsConstructor
+  @AllArgsConstructor
+  static class Entry {
+    private JsonNode key;
+    private JsonNode value;
+  }
+}
@@ -0,0 +1,65 @@
+package au.org.ala.kvs.client;
+
+import au.org.ala.layers.intersect.SimpleShapeFile;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import lombok.extern.slf4j.Slf4j;
+import org.gbif.pipelines.common.PipelinesException;
+
+/**
+ * {@link SimpleShapeFile} with intersection results cached per tile. A coordinate is snapped to the
+ * centre of its tile, the tile is the coordinate rounded to decimalPlaces, so every point of a tile
+ * gets the same value regardless of the order of lookups.
+ *
+ * <p>The cache is shared by all threads of the JVM, if decimalPlaces is null the coordinate is
+ * intersected as is and nothing is cached.
+ */
+@Slf4j
+class CachedShapeFile {
+
+  static final int MAX_DECIMAL_PLACES = 7;
+  private static final long DEFAULT_CACHE_SIZE = 1_000_000L;
+
+  private final SimpleShapeFile shapeFile;
+  private final Integer decimalPlaces;
+  private final double scale;
+  private final Cache<Long, Optional<String>> cache;
+
+  private CachedShapeFile(SimpleShapeFile shapeFile, Integer decimalPlaces, Long cacheSize) {
+    this.shapeFile = shapeFile;
+    this.decimalPlaces =
+        decimalPlaces == null ? null : Math.min(Math.max(decimalPlaces, 0), MAX_DECIMAL_PLACES);
+    this.scale = this.decimalPlaces == null ? 1d : Math.pow(10d, this.decimalPlaces);
+    this.cache =
+        CacheBuilder.newBuilder()
+            .maximumSize(cacheSize != null && cacheSize > 0 ? cacheSize : DEFAULT_CACHE_SIZE)
+            .build();
+  }
+
+  static CachedShapeFile create(String path, String field, Integer decimalPlaces, Long cacheSize) {
+    return new CachedShapeFile(new SimpleShapeFile(path, field), decimalPlaces, cacheSize);
+  }
+
+  /** Returns the value of the field of the shape containing the point or null */
+  String intersect(double longitude, double latitude) {
+    if (decimalPlaces == null || Math.abs(latitude) > 90d || Math.abs(longitude) > 180d) {
+      return shapeFile.intersect(longitude, latitude);
+    }
+    long latTile = Math.round((latitude + 90d) * scale);
+    long lngTile = Math.round((longitude + 180d) * scale);
+    long key = latTile * (Math.round(360d * scale) + 1L) + lngTile;
+    try {
+      return cache
+          .get(
+              key,
+              () ->
+                  Optional.ofNullable(
+                      shapeFile.intersect(lngTile / scale - 180d, latTile / scale - 90d)))
+          .orElse(null);
+    } catch (ExecutionException ex) {
+      throw new PipelinesException(ex.getCause());
+    }
+  }
+}
@@ -1,5 +1,7 @@
 package au.org.ala.kvs.client;
 
+import static java.util.stream.Collectors.toList;
+
 import au.org.ala.kvs.GeocodeShpConfig;
 import au.org.ala.kvs.ShapeFile;
 import au.org.ala.layers.intersect.SimpleShapeFile;
@@ -7,8 +9,12 @@ import com.google.common.base.Strings;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
 import lombok.extern.slf4j.Slf4j;
+import org.gbif.kvs.geocode.LatLng;
 import org.gbif.pipelines.common.PipelinesException;
 import org.gbif.rest.client.geocode.Location;
 
@@ -16,6 +22,8 @@ import org.gbif.rest.client.geocode.Location;
  * This is a port of the functionality in geocode to using ALA's layer-store
  * (https://github.com/AtlasOfLivingAustralia/layers-store) SimpleShapeFile for intersections.
  *
+ * <p>Intersections are cached per coordinate tile, see {@link CachedShapeFile}.
+ *
  * @see SimpleShapeFile
  */
 @Slf4j
@@ -28,23 +36,28 @@ public class GeocodeShpIntersectService {
 
   private static GeocodeShpIntersectService instance;
   private final GeocodeShpConfig config;
-  private final SimpleShapeFile countries;
-  private final SimpleShapeFile eez;
-  private final SimpleShapeFile states;
+  private final CachedShapeFile countries;
+  private final CachedShapeFile eez;
+  private final CachedShapeFile states;
 
   private GeocodeShpIntersectService(GeocodeShpConfig config) {
     synchronized (this) {
       checkResourceFiles(config);
       this.config = config;
-      this.countries =
-          new SimpleShapeFile(config.getCountry().getPath(), config.getCountry().getField());
-      this.eez = new SimpleShapeFile(config.getEez().getPath(), config.getEez().getField());
-      this.states =
-          new SimpleShapeFile(
-              config.getStateProvince().getPath(), config.getStateProvince().getField());
+      this.countries = createShapeFile(config.getCountry(), config);
+      this.eez = createShapeFile(config.getEez(), config);
+      this.states = createShapeFile(config.getStateProvince(), config);
     }
   }
 
+  private static CachedShapeFile createShapeFile(ShapeFile shapeFile, GeocodeShpConfig config) {
+    return CachedShapeFile.create(
+        shapeFile.getPath(),
+        shapeFile.getField(),
+        config.getIntersectCacheDecimalPlaces(),
+        config.getIntersectCacheSize());
+  }
+
   /** Validate resource file paths are available. */
   private void checkResourceFiles(GeocodeShpConfig config) {
     String error = "";
@@ -127,7 +140,7 @@ public class GeocodeShpIntersectService {
     }
   }
 
-  public static GeocodeShpIntersectService getInstance(GeocodeShpConfig config) {
+  public static synchronized GeocodeShpIntersectService getInstance(GeocodeShpConfig config) {
     if (instance == null) {
       instance = new GeocodeShpIntersectService(config);
     }
@@ -195,6 +208,11 @@ public class GeocodeShpIntersectService {
     return locations;
   }
 
+  /** Batch version of {@link #lookupCountry(Double, Double)}, results are in the order of points */
+  public List<List<Location>> lookupCountry(List<LatLng> latLngs) {
+    return lookup(latLngs, this::lookupCountry);
+  }
+
   public List<Location> lookupStateProvince(Double latitude, Double longitude) {
     List<Location> locations = new ArrayList<>();
     String state = states.intersect(longitude, latitude);
@@ -228,8 +246,41 @@ public class GeocodeShpIntersectService {
     return locations;
   }
 
+  /**
+   * Batch version of {@link #lookupStateProvince(Double, Double)}, results are in the order of
+   * points
+   */
+  public List<List<Location>> lookupStateProvince(List<LatLng> latLngs) {
+    return lookup(latLngs, this::lookupStateProvince);
+  }
+
+  /** Repeated points are intersected once, every point gets its own copy of locations */
+  private static List<List<Location>> lookup(
+      List<LatLng> latLngs, BiFunction<Double, Double, List<Location>> lookupFn) {
+    Map<LatLng, List<Location>> unique = new HashMap<>();
+    List<List<Location>> result = new ArrayList<>(latLngs.size());
+    for (LatLng latLng : latLngs) {
+      List<Location> locations =
+          unique.computeIfAbsent(
+              latLng, ll -> lookupFn.apply(ll.getLatitude(), ll.getLongitude()));
+      result.add(locations.stream().map(GeocodeShpIntersectService::copy).collect(toList()));
+    }
+    return result;
+  }
+
+  private static Location copy(Location location) {
+    Location l = new Location();
+    l.setId(location.getId());
+    l.setType(location.getType());
+    l.setSource(location.getSource());
+    l.setName(location.getName());
+    l.setIsoCountryCode2Digit(location.getIsoCountryCode2Digit());
+    l.setDistance(location.getDistance());
+    return l;
+  }
+
   private String intersectWithBuffer(
-      SimpleShapeFile simpleShapeFile, ShapeFile config, Double latitude, Double longitude) {
+      CachedShapeFile simpleShapeFile, ShapeFile config, Double latitude, Double longitude) {
     String sw =
         simpleShapeFile.intersect(
             longitude - config.getIntersectBuffer(), latitude - config.getIntersectBuffer());
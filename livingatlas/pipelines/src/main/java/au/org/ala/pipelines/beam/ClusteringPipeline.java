@@ -93,6 +93,8 @@ public class ClusteringPipeline {
     PCollection<IndexRecord> indexRecords = ALAFsUtils.loadIndexRecords(options, pipeline);
 
     final Integer candidatesCutoff = options.getCandidatesCutoff();
+    final Integer comparisonWindow = options.getComparisonWindow();
+    final Integer maxClusterSize = options.getMaxClusterSize();
 
     // create hashes for everything
     PCollection<HashKeyOccurrence> hashAll =
@@ -283,12 +285,14 @@ public class ClusteringPipeline {
                       OutputReceiver<KV<String, Relationship>> out) {
 
                     log.info("Candidates: {}", source.getCandidates().size());
-                    if (source.getCandidates().size() < candidatesCutoff) {
+                    for (ClusteringCandidates block :
+                        CandidateBlocking.subBlock(source, candidatesCutoff)) {
                       List<KV<String, Relationship>> output =
-                          createRelationships(source, candidatesCutoff);
+                          createRelationships(
+                              block, candidatesCutoff, comparisonWindow, maxClusterSize);
                       log.info(
                           "Candidates: {}, Relationships {}",
-                          source.getCandidates().size(),
+                          block.getCandidates().size(),
                           output.size());
                       output.forEach(out::output);
                     }
@@ -298,7 +302,7 @@ public class ClusteringPipeline {
     if (options.isOutputDebugAvro()) {
       outputDebugHashKeys(options, hashAll);
       outputDebugCandidates(options, candidates);
-      outputDebugRelationships(options, candidatesCutoff, candidates);
+      outputDebugRelationships(options, candidatesCutoff, comparisonWindow, candidates);
       outputDebugRelationshipsUngrouped(options, relationships);
     }
 
@@ -407,6 +411,7 @@ public class ClusteringPipeline {
   private static void outputDebugRelationships(
       ClusteringPipelineOptions options,
       Integer candidatesCutoff,
+      Integer comparisonWindow,
       PCollection<ClusteringCandidates> candidates) {
     candidates
         .apply(
@@ -416,31 +421,17 @@ public class ClusteringPipeline {
                   public void processElement(
                       @Element ClusteringCandidates source, OutputReceiver<String> out) {
 
-                    if (source.getCandidates().size() < candidatesCutoff) {
-
-                      List<HashKeyOccurrence> candidates = source.getCandidates();
-                      List<HashKeyOccurrence> processed = new ArrayList<>();
-
-                      for (HashKeyOccurrence o1 : candidates) {
-
-                        processed.add(o1);
-
-                        for (HashKeyOccurrence o2 : candidates) {
-
-                          if (!processed.contains(o2)) {
-                            RelationshipAssertion<HashKeyOccurrence> assertion =
-                                OccurrenceRelationships.generate(o1, o2);
-
-                            if (assertion != null) {
-                              out.output(
-                                  o1.getId()
-                                      + ","
-                                      + o2.getId()
-                                      + ","
-                                      + assertion.getJustificationAsDelimited());
-                            }
-                          }
-                        }
+                    for (ClusteringCandidates block :
+                        CandidateBlocking.subBlock(source, candidatesCutoff)) {
+                      for (ClusterPair pair :
+                          CandidateBlocking.comparePairs(
+                              block.getCandidates(), candidatesCutoff, comparisonWindow)) {
+                        out.output(
+                            pair.getO1().getId()
+                                + ","
+                                + pair.getO2().getId()
+                                + ","
+                                + pair.getAssertion().getJustificationAsDelimited());
                       }
                     }
                   }
@@ -521,113 +512,106 @@ public class ClusteringPipeline {
   @NotNull
   public static List<KV<String, Relationship>> createRelationships(
       ClusteringCandidates source, Integer candidatesCutoff) {
+    return createRelationships(source, candidatesCutoff, candidatesCutoff, candidatesCutoff);
+  }
 
-    List<KV<String, Relationship>> output = new ArrayList<>();
-    if (source.getCandidates().size() < candidatesCutoff) {
-
-      List<HashKeyOccurrence> candidates = source.getCandidates();
-      List<ClusterPair> pairs = new ArrayList<>();
-      List<HashKeyOccurrence> processed = new ArrayList<>();
-
-      for (HashKeyOccurrence o1 : candidates) {
-
-        processed.add(o1);
-
-        for (HashKeyOccurrence o2 : candidates) {
+  /**
+   * Creates relationships within a block of candidates, blocks of candidatesCutoff or more
+   * candidates are compared with a sorted-neighbourhood window, see {@link CandidateBlocking}.
+   * Clusters of maxClusterSize or more occurrences are not marked.
+   */
+  @NotNull
+  public static List<KV<String, Relationship>> createRelationships(
+      ClusteringCandidates source,
+      Integer candidatesCutoff,
+      Integer comparisonWindow,
+      Integer maxClusterSize) {
 
-          if (!processed.contains(o2)) {
-            RelationshipAssertion<HashKeyOccurrence> assertion =
-                OccurrenceRelationships.generate(o1, o2);
+    List<KV<String, Relationship>> output = new ArrayList<>();
+    List<ClusterPair> pairs =
+        CandidateBlocking.comparePairs(source.getCandidates(), candidatesCutoff, comparisonWindow);
 
-            if (assertion != null) {
-              pairs.add(ClusterPair.builder().o1(o1).o2(o2).assertion(assertion).build());
-            }
-          }
-        }
-      }
+    // cluster occurrences
+    List<Set<HashKeyOccurrence>> clusters = RepresentativeRecordUtils.createClusters(pairs);
 
-      // cluster occurrences
-      List<Set<HashKeyOccurrence>> clusters = RepresentativeRecordUtils.createClusters(pairs);
+    if (clusters.size() > 1) {
+      log.error("Finding no of clusters of size: " + clusters.size());
+    }
 
-      if (clusters.size() > 1) {
-        log.error("Finding no of clusters of size: " + clusters.size());
-      }
+    // within each cluster, nominate the
+    // RepresentativeRecord (primary) and the AssociatedRecord (duplicate)
+    for (Set<HashKeyOccurrence> cluster : clusters) {
 
-      // within each cluster, nominate the
-      // RepresentativeRecord (primary) and the AssociatedRecord (duplicate)
-      for (Set<HashKeyOccurrence> cluster : clusters) {
+      if (cluster.size() < maxClusterSize) {
 
-        if (cluster.size() < candidatesCutoff) {
+        // find the representative record
+        HashKeyOccurrence representativeRecord =
+            RepresentativeRecordUtils.findRepresentativeRecord(cluster);
 
-          // find the representative record
-          HashKeyOccurrence representativeRecord =
-              RepresentativeRecordUtils.findRepresentativeRecord(cluster);
+        // determine representative records
+        Relationship.Builder builder =
+            Relationship.newBuilder()
+                .setRepId(representativeRecord.getId())
+                .setRepDataset(representativeRecord.getDatasetKey());
 
-          // determine representative records
-          Relationship.Builder builder =
-              Relationship.newBuilder()
-                  .setRepId(representativeRecord.getId())
-                  .setRepDataset(representativeRecord.getDatasetKey());
+        for (OccurrenceFeatures associatedRecord : cluster) {
 
-          for (OccurrenceFeatures associatedRecord : cluster) {
+          if (!associatedRecord.getId().equals(representativeRecord.getId())) {
 
-            if (!associatedRecord.getId().equals(representativeRecord.getId())) {
+            // determine representative records
+            RelationshipAssertion assertion =
+                OccurrenceRelationships.generate(representativeRecord, associatedRecord);
 
-              // determine representative records
-              RelationshipAssertion assertion =
-                  OccurrenceRelationships.generate(representativeRecord, associatedRecord);
+            if (assertion != null) {
+              Relationship r =
+                  builder
+                      .setDupId(associatedRecord.getId())
+                      .setDupDataset(associatedRecord.getDatasetKey())
+                      .setJustification(assertion.getJustificationAsDelimited())
+                      .build();
+
+              output.add(KV.of(associatedRecord.getId(), r));
+            } else {
+
+              // do we go back for the ClusterPair ???
+              // and work out which is the representative between the pair
+              Optional<ClusterPair> clusterPair =
+                  pairs.stream()
+                      .filter(
+                          pair ->
+                              pair.getO1().equals(associatedRecord)
+                                  || pair.getO2().equals(associatedRecord))
+                      .findFirst();
+
+              if (clusterPair.isPresent()) {
+                // which is the representative ?
+                OccurrenceFeatures rep =
+                    RepresentativeRecordUtils.pickRepresentative(
+                        new HashSet<>(
+                            Arrays.asList(clusterPair.get().getO1(), clusterPair.get().getO2())));
+
+                OccurrenceFeatures dup =
+                    clusterPair.get().getO1().equals(rep)
+                        ? clusterPair.get().getO2()
+                        : clusterPair.get().getO1();
 
-              if (assertion != null) {
                 Relationship r =
                     builder
-                        .setDupId(associatedRecord.getId())
-                        .setDupDataset(associatedRecord.getDatasetKey())
-                        .setJustification(assertion.getJustificationAsDelimited())
+                        .setRepId(rep.getId())
+                        .setRepDataset(rep.getDatasetKey())
+                        .setDupId(dup.getId())
+                        .setDupDataset(dup.getDatasetKey())
+                        .setJustification(
+                            clusterPair.get().getAssertion().getJustificationAsDelimited())
                         .build();
 
-                output.add(KV.of(associatedRecord.getId(), r));
-              } else {
-
-                // do we go back for the ClusterPair ???
-                // and work out which is the representative between the pair
-                Optional<ClusterPair> clusterPair =
-                    pairs.stream()
-                        .filter(
-                            pair ->
-                                pair.getO1().equals(associatedRecord)
-                                    || pair.getO2().equals(associatedRecord))
-                        .findFirst();
-
-                if (clusterPair.isPresent()) {
-                  // which is the representative ?
-                  OccurrenceFeatures rep =
-                      RepresentativeRecordUtils.pickRepresentative(
-                          new HashSet<>(
-                              Arrays.asList(clusterPair.get().getO1(), clusterPair.get().getO2())));
-
-                  OccurrenceFeatures dup =
-                      clusterPair.get().getO1().equals(rep)
-                          ? clusterPair.get().getO2()
-                          : clusterPair.get().getO1();
-
-                  Relationship r =
-                      builder
-                          .setRepId(rep.getId())
-                          .setRepDataset(rep.getDatasetKey())
-                          .setDupId(dup.getId())
-                          .setDupDataset(dup.getDatasetKey())
-                          .setJustification(
-                              clusterPair.get().getAssertion().getJustificationAsDelimited())
-                          .build();
-
-                  output.add(KV.of(dup.getId(), r));
-                }
+                output.add(KV.of(dup.getId(), r));
               }
             }
           }
-        } else {
-          log.warn("Avoiding marking a cluster of size {}", cluster.size());
         }
+      } else {
+        log.warn("Avoiding marking a cluster of size {}", cluster.size());
       }
     }
     return output;
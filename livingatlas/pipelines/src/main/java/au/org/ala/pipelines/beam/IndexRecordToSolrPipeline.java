@@ -265,20 +265,35 @@ public class IndexRecordToSolrPipeline {
                       out.output(solrInputDocument);
                     }
                   }))
-          .apply(
-              SolrIO.write()
-                  .to(options.getSolrCollection())
-                  .withConnectionConfiguration(conn)
-                  .withMaxBatchSize(options.getSolrBatchSize())
-                  .withRetryConfiguration(
-                      SolrIO.RetryConfiguration.create(
-                          options.getSolrRetryMaxAttempts(),
-                          Duration.standardMinutes(options.getSolrRetryDurationInMins()))));
+          .apply(createSolrWrite(options, conn));
     } else {
       indexRecords.apply(AvroIO.write(IndexRecord.class).to(options.getOutputAvroToFilePath()));
     }
   }
 
+  private static SolrIO.Write createSolrWrite(
+      SolrPipelineOptions options, SolrIO.ConnectionConfiguration conn) {
+    SolrIO.Write write =
+        SolrIO.write()
+            .to(options.getSolrCollection())
+            .withConnectionConfiguration(conn)
+            .withMaxBatchSize(options.getSolrBatchSize())
+            .withRetryConfiguration(
+                SolrIO.RetryConfiguration.create(
+                    options.getSolrRetryMaxAttempts(),
+                    Duration.standardMinutes(options.getSolrRetryDurationInMins())));
+    if (options.getSolrShardRouting()) {
+      write = write.withShardRouting(options.getSolrMaxInFlightPerShard());
+      if (options.getSolrTargetLatencyMillis() > 0) {
+        write =
+            write.withAdaptiveBatchSize(
+                options.getSolrMinBatchSize(),
+                Duration.millis(options.getSolrTargetLatencyMillis()));
+      }
+    }
+    return write;
+  }
+
   private static void addOutlierInfo(
       IndexRecord indexRecord, DistributionOutlierRecord outlierRecord) {
     indexRecord
@@ -7,6 +7,8 @@ import au.org.ala.pipelines.options.SamplingPipelineOptions;
 import au.org.ala.pipelines.util.SamplingUtils;
 import au.org.ala.pipelines.util.VersionInfo;
 import au.org.ala.sampling.Layer;
+import au.org.ala.sampling.LayerCrawler;
+import au.org.ala.sampling.SampleCache;
 import au.org.ala.sampling.SamplingService;
 import au.org.ala.utils.ALAFsUtils;
 import au.org.ala.utils.CombinedYamlConfiguration;
@@ -20,11 +22,14 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.beam.sdk.Pipeline;
 import org.apache.beam.sdk.PipelineResult;
 import org.apache.beam.sdk.coders.AvroCoder;
+import org.apache.beam.sdk.coders.KvCoder;
+import org.apache.beam.sdk.coders.StringUtf8Coder;
 import org.apache.beam.sdk.io.AvroIO;
 import org.apache.beam.sdk.io.TextIO;
 import org.apache.beam.sdk.transforms.*;
 import org.apache.beam.sdk.values.KV;
 import org.apache.beam.sdk.values.PCollection;
+import org.apache.beam.sdk.values.TypeDescriptors;
 import org.apache.hadoop.fs.FileSystem;
 import org.gbif.pipelines.common.beam.metrics.MetricsHandler;
 import org.gbif.pipelines.common.beam.options.PipelinesOptionsFactory;
@@ -150,6 +155,12 @@ public class SamplingPipeline {
       outputPath = options.getAllDatasetsInputPath() + "/latlng";
     }
 
+    if (config.getSamplingService().isSampleCacheEnabled()) {
+      log.info("Adding step 3: Reuse samples from the sample cache");
+      nonSampledLatLng =
+          applySampleCache(options, config, samplingService, fs, p, nonSampledLatLng);
+    }
+
     // delete previous runs
     ALAFsUtils.deleteIfExist(fs, outputPath);
     ALAFsUtils.createDirectory(fs, outputPath);
@@ -163,6 +174,90 @@ public class SamplingPipeline {
     MetricsHandler.saveCountersToTargetPathFile(options, result.metrics());
   }
 
+  /**
+   * Looks up coordinates in the {@link SampleCache} of the current layer list by rounded latLng.
+   * Cached samples are written to the sampling directory with the original latLng, coordinates
+   * missing in the cache are returned to be sampled.
+   */
+  @SneakyThrows
+  private static PCollection<String> applySampleCache(
+      SamplingPipelineOptions options,
+      ALAPipelinesConfig config,
+      SamplingService samplingService,
+      FileSystem fs,
+      Pipeline p,
+      PCollection<String> nonSampledLatLng) {
+
+    int decimalPlaces = config.getSamplingService().getSampleCacheDecimalPlaces();
+    String layersVersion =
+        SampleCache.layersVersion(LayerCrawler.getRequiredLayers(samplingService));
+    String cachePath = SampleCache.getCachePath(options, layersVersion);
+    log.info("Using sample cache {}", cachePath);
+
+    if (config.getSamplingService().isDeleteStaleSampleCache()) {
+      SampleCache.deleteOtherVersions(fs, SampleCache.getCacheRootPath(options), layersVersion);
+    }
+
+    PCollection<KV<String, String>> roundedLatLngs =
+        nonSampledLatLng.apply(
+            MapElements.via(
+                new SimpleFunction<String, KV<String, String>>() {
+                  @Override
+                  public KV<String, String> apply(String input) {
+                    return KV.of(SampleCache.roundLatLng(input, decimalPlaces), input);
+                  }
+                }));
+
+    PCollection<KV<String, SampleRecord>> cachedSamples;
+    if (ALAFsUtils.existsAndNonEmpty(fs, cachePath)) {
+      cachedSamples =
+          p.apply(AvroIO.read(SampleRecord.class).from(cachePath + "/*.avro"))
+              .apply(WithKeys.of(SampleRecord::getLatLng).withKeyType(TypeDescriptors.strings()))
+              .apply(
+                  Combine.perKey(
+                      (SerializableFunction<Iterable<SampleRecord>, SampleRecord>)
+                          samples -> samples.iterator().next()));
+    } else {
+      cachedSamples =
+          p.apply(
+              Create.empty(KvCoder.of(StringUtf8Coder.of(), AvroCoder.of(SampleRecord.class))));
+    }
+
+    SampleRecord notCached = SampleRecord.newBuilder().setLatLng(SampleCache.NOT_CACHED).build();
+    PCollection<KV<String, SampleRecord>> joined =
+        org.apache.beam.sdk.extensions.joinlibrary.Join.leftOuterJoin(
+                roundedLatLngs, cachedSamples, notCached)
+            .apply(Values.create());
+
+    String samplingDir = ALAFsUtils.buildPathSamplingUsingTargetPath(options);
+    joined
+        .apply(
+            Filter.by(
+                (SerializableFunction<KV<String, SampleRecord>, Boolean>)
+                    kv -> !SampleCache.NOT_CACHED.equals(kv.getValue().getLatLng())))
+        .apply(
+            MapElements.via(
+                new SimpleFunction<KV<String, SampleRecord>, SampleRecord>() {
+                  @Override
+                  public SampleRecord apply(KV<String, SampleRecord> input) {
+                    return SampleRecord.newBuilder(input.getValue())
+                        .setLatLng(input.getKey())
+                        .build();
+                  }
+                }))
+        .apply(
+            AvroIO.write(SampleRecord.class)
+                .to(samplingDir + "/sampling-cached-" + System.currentTimeMillis())
+                .withSuffix(".avro"));
+
+    return joined
+        .apply(
+            Filter.by(
+                (SerializableFunction<KV<String, SampleRecord>, Boolean>)
+                    kv -> SampleCache.NOT_CACHED.equals(kv.getValue().getLatLng())))
+        .apply(Keys.create());
+  }
+
   /**
    * Return sample records as a collection. Returns an empty collection if no sampling records
    * found.
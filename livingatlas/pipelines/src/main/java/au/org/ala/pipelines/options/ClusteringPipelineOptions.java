@@ -16,12 +16,26 @@ public interface ClusteringPipelineOptions
   void setClusteringPath(String clusteringPath);
 
   @Description(
-      "CandidatesCutoff - if we find more than this number of grouped candidates, then drop the cluster")
+      "CandidatesCutoff - groups of this number of candidates or more are split into sub-blocks by year/month and rounded coordinates, sub-blocks still above the cutoff are compared within a sorted window")
   @Default.Integer(50)
   Integer getCandidatesCutoff();
 
   void setCandidatesCutoff(Integer candidatesCutoff);
 
+  @Description(
+      "Number of following candidates each candidate is compared with in blocks above the candidatesCutoff")
+  @Default.Integer(20)
+  Integer getComparisonWindow();
+
+  void setComparisonWindow(Integer comparisonWindow);
+
+  @Description(
+      "Clusters of this number of occurrences or more are not marked, independent of the candidatesCutoff used for blocking")
+  @Default.Integer(1000)
+  Integer getMaxClusterSize();
+
+  void setMaxClusterSize(Integer maxClusterSize);
+
   @Description("Include sampling")
   @Default.Boolean(false)
   Boolean isOutputDebugAvro();
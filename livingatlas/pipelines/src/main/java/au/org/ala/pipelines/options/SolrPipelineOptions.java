@@ -35,6 +35,30 @@ public interface SolrPipelineOptions extends IndexingPipelineOptions {
 
   void setSolrRetryDurationInMins(Integer solrRetryDurationInMins);
 
+  @Description("Route SOLR documents to the leader of their shard")
+  @Default.Boolean(true)
+  Boolean getSolrShardRouting();
+
+  void setSolrShardRouting(Boolean solrShardRouting);
+
+  @Description("Max number of concurrent SOLR update requests per shard")
+  @Default.Integer(2)
+  Integer getSolrMaxInFlightPerShard();
+
+  void setSolrMaxInFlightPerShard(Integer solrMaxInFlightPerShard);
+
+  @Description("SOLR min batch size, batches grow up to the batch size while under target latency")
+  @Default.Integer(100)
+  Integer getSolrMinBatchSize();
+
+  void setSolrMinBatchSize(Integer solrMinBatchSize);
+
+  @Description("Target latency of SOLR update requests in millis, 0 disables adaptive batch size")
+  @Default.Long(2000L)
+  Long getSolrTargetLatencyMillis();
+
+  void setSolrTargetLatencyMillis(Long solrTargetLatencyMillis);
+
   @Description("Include sampling")
   @Default.Boolean(false)
   Boolean getIncludeSampling();
@@ -4,25 +4,34 @@ import au.org.ala.kvs.ALAPipelinesConfig;
 import au.org.ala.kvs.ALAPipelinesConfigFactory;
 import au.org.ala.pipelines.options.AllDatasetsPipelinesOptions;
 import au.org.ala.pipelines.options.SamplingPipelineOptions;
+import au.org.ala.pipelines.util.SamplingUtils;
 import au.org.ala.utils.ALAFsUtils;
 import au.org.ala.utils.CombinedYamlConfiguration;
 import java.io.*;
 import java.net.URL;
-import java.nio.ByteBuffer;
-import java.nio.channels.Channels;
-import java.nio.channels.ReadableByteChannel;
-import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
+import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.hadoop.fs.FileSystem;
 import org.gbif.pipelines.common.PipelinesException;
@@ -112,14 +121,16 @@ public class LayerCrawler {
     String layerList = getRequiredLayers();
 
     log.info("Running sampling using lat lng files: {} ", latLngFiles.size());
+    int counter = 0;
     for (String inputFile : latLngFiles) {
-      crawl(fs, layerList, inputFile, sampleDownloadPath);
+      counter += crawl(fs, layerList, inputFile, options);
     }
 
-    log.info("Finished layer sampling. Downloads in CSV directory: {}", sampleDownloadPath);
-    log.info("Converting downloaded sampling CSV to AVRO...");
-    SamplesToAvro.run(options);
-    log.info("Converted.");
+    log.info("Finished layer sampling. Samples in AVRO directory: {}", getSampleAvroPath(options));
+    if (options.getKeepSamplingDownloads()) {
+      log.info("Keeping sampling CSV downloads {}", sampleDownloadPath);
+    }
+    SamplingUtils.writeSamplingMetrics(options, counter, fs);
 
     Instant batchFinish = Instant.now();
 
@@ -164,12 +175,14 @@ public class LayerCrawler {
 
   @NotNull
   public static String getSampleAvroPath(AllDatasetsPipelinesOptions options) {
+    return getSampleAvroPath(options, String.valueOf(System.currentTimeMillis()));
+  }
+
+  @NotNull
+  public static String getSampleAvroPath(AllDatasetsPipelinesOptions options, String name) {
 
     if (options.getDatasetId() == null || "all".equals(options.getDatasetId())) {
-      return options.getAllDatasetsInputPath()
-          + "/sampling/sampling-"
-          + System.currentTimeMillis()
-          + ".avro";
+      return options.getAllDatasetsInputPath() + "/sampling/sampling-" + name + ".avro";
     }
     return options.getInputPath()
         + "/"
@@ -177,13 +190,18 @@ public class LayerCrawler {
         + "/"
         + options.getAttempt()
         + "/sampling/sampling-"
-        + System.currentTimeMillis()
+        + name
         + ".avro";
   }
 
   public LayerCrawler() {}
 
   public String getRequiredLayers() throws IOException {
+    return getRequiredLayers(service);
+  }
+
+  /** Comma separated ids of enabled layers */
+  public static String getRequiredLayers(SamplingService service) throws IOException {
 
     log.info("Retrieving layer list from sampling service");
     String layers =
@@ -197,7 +215,18 @@ public class LayerCrawler {
     return layers;
   }
 
-  public void crawl(FileSystem fs, String layers, String inputFilePath, String outputDirectoryPath)
+  /**
+   * Samples coordinates of the file in batches, keeping config.maxBatchesInFlight batches submitted
+   * to the sampling service at the same time. Every finished batch is streamed from the download
+   * url straight into an avro file named by the hash of the layer list version and its
+   * coordinates, so batches sampled by an earlier run with the same layers are not submitted
+   * again. If samplingService.sampleCacheEnabled is set, samples are also copied to the {@link
+   * SampleCache} of the layer list.
+   *
+   * @return number of sampled coordinates
+   */
+  public int crawl(
+      FileSystem fs, String layers, String inputFilePath, SamplingPipelineOptions options)
       throws Exception {
 
     // partition the coordinates into batches of N to submit
@@ -209,101 +238,211 @@ public class LayerCrawler {
       partitioned = partition(reader.lines(), config.getSamplingService().getBatchSize());
     }
 
-    for (List<String> partition : partitioned) {
-
-      log.info("Partition size (no of coordinates) : {}", partition.size());
-      String coords = String.join(",", partition);
-
-      Instant batchStart = Instant.now();
-
-      // Submit a job to generate a join
-      Response<SamplingService.Batch> submit =
-          service.submitIntersectBatch(layers, coords).execute();
-      String batchId = submit.body().getBatchId();
+    int maxInFlight = Math.max(1, config.getSamplingService().getMaxBatchesInFlight());
+    Semaphore inFlight = new Semaphore(maxInFlight);
+    AtomicBoolean failed = new AtomicBoolean(false);
+    ExecutorService executor = Executors.newFixedThreadPool(maxInFlight);
+    List<CompletableFuture<Integer>> batches = new ArrayList<>();
+
+    String layersVersion = SampleCache.layersVersion(layers);
+    String cachePath =
+        config.getSamplingService().isSampleCacheEnabled()
+            ? SampleCache.getCachePath(options, layersVersion)
+            : null;
+
+    try {
+      for (Map.Entry<String, List<String>> pending :
+          pendingBatches(fs, partitioned, layersVersion, options).entrySet()) {
+
+        String name = pending.getKey();
+        List<String> partition = pending.getValue();
+        String coords = String.join(",", partition);
+        String avroPath = getSampleAvroPath(options, name);
+
+        inFlight.acquire();
+        if (failed.get()) {
+          inFlight.release();
+          break;
+        }
 
-      String state = UNKNOWN_STATUS;
-      while (!state.equalsIgnoreCase(FINISHED_STATUS) && !state.equalsIgnoreCase(ERROR_STATUS)) {
-        Response<SamplingService.BatchStatus> status = service.getBatchStatus(batchId).execute();
-        SamplingService.BatchStatus batchStatus = status.body();
-        state = batchStatus.getStatus();
+        log.info("Partition size (no of coordinates) : {}", partition.size());
+        CompletableFuture<Integer> batch;
+        try {
+          // Submit a job to generate a join
+          Response<SamplingService.Batch> submit =
+              service.submitIntersectBatch(layers, coords).execute();
+          String batchId = submit.body().getBatchId();
+          batch =
+              CompletableFuture.supplyAsync(
+                  () -> {
+                    int count = awaitAndSave(fs, batchId, avroPath, options);
+                    if (cachePath != null) {
+                      saveToCache(fs, avroPath, cachePath + "/" + name + ".avro");
+                    }
+                    return count;
+                  },
+                  executor);
+        } catch (Exception ex) {
+          inFlight.release();
+          throw ex;
+        }
+        batch.whenComplete(
+            (count, ex) -> {
+              if (ex != null) {
+                failed.set(true);
+              }
+              inFlight.release();
+            });
+        batches.add(batch);
+      }
 
-        Instant batchCurrentTime = Instant.now();
+      int counter = 0;
+      for (CompletableFuture<Integer> batch : batches) {
+        try {
+          counter += batch.join();
+        } catch (CompletionException ex) {
+          throw ex.getCause() instanceof Exception ? (Exception) ex.getCause() : ex;
+        }
+      }
+      log.info("Sampling done for file {}", inputFilePath);
+      return counter;
+    } finally {
+      executor.shutdown();
+    }
+  }
 
-        log.info(
-            "batch ID {} - status: {} - time elapses {} seconds",
-            batchId,
-            state,
-            Duration.between(batchStart, batchCurrentTime).getSeconds());
+  /**
+   * Returns batches of coordinates by the name of their avro file, skipping batches which have
+   * samples from an earlier run with the same layer list
+   */
+  static Map<String, List<String>> pendingBatches(
+      FileSystem fs,
+      Collection<List<String>> partitions,
+      String layersVersion,
+      AllDatasetsPipelinesOptions options)
+      throws IOException {
+    Map<String, List<String>> pending = new LinkedHashMap<>();
+    for (List<String> partition : partitions) {
+      String name = batchName(layersVersion, partition);
+      String avroPath = getSampleAvroPath(options, name);
+      if (ALAFsUtils.exists(fs, avroPath)) {
+        log.info("Reusing samples of {} coordinates from {}", partition.size(), avroPath);
+      } else {
+        pending.put(name, partition);
+      }
+    }
+    return pending;
+  }
 
-        if (!state.equals(FINISHED_STATUS)) {
-          TimeUnit.MILLISECONDS.sleep(config.getSamplingService().getBatchStatusSleepTime());
-        } else {
-          log.info("Downloading sampling batch {}", batchId);
+  /** Name of the samples of the coordinates, which depends on the layer list version */
+  static String batchName(String layersVersion, List<String> coordinates) {
+    String key = layersVersion + "|" + String.join(",", coordinates);
+    return UUID.nameUUIDFromBytes(key.getBytes(StandardCharsets.UTF_8)).toString();
+  }
 
-          downloadFile(fs, outputDirectoryPath, batchId, batchStatus);
+  /** Copies samples to the cache, the sampling doesn't fail if the cache can't be written */
+  private void saveToCache(FileSystem fs, String avroPath, String cacheFilePath) {
+    try {
+      int count =
+          SampleCache.put(
+              fs,
+              avroPath,
+              cacheFilePath,
+              config.getSamplingService().getSampleCacheDecimalPlaces());
+      log.info("{} samples added to the sample cache {}", count, cacheFilePath);
+    } catch (IOException ex) {
+      log.warn("Can't add samples of {} to the sample cache", avroPath, ex);
+    }
+  }
 
-          String zipFilePath = outputDirectoryPath + "/" + batchId + ".zip";
-          ReadableByteChannel readableByteChannel = ALAFsUtils.openByteChannel(fs, zipFilePath);
-          InputStream zipInput = Channels.newInputStream(readableByteChannel);
+  /** Polls the batch until it is finished and saves the samples to the avro file */
+  @SneakyThrows
+  private int awaitAndSave(
+      FileSystem fs, String batchId, String avroPath, SamplingPipelineOptions options) {
 
-          try (ZipInputStream zipInputStream = new ZipInputStream(zipInput)) {
-            ZipEntry entry = zipInputStream.getNextEntry();
-            while (entry != null) {
-              log.info("Unzipping {}", entry.getName());
+    Instant batchStart = Instant.now();
 
-              String unzippedOutputFilePath = outputDirectoryPath + "/" + batchId + ".csv";
-              if (!entry.isDirectory()) {
-                unzipFiles(fs, zipInputStream, unzippedOutputFilePath);
-              }
+    String state = UNKNOWN_STATUS;
+    SamplingService.BatchStatus batchStatus = null;
+    while (!state.equalsIgnoreCase(FINISHED_STATUS) && !state.equalsIgnoreCase(ERROR_STATUS)) {
+      Response<SamplingService.BatchStatus> status = service.getBatchStatus(batchId).execute();
+      batchStatus = status.body();
+      state = batchStatus.getStatus();
 
-              zipInputStream.closeEntry();
-              entry = zipInputStream.getNextEntry();
-            }
-          }
+      Instant batchCurrentTime = Instant.now();
 
-          // delete zip file
-          ALAFsUtils.deleteIfExist(fs, zipFilePath);
+      log.info(
+          "batch ID {} - status: {} - time elapses {} seconds",
+          batchId,
+          state,
+          Duration.between(batchStart, batchCurrentTime).getSeconds());
 
-          log.info("Sampling done for file {}", inputFilePath);
-        }
+      if (!state.equalsIgnoreCase(FINISHED_STATUS) && !state.equalsIgnoreCase(ERROR_STATUS)) {
+        TimeUnit.MILLISECONDS.sleep(config.getSamplingService().getBatchStatusSleepTime());
       }
+    }
+
+    if (state.equalsIgnoreCase(ERROR_STATUS)) {
+      log.error("Unable to download batch ID {}", batchId);
+      throw new PipelinesException(
+          "Unable to complete sampling for dataset. Check the status of sampling service for more details");
+    }
 
-      if (state.equals(ERROR_STATUS)) {
-        log.error("Unable to download batch ID {}", batchId);
-        throw new PipelinesException(
-            "Unable to complete sampling for dataset. Check the status of sampling service for more details");
+    log.info("Downloading sampling batch {}", batchId);
+    int retries = config.getSamplingService().getDownloadRetries();
+    for (int i = 0; i < retries; i++) {
+      try {
+        return downloadFile(fs, batchId, batchStatus.getDownloadUrl(), avroPath, options);
+      } catch (IOException e) {
+        log.info("Download for batch {} failed, retrying attempt {} of {}", batchId, i, retries);
       }
     }
+    throw new PipelinesException("Unable to download sampling batch " + batchId);
   }
 
-  /** Download the batch file with a retries mechanism. */
-  private boolean downloadFile(
+  /**
+   * Streams the zip from the download url into the avro file, the avro file appears only when all
+   * samples are written. Unzipped CSV is kept in the download directory if keepSamplingDownloads is
+   * set
+   */
+  private int downloadFile(
       FileSystem fs,
-      String outputDirectoryPath,
       String batchId,
-      SamplingService.BatchStatus batchStatus) {
-
-    for (int i = 0; i < config.getSamplingService().getDownloadRetries(); i++) {
+      String downloadUrl,
+      String avroPath,
+      SamplingPipelineOptions options)
+      throws IOException {
 
-      try {
-        try (ReadableByteChannel inputChannel =
-                Channels.newChannel(new URL(batchStatus.getDownloadUrl()).openStream());
-            WritableByteChannel outputChannel =
-                ALAFsUtils.createByteChannel(fs, outputDirectoryPath + "/" + batchId + ".zip")) {
-          ByteBuffer buffer = ByteBuffer.allocate(512);
-          while (inputChannel.read(buffer) != -1) {
-            buffer.flip();
-            outputChannel.write(buffer);
-            buffer.clear();
+    String tmpPath = avroPath + ".tmp";
+    int counter = 0;
+    try (ZipInputStream zipInputStream =
+        new ZipInputStream(new BufferedInputStream(new URL(downloadUrl).openStream()))) {
+      ZipEntry entry = zipInputStream.getNextEntry();
+      while (entry != null) {
+        log.info("Unzipping {}", entry.getName());
+
+        if (!entry.isDirectory()) {
+          if (options.getKeepSamplingDownloads()) {
+            String csvPath = getSampleDownloadPath(options) + "/" + batchId + ".csv";
+            unzipFiles(fs, zipInputStream, csvPath);
+            try (InputStream csvInputStream = ALAFsUtils.openInputStream(fs, csvPath)) {
+              counter = SamplesToAvro.convert(csvInputStream, fs, tmpPath);
+            }
+          } else {
+            counter = SamplesToAvro.convert(zipInputStream, fs, tmpPath);
           }
-          return true;
         }
 
-      } catch (IOException e) {
-        log.info("Download for batch {} failed, retrying attempt {} of 5", batchId, i);
+        zipInputStream.closeEntry();
+        entry = zipInputStream.getNextEntry();
       }
     }
-    return false;
+
+    if (!fs.rename(ALAFsUtils.createPath(tmpPath), ALAFsUtils.createPath(avroPath))) {
+      throw new IOException("Can't rename " + tmpPath + " to " + avroPath);
+    }
+    log.info("Samples of batch {} written to {}", batchId, avroPath);
+    return counter;
   }
 
   /**
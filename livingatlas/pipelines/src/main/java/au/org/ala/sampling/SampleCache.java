@@ -0,0 +1,135 @@
+package au.org.ala.sampling;
+
+import au.org.ala.pipelines.options.AllDatasetsPipelinesOptions;
+import au.org.ala.utils.ALAFsUtils;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.avro.file.CodecFactory;
+import org.apache.avro.file.DataFileStream;
+import org.apache.avro.file.DataFileWriter;
+import org.apache.avro.specific.SpecificDatumReader;
+import org.apache.avro.specific.SpecificDatumWriter;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.gbif.pipelines.io.avro.SampleRecord;
+
+/**
+ * Persistent cache of samples shared by all datasets and runs. Samples are stored as avro files
+ * under {allDatasetsInputPath}/sampling-cache/{layersVersion}, where latLng of every record is
+ * rounded to samplingService.sampleCacheDecimalPlaces.
+ *
+ * <p>The version is a hash of the enabled layer list, so any change in the layers starts a new
+ * cache and coordinates are sampled again for all layers.
+ */
+@Slf4j
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class SampleCache {
+
+  public static final String NOT_CACHED = "NOT_CACHED";
+
+  private static final CodecFactory BASE_CODEC = CodecFactory.snappyCodec();
+
+  /** Version of the comma separated layer list, the order of layers doesn't matter */
+  public static String layersVersion(String layers) {
+    String sorted =
+        Arrays.stream(layers.split(","))
+            .map(String::trim)
+            .filter(l -> !l.isEmpty())
+            .sorted()
+            .collect(Collectors.joining(","));
+    return UUID.nameUUIDFromBytes(sorted.getBytes(StandardCharsets.UTF_8)).toString();
+  }
+
+  public static String getCacheRootPath(AllDatasetsPipelinesOptions options) {
+    return options.getAllDatasetsInputPath() + "/sampling-cache";
+  }
+
+  public static String getCachePath(AllDatasetsPipelinesOptions options, String layersVersion) {
+    return getCacheRootPath(options) + "/" + layersVersion;
+  }
+
+  /**
+   * Rounds "lat,lng" to the number of decimal places, returns the value as is if it can't be
+   * parsed
+   */
+  public static String roundLatLng(String latLng, int decimalPlaces) {
+    if (latLng == null) {
+      return null;
+    }
+    String[] parts = latLng.split(",");
+    if (parts.length != 2) {
+      return latLng;
+    }
+    try {
+      return round(parts[0], decimalPlaces) + "," + round(parts[1], decimalPlaces);
+    } catch (NumberFormatException ex) {
+      return latLng;
+    }
+  }
+
+  private static String round(String value, int decimalPlaces) {
+    return new BigDecimal(value.trim())
+        .setScale(decimalPlaces, RoundingMode.HALF_UP)
+        .stripTrailingZeros()
+        .toPlainString();
+  }
+
+  /**
+   * Copies samples of the avro file to the cache file, keyed by rounded coordinates. The cache file
+   * appears only when all samples are written
+   *
+   * @return number of cached samples
+   */
+  public static int put(FileSystem fs, String avroPath, String cacheFilePath, int decimalPlaces)
+      throws IOException {
+    String tmpPath = cacheFilePath + ".tmp";
+    int counter = 0;
+    try (InputStream input = ALAFsUtils.openInputStream(fs, avroPath);
+        DataFileStream<SampleRecord> reader =
+            new DataFileStream<>(input, new SpecificDatumReader<>(SampleRecord.class));
+        OutputStream output = ALAFsUtils.openOutputStream(fs, tmpPath);
+        DataFileWriter<SampleRecord> writer =
+            new DataFileWriter<>(new SpecificDatumWriter<>(SampleRecord.class))) {
+      writer.setCodec(BASE_CODEC);
+      writer.create(SampleRecord.getClassSchema(), output);
+      for (SampleRecord sample : reader) {
+        writer.append(
+            SampleRecord.newBuilder(sample)
+                .setLatLng(roundLatLng(sample.getLatLng(), decimalPlaces))
+                .build());
+        counter++;
+      }
+    }
+
+    if (!fs.rename(ALAFsUtils.createPath(tmpPath), ALAFsUtils.createPath(cacheFilePath))) {
+      throw new IOException("Can't rename " + tmpPath + " to " + cacheFilePath);
+    }
+    return counter;
+  }
+
+  /** Deletes caches of other layer list versions */
+  public static void deleteOtherVersions(FileSystem fs, String rootPath, String layersVersion)
+      throws IOException {
+    Path root = ALAFsUtils.createPath(rootPath);
+    if (!fs.exists(root)) {
+      return;
+    }
+    for (FileStatus status : fs.listStatus(root)) {
+      if (status.isDirectory() && !status.getPath().getName().equals(layersVersion)) {
+        log.info("Deleting sample cache of old layer list {}", status.getPath());
+        fs.delete(status.getPath(), true);
+      }
+    }
+  }
+}
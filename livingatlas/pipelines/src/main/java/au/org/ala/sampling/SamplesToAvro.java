@@ -65,51 +65,9 @@ public class SamplesToAvro {
 
       if (fileStatus.getPath().getName().endsWith(".csv")) {
         log.info("Reading {} and converting to avro", fileStatus.getPath().getName());
-        InputStream inputStream = fs.open(fileStatus.getPath());
-        CSVReader csvReader = new CSVReader(new InputStreamReader(inputStream));
-
         String outputPath = LayerCrawler.getSampleAvroPath(options);
-        DatumWriter<SampleRecord> datumWriter =
-            new GenericDatumWriter<>(SampleRecord.getClassSchema());
-        try (OutputStream output = fs.create(ALAFsUtils.createPath(outputPath));
-            DataFileWriter<SampleRecord> dataFileWriter = new DataFileWriter<>(datumWriter)) {
-          dataFileWriter.setCodec(BASE_CODEC);
-          dataFileWriter.create(SampleRecord.getClassSchema(), output);
-
-          String[] columnHeaders = csvReader.readNext();
-          String[] line;
-          while ((line = csvReader.readNext()) != null) {
-
-            if (line.length == columnHeaders.length) {
-
-              HashMap<String, String> strings = new HashMap<>();
-              HashMap<String, Double> doubles = new HashMap<>();
-
-              // first two columns are latitude,longitude
-              for (int i = 2; i < columnHeaders.length; i++) {
-                if (StringUtils.trimToNull(line[i]) != null) {
-                  if (columnHeaders[i].startsWith("el")) {
-                    try {
-                      doubles.put(columnHeaders[i], Double.parseDouble(line[i]));
-                    } catch (NumberFormatException ex) {
-                      // do something
-                    }
-                  } else {
-                    strings.put(columnHeaders[i], line[i]);
-                  }
-                }
-              }
-
-              SampleRecord sampleRecord =
-                  SampleRecord.newBuilder()
-                      .setLatLng(line[0] + "," + line[1])
-                      .setDoubles(doubles)
-                      .setStrings(strings)
-                      .build();
-              dataFileWriter.append(sampleRecord);
-              counter = +1;
-            }
-          }
+        try (InputStream inputStream = fs.open(fileStatus.getPath())) {
+          counter += convert(inputStream, fs, outputPath);
         }
         log.info("File written to {}", outputPath);
       }
@@ -126,4 +84,59 @@ public class SamplesToAvro {
     SamplingUtils.writeSamplingMetrics(options, counter, fs);
     log.info("Conversion to avro complete.");
   }
+
+  /**
+   * Converts a sampling CSV, where the first two columns are latitude and longitude, to an avro
+   * file. The input stream is not closed
+   *
+   * @return number of written records
+   */
+  public static int convert(InputStream csvInputStream, FileSystem fs, String outputPath)
+      throws IOException {
+    int counter = 0;
+    CSVReader csvReader = new CSVReader(new InputStreamReader(csvInputStream));
+
+    DatumWriter<SampleRecord> datumWriter = new GenericDatumWriter<>(SampleRecord.getClassSchema());
+    try (OutputStream output = fs.create(ALAFsUtils.createPath(outputPath));
+        DataFileWriter<SampleRecord> dataFileWriter = new DataFileWriter<>(datumWriter)) {
+      dataFileWriter.setCodec(BASE_CODEC);
+      dataFileWriter.create(SampleRecord.getClassSchema(), output);
+
+      String[] columnHeaders = csvReader.readNext();
+      String[] line;
+      while (columnHeaders != null && (line = csvReader.readNext()) != null) {
+
+        if (line.length == columnHeaders.length) {
+
+          HashMap<String, String> strings = new HashMap<>();
+          HashMap<String, Double> doubles = new HashMap<>();
+
+          // first two columns are latitude,longitude
+          for (int i = 2; i < columnHeaders.length; i++) {
+            if (StringUtils.trimToNull(line[i]) != null) {
+              if (columnHeaders[i].startsWith("el")) {
+                try {
+                  doubles.put(columnHeaders[i], Double.parseDouble(line[i]));
+                } catch (NumberFormatException ex) {
+                  // do something
+                }
+              } else {
+                strings.put(columnHeaders[i], line[i]);
+              }
+            }
+          }
+
+          SampleRecord sampleRecord =
+              SampleRecord.newBuilder()
+                  .setLatLng(line[0] + "," + line[1])
+                  .setDoubles(doubles)
+                  .setStrings(strings)
+                  .build();
+          dataFileWriter.append(sampleRecord);
+          counter++;
+        }
+      }
+    }
+    return counter;
+  }
 }
@@ -27,8 +27,23 @@ import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
+import org.apache.beam.sdk.metrics.Counter;
+import org.apache.beam.sdk.metrics.Distribution;
+import org.apache.beam.sdk.metrics.Metrics;
 import org.apache.beam.sdk.transforms.Create;
 import org.apache.beam.sdk.transforms.DoFn;
 import org.apache.beam.sdk.transforms.PTransform;
@@ -132,7 +147,12 @@ public class SolrIO {
     // 1000 for batch size is good enough in many cases,
     // ex: if document size is large, around 10KB, the request's size will be around 10MB
     // if document size is small, around 1KB, the request's size will be around 1MB
-    return new AutoValue_SolrIO_Write.Builder().setMaxBatchSize(1000).build();
+    return new AutoValue_SolrIO_Write.Builder()
+        .setMaxBatchSize(1000)
+        .setShardRouting(false)
+        .setMaxInFlightPerShard(1)
+        .setMinBatchSize(100)
+        .build();
   }
 
   private SolrIO() {}
@@ -511,6 +531,14 @@ public class SolrIO {
 
     abstract @Nullable RetryConfiguration getRetryConfiguration();
 
+    abstract boolean getShardRouting();
+
+    abstract int getMaxInFlightPerShard();
+
+    abstract int getMinBatchSize();
+
+    abstract @Nullable Duration getTargetLatency();
+
     @AutoValue.Builder
     abstract static class Builder {
       abstract Builder setConnectionConfiguration(ConnectionConfiguration connectionConfiguration);
@@ -521,6 +549,14 @@ public class SolrIO {
 
       abstract Builder setRetryConfiguration(RetryConfiguration retryConfiguration);
 
+      abstract Builder setShardRouting(boolean shardRouting);
+
+      abstract Builder setMaxInFlightPerShard(int maxInFlightPerShard);
+
+      abstract Builder setMinBatchSize(int minBatchSize);
+
+      abstract Builder setTargetLatency(Duration targetLatency);
+
       abstract Write build();
     }
 
@@ -580,12 +616,46 @@ public class SolrIO {
       return builder().setRetryConfiguration(retryConfiguration).build();
     }
 
+    /**
+     * Routes every document to the leader of its target shard and keeps up to maxInFlightPerShard
+     * update requests per shard running concurrently. Falls back to sending through the {@link
+     * CloudSolrClient} if the collection can't be found in the cluster state, e.g. for aliases.
+     *
+     * @param maxInFlightPerShard maximum number of concurrent update requests per shard
+     */
+    public Write withShardRouting(int maxInFlightPerShard) {
+      checkArgument(
+          maxInFlightPerShard > 0,
+          "maxInFlightPerShard must be larger than 0, but was: %s",
+          maxInFlightPerShard);
+      return builder().setShardRouting(true).setMaxInFlightPerShard(maxInFlightPerShard).build();
+    }
+
+    /**
+     * Adapts the size of the batches of the shard routing writer to the latency of the update
+     * requests: the size grows by minBatchSize while requests are faster than targetLatency, up to
+     * the max batch size, and is halved, down to minBatchSize, when they are slower.
+     *
+     * @param minBatchSize minimum batch size in number of documents
+     * @param targetLatency target duration of an update request
+     */
+    public Write withAdaptiveBatchSize(int minBatchSize, Duration targetLatency) {
+      checkArgument(
+          minBatchSize > 0, "minBatchSize must be larger than 0, but was: %s", minBatchSize);
+      checkArgument(targetLatency != null, "targetLatency is required");
+      return builder().setMinBatchSize(minBatchSize).setTargetLatency(targetLatency).build();
+    }
+
     @Override
     public PDone expand(PCollection<SolrInputDocument> input) {
       checkState(getConnectionConfiguration() != null, "withConnectionConfiguration() is required");
       checkState(getCollection() != null, "to() is required");
 
-      input.apply(ParDo.of(new WriteFn(this)));
+      if (getShardRouting()) {
+        input.apply(ParDo.of(new ShardedWriteFn(this)));
+      } else {
+        input.apply(ParDo.of(new WriteFn(this)));
+      }
       return PDone.in(input.getPipeline());
     }
 
@@ -695,5 +765,308 @@ public class SolrIO {
         }
       }
     }
+
+    /**
+     * Writes documents in a batch per shard which is sent to the leader of the shard. Update
+     * requests are sent asynchronously, at most maxInFlightPerShard per shard, and the bundle
+     * finishes once all of them completed. Metrics are reported from the processing thread as
+     * Beam metrics are bound to it.
+     */
+    static class ShardedWriteFn extends DoFn<SolrInputDocument, Void> {
+
+      private static final Duration RETRY_INITIAL_BACKOFF = Duration.standardSeconds(5);
+      // Batch of the documents which can't be routed, sent through the CloudSolrClient
+      private static final String COLLECTION_BATCH = "";
+
+      private final Counter documentsWritten =
+          Metrics.counter(Write.class, "solrDocumentsWritten");
+      private final Counter updateRequests = Metrics.counter(Write.class, "solrUpdateRequests");
+      private final Counter updateRetries = Metrics.counter(Write.class, "solrUpdateRetries");
+      private final Distribution updateLatency =
+          Metrics.distribution(Write.class, "solrUpdateLatencyMillis");
+      private final Distribution updateBatchSize =
+          Metrics.distribution(Write.class, "solrUpdateBatchSize");
+
+      private final Write spec;
+      private transient FluentBackoff retryBackoff;
+      private transient AuthorizedSolrClient<CloudSolrClient> cloudClient;
+      private transient Map<String, AuthorizedSolrClient<HttpSolrClient>> nodeClients;
+      private transient ExecutorService executor;
+      private transient volatile DocCollection docCollection;
+      private transient String uniqueKey;
+      private transient Map<String, Semaphore> inFlight;
+      private transient Map<String, AdaptiveBatchSize> batchSizes;
+      private transient Map<String, List<SolrInputDocument>> batches;
+      private transient List<CompletableFuture<Void>> pending;
+      private transient Queue<UpdateResult> results;
+      private transient volatile Exception failure;
+
+      ShardedWriteFn(Write spec) {
+        this.spec = spec;
+      }
+
+      @Setup
+      public void setup() throws IOException {
+        cloudClient = spec.getConnectionConfiguration().createClient();
+        nodeClients = new ConcurrentHashMap<>();
+        inFlight = new ConcurrentHashMap<>();
+        batchSizes = new ConcurrentHashMap<>();
+        executor =
+            Executors.newCachedThreadPool(
+                r -> {
+                  Thread thread = new Thread(r, "solr-shard-writer");
+                  thread.setDaemon(true);
+                  return thread;
+                });
+
+        retryBackoff =
+            FluentBackoff.DEFAULT.withMaxRetries(0).withInitialBackoff(RETRY_INITIAL_BACKOFF);
+        if (spec.getRetryConfiguration() != null) {
+          retryBackoff =
+              retryBackoff
+                  .withMaxRetries(spec.getRetryConfiguration().getMaxAttempts() - 1)
+                  .withMaxCumulativeBackoff(spec.getRetryConfiguration().getMaxDuration());
+        }
+
+        refreshCollection();
+        if (docCollection == null) {
+          LOG.warn(
+              "Collection {} not found in the cluster state, documents are not routed to shards",
+              spec.getCollection());
+        } else {
+          try {
+            SchemaResponse.UniqueKeyResponse response =
+                cloudClient.process(spec.getCollection(), new SchemaRequest.UniqueKey());
+            uniqueKey = response.getUniqueKey();
+          } catch (SolrServerException e) {
+            throw new IOException("Can not get unique key from solr", e);
+          }
+        }
+      }
+
+      @StartBundle
+      public void startBundle(StartBundleContext context) {
+        batches = new HashMap<>();
+        pending = new ArrayList<>();
+        results = new ConcurrentLinkedQueue<>();
+        failure = null;
+      }
+
+      @ProcessElement
+      public void processElement(ProcessContext context) throws Exception {
+        checkFailure();
+        SolrInputDocument document = context.element();
+        String shard = route(document);
+        List<SolrInputDocument> batch = batches.computeIfAbsent(shard, s -> new ArrayList<>());
+        batch.add(document);
+        if (batch.size() >= batchSize(shard).get()) {
+          batches.remove(shard);
+          submit(shard, batch);
+        }
+        reportResults();
+      }
+
+      @FinishBundle
+      public void finishBundle(FinishBundleContext context) throws Exception {
+        for (Map.Entry<String, List<SolrInputDocument>> entry : batches.entrySet()) {
+          submit(entry.getKey(), entry.getValue());
+        }
+        batches.clear();
+        CompletableFuture.allOf(pending.toArray(new CompletableFuture[0])).join();
+        pending.clear();
+        reportResults();
+        checkFailure();
+      }
+
+      @Teardown
+      public void closeClient() throws IOException {
+        if (executor != null) {
+          executor.shutdownNow();
+        }
+        if (nodeClients != null) {
+          for (AuthorizedSolrClient<HttpSolrClient> client : nodeClients.values()) {
+            client.close();
+          }
+        }
+        if (cloudClient != null) {
+          cloudClient.close();
+        }
+      }
+
+      private void refreshCollection() {
+        docCollection =
+            AuthorizedSolrClient.getClusterState(cloudClient)
+                .getCollectionOrNull(spec.getCollection());
+      }
+
+      private String route(SolrInputDocument document) {
+        return route(docCollection, uniqueKey, document);
+      }
+
+      /** Returns the name of the shard of the document, or "" if it can't be routed */
+      static String route(
+          @Nullable DocCollection collection, String uniqueKey, SolrInputDocument document) {
+        Object id = collection == null ? null : document.getFieldValue(uniqueKey);
+        if (id == null) {
+          return COLLECTION_BATCH;
+        }
+        Slice slice =
+            collection.getRouter().getTargetSlice(id.toString(), document, null, null, collection);
+        return slice == null ? COLLECTION_BATCH : slice.getName();
+      }
+
+      /** Returns the leader replica of the shard, or null if it is unknown */
+      static @Nullable ReplicaInfo leader(@Nullable DocCollection collection, String shard) {
+        Slice slice = collection == null ? null : collection.getSlice(shard);
+        Replica leader = slice == null ? null : slice.getLeader();
+        return leader == null ? null : ReplicaInfo.create(leader);
+      }
+
+      private AdaptiveBatchSize batchSize(String shard) {
+        return batchSizes.computeIfAbsent(
+            shard,
+            s ->
+                new AdaptiveBatchSize(
+                    spec.getMinBatchSize(), spec.getMaxBatchSize(), spec.getTargetLatency()));
+      }
+
+      // Waits for a free slot of the shard, which keeps the number of buffered documents bounded
+      private void submit(String shard, List<SolrInputDocument> batch)
+          throws IOException, InterruptedException {
+        Semaphore slots =
+            inFlight.computeIfAbsent(shard, s -> new Semaphore(spec.getMaxInFlightPerShard()));
+        slots.acquire();
+        pending.removeIf(CompletableFuture::isDone);
+        pending.add(
+            CompletableFuture.runAsync(
+                () -> {
+                  try {
+                    results.add(send(shard, batch));
+                  } catch (Exception ex) {
+                    failure = ex;
+                  } finally {
+                    slots.release();
+                  }
+                },
+                executor));
+      }
+
+      // Sends the batch, implementing the retry mechanism as configured in the spec.
+      private UpdateResult send(String shard, List<SolrInputDocument> batch)
+          throws IOException, InterruptedException {
+        UpdateRequest updateRequest = new UpdateRequest();
+        updateRequest.add(batch);
+
+        Sleeper sleeper = Sleeper.DEFAULT;
+        BackOff backoff = retryBackoff.backoff();
+        int attempt = 0;
+        while (true) {
+          attempt++;
+          long start = System.nanoTime();
+          try {
+            process(shard, updateRequest);
+            long latency = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            batchSize(shard).update(latency);
+            return new UpdateResult(batch.size(), latency, attempt - 1);
+          } catch (Exception exception) {
+
+            if (spec.getRetryConfiguration() == null
+                || !spec.getRetryConfiguration().getRetryPredicate().test(exception)) {
+              throw new IOException("Error writing to Solr (no attempt made to retry)", exception);
+            }
+
+            if (!BackOffUtils.next(sleeper, backoff)) {
+              throw new IOException(
+                  String.format(
+                      "Error writing to Solr after %d attempt(s). No more attempts allowed",
+                      attempt),
+                  exception);
+            }
+            LOG.warn(String.format(WriteFn.RETRY_ATTEMPT_LOG, attempt), exception);
+            // The leader of the shard might have changed
+            refreshCollection();
+          }
+        }
+      }
+
+      private void process(String shard, UpdateRequest updateRequest)
+          throws IOException, SolrServerException {
+        ReplicaInfo replica = leader(docCollection, shard);
+        if (replica == null) {
+          cloudClient.process(spec.getCollection(), updateRequest);
+          return;
+        }
+        nodeClients
+            .computeIfAbsent(
+                replica.baseUrl(), url -> spec.getConnectionConfiguration().createClient(url))
+            .process(replica.coreName(), updateRequest);
+      }
+
+      private void reportResults() {
+        UpdateResult result;
+        while ((result = results.poll()) != null) {
+          documentsWritten.inc(result.documents);
+          updateRequests.inc();
+          updateRetries.inc(result.retries);
+          updateLatency.update(result.latencyMillis);
+          updateBatchSize.update(result.documents);
+        }
+      }
+
+      private void checkFailure() throws IOException {
+        Exception ex = failure;
+        if (ex instanceof IOException) {
+          throw (IOException) ex;
+        } else if (ex != null) {
+          throw new IOException("Error writing to Solr", ex);
+        }
+      }
+    }
+
+    /** Outcome of a successful update request. */
+    private static class UpdateResult {
+      private final int documents;
+      private final long latencyMillis;
+      private final int retries;
+
+      UpdateResult(int documents, long latencyMillis, int retries) {
+        this.documents = documents;
+        this.latencyMillis = latencyMillis;
+        this.retries = retries;
+      }
+    }
+
+    /**
+     * Batch size which grows by the minimum size while requests are faster than the target latency
+     * and is halved when they are slower. Without a target latency it is the maximum size.
+     */
+    static class AdaptiveBatchSize {
+      private final int minSize;
+      private final int maxSize;
+      private final long targetMillis;
+      private final AtomicInteger size;
+
+      AdaptiveBatchSize(int minSize, int maxSize, @Nullable Duration targetLatency) {
+        this.maxSize = maxSize;
+        this.minSize = Math.min(minSize, maxSize);
+        this.targetMillis = targetLatency == null ? 0L : targetLatency.getMillis();
+        this.size = new AtomicInteger(targetMillis > 0 ? this.minSize : maxSize);
+      }
+
+      int get() {
+        return size.get();
+      }
+
+      void update(long latencyMillis) {
+        if (targetMillis <= 0) {
+          return;
+        }
+        size.updateAndGet(
+            s ->
+                latencyMillis > targetMillis
+                    ? Math.max(minSize, s / 2)
+                    : Math.min(maxSize, s + minSize));
+      }
+    }
   }
 }
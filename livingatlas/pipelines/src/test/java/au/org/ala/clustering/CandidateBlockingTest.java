@@ -0,0 +1,120 @@
+package au.org.ala.clustering;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import au.org.ala.pipelines.beam.ClusteringPipeline;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.beam.sdk.values.KV;
+import org.gbif.pipelines.io.avro.Relationship;
+import org.junit.Test;
+
+public class CandidateBlockingTest {
+
+  private static final String SPECIES =
+      "urn:lsid:biodiversity.org.au:afd.taxon:9b8ca2d0-3524-4e12-a328-9a426b31cd12";
+
+  private static HashKeyOccurrence occurrence(
+      String id, Integer year, Integer month, Double lat, Double lng) {
+    return HashKeyOccurrenceBuilder.aHashKeyOccurrence()
+        .withHashKey(SPECIES + "|hash")
+        .withId(id)
+        .withDatasetKey("dr340")
+        .withSpeciesKey(SPECIES)
+        .withTaxonKey(SPECIES)
+        .withScientificName("Pteropus alecto")
+        .withCountryCode("AU")
+        .withBasisOfRecord("PRESERVED_SPECIMEN")
+        .withDecimalLatitude(lat)
+        .withDecimalLongitude(lng)
+        .withYear(year)
+        .withMonth(month)
+        .withDay(26)
+        .withEventDate("")
+        .withCatalogNumber("M.4190" + id)
+        .build();
+  }
+
+  private static ClusteringCandidates candidates(List<HashKeyOccurrence> list) {
+    return ClusteringCandidates.builder().hashKey(SPECIES + "|hash").candidates(list).build();
+  }
+
+  @Test
+  public void smallGroupTest() {
+
+    // State
+    List<HashKeyOccurrence> list = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      list.add(occurrence("" + i, 1994, 9, -12.38091, 130.85902));
+    }
+
+    // When
+    List<ClusteringCandidates> blocks = CandidateBlocking.subBlock(candidates(list), 50);
+
+    // Should
+    assertEquals(1, blocks.size());
+    assertEquals(3, blocks.get(0).getCandidates().size());
+  }
+
+  @Test
+  public void subBlockTest() {
+
+    // State
+    List<HashKeyOccurrence> list = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      list.add(occurrence("a" + i, 1994, 9, -12.38091, 130.85902));
+      list.add(occurrence("b" + i, 1994, 10, -12.38091, 130.85902));
+      list.add(occurrence("c" + i, 1994, 10, -35.1, 149.1));
+    }
+    list.add(occurrence("d", 2000, 1, -12.38091, 130.85902));
+
+    // When
+    List<ClusteringCandidates> blocks = CandidateBlocking.subBlock(candidates(list), 5);
+
+    // Should
+    assertEquals(3, blocks.size());
+    for (ClusteringCandidates block : blocks) {
+      assertEquals(4, block.getCandidates().size());
+      assertTrue(block.getHashKey().startsWith(SPECIES + "|hash|1994|"));
+    }
+  }
+
+  @Test
+  public void sortedNeighbourhoodTest() {
+
+    // State
+    List<HashKeyOccurrence> list = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      list.add(occurrence("" + i, 1994, 9, -12.38091, 130.85902));
+    }
+
+    // When
+    List<ClusterPair> allPairs = CandidateBlocking.comparePairs(list, 50, 1);
+    List<ClusterPair> windowPairs = CandidateBlocking.comparePairs(list, 3, 1);
+
+    // Should
+    assertEquals(6, allPairs.size());
+    assertEquals(3, windowPairs.size());
+  }
+
+  @Test
+  public void windowedBlockRelationshipsTest() {
+
+    // State
+    List<HashKeyOccurrence> list = new ArrayList<>();
+    for (int i = 0; i < 6; i++) {
+      list.add(occurrence("" + i, 1994, 9, -12.38091, 130.85902));
+    }
+
+    // When
+    List<KV<String, Relationship>> relationships =
+        ClusteringPipeline.createRelationships(candidates(list), 3, 1, 1000);
+    List<KV<String, Relationship>> limited =
+        ClusteringPipeline.createRelationships(candidates(list), 3, 1, 6);
+
+    // Should
+    assertEquals(5, relationships.size());
+    assertTrue(limited.isEmpty());
+  }
+}
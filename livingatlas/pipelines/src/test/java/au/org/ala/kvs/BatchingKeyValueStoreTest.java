@@ -0,0 +1,280 @@
+package au.org.ala.kvs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import au.org.ala.kvs.cache.BatchingKeyValueStore;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import org.gbif.kvs.KeyValueStore;
+import org.gbif.pipelines.core.config.model.RetryConfig;
+import org.junit.Test;
+
+public class BatchingKeyValueStoreTest {
+
+  private static RetryConfig retryConfig() {
+    RetryConfig retryConfig = new RetryConfig();
+    retryConfig.setMaxAttempts(3);
+    retryConfig.setInitialIntervalMillis(1L);
+    return retryConfig;
+  }
+
+  @Test
+  public void batchAndCoalesceTest() throws Exception {
+
+    // State
+    List<List<String>> requests = new CopyOnWriteArrayList<>();
+    KeyValueStore<String, String> kvs =
+        BatchingKeyValueStore.<String, String>builder()
+            .loader(
+                keys -> {
+                  requests.add(keys);
+                  return keys.stream().map(String::toUpperCase).collect(Collectors.toList());
+                })
+            .batchSize(10)
+            .maxWaitMillis(500L)
+            .retryConfig(retryConfig())
+            .build();
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    CountDownLatch start = new CountDownLatch(1);
+
+    // When
+    List<Future<String>> futures = new ArrayList<>();
+    for (int i = 0; i < 8; i++) {
+      String key = i % 2 == 0 ? "a" : "b";
+      futures.add(
+          executor.submit(
+              () -> {
+                start.await();
+                return kvs.get(key);
+              }));
+    }
+    start.countDown();
+    List<String> values = new ArrayList<>();
+    for (Future<String> future : futures) {
+      values.add(future.get(10, TimeUnit.SECONDS));
+    }
+
+    // Should
+    assertEquals(Arrays.asList("A", "B", "A", "B", "A", "B", "A", "B"), values);
+    assertEquals(1, requests.size());
+    assertEquals(2, requests.get(0).size());
+    kvs.close();
+    executor.shutdown();
+  }
+
+  @Test
+  public void retryTest() {
+
+    // State
+    AtomicInteger calls = new AtomicInteger();
+    KeyValueStore<String, String> kvs =
+        BatchingKeyValueStore.<String, String>builder()
+            .loader(
+                keys -> {
+                  if (calls.incrementAndGet() < 3) {
+                    throw new IOException("Service unavailable");
+                  }
+                  return Collections.singletonList("value");
+                })
+            .retryConfig(retryConfig())
+            .build();
+
+    // When
+    String value = kvs.get("key");
+
+    // Should
+    assertEquals("value", value);
+    assertEquals(3, calls.get());
+    kvs.close();
+  }
+
+  @Test
+  public void closePendingTest() throws Exception {
+
+    // State
+    CountDownLatch loading = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    KeyValueStore<String, String> kvs =
+        BatchingKeyValueStore.<String, String>builder()
+            .loader(
+                keys -> {
+                  loading.countDown();
+                  release.await();
+                  return keys;
+                })
+            .build();
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    Future<String> pending = executor.submit(() -> kvs.get("a"));
+    assertTrue(loading.await(10, TimeUnit.SECONDS));
+
+    // When
+    kvs.close();
+
+    // Should
+    ExecutionException ex =
+        assertThrows(ExecutionException.class, () -> pending.get(10, TimeUnit.SECONDS));
+    assertTrue(ex.getCause() instanceof IllegalStateException);
+    release.countDown();
+    executor.shutdown();
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void getAfterCloseTest() {
+
+    // State
+    KeyValueStore<String, String> kvs =
+        BatchingKeyValueStore.<String, String>builder().loader(keys -> keys).build();
+
+    // When
+    kvs.close();
+
+    // Should
+    kvs.get("a");
+  }
+
+  @Test
+  public void persistTest() throws IOException {
+
+    // State
+    File file = Files.createTempFile("batching-kvs", ".jsonl").toFile();
+    file.delete();
+    AtomicInteger calls = new AtomicInteger();
+    BatchingKeyValueStore.BatchLoader<String, String> loader =
+        keys -> {
+          calls.addAndGet(keys.size());
+          return keys.stream().map(String::toUpperCase).collect(Collectors.toList());
+        };
+
+    // When
+    KeyValueStore<String, String> first =
+        BatchingKeyValueStore.<String, String>builder()
+            .loader(loader)
+            .keyClass(String.class)
+            .valueClass(String.class)
+            .persistPath(file.getAbsolutePath())
+            .build();
+    first.get("a");
+    first.close();
+
+    KeyValueStore<String, String> second =
+        BatchingKeyValueStore.<String, String>builder()
+            .loader(loader)
+            .keyClass(String.class)
+            .valueClass(String.class)
+            .persistPath(file.getAbsolutePath())
+            .build();
+    String value = second.get("a");
+    second.close();
+
+    // Should
+    assertEquals("A", value);
+    assertEquals(1, calls.get());
+    file.delete();
+  }
+
+  @Test
+  public void persistVersionTest() throws Exception {
+
+    // State
+    File file = Files.createTempFile("batching-kvs", ".jsonl").toFile();
+    file.delete();
+    AtomicInteger calls = new AtomicInteger();
+
+    // When
+    KeyValueStore<String, String> first = persistedStore(file, calls, "1", null);
+    first.get("a");
+    first.close();
+
+    KeyValueStore<String, String> sameVersion = persistedStore(file, calls, "1", null);
+    sameVersion.get("a");
+    sameVersion.close();
+    int sameVersionCalls = calls.get();
+
+    KeyValueStore<String, String> newVersion = persistedStore(file, calls, "2", null);
+    newVersion.get("a");
+    newVersion.close();
+
+    // Should
+    assertEquals(1, sameVersionCalls);
+    assertEquals(2, calls.get());
+    file.delete();
+  }
+
+  @Test
+  public void persistExpiredTest() throws Exception {
+
+    // State
+    File file = Files.createTempFile("batching-kvs", ".jsonl").toFile();
+    file.delete();
+    AtomicInteger calls = new AtomicInteger();
+
+    // When
+    KeyValueStore<String, String> first = persistedStore(file, calls, null, 50L);
+    first.get("a");
+    first.close();
+    TimeUnit.MILLISECONDS.sleep(100L);
+
+    KeyValueStore<String, String> expired = persistedStore(file, calls, null, 50L);
+    expired.get("a");
+    expired.close();
+
+    // Should
+    assertEquals(2, calls.get());
+    file.delete();
+  }
+
+  @Test
+  public void persistWithoutHeaderTest() throws Exception {
+
+    // State
+    File file = Files.createTempFile("batching-kvs", ".jsonl").toFile();
+    Files.write(
+        file.toPath(),
+        Collections.singletonList("{\"key\":\"a\",\"value\":\"OLD\"}"),
+        StandardCharsets.UTF_8);
+    AtomicInteger calls = new AtomicInteger();
+
+    // When
+    KeyValueStore<String, String> kvs = persistedStore(file, calls, null, null);
+    String value = kvs.get("a");
+    kvs.close();
+
+    // Should
+    assertEquals("A", value);
+    assertEquals(1, calls.get());
+    file.delete();
+  }
+
+  private static KeyValueStore<String, String> persistedStore(
+      File file, AtomicInteger calls, String version, Long maxAgeMillis) {
+    return BatchingKeyValueStore.<String, String>builder()
+        .loader(
+            keys -> {
+              calls.addAndGet(keys.size());
+              return keys.stream().map(String::toUpperCase).collect(Collectors.toList());
+            })
+        .keyClass(String.class)
+        .valueClass(String.class)
+        .persistPath(file.getAbsolutePath())
+        .persistVersion(version)
+        .persistMaxAgeMillis(maxAgeMillis)
+        .build();
+  }
+}
@@ -7,7 +7,9 @@ import au.org.ala.kvs.cache.StateProvinceKeyValueStore;
 import au.org.ala.kvs.client.GeocodeShpIntersectService;
 import au.org.ala.util.TestUtils;
 import java.awt.image.BufferedImage;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import lombok.extern.slf4j.Slf4j;
 import org.gbif.kvs.KeyValueStore;
@@ -300,6 +302,27 @@ public class GeocodeServiceTestIT {
     assertTrue(resp.getLocations().isEmpty());
   }
 
+  @Test
+  public void testBatchStateProvince() {
+    GeocodeShpIntersectService service =
+        GeocodeShpIntersectService.getInstance(TestUtils.getConfig().getGeocodeConfig());
+
+    List<List<Location>> resp =
+        service.lookupStateProvince(
+            Arrays.asList(
+                LatLng.builder().withLongitude(146.2).withLatitude(-27.9).build(),
+                LatLng.builder().withLongitude(146.923).withLatitude(-31.2).build(),
+                LatLng.builder().withLongitude(146.2).withLatitude(-27.9).build(),
+                LatLng.builder().withLongitude(-145.077283).withLatitude(-38.188337).build()));
+
+    assertEquals(4, resp.size());
+    assertEquals("Queensland", resp.get(0).get(0).getName());
+    assertEquals("New South Wales", resp.get(1).get(0).getName());
+    assertEquals("Queensland", resp.get(2).get(0).getName());
+    assertNotSame(resp.get(0).get(0), resp.get(2).get(0));
+    assertTrue(resp.get(3).isEmpty());
+  }
+
   /** This test demonstrates how to create a kvstore supporting bitmap cache */
   @Test
   public void testBitMap() {
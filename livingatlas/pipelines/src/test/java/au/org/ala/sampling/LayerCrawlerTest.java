@@ -0,0 +1,73 @@
+package au.org.ala.sampling;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import au.org.ala.pipelines.options.SamplingPipelineOptions;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.apache.commons.io.FileUtils;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.gbif.pipelines.common.beam.options.PipelinesOptionsFactory;
+import org.junit.Test;
+
+public class LayerCrawlerTest {
+
+  private static final List<String> FIRST = Arrays.asList("-35.28,149.13", "-35.29,149.14");
+  private static final List<String> SECOND = Collections.singletonList("-12.38,130.85");
+
+  @Test
+  public void batchNameTest() {
+    // State
+    String version = SampleCache.layersVersion("cl22,el674");
+
+    // When
+    String name = LayerCrawler.batchName(version, FIRST);
+
+    // Should
+    assertEquals(name, LayerCrawler.batchName(SampleCache.layersVersion("el674,cl22"), FIRST));
+    assertNotEquals(name, LayerCrawler.batchName(version, SECOND));
+    assertNotEquals(
+        name, LayerCrawler.batchName(SampleCache.layersVersion("cl22,el674,cl23"), FIRST));
+  }
+
+  @Test
+  public void pendingBatchesTest() throws Exception {
+    // State
+    File inputPath = Files.createTempDirectory("tmp-la-pipelines-test").toFile();
+    try {
+      SamplingPipelineOptions options =
+          PipelinesOptionsFactory.create(
+              SamplingPipelineOptions.class,
+              new String[] {
+                "--datasetId=dr893", "--attempt=1", "--inputPath=" + inputPath.getAbsolutePath()
+              });
+      FileSystem fs = FileSystem.getLocal(new Configuration());
+      List<List<String>> partitions = Arrays.asList(FIRST, SECOND);
+
+      String version = SampleCache.layersVersion("cl22,el674");
+      String sampledName = LayerCrawler.batchName(version, FIRST);
+      fs.create(new Path(LayerCrawler.getSampleAvroPath(options, sampledName))).close();
+
+      // When
+      Map<String, List<String>> pending =
+          LayerCrawler.pendingBatches(fs, partitions, version, options);
+      Map<String, List<String>> otherLayers =
+          LayerCrawler.pendingBatches(
+              fs, partitions, SampleCache.layersVersion("cl22,el674,cl23"), options);
+
+      // Should
+      assertEquals(
+          Collections.singletonMap(LayerCrawler.batchName(version, SECOND), SECOND), pending);
+      assertEquals(2, otherLayers.size());
+    } finally {
+      FileUtils.deleteQuietly(inputPath);
+    }
+  }
+}
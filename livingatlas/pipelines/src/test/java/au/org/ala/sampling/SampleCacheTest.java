@@ -0,0 +1,36 @@
+package au.org.ala.sampling;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import org.junit.Test;
+
+public class SampleCacheTest {
+
+  @Test
+  public void roundLatLngTest() {
+
+    // When
+    String rounded = SampleCache.roundLatLng("-35.2809368,149.1300092", 5);
+    String sameRounded = SampleCache.roundLatLng("-35.280939, 149.130012", 5);
+    String trailingZeros = SampleCache.roundLatLng("-35.000001,149.1", 5);
+
+    // Should
+    assertEquals("-35.28094,149.13001", rounded);
+    assertEquals(rounded, sameRounded);
+    assertEquals("-35,149.1", trailingZeros);
+    assertEquals("not a coordinate", SampleCache.roundLatLng("not a coordinate", 5));
+    assertEquals("a,b", SampleCache.roundLatLng("a,b", 5));
+  }
+
+  @Test
+  public void layersVersionTest() {
+
+    // When
+    String version = SampleCache.layersVersion("cl22,el674,cl1048");
+
+    // Should
+    assertEquals(version, SampleCache.layersVersion("el674,cl1048,cl22"));
+    assertNotEquals(version, SampleCache.layersVersion("el674,cl1048,cl22,cl23"));
+  }
+}
@@ -0,0 +1,141 @@
+package org.apache.beam.sdk.io.solr;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import org.apache.beam.sdk.io.solr.SolrIO.ReplicaInfo;
+import org.apache.beam.sdk.io.solr.SolrIO.Write.AdaptiveBatchSize;
+import org.apache.beam.sdk.io.solr.SolrIO.Write.ShardedWriteFn;
+import org.apache.solr.common.SolrInputDocument;
+import org.apache.solr.common.cloud.ClusterState;
+import org.apache.solr.common.cloud.DocCollection;
+import org.joda.time.Duration;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SolrIOWriteTest {
+
+  private static final String COLLECTION = "biocache";
+
+  private static final String CLUSTER_STATE =
+      "{\"biocache\":{"
+          + "\"router\":{\"name\":\"compositeId\"},"
+          + "\"shards\":{"
+          + "\"shard1\":{\"range\":\"80000000-ffffffff\",\"state\":\"active\",\"replicas\":{"
+          + "\"core_node1\":{\"core\":\"biocache_shard1_replica1\","
+          + "\"base_url\":\"http://node1:8983/solr\",\"node_name\":\"node1:8983_solr\","
+          + "\"state\":\"active\"},"
+          + "\"core_node2\":{\"core\":\"biocache_shard1_replica2\","
+          + "\"base_url\":\"http://node2:8983/solr\",\"node_name\":\"node2:8983_solr\","
+          + "\"state\":\"active\",\"leader\":\"true\"}}},"
+          + "\"shard2\":{\"range\":\"0-7fffffff\",\"state\":\"active\",\"replicas\":{"
+          + "\"core_node3\":{\"core\":\"biocache_shard2_replica1\","
+          + "\"base_url\":\"http://node1:8983/solr\",\"node_name\":\"node1:8983_solr\","
+          + "\"state\":\"active\",\"leader\":\"true\"}}}}}}";
+
+  private static DocCollection docCollection() {
+    Set<String> liveNodes = new HashSet<>();
+    liveNodes.add("node1:8983_solr");
+    liveNodes.add("node2:8983_solr");
+    return ClusterState.load(1, CLUSTER_STATE.getBytes(StandardCharsets.UTF_8), liveNodes)
+        .getCollectionOrNull(COLLECTION);
+  }
+
+  private static SolrInputDocument document(String id) {
+    SolrInputDocument document = new SolrInputDocument();
+    if (id != null) {
+      document.addField("id", id);
+    }
+    document.addField("dataResourceUid", "dr1");
+    return document;
+  }
+
+  @Test
+  public void adaptiveBatchSizeGrowAndShrinkTest() {
+    // State
+    AdaptiveBatchSize batchSize = new AdaptiveBatchSize(10, 35, Duration.millis(100));
+
+    // When
+    int initial = batchSize.get();
+    batchSize.update(50);
+    int grown = batchSize.get();
+    batchSize.update(100);
+    batchSize.update(10);
+    batchSize.update(10);
+    int max = batchSize.get();
+    batchSize.update(500);
+    int shrunk = batchSize.get();
+    batchSize.update(500);
+    int min = batchSize.get();
+
+    // Should
+    Assert.assertEquals(10, initial);
+    Assert.assertEquals(20, grown);
+    Assert.assertEquals(35, max);
+    Assert.assertEquals(17, shrunk);
+    Assert.assertEquals(10, min);
+  }
+
+  @Test
+  public void adaptiveBatchSizeBoundsTest() {
+    // State
+    AdaptiveBatchSize fixed = new AdaptiveBatchSize(10, 1000, null);
+    AdaptiveBatchSize minAboveMax = new AdaptiveBatchSize(100, 50, Duration.millis(100));
+
+    // When
+    fixed.update(1_000_000);
+    minAboveMax.update(1);
+
+    // Should
+    Assert.assertEquals(1000, fixed.get());
+    Assert.assertEquals(50, minAboveMax.get());
+  }
+
+  @Test
+  public void routeToShardTest() {
+    // State
+    DocCollection collection = docCollection();
+
+    // When
+    Set<String> shards = new HashSet<>();
+    for (int i = 0; i < 100; i++) {
+      String id = "id-" + i;
+      String shard = ShardedWriteFn.route(collection, "id", document(id));
+      Assert.assertEquals(shard, ShardedWriteFn.route(collection, "id", document(id)));
+      shards.add(shard);
+    }
+
+    // Should
+    Assert.assertEquals(new HashSet<>(Arrays.asList("shard1", "shard2")), shards);
+  }
+
+  @Test
+  public void routeWithoutIdTest() {
+    // When
+    String withoutId = ShardedWriteFn.route(docCollection(), "id", document(null));
+    String withoutCollection = ShardedWriteFn.route(null, "id", document("1"));
+
+    // Should
+    Assert.assertEquals("", withoutId);
+    Assert.assertEquals("", withoutCollection);
+  }
+
+  @Test
+  public void leaderTest() {
+    // State
+    DocCollection collection = docCollection();
+
+    // When
+    ReplicaInfo shard1 = ShardedWriteFn.leader(collection, "shard1");
+    ReplicaInfo shard2 = ShardedWriteFn.leader(collection, "shard2");
+
+    // Should
+    Assert.assertEquals("http://node2:8983/solr", shard1.baseUrl());
+    Assert.assertEquals("biocache_shard1_replica2", shard1.coreName());
+    Assert.assertEquals("http://node1:8983/solr", shard2.baseUrl());
+    Assert.assertEquals("biocache_shard2_replica1", shard2.coreName());
+    Assert.assertNull(ShardedWriteFn.leader(collection, ""));
+    Assert.assertNull(ShardedWriteFn.leader(null, "shard1"));
+  }
+}
@@ -34,6 +34,10 @@ public class IngestMetrics {
     return Optional.ofNullable(valueMap.get(name)).map(AtomicLong::incrementAndGet).orElse(0L);
   }
 
+  public long incMetric(String name, long value) {
+    return Optional.ofNullable(valueMap.get(name)).map(v -> v.addAndGet(value)).orElse(0L);
+  }
+
   public MetricResults getMetricsResult() {
     List<MetricResult<Long>> counters =
         valueMap.entrySet().stream()
@@ -1,8 +1,11 @@
 package org.gbif.pipelines.common.beam.metrics;
 
+import static org.gbif.pipelines.common.PipelinesVariables.Metrics.INDEXED_FIELDS_NAMESPACE;
+
 import java.io.IOException;
 import java.util.Optional;
 import java.util.function.Function;
+import java.util.function.Predicate;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -17,6 +20,7 @@ import org.gbif.pipelines.common.beam.options.InterpretationPipelineOptions;
 import org.gbif.pipelines.common.beam.utils.PathBuilder;
 import org.gbif.pipelines.core.pojo.HdfsConfigs;
 import org.gbif.pipelines.core.utils.FsUtils;
+import org.gbif.pipelines.core.utils.RecordFieldsUtils;
 
 /**
  * Class to work with Apache Beam metrics, gets metrics from {@link MetricResults} and converts to a
@@ -31,6 +35,15 @@ public class MetricsHandler {
    * a yaml string format SparkRunner doesn't support committed
    */
   public static String getCountersInfo(MetricResults results) {
+    return getCountersInfo(results, namespace -> !INDEXED_FIELDS_NAMESPACE.equals(namespace));
+  }
+
+  /** Same as {@link #getCountersInfo(MetricResults)}, but for counters of the namespace only */
+  public static String getCountersInfo(MetricResults results, String namespace) {
+    return getCountersInfo(results, namespace::equals);
+  }
+
+  private static String getCountersInfo(MetricResults results, Predicate<String> namespaceFilter) {
 
     MetricQueryResults queryResults = results.queryMetrics(MetricsFilter.builder().build());
 
@@ -38,7 +51,11 @@ public class MetricsHandler {
         mr -> mr.getName().getName() + "Attempted: " + mr.getAttempted() + "\n";
 
     StringBuilder builder = new StringBuilder();
-    queryResults.getCounters().forEach(x -> builder.append(convert.apply(x)));
+    for (MetricResult<Long> counter : queryResults.getCounters()) {
+      if (namespaceFilter.test(counter.getName().getNamespace())) {
+        builder.append(convert.apply(counter));
+      }
+    }
 
     String result = builder.toString();
     log.info("Added pipeline metadata - {}", result.replace("\n", ", "));
@@ -95,7 +112,13 @@ public class MetricsHandler {
   /** Method works with String data */
   public static void saveMetricsToFile(
       BasePipelineOptions options, String metrics, boolean isInput) {
-    Optional.ofNullable(options.getMetaFileName())
+    saveMetricsToFile(options, options.getMetaFileName(), metrics, isInput);
+  }
+
+  /** Method works with String data, saves metrics to a file next to the metadata file */
+  public static void saveMetricsToFile(
+      BasePipelineOptions options, String fileName, String metrics, boolean isInput) {
+    Optional.ofNullable(fileName)
         .ifPresent(
             metadataName -> {
               String metadataPath = "";
@@ -118,6 +141,10 @@ public class MetricsHandler {
   }
 
   private static FileSystem getFileSystemForOptions(BasePipelineOptions options) {
+    return FsUtils.getFileSystem(getHdfsConfigs(options), options.getInputPath());
+  }
+
+  private static HdfsConfigs getHdfsConfigs(BasePipelineOptions options) {
     String hdfsSiteConfig = "";
     String coreSiteConfig = "";
     // FIXME InterpretationPipelineOptions should be refactored
@@ -128,9 +155,7 @@ public class MetricsHandler {
       hdfsSiteConfig = o.getHdfsSiteConfig();
       coreSiteConfig = o.getCoreSiteConfig();
     }
-
-    return FsUtils.getFileSystem(
-        HdfsConfigs.create(hdfsSiteConfig, coreSiteConfig), options.getInputPath());
+    return HdfsConfigs.create(hdfsSiteConfig, coreSiteConfig);
   }
 
   /**
@@ -141,5 +166,26 @@ public class MetricsHandler {
       BasePipelineOptions options, MetricResults results, boolean isInput) {
     String countersInfo = getCountersInfo(results);
     saveMetricsToFile(options, countersInfo, isInput);
+
+    // Indexed field counts are used by the validator instead of querying ES term by term
+    String indexedFieldsInfo = getCountersInfo(results, INDEXED_FIELDS_NAMESPACE);
+    String metaFileName = options.getMetaFileName();
+    if (metaFileName != null && !metaFileName.isEmpty() && !indexedFieldsInfo.isEmpty()) {
+      saveIndexedFieldCounts(options, indexedFieldsInfo, isInput);
+    }
+  }
+
+  /**
+   * Saves counts of indexed fields, the path is built by {@link
+   * RecordFieldsUtils#indexedFieldCountsPath}, which is also used to read the file
+   */
+  public static void saveIndexedFieldCounts(
+      BasePipelineOptions options, String counts, boolean isInput) {
+    String path =
+        RecordFieldsUtils.indexedFieldCountsPath(
+            isInput ? options.getInputPath() : options.getTargetPath(),
+            options.getDatasetId(),
+            options.getAttempt().toString());
+    saveMetricsToFile(getHdfsConfigs(options), path, counts);
   }
 }
@@ -24,4 +24,13 @@ public interface EsIndexingPipelineOptions
   DatasetType getDatasetType();
 
   void setDatasetType(DatasetType datasetType);
+
+  @Description(
+      "Event pipelines only. Resolves the event tree once by a side input index of parent ids "
+          + "and computes all inherited fields in one pass, instead of joining lineage edges "
+          + "per record type")
+  @Default.Boolean(false)
+  boolean getUseLineageIndex();
+
+  void setUseLineageIndex(boolean useLineageIndex);
 }
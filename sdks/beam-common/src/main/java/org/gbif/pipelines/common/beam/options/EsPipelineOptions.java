@@ -110,6 +110,20 @@ public interface EsPipelineOptions extends PipelineOptions {
 
   void setBackPressure(Integer backPressure);
 
+  @Description(
+      "Java pipelines only. Target latency of an Elasticsearch bulk request in milliseconds, "
+          + "the batch size adapts to keep the latency around the target. Disabled if empty")
+  Long getEsTargetBatchLatencyMs();
+
+  void setEsTargetBatchLatencyMs(Long esTargetBatchLatencyMs);
+
+  @Description(
+      "Java pipelines only. Max number of retries for bulk items rejected by overloaded Elasticsearch nodes")
+  @Default.Integer(5)
+  int getEsMaxRetries();
+
+  void setEsMaxRetries(int esMaxRetries);
+
   @Description("Use search slowlogs")
   @Default.Boolean(true)
   boolean getUseSlowlog();
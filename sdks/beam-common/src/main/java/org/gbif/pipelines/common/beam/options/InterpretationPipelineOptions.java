@@ -104,6 +104,58 @@ public interface InterpretationPipelineOptions
 
   void setCoreRecordType(InterpretationType.RecordType recordType);
 
+  @Description(
+      "Java pipelines only. Streams verbatim records in chunks and detects duplicates using a compact id index, "
+          + "instead of reading the whole verbatim file into memory")
+  @Default.Boolean(false)
+  boolean getUseStreamingMode();
+
+  void setUseStreamingMode(boolean useStreamingMode);
+
+  @Description("Java pipelines only. Number of records in a chunk for the streaming mode")
+  @Default.Integer(50_000)
+  int getStreamingChunkSize();
+
+  void setStreamingChunkSize(int streamingChunkSize);
+
+  @Description(
+      "Java pipelines only. Every thread writes its own avro part files instead of sharing a synchronized writer")
+  @Default.Boolean(false)
+  boolean getUseShardedWriters();
+
+  void setUseShardedWriters(boolean useShardedWriters);
+
+  @Description("Java pipelines only. Max size of an avro part file in bytes for sharded writers")
+  @Default.Long(268_435_456L)
+  long getShardedWriterMaxBytes();
+
+  void setShardedWriterMaxBytes(long shardedWriterMaxBytes);
+
+  @Description(
+      "Java pipelines only. Interpretation writes every record type as avro runs sorted by id, "
+          + "HDFS view and indexing merge the sorted runs chunk by chunk instead of reading all "
+          + "record types into memory. The run and chunk size is the streaming chunk size")
+  @Default.Boolean(false)
+  boolean getUseSortedAvro();
+
+  void setUseSortedAvro(boolean useSortedAvro);
+
+  @Description(
+      "Beam pipelines only. Interprets all record types in one multi-output ParDo, "
+          + "so verbatim records are decoded once instead of once per record type")
+  @Default.Boolean(false)
+  boolean getUseFusedInterpretation();
+
+  void setUseFusedInterpretation(boolean useFusedInterpretation);
+
+  @Description(
+      "Beam pipelines only. Filters verbatim records by a side input of hashed valid GBIF ids, "
+          + "instead of joining verbatim and GBIF id records with a shuffle")
+  @Default.Boolean(false)
+  boolean getUseSideInputIdJoin();
+
+  void setUseSideInputIdJoin(boolean useSideInputIdJoin);
+
   /** A {@link DefaultValueFactory} which locates a default directory. */
   class TempDirectoryFactory implements DefaultValueFactory<String> {
 
@@ -0,0 +1,122 @@
+package org.gbif.pipelines.factory;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ObjLongConsumer;
+import java.util.function.ToIntBiFunction;
+import java.util.function.UnaryOperator;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.gbif.kvs.KeyValueStore;
+import org.gbif.pipelines.core.config.model.KvConfig;
+
+/**
+ * In-memory result cache on top of a {@link KeyValueStore}, bounded by the number of entries or,
+ * if {@link KvConfig#getCacheMaxWeight()} is set, by the total weight of values. Keys are
+ * canonicalised by keyFn before the lookup, so equivalent keys share one entry and one remote call.
+ *
+ * <p>Every store keeps its own hit, miss and load time counters, use {@link
+ * #drainMetrics(ObjLongConsumer)} to report and reset them.
+ */
+@Slf4j
+public class CachedKeyValueStore<K, V> implements KeyValueStore<K, V> {
+
+  private final KeyValueStore<K, V> kvStore;
+  private final Cache<K, V> cache;
+  private final UnaryOperator<K> keyFn;
+  private final String name;
+
+  private final String hitMetric;
+  private final String missMetric;
+  private final String loadTimeMetric;
+
+  private final LongAdder hitCounter = new LongAdder();
+  private final LongAdder missCounter = new LongAdder();
+  private final LongAdder loadTimeCounter = new LongAdder();
+
+  @Builder(buildMethodName = "create")
+  private CachedKeyValueStore(
+      @NonNull KeyValueStore<K, V> kvStore,
+      @NonNull KvConfig config,
+      UnaryOperator<K> keyFn,
+      ToIntBiFunction<K, V> weigher,
+      @NonNull String hitMetric,
+      @NonNull String missMetric,
+      @NonNull String loadTimeMetric) {
+    this.kvStore = kvStore;
+    this.keyFn = keyFn == null ? UnaryOperator.identity() : keyFn;
+    this.name = hitMetric;
+    this.hitMetric = hitMetric;
+    this.missMetric = missMetric;
+    this.loadTimeMetric = loadTimeMetric;
+
+    CacheBuilder<Object, Object> builder =
+        CacheBuilder.newBuilder()
+            .concurrencyLevel(Runtime.getRuntime().availableProcessors())
+            .expireAfterWrite(config.getCacheExpiryTimeInSeconds(), TimeUnit.SECONDS);
+    if (config.getCacheMaxWeight() != null && weigher != null) {
+      this.cache =
+          builder
+              .maximumWeight(config.getCacheMaxWeight())
+              .<K, V>weigher(weigher::applyAsInt)
+              .build();
+    } else {
+      this.cache = builder.maximumSize(config.getCacheCapacity()).build();
+    }
+  }
+
+  @Override
+  public V get(K key) {
+    if (key == null) {
+      return kvStore.get(null);
+    }
+
+    K canonicalKey = keyFn.apply(key);
+    V value = cache.getIfPresent(canonicalKey);
+    if (value != null) {
+      hitCounter.increment();
+      return value;
+    }
+
+    missCounter.increment();
+    long start = System.nanoTime();
+    value = kvStore.get(canonicalKey);
+    loadTimeCounter.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+    // Null values are not cached, they usually mean a failed lookup
+    if (value != null) {
+      cache.put(canonicalKey, value);
+    }
+    return value;
+  }
+
+  /** Reports the counters of this cache and resets them */
+  public void drainMetrics(ObjLongConsumer<String> metricFn) {
+    metricFn.accept(hitMetric, hitCounter.sumThenReset());
+    metricFn.accept(missMetric, missCounter.sumThenReset());
+    metricFn.accept(loadTimeMetric, loadTimeCounter.sumThenReset());
+  }
+
+  /** Reports and resets the counters of the store, if it is a {@link CachedKeyValueStore} */
+  public static void drainMetrics(KeyValueStore<?, ?> store, ObjLongConsumer<String> metricFn) {
+    if (store instanceof CachedKeyValueStore) {
+      ((CachedKeyValueStore<?, ?>) store).drainMetrics(metricFn);
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    log.info(
+        "Closing cache {}, size - {}, hits - {}, misses - {}",
+        name,
+        cache.size(),
+        hitCounter.sum(),
+        missCounter.sum());
+    cache.invalidateAll();
+    kvStore.close();
+  }
+}
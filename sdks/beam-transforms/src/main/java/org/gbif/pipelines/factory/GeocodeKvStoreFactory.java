@@ -1,8 +1,14 @@
 package org.gbif.pipelines.factory;
 
+import static org.gbif.pipelines.common.PipelinesVariables.Metrics.GEOCODE_CACHE_HIT_COUNT;
+import static org.gbif.pipelines.common.PipelinesVariables.Metrics.GEOCODE_CACHE_LOAD_TIME_MS;
+import static org.gbif.pipelines.common.PipelinesVariables.Metrics.GEOCODE_CACHE_MISS_COUNT;
+
 import java.awt.image.BufferedImage;
 import java.io.IOException;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.UnaryOperator;
 import lombok.SneakyThrows;
 import org.gbif.kvs.KeyValueStore;
 import org.gbif.kvs.conf.CachedHBaseKVStoreConfiguration;
@@ -34,7 +40,7 @@ public class GeocodeKvStoreFactory {
             .map(ip -> BufferedImageFactory.getInstance(hdfsConfigs, ip))
             .orElse(null);
     KeyValueStore<LatLng, GeocodeResponse> kvStore = creatKvStore(config);
-    geocodeKvStore = GeocodeKvStore.create(kvStore, image);
+    geocodeKvStore = createCache(GeocodeKvStore.create(kvStore, image), config);
   }
 
   public static KeyValueStore<LatLng, GeocodeResponse> getInstance(
@@ -59,6 +65,41 @@ public class GeocodeKvStoreFactory {
     return () -> GeocodeKvStoreFactory.getInstance(hdfsConfigs, config);
   }
 
+  private static KeyValueStore<LatLng, GeocodeResponse> createCache(
+      KeyValueStore<LatLng, GeocodeResponse> kvStore, PipelinesConfig config) {
+    if (config == null) {
+      return kvStore;
+    }
+    KvConfig geocodeConfig = config.getGeocode();
+    return CachedKeyValueStore.<LatLng, GeocodeResponse>builder()
+        .kvStore(kvStore)
+        .config(geocodeConfig)
+        .keyFn(roundFn(geocodeConfig.getLatLngPrecision()))
+        .weigher(
+            (k, v) -> 1 + Optional.ofNullable(v.getLocations()).map(List::size).orElse(0))
+        .hitMetric(GEOCODE_CACHE_HIT_COUNT)
+        .missMetric(GEOCODE_CACHE_MISS_COUNT)
+        .loadTimeMetric(GEOCODE_CACHE_LOAD_TIME_MS)
+        .create();
+  }
+
+  /** Rounds coordinates to the number of decimal places, so nearby points share a cache entry */
+  static UnaryOperator<LatLng> roundFn(Integer precision) {
+    if (precision == null || precision < 0) {
+      return UnaryOperator.identity();
+    }
+    double scale = Math.pow(10, precision);
+    return latLng -> {
+      if (latLng.getLatitude() == null || latLng.getLongitude() == null) {
+        return latLng;
+      }
+      return LatLng.builder()
+          .withLatitude(Math.round(latLng.getLatitude() * scale) / scale)
+          .withLongitude(Math.round(latLng.getLongitude() * scale) / scale)
+          .build();
+    };
+  }
+
   private static KeyValueStore<LatLng, GeocodeResponse> creatKvStore(PipelinesConfig config)
       throws IOException {
     if (config == null) {
@@ -96,7 +137,7 @@ public class GeocodeKvStoreFactory {
                     .withHBaseZk(zk)
                     .withHBaseZnode(geocodeConfig.getHbaseZnode())
                     .build())
-            .withCacheCapacity(25_000L)
+            .withCacheCapacity(geocodeConfig.getCacheCapacity())
             .withCacheExpiryTimeInSeconds(geocodeConfig.getCacheExpiryTimeInSeconds());
 
     KvConfig.LoaderRetryConfig retryConfig = geocodeConfig.getLoaderRetryConfig();
@@ -1,6 +1,11 @@
 package org.gbif.pipelines.factory;
 
+import static org.gbif.pipelines.common.PipelinesVariables.Metrics.NAME_MATCH_CACHE_HIT_COUNT;
+import static org.gbif.pipelines.common.PipelinesVariables.Metrics.NAME_MATCH_CACHE_LOAD_TIME_MS;
+import static org.gbif.pipelines.common.PipelinesVariables.Metrics.NAME_MATCH_CACHE_MISS_COUNT;
+
 import java.util.Optional;
+import java.util.regex.Pattern;
 import lombok.SneakyThrows;
 import org.gbif.kvs.KeyValueStore;
 import org.gbif.kvs.conf.CachedHBaseKVStoreConfiguration;
@@ -20,6 +25,8 @@ import org.gbif.rest.client.species.NameUsageMatch;
 /** Factory to get singleton instance of KV store {@link KeyValueStore} */
 public class NameUsageMatchStoreFactory {
 
+  private static final Pattern WHITESPACES = Pattern.compile("\\s+");
+
   private final KeyValueStore<Identification, NameUsageMatch> kvStore;
   private static volatile NameUsageMatchStoreFactory instance;
   private static final Object MUTEX = new Object();
@@ -29,6 +36,49 @@ public class NameUsageMatchStoreFactory {
     this.kvStore = create(config);
   }
 
+  private static KeyValueStore<Identification, NameUsageMatch> createCache(
+      KeyValueStore<Identification, NameUsageMatch> kvStore, KvConfig config) {
+    return CachedKeyValueStore.<Identification, NameUsageMatch>builder()
+        .kvStore(kvStore)
+        .config(config)
+        .keyFn(NameUsageMatchStoreFactory::canonicalise)
+        .weigher((k, v) -> 1)
+        .hitMetric(NAME_MATCH_CACHE_HIT_COUNT)
+        .missMetric(NAME_MATCH_CACHE_MISS_COUNT)
+        .loadTimeMetric(NAME_MATCH_CACHE_LOAD_TIME_MS)
+        .create();
+  }
+
+  /** Trims and collapses whitespaces and maps blank values to null, so equal names share a key */
+  static Identification canonicalise(Identification id) {
+    return Identification.builder()
+        .withKingdom(clean(id.getKingdom()))
+        .withPhylum(clean(id.getPhylum()))
+        .withClazz(clean(id.getClazz()))
+        .withOrder(clean(id.getOrder()))
+        .withFamily(clean(id.getFamily()))
+        .withGenus(clean(id.getGenus()))
+        .withScientificName(clean(id.getScientificName()))
+        .withGenericName(clean(id.getGenericName()))
+        .withSpecificEpithet(clean(id.getSpecificEpithet()))
+        .withInfraspecificEpithet(clean(id.getInfraspecificEpithet()))
+        .withScientificNameAuthorship(clean(id.getScientificNameAuthorship()))
+        .withRank(clean(id.getRank()))
+        .withVerbatimRank(clean(id.getVerbatimRank()))
+        .withScientificNameID(clean(id.getScientificNameID()))
+        .withTaxonID(clean(id.getTaxonID()))
+        .withTaxonConceptID(clean(id.getTaxonConceptID()))
+        .build();
+  }
+
+  private static String clean(String value) {
+    if (value == null) {
+      return null;
+    }
+    String cleaned = WHITESPACES.matcher(value).replaceAll(" ").trim();
+    return cleaned.isEmpty() ? null : cleaned;
+  }
+
   /* TODO Comment */
   public static KeyValueStore<Identification, NameUsageMatch> getInstance(PipelinesConfig config) {
     if (instance == null) {
@@ -74,8 +124,10 @@ public class NameUsageMatchStoreFactory {
     String zk = nameUsageMatchConfig.getZkConnectionString();
     zk = zk == null || zk.isEmpty() ? config.getZkConnectionString() : zk;
     if (zk == null || nameUsageMatchConfig.isRestOnly()) {
-      return NameUsageMatchKVStoreFactory.nameUsageMatchKVStore(
-          clientConfiguration, config.getNameUsageIdMapping());
+      return createCache(
+          NameUsageMatchKVStoreFactory.nameUsageMatchKVStore(
+              clientConfiguration, config.getNameUsageIdMapping()),
+          nameUsageMatchConfig);
     }
 
     Builder configBuilder =
@@ -89,7 +141,7 @@ public class NameUsageMatchStoreFactory {
                     .withHBaseZk(zk)
                     .withHBaseZnode(nameUsageMatchConfig.getHbaseZnode())
                     .build())
-            .withCacheCapacity(25_000L)
+            .withCacheCapacity(nameUsageMatchConfig.getCacheCapacity())
             .withCacheExpiryTimeInSeconds(nameUsageMatchConfig.getCacheExpiryTimeInSeconds());
 
     KvConfig.LoaderRetryConfig retryConfig = nameUsageMatchConfig.getLoaderRetryConfig();
@@ -102,8 +154,10 @@ public class NameUsageMatchStoreFactory {
               retryConfig.getRandomizationFactor()));
     }
 
-    return NameUsageMatchKVStoreFactory.nameUsageMatchKVStore(
-        configBuilder.build(), clientConfiguration, config.getNameUsageIdMapping());
+    return createCache(
+        NameUsageMatchKVStoreFactory.nameUsageMatchKVStore(
+            configBuilder.build(), clientConfiguration, config.getNameUsageIdMapping()),
+        nameUsageMatchConfig);
   }
 
   public static SerializableSupplier<KeyValueStore<Identification, NameUsageMatch>> createSupplier(
@@ -2,21 +2,42 @@ package org.gbif.pipelines.transforms.common;
 
 import static org.gbif.pipelines.common.PipelinesVariables.Metrics.FILTER_ER_BASED_ON_GBIF_ID;
 
+import com.google.common.hash.Hashing;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import lombok.AllArgsConstructor;
 import lombok.NonNull;
+import org.apache.beam.sdk.coders.Coder;
+import org.apache.beam.sdk.coders.CoderRegistry;
+import org.apache.beam.sdk.coders.SerializableCoder;
 import org.apache.beam.sdk.metrics.Counter;
 import org.apache.beam.sdk.metrics.Metrics;
+import org.apache.beam.sdk.transforms.Combine;
+import org.apache.beam.sdk.transforms.Combine.CombineFn;
 import org.apache.beam.sdk.transforms.DoFn;
+import org.apache.beam.sdk.transforms.PTransform;
 import org.apache.beam.sdk.transforms.ParDo;
 import org.apache.beam.sdk.transforms.ParDo.SingleOutput;
 import org.apache.beam.sdk.transforms.join.CoGbkResult;
 import org.apache.beam.sdk.values.KV;
+import org.apache.beam.sdk.values.PCollection;
+import org.apache.beam.sdk.values.PCollectionView;
 import org.apache.beam.sdk.values.TupleTag;
 import org.gbif.pipelines.io.avro.ExtendedRecord;
 import org.gbif.pipelines.io.avro.IdentifierRecord;
 
-/** Filter uses invalid BasicRecord collection as a source to find and skip ExtendedRecord record */
+/**
+ * Filter uses invalid BasicRecord collection as a source to find and skip ExtendedRecord record
+ *
+ * <p>{@link #filter()} joins both collections with CoGroupByKey, {@link #filter(PCollectionView)}
+ * avoids the shuffle of ExtendedRecord collection: 64-bit hashes of valid ids are collected into
+ * one sorted array, see {@link #validIdsView()}, which is broadcast as a side input. A hash
+ * collision between a valid id and an id without a valid GBIF id keeps the record, the chance is
+ * about n^2/2^65 for n records.
+ */
 @AllArgsConstructor(staticName = "create")
 public class FilterRecordsTransform implements Serializable {
 
@@ -50,4 +71,145 @@ public class FilterRecordsTransform implements Serializable {
 
     return ParDo.of(fn);
   }
+
+  /**
+   * Collects ids of {@link IdentifierRecord} with an internal id into a sorted array of 64-bit
+   * hashes, to be used by {@link #filter(PCollectionView)}
+   */
+  public static PTransform<PCollection<IdentifierRecord>, PCollectionView<long[]>> validIdsView() {
+    return new PTransform<PCollection<IdentifierRecord>, PCollectionView<long[]>>() {
+      @Override
+      public PCollectionView<long[]> expand(PCollection<IdentifierRecord> input) {
+        DoFn<IdentifierRecord, Long> hashFn =
+            new DoFn<IdentifierRecord, Long>() {
+              @ProcessElement
+              public void processElement(ProcessContext c) {
+                IdentifierRecord id = c.element();
+                if (id.getId() != null && id.getInternalId() != null) {
+                  c.output(hash(id.getId()));
+                }
+              }
+            };
+        return input
+            .apply("Hash valid ids", ParDo.of(hashFn))
+            .apply(
+                "Convert valid ids into view",
+                Combine.globally(new SortedHashesFn()).asSingletonView());
+      }
+    };
+  }
+
+  /**
+   * Filters the records by discarding the results whose id is not in the side input of valid ids,
+   * see {@link #validIdsView()}
+   */
+  public static SingleOutput<ExtendedRecord, ExtendedRecord> filter(
+      PCollectionView<long[]> validIdsView) {
+
+    DoFn<ExtendedRecord, ExtendedRecord> fn =
+        new DoFn<ExtendedRecord, ExtendedRecord>() {
+
+          private final Counter counter =
+              Metrics.counter(FilterRecordsTransform.class, FILTER_ER_BASED_ON_GBIF_ID);
+
+          @ProcessElement
+          public void processElement(ProcessContext c) {
+            ExtendedRecord er = c.element();
+            long[] validIds = c.sideInput(validIdsView);
+            if (er.getId() != null && Arrays.binarySearch(validIds, hash(er.getId())) >= 0) {
+              c.output(er);
+              counter.inc();
+            }
+          }
+        };
+
+    return ParDo.of(fn).withSideInputs(validIdsView);
+  }
+
+  static long hash(String id) {
+    return Hashing.murmur3_128().hashString(id, StandardCharsets.UTF_8).asLong();
+  }
+
+  /** Growable array of hashes, used as the accumulator of {@link SortedHashesFn} */
+  static class Hashes implements Serializable {
+
+    private static final long serialVersionUID = -5461375367367329371L;
+
+    private long[] values = new long[16];
+    private int size = 0;
+
+    void add(long value) {
+      ensureCapacity(size + 1);
+      values[size++] = value;
+    }
+
+    void addAll(Hashes other) {
+      ensureCapacity(size + other.size);
+      System.arraycopy(other.values, 0, values, size, other.size);
+      size += other.size;
+    }
+
+    long[] toSortedDistinctArray() {
+      long[] sorted = Arrays.copyOf(values, size);
+      Arrays.sort(sorted);
+      int distinct = 0;
+      for (int i = 0; i < sorted.length; i++) {
+        if (i == 0 || sorted[i] != sorted[distinct - 1]) {
+          sorted[distinct++] = sorted[i];
+        }
+      }
+      return Arrays.copyOf(sorted, distinct);
+    }
+
+    private void ensureCapacity(int capacity) {
+      if (capacity > values.length) {
+        values = Arrays.copyOf(values, Math.max(capacity, values.length * 2));
+      }
+    }
+
+    // Only the used part of the array is serialized
+    private void writeObject(ObjectOutputStream out) throws IOException {
+      values = Arrays.copyOf(values, size);
+      out.defaultWriteObject();
+    }
+  }
+
+  /** Combines hashes into one sorted array without duplicates */
+  static class SortedHashesFn extends CombineFn<Long, Hashes, long[]> {
+
+    private static final long serialVersionUID = 6226493452325873641L;
+
+    @Override
+    public Hashes createAccumulator() {
+      return new Hashes();
+    }
+
+    @Override
+    public Hashes addInput(Hashes accumulator, Long input) {
+      accumulator.add(input);
+      return accumulator;
+    }
+
+    @Override
+    public Hashes mergeAccumulators(Iterable<Hashes> accumulators) {
+      Hashes merged = new Hashes();
+      accumulators.forEach(merged::addAll);
+      return merged;
+    }
+
+    @Override
+    public long[] extractOutput(Hashes accumulator) {
+      return accumulator.toSortedDistinctArray();
+    }
+
+    @Override
+    public Coder<Hashes> getAccumulatorCoder(CoderRegistry registry, Coder<Long> inputCoder) {
+      return SerializableCoder.of(Hashes.class);
+    }
+
+    @Override
+    public Coder<long[]> getDefaultOutputCoder(CoderRegistry registry, Coder<Long> inputCoder) {
+      return SerializableCoder.of(long[].class);
+    }
+  }
 }
@@ -0,0 +1,158 @@
+package org.gbif.pipelines.transforms.common;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.avro.specific.SpecificRecordBase;
+import org.apache.beam.sdk.coders.AvroCoder;
+import org.apache.beam.sdk.transforms.DoFn;
+import org.apache.beam.sdk.transforms.PTransform;
+import org.apache.beam.sdk.transforms.ParDo;
+import org.apache.beam.sdk.transforms.reflect.DoFnInvokers;
+import org.apache.beam.sdk.values.PCollection;
+import org.apache.beam.sdk.values.PCollectionTuple;
+import org.apache.beam.sdk.values.PCollectionView;
+import org.apache.beam.sdk.values.TupleTag;
+import org.apache.beam.sdk.values.TupleTagList;
+import org.gbif.pipelines.io.avro.ExtendedRecord;
+import org.gbif.pipelines.io.avro.MetadataRecord;
+import org.gbif.pipelines.io.avro.Record;
+import org.gbif.pipelines.transforms.Transform;
+
+/**
+ * Interprets {@link ExtendedRecord} by all added transforms in one multi-output ParDo, so every
+ * record is decoded once instead of once per interpretation branch. The output of a transform is
+ * available by its tag, {@link Transform#getTag()}.
+ *
+ * <pre>{@code
+ * FusedInterpretationTransform fused =
+ *     FusedInterpretationTransform.create(metadataView)
+ *         .with(basicTransform)
+ *         .with(locationTransform, locationTransform::processElement);
+ *
+ * PCollectionTuple tuple = records.apply("Interpret", fused);
+ * tuple.get(basicTransform.getTag()).apply(basicTransform.write(pathFn));
+ * }</pre>
+ */
+@Slf4j
+public class FusedInterpretationTransform
+    extends PTransform<PCollection<ExtendedRecord>, PCollectionTuple> {
+
+  /** Interprets a record, the metadata record is null if there is no metadata view */
+  @FunctionalInterface
+  public interface Interpreter extends Serializable {
+    Optional<?> interpret(ExtendedRecord source, MetadataRecord mdr);
+  }
+
+  // Main output is always empty, every transform has an additional output
+  private final TupleTag<ExtendedRecord> mainTag = new TupleTag<ExtendedRecord>() {};
+  private final PCollectionView<MetadataRecord> metadataView;
+  private final List<Transform<ExtendedRecord, ?>> transforms = new ArrayList<>();
+  private final List<Interpreter> interpreters = new ArrayList<>();
+
+  private FusedInterpretationTransform(PCollectionView<MetadataRecord> metadataView) {
+    this.metadataView = metadataView;
+  }
+
+  public static FusedInterpretationTransform create(PCollectionView<MetadataRecord> metadataView) {
+    return new FusedInterpretationTransform(metadataView);
+  }
+
+  public static FusedInterpretationTransform create() {
+    return new FusedInterpretationTransform(null);
+  }
+
+  /** Adds a transform which doesn't depend on the metadata record */
+  public FusedInterpretationTransform with(Transform<ExtendedRecord, ?> transform) {
+    return with(transform, (er, mdr) -> transform.processElement(er));
+  }
+
+  /** Adds a transform with a custom interpretation call, e.g. one that uses the metadata record */
+  public FusedInterpretationTransform with(
+      Transform<ExtendedRecord, ?> transform, Interpreter interpreter) {
+    transforms.add(transform);
+    interpreters.add(interpreter);
+    return this;
+  }
+
+  public List<Transform<ExtendedRecord, ?>> getTransforms() {
+    return Collections.unmodifiableList(transforms);
+  }
+
+  @Override
+  public PCollectionTuple expand(PCollection<ExtendedRecord> input) {
+    List<TupleTag<?>> tags =
+        transforms.stream().map(Transform::getTag).collect(Collectors.toList());
+
+    ParDo.MultiOutput<ExtendedRecord, ExtendedRecord> parDo =
+        ParDo.of(new InterpretFn(transforms, interpreters, metadataView))
+            .withOutputTags(mainTag, TupleTagList.of(tags));
+    if (metadataView != null) {
+      parDo = parDo.withSideInputs(metadataView);
+    }
+
+    PCollectionTuple tuple = input.apply("Interpret all record types", parDo);
+
+    // Tags of transforms are generic, coders can't be inferred
+    tuple.get(mainTag).setCoder(AvroCoder.of(ExtendedRecord.class));
+    transforms.forEach(t -> setCoder(tuple, t));
+    return tuple;
+  }
+
+  private static <T extends SpecificRecordBase & Record> void setCoder(
+      PCollectionTuple tuple, Transform<ExtendedRecord, T> transform) {
+    tuple.get(transform.getTag()).setCoder(AvroCoder.of(transform.getReturnClazz()));
+  }
+
+  private static class InterpretFn extends DoFn<ExtendedRecord, ExtendedRecord> {
+
+    private final List<Transform<ExtendedRecord, ?>> transforms;
+    private final List<Interpreter> interpreters;
+    private final PCollectionView<MetadataRecord> metadataView;
+
+    private InterpretFn(
+        List<Transform<ExtendedRecord, ?>> transforms,
+        List<Interpreter> interpreters,
+        PCollectionView<MetadataRecord> metadataView) {
+      this.transforms = new ArrayList<>(transforms);
+      this.interpreters = new ArrayList<>(interpreters);
+      this.metadataView = metadataView;
+    }
+
+    /** Calls @Setup methods of all transforms */
+    @Setup
+    public void setup() {
+      transforms.forEach(t -> DoFnInvokers.invokerFor(t).invokeSetup());
+    }
+
+    /** Calls @Teardown methods of all transforms */
+    @Teardown
+    public void tearDown() {
+      for (Transform<ExtendedRecord, ?> t : transforms) {
+        try {
+          DoFnInvokers.invokerFor(t).invokeTeardown();
+        } catch (RuntimeException ex) {
+          log.warn("Can't tear down {} - {}", t.getBaseName(), ex.getMessage());
+        }
+      }
+    }
+
+    @ProcessElement
+    public void processElement(ProcessContext c) {
+      ExtendedRecord er = c.element();
+      MetadataRecord mdr = metadataView == null ? null : c.sideInput(metadataView);
+      for (int i = 0; i < transforms.size(); i++) {
+        output(c, transforms.get(i), interpreters.get(i).interpret(er, mdr));
+      }
+    }
+
+    private <T extends SpecificRecordBase & Record> void output(
+        ProcessContext c, Transform<ExtendedRecord, T> transform, Optional<?> result) {
+      result.ifPresent(r -> c.output(transform.getTag(), transform.getReturnClazz().cast(r)));
+    }
+  }
+}
@@ -1,8 +1,11 @@
 package org.gbif.pipelines.transforms.converters;
 
 import static org.gbif.pipelines.common.PipelinesVariables.Metrics.AVRO_TO_JSON_COUNT;
+import static org.gbif.pipelines.common.PipelinesVariables.Metrics.INDEXED_FIELDS_NAMESPACE;
 
 import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
 import lombok.Builder;
 import lombok.NonNull;
 import org.apache.beam.sdk.metrics.Counter;
@@ -17,6 +20,7 @@ import org.apache.beam.sdk.values.TupleTag;
 import org.gbif.pipelines.core.converters.MultimediaConverter;
 import org.gbif.pipelines.core.converters.OccurrenceJsonConverter;
 import org.gbif.pipelines.core.converters.ParentJsonConverter;
+import org.gbif.pipelines.core.utils.RecordFieldsUtils;
 import org.gbif.pipelines.io.avro.AudubonRecord;
 import org.gbif.pipelines.io.avro.BasicRecord;
 import org.gbif.pipelines.io.avro.ClusteringRecord;
@@ -29,6 +33,7 @@ import org.gbif.pipelines.io.avro.MultimediaRecord;
 import org.gbif.pipelines.io.avro.TaxonRecord;
 import org.gbif.pipelines.io.avro.TemporalRecord;
 import org.gbif.pipelines.io.avro.grscicoll.GrscicollRecord;
+import org.gbif.pipelines.io.avro.json.OccurrenceJsonRecord;
 
 /**
  * Beam level transformation for the ES output json. The transformation consumes objects, which
@@ -116,6 +121,9 @@ public class OccurrenceJsonTransform implements Serializable {
           private final Counter counter =
               Metrics.counter(OccurrenceJsonTransform.class, AVRO_TO_JSON_COUNT);
 
+          // Counts documents by indexed field, the validator reads them instead of querying ES
+          private final Map<String, Counter> fieldCounters = new HashMap<>();
+
           @ProcessElement
           public void processElement(ProcessContext c) {
             CoGbkResult v = c.element().getValue();
@@ -158,20 +166,28 @@ public class OccurrenceJsonTransform implements Serializable {
                     .multimedia(mmr)
                     .verbatim(er)
                     .build();
+            OccurrenceJsonRecord json = occurrenceJsonConverter.convert();
             if (asParentChildRecord) {
               c.output(
                   ParentJsonConverter.builder()
-                      .occurrenceJsonRecord(occurrenceJsonConverter.convert())
+                      .occurrenceJsonRecord(json)
                       .metadata(mdr)
                       .build()
                       .toJson());
             } else {
               // Occurrence index clients (GraphQL) rely on exinsting fields null vaules
-              c.output(occurrenceJsonConverter.toJsonWithNulls());
+              c.output(OccurrenceJsonConverter.toJsonWithNulls(json));
+              RecordFieldsUtils.forEachPresentField(json, this::incFieldCounter);
             }
 
             counter.inc();
           }
+
+          private void incFieldCounter(String field) {
+            fieldCounters
+                .computeIfAbsent(field, f -> Metrics.counter(INDEXED_FIELDS_NAMESPACE, f))
+                .inc();
+          }
         };
 
     return ParDo.of(fn).withSideInputs(metadataView);
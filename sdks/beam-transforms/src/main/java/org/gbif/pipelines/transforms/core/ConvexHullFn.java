@@ -1,10 +1,12 @@
 package org.gbif.pipelines.transforms.core;
 
 import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
-import java.util.stream.StreamSupport;
 import lombok.Data;
 import org.apache.beam.sdk.transforms.Combine;
 import org.apache.beam.sdk.values.TupleTag;
@@ -19,18 +21,29 @@ public class ConvexHullFn extends Combine.CombineFn<LocationRecord, ConvexHullFn
 
   private static final TupleTag<String> TAG = new TupleTag<String>() {};
 
+  /**
+   * Keeps the coordinates reduced to the vertices of their convex hull. The hull of the vertices of
+   * a hull and new points is the hull of all points, so once the number of coordinates reaches the
+   * compaction threshold they are replaced by the vertices of their hull. Memory and the serialized
+   * size scale with the hull size instead of the number of points.
+   */
   @Data
   public static class Accum implements Serializable {
 
+    private static final int MIN_COMPACT_SIZE = 1024;
+
     private Set<Coordinate> coordinates = new HashSet<>();
+    private int compactSize = MIN_COMPACT_SIZE;
 
     public Accum acc(Set<Coordinate> coordinates) {
       this.coordinates.addAll(coordinates);
+      compactIfNeeded();
       return this;
     }
 
     public Accum acc(Coordinate coordinate) {
       coordinates.add(coordinate);
+      compactIfNeeded();
       return this;
     }
 
@@ -41,6 +54,53 @@ public class ConvexHullFn extends Combine.CombineFn<LocationRecord, ConvexHullFn
       }
       return Optional.empty();
     }
+
+    /** Replaces the coordinates by the vertices of their hull */
+    public Accum compact() {
+      List<Coordinate> vertices = hullVertices(coordinates);
+      coordinates = new HashSet<>(vertices);
+      // Doubling keeps the amortized cost of compaction low if the hull itself is big
+      compactSize = Math.max(MIN_COMPACT_SIZE, 2 * vertices.size());
+      return this;
+    }
+
+    private void compactIfNeeded() {
+      if (coordinates.size() >= compactSize) {
+        compact();
+      }
+    }
+
+    /** Andrew's monotone chain, points on the edges of the hull are dropped */
+    static List<Coordinate> hullVertices(Collection<Coordinate> points) {
+      Coordinate[] sorted = points.toArray(new Coordinate[0]);
+      Arrays.sort(sorted);
+      if (sorted.length < 3) {
+        return Arrays.asList(sorted);
+      }
+      Coordinate[] hull = new Coordinate[2 * sorted.length];
+      int k = 0;
+      // Lower chain
+      for (Coordinate c : sorted) {
+        while (k >= 2 && cross(hull[k - 2], hull[k - 1], c) <= 0) {
+          k--;
+        }
+        hull[k++] = c;
+      }
+      // Upper chain
+      int lowerSize = k + 1;
+      for (int i = sorted.length - 2; i >= 0; i--) {
+        while (k >= lowerSize && cross(hull[k - 2], hull[k - 1], sorted[i]) <= 0) {
+          k--;
+        }
+        hull[k++] = sorted[i];
+      }
+      // The last point is the first one
+      return Arrays.asList(hull).subList(0, k - 1);
+    }
+
+    private static double cross(Coordinate o, Coordinate a, Coordinate b) {
+      return (a.x - o.x) * (b.y - o.y) - (a.y - o.y) * (b.x - o.x);
+    }
   }
 
   @Override
@@ -59,10 +119,9 @@ public class ConvexHullFn extends Combine.CombineFn<LocationRecord, ConvexHullFn
 
   @Override
   public Accum mergeAccumulators(Iterable<Accum> accumulators) {
-    return StreamSupport.stream(accumulators.spliterator(), false)
-        .reduce(
-            new Accum(),
-            (acc1, acc2) -> new Accum().acc(acc1.getCoordinates()).acc(acc2.getCoordinates()));
+    Accum merged = new Accum();
+    accumulators.forEach(accum -> merged.acc(accum.getCoordinates()));
+    return merged;
   }
 
   @Override
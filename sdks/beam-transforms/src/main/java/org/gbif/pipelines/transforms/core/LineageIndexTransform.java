@@ -0,0 +1,172 @@
+package org.gbif.pipelines.transforms.core;
+
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.apache.beam.sdk.coders.KvCoder;
+import org.apache.beam.sdk.coders.SerializableCoder;
+import org.apache.beam.sdk.coders.StringUtf8Coder;
+import org.apache.beam.sdk.transforms.DoFn;
+import org.apache.beam.sdk.transforms.MapElements;
+import org.apache.beam.sdk.transforms.ParDo;
+import org.apache.beam.sdk.transforms.View;
+import org.apache.beam.sdk.values.KV;
+import org.apache.beam.sdk.values.PCollection;
+import org.apache.beam.sdk.values.PCollectionTuple;
+import org.apache.beam.sdk.values.PCollectionView;
+import org.apache.beam.sdk.values.TupleTag;
+import org.apache.beam.sdk.values.TupleTagList;
+import org.apache.beam.sdk.values.TypeDescriptor;
+import org.gbif.pipelines.common.beam.coders.AvroKvCoder;
+import org.gbif.pipelines.io.avro.EventCoreRecord;
+import org.gbif.pipelines.io.avro.LocationRecord;
+import org.gbif.pipelines.io.avro.TemporalRecord;
+import org.gbif.pipelines.io.avro.json.EventInheritedRecord;
+import org.gbif.pipelines.io.avro.json.LocationInheritedRecord;
+import org.gbif.pipelines.io.avro.json.TemporalInheritedRecord;
+import org.gbif.pipelines.transforms.core.EventInheritedFieldsFn.EventInheritedFields;
+import org.gbif.pipelines.transforms.core.LocationInheritedFieldsFn.LocationInheritedFields;
+import org.gbif.pipelines.transforms.core.TemporalInheritedFieldsFn.TemporalInheritedFields;
+
+/**
+ * Resolves the event tree once and computes the location, temporal and event inherited fields of
+ * all events in one pass.
+ *
+ * <p>The inheritable fields of every event, which include the id of its parent, are indexed by
+ * event id and broadcast as side inputs. Ancestors of an event are found by following the parent
+ * pointers, instead of expanding the lineage into edges and joining them per record type. The
+ * records of an event and its ancestors are accumulated by the same accumulators {@link
+ * LocationInheritedFieldsFn}, {@link TemporalInheritedFieldsFn} and {@link EventInheritedFieldsFn}
+ * use, so the results are identical. The index holds a few fields per event and must fit into the
+ * memory of a worker.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class LineageIndexTransform {
+
+  public static final TupleTag<KV<String, EventInheritedRecord>> EVENT_TAG =
+      new TupleTag<KV<String, EventInheritedRecord>>() {};
+
+  public static final TupleTag<KV<String, LocationInheritedRecord>> LOCATION_TAG =
+      new TupleTag<KV<String, LocationInheritedRecord>>() {};
+
+  public static final TupleTag<KV<String, TemporalInheritedRecord>> TEMPORAL_TAG =
+      new TupleTag<KV<String, TemporalInheritedRecord>>() {};
+
+  /**
+   * Returns inherited records of all events by {@link #EVENT_TAG}, {@link #LOCATION_TAG} and {@link
+   * #TEMPORAL_TAG}. As with the combine functions, location and temporal inherited records are
+   * produced for events which have a location or temporal record only.
+   */
+  public static PCollectionTuple inheritFields(
+      PCollection<KV<String, EventCoreRecord>> eventCoreCollection,
+      PCollection<KV<String, LocationRecord>> locationCollection,
+      PCollection<KV<String, TemporalRecord>> temporalCollection) {
+
+    PCollectionView<Map<String, EventInheritedFields>> eventView =
+        eventCoreCollection
+            .apply(
+                "Index event lineage",
+                MapElements.into(new TypeDescriptor<KV<String, EventInheritedFields>>() {})
+                    .via(kv -> KV.of(kv.getKey(), EventInheritedFields.from(kv.getValue()))))
+            .setCoder(
+                KvCoder.of(StringUtf8Coder.of(), SerializableCoder.of(EventInheritedFields.class)))
+            .apply("Event lineage as map", View.asMap());
+
+    PCollectionView<Map<String, LocationInheritedFields>> locationView =
+        locationCollection
+            .apply(
+                "Index location lineage",
+                MapElements.into(new TypeDescriptor<KV<String, LocationInheritedFields>>() {})
+                    .via(kv -> KV.of(kv.getKey(), LocationInheritedFields.from(kv.getValue()))))
+            .setCoder(
+                KvCoder.of(
+                    StringUtf8Coder.of(), SerializableCoder.of(LocationInheritedFields.class)))
+            .apply("Location lineage as map", View.asMap());
+
+    PCollectionView<Map<String, TemporalInheritedFields>> temporalView =
+        temporalCollection
+            .apply(
+                "Index temporal lineage",
+                MapElements.into(new TypeDescriptor<KV<String, TemporalInheritedFields>>() {})
+                    .via(kv -> KV.of(kv.getKey(), TemporalInheritedFields.from(kv.getValue()))))
+            .setCoder(
+                KvCoder.of(
+                    StringUtf8Coder.of(), SerializableCoder.of(TemporalInheritedFields.class)))
+            .apply("Temporal lineage as map", View.asMap());
+
+    PCollectionTuple tuple =
+        eventCoreCollection.apply(
+            "Inherit fields of all events",
+            ParDo.of(new InheritFieldsFn(eventView, locationView, temporalView))
+                .withSideInputs(eventView, locationView, temporalView)
+                .withOutputTags(EVENT_TAG, TupleTagList.of(LOCATION_TAG).and(TEMPORAL_TAG)));
+
+    tuple.get(EVENT_TAG).setCoder(AvroKvCoder.of(EventInheritedRecord.class));
+    tuple.get(LOCATION_TAG).setCoder(AvroKvCoder.of(LocationInheritedRecord.class));
+    tuple.get(TEMPORAL_TAG).setCoder(AvroKvCoder.of(TemporalInheritedRecord.class));
+    return tuple;
+  }
+
+  /**
+   * Accumulates the leaf and all its ancestors, following the parent pointers. The number of steps
+   * is limited by the index size, which protects from cycles in the data.
+   */
+  static <T> void accLineage(
+      T leaf, Map<String, T> index, Function<T, String> parentFn, Consumer<T> acc) {
+    T current = leaf;
+    for (int step = 0; current != null && step <= index.size(); step++) {
+      acc.accept(current);
+      String parentId = parentFn.apply(current);
+      current = parentId == null ? null : index.get(parentId);
+    }
+  }
+
+  private static class InheritFieldsFn
+      extends DoFn<KV<String, EventCoreRecord>, KV<String, EventInheritedRecord>> {
+
+    private final PCollectionView<Map<String, EventInheritedFields>> eventView;
+    private final PCollectionView<Map<String, LocationInheritedFields>> locationView;
+    private final PCollectionView<Map<String, TemporalInheritedFields>> temporalView;
+
+    private InheritFieldsFn(
+        PCollectionView<Map<String, EventInheritedFields>> eventView,
+        PCollectionView<Map<String, LocationInheritedFields>> locationView,
+        PCollectionView<Map<String, TemporalInheritedFields>> temporalView) {
+      this.eventView = eventView;
+      this.locationView = locationView;
+      this.temporalView = temporalView;
+    }
+
+    @ProcessElement
+    public void processElement(ProcessContext c) {
+      String id = c.element().getKey();
+
+      Map<String, EventInheritedFields> events = c.sideInput(eventView);
+      EventInheritedFieldsFn.Accum eventAccum = new EventInheritedFieldsFn.Accum();
+      accLineage(
+          EventInheritedFields.from(c.element().getValue()),
+          events,
+          EventInheritedFields::getParentEventID,
+          eventAccum::acc);
+      c.output(KV.of(id, eventAccum.toLeafChild()));
+
+      Map<String, LocationInheritedFields> locations = c.sideInput(locationView);
+      LocationInheritedFields location = locations.get(id);
+      if (location != null) {
+        LocationInheritedFieldsFn.Accum accum = new LocationInheritedFieldsFn.Accum();
+        accLineage(location, locations, LocationInheritedFields::getParentId, accum::acc);
+        c.output(LOCATION_TAG, KV.of(id, accum.toLeafChild()));
+      }
+
+      Map<String, TemporalInheritedFields> temporals = c.sideInput(temporalView);
+      TemporalInheritedFields temporal = temporals.get(id);
+      if (temporal != null) {
+        TemporalInheritedFieldsFn.Accum accum = new TemporalInheritedFieldsFn.Accum();
+        accLineage(temporal, temporals, TemporalInheritedFields::getParentId, accum::acc);
+        c.output(TEMPORAL_TAG, KV.of(id, accum.toLeafChild()));
+      }
+    }
+  }
+}
@@ -18,7 +18,7 @@ import org.gbif.kvs.KeyValueStore;
 import org.gbif.kvs.geocode.LatLng;
 import org.gbif.pipelines.core.functions.SerializableConsumer;
 import org.gbif.pipelines.core.functions.SerializableSupplier;
-import org.gbif.pipelines.core.interpreters.Interpretation;
+import org.gbif.pipelines.core.interpreters.InterpretationPlan;
 import org.gbif.pipelines.core.interpreters.core.LocationInterpreter;
 import org.gbif.pipelines.io.avro.ExtendedRecord;
 import org.gbif.pipelines.io.avro.LocationRecord;
@@ -43,6 +43,8 @@ public class LocationTransform extends Transform<ExtendedRecord, LocationRecord>
 
   private PCollectionView<MetadataRecord> metadataView;
 
+  private transient KV<MetadataRecord, InterpretationPlan<ExtendedRecord, LocationRecord>> plan;
+
   @Builder(buildMethodName = "create")
   protected LocationTransform(
       SerializableSupplier<KeyValueStore<LatLng, GeocodeResponse>> geocodeKvStoreSupplier,
@@ -124,8 +126,25 @@ public class LocationTransform extends Transform<ExtendedRecord, LocationRecord>
   }
 
   public Optional<LocationRecord> processElement(ExtendedRecord source, MetadataRecord mdr) {
+    return getPlan(mdr).getOfNullable(source);
+  }
+
+  /**
+   * The plan is compiled once and recompiled only if the metadata side input changes, which is
+   * normally the same object for all elements. The plan and its metadata are kept in one immutable
+   * pair, so concurrent callers of the Java pipelines always see a consistent plan
+   */
+  private InterpretationPlan<ExtendedRecord, LocationRecord> getPlan(MetadataRecord mdr) {
+    KV<MetadataRecord, InterpretationPlan<ExtendedRecord, LocationRecord>> current = plan;
+    if (current == null || current.getKey() != mdr) {
+      current = KV.of(mdr, compilePlan(mdr));
+      plan = current;
+    }
+    return current.getValue();
+  }
 
-    return Interpretation.from(source)
+  private InterpretationPlan<ExtendedRecord, LocationRecord> compilePlan(MetadataRecord mdr) {
+    return InterpretationPlan.<ExtendedRecord, LocationRecord>builder()
         .to(
             er ->
                 LocationRecord.newBuilder()
@@ -158,6 +177,6 @@ public class LocationTransform extends Transform<ExtendedRecord, LocationRecord>
         .via(LocationInterpreter::setCoreId)
         .via(LocationInterpreter::setParentEventId)
         .via(r -> this.incCounter())
-        .getOfNullable();
+        .compile();
   }
 }
@@ -54,17 +54,22 @@ public class UniqueGbifIdTransform {
   private SerializableConsumer<String> counterFn;
 
   public UniqueGbifIdTransform run() {
-    return useSyncMode ? runSync() : runAsync();
+    return run(erMap);
+  }
+
+  /** Processes a chunk of records, results are accumulated across calls */
+  public UniqueGbifIdTransform run(Map<String, ExtendedRecord> chunk) {
+    return useSyncMode ? runSync(chunk) : runAsync(chunk);
   }
 
   @SneakyThrows
-  private UniqueGbifIdTransform runAsync() {
+  private UniqueGbifIdTransform runAsync(Map<String, ExtendedRecord> chunk) {
     // Filter GBIF id duplicates
     Consumer<ExtendedRecord> interpretIdFn = filterByGbifId();
 
     // Run async
     CompletableFuture<?>[] idFutures =
-        erMap.values().stream()
+        chunk.values().stream()
             .map(v -> CompletableFuture.runAsync(() -> interpretIdFn.accept(v), executor))
             .toArray(CompletableFuture[]::new);
     CompletableFuture.allOf(idFutures).get();
@@ -73,8 +78,8 @@ public class UniqueGbifIdTransform {
   }
 
   @SneakyThrows
-  private UniqueGbifIdTransform runSync() {
-    erMap.values().forEach(filterByGbifId());
+  private UniqueGbifIdTransform runSync(Map<String, ExtendedRecord> chunk) {
+    chunk.values().forEach(filterByGbifId());
 
     return this;
   }
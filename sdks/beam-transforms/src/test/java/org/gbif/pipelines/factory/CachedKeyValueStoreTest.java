@@ -0,0 +1,130 @@
+package org.gbif.pipelines.factory;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.gbif.kvs.KeyValueStore;
+import org.gbif.kvs.geocode.LatLng;
+import org.gbif.kvs.species.Identification;
+import org.gbif.pipelines.core.config.model.KvConfig;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CachedKeyValueStoreTest {
+
+  private static final String HIT = "testCacheHitCount";
+  private static final String MISS = "testCacheMissCount";
+  private static final String LOAD = "testCacheLoadTimeMs";
+
+  private static KeyValueStore<String, String> countingStore(AtomicInteger counter) {
+    return new KeyValueStore<String, String>() {
+      @Override
+      public String get(String key) {
+        counter.incrementAndGet();
+        return "null".equals(key) ? null : key.toUpperCase();
+      }
+
+      @Override
+      public void close() {
+        // NOP
+      }
+    };
+  }
+
+  private static KeyValueStore<String, String> cachedStore() {
+    return CachedKeyValueStore.<String, String>builder()
+        .kvStore(countingStore(new AtomicInteger()))
+        .config(new KvConfig())
+        .hitMetric(HIT)
+        .missMetric(MISS)
+        .loadTimeMetric(LOAD)
+        .create();
+  }
+
+  @Test
+  public void cacheHitMissTest() {
+    // State
+    AtomicInteger counter = new AtomicInteger();
+    CachedKeyValueStore<String, String> store =
+        CachedKeyValueStore.<String, String>builder()
+            .kvStore(countingStore(counter))
+            .config(new KvConfig())
+            .keyFn(String::trim)
+            .hitMetric(HIT)
+            .missMetric(MISS)
+            .loadTimeMetric(LOAD)
+            .create();
+
+    // When
+    String first = store.get("a");
+    String second = store.get(" a ");
+    store.get("null");
+    store.get("null");
+
+    Map<String, Long> metrics = new HashMap<>();
+    store.drainMetrics(metrics::put);
+
+    // Should
+    Assert.assertEquals("A", first);
+    Assert.assertEquals("A", second);
+    Assert.assertEquals(3, counter.get());
+    Assert.assertEquals(Long.valueOf(1L), metrics.get(HIT));
+    Assert.assertEquals(Long.valueOf(3L), metrics.get(MISS));
+  }
+
+  @Test
+  public void drainMetricsResetTest() {
+    // State
+    KeyValueStore<String, String> store = cachedStore();
+    KeyValueStore<String, String> other = cachedStore();
+    store.get("a");
+    other.get("a");
+    other.get("b");
+
+    // When
+    CachedKeyValueStore.drainMetrics(store, (name, value) -> {});
+    Map<String, Long> metrics = new HashMap<>();
+    CachedKeyValueStore.drainMetrics(store, metrics::put);
+    Map<String, Long> otherMetrics = new HashMap<>();
+    CachedKeyValueStore.drainMetrics(other, otherMetrics::put);
+
+    // Should
+    Assert.assertEquals(Long.valueOf(0L), metrics.get(MISS));
+    Assert.assertEquals(Long.valueOf(2L), otherMetrics.get(MISS));
+  }
+
+  @Test
+  public void roundLatLngTest() {
+    // State
+    LatLng latLng = LatLng.builder().withLatitude(10.123456d).withLongitude(-20.987654d).build();
+
+    // When
+    LatLng rounded = GeocodeKvStoreFactory.roundFn(3).apply(latLng);
+    LatLng same = GeocodeKvStoreFactory.roundFn(null).apply(latLng);
+
+    // Should
+    Assert.assertEquals(10.123d, rounded.getLatitude(), 0d);
+    Assert.assertEquals(-20.988d, rounded.getLongitude(), 0d);
+    Assert.assertSame(latLng, same);
+  }
+
+  @Test
+  public void canonicaliseIdentificationTest() {
+    // State
+    Identification one =
+        Identification.builder()
+            .withKingdom(" Animalia")
+            .withScientificName("Puma  concolor ")
+            .build();
+    Identification two =
+        Identification.builder()
+            .withKingdom("Animalia")
+            .withScientificName("Puma concolor")
+            .withGenus(" ")
+            .build();
+
+    // Should
+    Assert.assertEquals(
+        NameUsageMatchStoreFactory.canonicalise(one), NameUsageMatchStoreFactory.canonicalise(two));
+  }
+}
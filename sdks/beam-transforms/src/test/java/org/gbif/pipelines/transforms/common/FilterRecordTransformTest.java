@@ -1,6 +1,10 @@
 package org.gbif.pipelines.transforms.common;
 
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
 import java.util.Collections;
+import org.apache.beam.sdk.coders.AvroCoder;
 import org.apache.beam.sdk.testing.NeedsRunner;
 import org.apache.beam.sdk.testing.PAssert;
 import org.apache.beam.sdk.testing.TestPipeline;
@@ -9,6 +13,7 @@ import org.apache.beam.sdk.transforms.join.CoGroupByKey;
 import org.apache.beam.sdk.transforms.join.KeyedPCollectionTuple;
 import org.apache.beam.sdk.values.KV;
 import org.apache.beam.sdk.values.PCollection;
+import org.apache.beam.sdk.values.PCollectionView;
 import org.gbif.pipelines.io.avro.ExtendedRecord;
 import org.gbif.pipelines.io.avro.IdentifierRecord;
 import org.gbif.pipelines.transforms.core.VerbatimTransform;
@@ -107,4 +112,72 @@ public class FilterRecordTransformTest {
     PAssert.that(result).empty();
     p.run();
   }
+
+  @Test
+  public void filterSideInputTest() {
+
+    // State
+    ExtendedRecord valid = ExtendedRecord.newBuilder().setId("777").build();
+    ExtendedRecord invalid = ExtendedRecord.newBuilder().setId("778").build();
+    ExtendedRecord absent = ExtendedRecord.newBuilder().setId("779").build();
+    IdentifierRecord validIr =
+        IdentifierRecord.newBuilder().setId("777").setInternalId("1").setFirstLoaded(1L).build();
+    IdentifierRecord invalidIr =
+        IdentifierRecord.newBuilder().setId("778").setFirstLoaded(1L).build();
+
+    // When
+    PCollectionView<long[]> validIdsView =
+        p.apply("Read IdentifierRecord", Create.of(validIr, invalidIr))
+            .apply("Valid ids view", FilterRecordsTransform.validIdsView());
+
+    PCollection<ExtendedRecord> result =
+        p.apply("Read ExtendedRecord", Create.of(valid, invalid, absent))
+            .apply("Filter verbatim", FilterRecordsTransform.filter(validIdsView));
+
+    // Should
+    PAssert.that(result).containsInAnyOrder(valid);
+    p.run();
+  }
+
+  @Test
+  public void filterSideInputEmptyTest() {
+
+    // State
+    ExtendedRecord er = ExtendedRecord.newBuilder().setId("777").build();
+
+    // When
+    PCollectionView<long[]> validIdsView =
+        p.apply("Read IdentifierRecord", Create.empty(AvroCoder.of(IdentifierRecord.class)))
+            .apply("Valid ids view", FilterRecordsTransform.validIdsView());
+
+    PCollection<ExtendedRecord> result =
+        p.apply("Read ExtendedRecord", Create.of(er))
+            .apply("Filter verbatim", FilterRecordsTransform.filter(validIdsView));
+
+    // Should
+    PAssert.that(result).empty();
+    p.run();
+  }
+
+  @Test
+  public void sortedHashesTest() {
+
+    // State
+    FilterRecordsTransform.SortedHashesFn fn = new FilterRecordsTransform.SortedHashesFn();
+    FilterRecordsTransform.Hashes first = fn.createAccumulator();
+    FilterRecordsTransform.Hashes second = fn.createAccumulator();
+
+    // When
+    for (long i = 40; i > 0; i--) {
+      fn.addInput(first, i);
+    }
+    fn.addInput(second, 5L);
+    fn.addInput(second, 41L);
+    long[] result = fn.extractOutput(fn.mergeAccumulators(Arrays.asList(first, second)));
+
+    // Should
+    assertEquals(41, result.length);
+    assertEquals(1L, result[0]);
+    assertEquals(41L, result[40]);
+  }
 }
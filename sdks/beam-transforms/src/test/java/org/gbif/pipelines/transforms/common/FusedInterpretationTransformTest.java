@@ -0,0 +1,92 @@
+package org.gbif.pipelines.transforms.common;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import org.apache.beam.sdk.testing.NeedsRunner;
+import org.apache.beam.sdk.testing.PAssert;
+import org.apache.beam.sdk.testing.TestPipeline;
+import org.apache.beam.sdk.transforms.Create;
+import org.apache.beam.sdk.transforms.DoFn;
+import org.apache.beam.sdk.transforms.ParDo;
+import org.apache.beam.sdk.values.PCollection;
+import org.apache.beam.sdk.values.PCollectionTuple;
+import org.gbif.dwc.terms.DwcTerm;
+import org.gbif.pipelines.io.avro.EventDate;
+import org.gbif.pipelines.io.avro.ExtendedRecord;
+import org.gbif.pipelines.io.avro.TemporalRecord;
+import org.gbif.pipelines.transforms.core.TemporalTransform;
+import org.gbif.pipelines.transforms.core.VerbatimTransform;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+@Category(NeedsRunner.class)
+public class FusedInterpretationTransformTest {
+
+  @Rule public final transient TestPipeline p = TestPipeline.create();
+
+  private static class CleanDateCreate extends DoFn<TemporalRecord, TemporalRecord> {
+
+    @ProcessElement
+    public void processElement(ProcessContext context) {
+      TemporalRecord tr = TemporalRecord.newBuilder(context.element()).build();
+      tr.setCreated(0L);
+      context.output(tr);
+    }
+  }
+
+  @Test
+  public void fusedInterpretationTest() {
+    // State
+    ExtendedRecord record = ExtendedRecord.newBuilder().setId("0").build();
+    record.getCoreTerms().put(DwcTerm.year.qualifiedName(), "1999");
+    record.getCoreTerms().put(DwcTerm.month.qualifiedName(), "2");
+    record.getCoreTerms().put(DwcTerm.day.qualifiedName(), "2");
+    record.getCoreTerms().put(DwcTerm.eventDate.qualifiedName(), "1999-02-02");
+    final List<ExtendedRecord> input = Collections.singletonList(record);
+
+    VerbatimTransform verbatimTransform = VerbatimTransform.create();
+    TemporalTransform temporalTransform = TemporalTransform.builder().create();
+
+    // Expected
+    final List<TemporalRecord> temporalExpected =
+        Collections.singletonList(
+            TemporalRecord.newBuilder()
+                .setId("0")
+                .setYear(1999)
+                .setMonth(2)
+                .setDay(2)
+                .setStartDayOfYear(33)
+                .setEndDayOfYear(33)
+                .setEventDate(
+                    EventDate.newBuilder()
+                        .setInterval("1999-02-02")
+                        .setGte("1999-02-02T00:00:00.000")
+                        .setLte("1999-02-02T23:59:59.999")
+                        .build())
+                .setCreated(0L)
+                .build());
+
+    // When
+    PCollectionTuple tuple =
+        p.apply(Create.of(input))
+            .apply(
+                FusedInterpretationTransform.create()
+                    .with(verbatimTransform, (er, mdr) -> Optional.of(er))
+                    .with(temporalTransform));
+
+    PCollection<TemporalRecord> temporalStream =
+        tuple
+            .get(temporalTransform.getTag())
+            .apply("Cleaning timestamps", ParDo.of(new CleanDateCreate()));
+
+    // Should
+    PAssert.that(tuple.get(verbatimTransform.getTag())).containsInAnyOrder(input);
+    PAssert.that(temporalStream).containsInAnyOrder(temporalExpected);
+    p.run();
+  }
+}
@@ -1,10 +1,13 @@
 package org.gbif.pipelines.transforms.core;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Random;
 import lombok.SneakyThrows;
+import org.gbif.pipelines.core.parsers.location.parser.ConvexHullParser;
 import org.junit.Assert;
 import org.junit.Test;
 import org.locationtech.jts.geom.Coordinate;
@@ -35,6 +38,31 @@ public class ConvexHullFnTest {
     assertAccum(accum2, geometry);
   }
 
+  @Test
+  public void compactionTest() {
+    // State
+    Random random = new Random(1);
+    List<Coordinate> coordinates = new ArrayList<>();
+    for (int i = 0; i < 100_000; i++) {
+      coordinates.add(new Coordinate(random.nextDouble() * 10d, random.nextDouble() * 10d));
+    }
+    ConvexHullFn fn = new ConvexHullFn();
+    ConvexHullFn.Accum accum1 = fn.createAccumulator();
+    ConvexHullFn.Accum accum2 = fn.createAccumulator();
+
+    // When
+    for (int i = 0; i < coordinates.size(); i++) {
+      (i % 2 == 0 ? accum1 : accum2).acc(coordinates.get(i));
+    }
+    ConvexHullFn.Accum merged = fn.mergeAccumulators(Arrays.asList(accum1, accum2));
+
+    // Should
+    Geometry geometry = ConvexHullParser.fromCoordinates(coordinates).getConvexHull();
+    Assert.assertTrue(accum1.getCoordinates().size() < 1024);
+    Assert.assertTrue(merged.getCoordinates().size() < 1024);
+    assertAccum(merged, geometry);
+  }
+
   /** Test the that an accumulator produces the same convex hull as the one produced by JTS. */
   private void assertAccum(ConvexHullFn.Accum accum, Geometry geometry) {
     WKTWriter wktWriter = new WKTWriter();
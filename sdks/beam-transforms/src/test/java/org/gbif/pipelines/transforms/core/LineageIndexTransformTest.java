@@ -0,0 +1,303 @@
+package org.gbif.pipelines.transforms.core;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.beam.sdk.testing.NeedsRunner;
+import org.apache.beam.sdk.testing.PAssert;
+import org.apache.beam.sdk.testing.TestPipeline;
+import org.apache.beam.sdk.transforms.Combine;
+import org.apache.beam.sdk.transforms.Create;
+import org.apache.beam.sdk.transforms.Flatten;
+import org.apache.beam.sdk.transforms.Values;
+import org.apache.beam.sdk.transforms.join.CoGroupByKey;
+import org.apache.beam.sdk.transforms.join.KeyedPCollectionTuple;
+import org.apache.beam.sdk.values.KV;
+import org.apache.beam.sdk.values.PCollection;
+import org.apache.beam.sdk.values.PCollectionList;
+import org.apache.beam.sdk.values.PCollectionTuple;
+import org.gbif.pipelines.common.beam.coders.AvroKvCoder;
+import org.gbif.pipelines.core.pojo.Edge;
+import org.gbif.pipelines.io.avro.EventCoreRecord;
+import org.gbif.pipelines.io.avro.LocationRecord;
+import org.gbif.pipelines.io.avro.Parent;
+import org.gbif.pipelines.io.avro.TemporalRecord;
+import org.gbif.pipelines.io.avro.json.EventInheritedRecord;
+import org.gbif.pipelines.io.avro.json.LocationInheritedRecord;
+import org.gbif.pipelines.io.avro.json.TemporalInheritedRecord;
+import org.gbif.pipelines.transforms.converters.ParentEventExpandTransform;
+import org.gbif.pipelines.transforms.core.LocationInheritedFieldsFn.LocationInheritedFields;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests for LineageIndexTransform. */
+@RunWith(JUnit4.class)
+@Category(NeedsRunner.class)
+public class LineageIndexTransformTest {
+
+  private final EventCoreTransform eventCoreTransform = EventCoreTransform.builder().create();
+  private final LocationTransform locationTransform = LocationTransform.builder().create();
+  private final TemporalTransform temporalTransform = TemporalTransform.builder().create();
+
+  @Rule public final transient TestPipeline p = TestPipeline.create();
+
+  @Test
+  public void inheritFieldsTest() {
+    // State
+    // 1 <- 2 <- 3
+    //        <- 4, which has no location record
+    List<KV<String, EventCoreRecord>> events =
+        Arrays.asList(
+            KV.of("1", event("1", null, null)),
+            KV.of("2", event("2", "L2", "1", parent("1", "Survey"))),
+            KV.of("3", event("3", null, "2", parent("2", "Site"), parent("1", "Survey"))),
+            KV.of("4", event("4", null, "2", parent("2", "Site"), parent("1", "Survey"))));
+
+    List<KV<String, LocationRecord>> locations =
+        Arrays.asList(
+            KV.of(
+                "1",
+                LocationRecord.newBuilder()
+                    .setId("1")
+                    .setHasCoordinate(true)
+                    .setDecimalLatitude(1.0d)
+                    .setDecimalLongitude(91.0d)
+                    .build()),
+            KV.of("2", LocationRecord.newBuilder().setId("2").setParentId("1").build()),
+            KV.of("3", LocationRecord.newBuilder().setId("3").setParentId("2").build()));
+
+    List<KV<String, TemporalRecord>> temporals =
+        Arrays.asList(
+            KV.of("1", TemporalRecord.newBuilder().setId("1").setYear(2000).build()),
+            KV.of("2", TemporalRecord.newBuilder().setId("2").setParentId("1").setMonth(5).build()),
+            KV.of("3", TemporalRecord.newBuilder().setId("3").setParentId("2").build()),
+            KV.of("4", TemporalRecord.newBuilder().setId("4").setParentId("2").setDay(10).build()));
+
+    List<KV<String, EventInheritedRecord>> expectedEvents =
+        Arrays.asList(
+            KV.of("1", EventInheritedRecord.newBuilder().build()),
+            KV.of(
+                "2",
+                EventInheritedRecord.newBuilder()
+                    .setId("2")
+                    .setEventType(Collections.singletonList("Survey"))
+                    .build()),
+            KV.of("3", inheritedEvent("3")),
+            KV.of("4", inheritedEvent("4")));
+
+    List<KV<String, LocationInheritedRecord>> expectedLocations =
+        Arrays.asList(
+            KV.of("1", LocationInheritedRecord.newBuilder().build()),
+            KV.of("2", inheritedLocation("2")),
+            KV.of("3", inheritedLocation("3")));
+
+    List<KV<String, TemporalInheritedRecord>> expectedTemporals =
+        Arrays.asList(
+            KV.of("1", TemporalInheritedRecord.newBuilder().build()),
+            KV.of("2", TemporalInheritedRecord.newBuilder().build()),
+            KV.of(
+                "3",
+                TemporalInheritedRecord.newBuilder()
+                    .setId("3")
+                    .setInheritedFrom("2")
+                    .setMonth(5)
+                    .build()),
+            KV.of("4", TemporalInheritedRecord.newBuilder().build()));
+
+    PCollection<KV<String, EventCoreRecord>> eventCollection =
+        p.apply(
+            "Create events", Create.of(events).withCoder(AvroKvCoder.of(EventCoreRecord.class)));
+    PCollection<KV<String, LocationRecord>> locationCollection =
+        p.apply(
+            "Create locations",
+            Create.of(locations).withCoder(AvroKvCoder.of(LocationRecord.class)));
+    PCollection<KV<String, TemporalRecord>> temporalCollection =
+        p.apply(
+            "Create temporals",
+            Create.of(temporals).withCoder(AvroKvCoder.of(TemporalRecord.class)));
+
+    // When
+    PCollectionTuple result =
+        LineageIndexTransform.inheritFields(
+            eventCollection, locationCollection, temporalCollection);
+
+    // Should
+    PAssert.that(result.get(LineageIndexTransform.EVENT_TAG))
+        .containsInAnyOrder(expectedEvents);
+    PAssert.that(result.get(LineageIndexTransform.LOCATION_TAG))
+        .containsInAnyOrder(expectedLocations);
+    PAssert.that(result.get(LineageIndexTransform.TEMPORAL_TAG))
+        .containsInAnyOrder(expectedTemporals);
+
+    // The combine-based path produces the same records
+    PAssert.that(inheritEventFields(eventCollection)).containsInAnyOrder(expectedEvents);
+    PAssert.that(inheritLocationFields(eventCollection, locationCollection))
+        .containsInAnyOrder(expectedLocations);
+    PAssert.that(inheritTemporalFields(eventCollection, temporalCollection))
+        .containsInAnyOrder(expectedTemporals);
+    p.run();
+  }
+
+  @Test
+  public void accLineageTest() {
+    // State
+    List<LocationRecord> records =
+        Arrays.asList(
+            LocationRecord.newBuilder()
+                .setId("1")
+                .setHasCoordinate(true)
+                .setDecimalLatitude(0.0d)
+                .setDecimalLongitude(90.0d)
+                .build(),
+            LocationRecord.newBuilder()
+                .setId("2")
+                .setParentId("1")
+                .setHasCoordinate(true)
+                .setDecimalLatitude(1.0d)
+                .setDecimalLongitude(91.0d)
+                .build(),
+            LocationRecord.newBuilder().setId("3").setParentId("2").build(),
+            LocationRecord.newBuilder().setId("4").setParentId("2").build());
+
+    Map<String, LocationInheritedFields> index = new HashMap<>();
+    records.forEach(r -> index.put(r.getId(), LocationInheritedFields.from(r)));
+
+    // When
+    LocationInheritedFieldsFn.Accum accum = new LocationInheritedFieldsFn.Accum();
+    LineageIndexTransform.accLineage(
+        index.get("3"), index, LocationInheritedFields::getParentId, accum::acc);
+    LocationInheritedRecord result = accum.toLeafChild();
+
+    // Should
+    LocationInheritedFieldsFn fn = new LocationInheritedFieldsFn();
+    LocationInheritedFieldsFn.Accum expected = fn.createAccumulator();
+    fn.addInput(expected, records.get(0));
+    fn.addInput(expected, records.get(1));
+    fn.addInput(expected, records.get(2));
+
+    assertEquals(3, accum.getRecordsMap().size());
+    assertEquals(fn.extractOutput(expected), result);
+    assertEquals(Double.valueOf(1.0d), result.getDecimalLatitude());
+    assertEquals(Double.valueOf(91.0d), result.getDecimalLongitude());
+  }
+
+  @Test
+  public void accLineageCycleTest() {
+    // State
+    Map<String, LocationInheritedFields> index = new HashMap<>();
+    index.put(
+        "1",
+        LocationInheritedFields.from(
+            LocationRecord.newBuilder().setId("1").setParentId("2").build()));
+    index.put(
+        "2",
+        LocationInheritedFields.from(
+            LocationRecord.newBuilder().setId("2").setParentId("1").build()));
+
+    // When
+    LocationInheritedFieldsFn.Accum accum = new LocationInheritedFieldsFn.Accum();
+    LineageIndexTransform.accLineage(
+        index.get("1"), index, LocationInheritedFields::getParentId, accum::acc);
+
+    // Should
+    assertEquals(2, accum.getRecordsMap().size());
+  }
+
+  /** Same as the combine-based path of EventToEsIndexPipeline */
+  private PCollection<KV<String, LocationInheritedRecord>> inheritLocationFields(
+      PCollection<KV<String, EventCoreRecord>> eventCollection,
+      PCollection<KV<String, LocationRecord>> locationCollection) {
+    PCollection<KV<String, LocationRecord>> locationRecordsOfSubEvents =
+        ParentEventExpandTransform.createLocationTransform(
+                locationTransform.getTag(),
+                eventCoreTransform.getTag(),
+                locationTransform.getEdgeTag())
+            .toSubEventsRecordsFromLeaf("Location", locationCollection, eventCollection);
+
+    return PCollectionList.of(locationCollection)
+        .and(locationRecordsOfSubEvents)
+        .apply("Joining location records for inheritance", Flatten.pCollections())
+        .apply(
+            "Inherit location fields of all records",
+            Combine.perKey(new LocationInheritedFieldsFn()));
+  }
+
+  /** Same as the combine-based path of EventToEsIndexPipeline */
+  private PCollection<KV<String, TemporalInheritedRecord>> inheritTemporalFields(
+      PCollection<KV<String, EventCoreRecord>> eventCollection,
+      PCollection<KV<String, TemporalRecord>> temporalCollection) {
+    PCollection<KV<String, TemporalRecord>> temporalRecordsOfSubEvents =
+        ParentEventExpandTransform.createTemporalTransform(
+                temporalTransform.getTag(),
+                eventCoreTransform.getTag(),
+                temporalTransform.getEdgeTag())
+            .toSubEventsRecordsFromLeaf("Temporal", temporalCollection, eventCollection);
+
+    return PCollectionList.of(temporalCollection)
+        .and(temporalRecordsOfSubEvents)
+        .apply("Joining temporal records for inheritance", Flatten.pCollections())
+        .apply(
+            "Inherit temporal fields of all records",
+            Combine.perKey(new TemporalInheritedFieldsFn()));
+  }
+
+  /** Same as the combine-based path of EventToEsIndexPipeline */
+  private PCollection<KV<String, EventInheritedRecord>> inheritEventFields(
+      PCollection<KV<String, EventCoreRecord>> eventCollection) {
+    InheritedFieldsTransform inheritedFieldsTransform = InheritedFieldsTransform.builder().build();
+    PCollection<KV<String, Edge<EventCoreRecord>>> parentEdgeEvents =
+        eventCollection
+            .apply("Get EventCoreRecord values", Values.create())
+            .apply(
+                "Group by child and parent", inheritedFieldsTransform.childToParentEdgeConverter())
+            .setCoder(AvroKvCoder.ofEdge(EventCoreRecord.class));
+
+    return KeyedPCollectionTuple.of(eventCoreTransform.getTag(), eventCollection)
+        .and(eventCoreTransform.getEdgeTag(), parentEdgeEvents)
+        .apply("Join events with parent collections", CoGroupByKey.create())
+        .apply(
+            "Extract the parents only",
+            inheritedFieldsTransform.childToParentConverter(eventCoreTransform))
+        .apply("Extract parent features", Combine.perKey(new EventInheritedFieldsFn()))
+        .setCoder(AvroKvCoder.of(EventInheritedRecord.class));
+  }
+
+  private static EventCoreRecord event(
+      String id, String locationId, String parentId, Parent... parents) {
+    return EventCoreRecord.newBuilder()
+        .setId(id)
+        .setLocationID(locationId)
+        .setParentEventID(parentId)
+        .setParentsLineage(Arrays.asList(parents))
+        .build();
+  }
+
+  private static Parent parent(String id, String eventType) {
+    return Parent.newBuilder().setId(id).setEventType(eventType).build();
+  }
+
+  private static EventInheritedRecord inheritedEvent(String id) {
+    return EventInheritedRecord.newBuilder()
+        .setId(id)
+        .setInheritedFrom("2")
+        .setLocationID("L2")
+        .setEventType(Arrays.asList("Site", "Survey"))
+        .build();
+  }
+
+  private static LocationInheritedRecord inheritedLocation(String id) {
+    return LocationInheritedRecord.newBuilder()
+        .setId(id)
+        .setInheritedFrom("1")
+        .setDecimalLatitude(1.0d)
+        .setDecimalLongitude(91.0d)
+        .build();
+  }
+}
@@ -0,0 +1,33 @@
+package org.gbif.pipelines.benchmarks;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs all benchmarks with the GC profiler, which reports allocated bytes per operation
+ * (gc.alloc.rate.norm) next to the throughput. Standard JMH arguments override the defaults, for
+ * example:
+ *
+ * <pre>{@code
+ * java -jar target/benchmarks.jar InterpreterBenchmark -p corpusPath=/data/verbatim.avro
+ * }</pre>
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class BenchmarkRunner {
+
+  public static void main(String[] args) throws Exception {
+    CommandLineOptions cmdOptions = new CommandLineOptions(args);
+
+    OptionsBuilder builder = new OptionsBuilder();
+    if (cmdOptions.getIncludes().isEmpty()) {
+      builder.include(BenchmarkRunner.class.getPackage().getName() + ".*");
+    }
+    Options options = builder.parent(cmdOptions).addProfiler(GCProfiler.class).build();
+    new Runner(options).run();
+  }
+}
@@ -0,0 +1,170 @@
+package org.gbif.pipelines.benchmarks;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.gbif.dwc.ArchiveField;
+import org.gbif.dwc.record.Record;
+import org.gbif.dwc.record.RecordImpl;
+import org.gbif.dwc.terms.DwcTerm;
+import org.gbif.dwc.terms.Term;
+import org.gbif.dwc.terms.TermFactory;
+import org.gbif.pipelines.core.converters.ExtendedRecordConverter;
+import org.gbif.pipelines.core.converters.OccurrenceHdfsRecordConverter;
+import org.gbif.pipelines.core.converters.OccurrenceJsonConverter;
+import org.gbif.pipelines.io.avro.BasicRecord;
+import org.gbif.pipelines.io.avro.ClusteringRecord;
+import org.gbif.pipelines.io.avro.ExtendedRecord;
+import org.gbif.pipelines.io.avro.IdentifierRecord;
+import org.gbif.pipelines.io.avro.LocationRecord;
+import org.gbif.pipelines.io.avro.MetadataRecord;
+import org.gbif.pipelines.io.avro.MultimediaRecord;
+import org.gbif.pipelines.io.avro.OccurrenceHdfsRecord;
+import org.gbif.pipelines.io.avro.TaxonRecord;
+import org.gbif.pipelines.io.avro.TemporalRecord;
+import org.gbif.pipelines.io.avro.grscicoll.GrscicollRecord;
+import org.gbif.pipelines.io.avro.json.OccurrenceJsonRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Converters applied to one record per operation. Interpreted records are prepared in the setup
+ * using the chains of {@link InterpreterBenchmark}, so only the conversion is measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ConverterBenchmark {
+
+  /** Path to a verbatim avro file, the generated corpus is used if empty */
+  @Param("")
+  public String corpusPath;
+
+  @Param("10000")
+  public int corpusSize;
+
+  private final List<Interpreted> interpreted = new ArrayList<>();
+  private final List<Record> dwcaRecords = new ArrayList<>();
+  private MetadataRecord mdr;
+  private int cursor;
+
+  @Setup
+  public void setup() throws IOException {
+    InterpreterBenchmark interpreters = new InterpreterBenchmark();
+    interpreters.corpusPath = corpusPath;
+    interpreters.corpusSize = corpusSize;
+    interpreters.setup();
+
+    mdr = RecordFixtures.createMetadata();
+    for (ExtendedRecord er : interpreters.records) {
+      String id = er.getId();
+      Interpreted i = new Interpreted();
+      i.verbatim = er;
+      i.identifier = IdentifierRecord.newBuilder().setId(id).setInternalId(id).build();
+      i.clustering = ClusteringRecord.newBuilder().setId(id).setIsClustered(false).build();
+      i.basic = interpreters.basicPlan.interpret(er);
+      i.temporal = interpreters.temporalPlan.interpret(er);
+      i.location = interpreters.locationPlan.interpret(er);
+      i.taxon = interpreters.taxonomyPlan.interpret(er);
+      i.grscicoll = GrscicollRecord.newBuilder().setId(id).build();
+      i.multimedia = MultimediaRecord.newBuilder().setId(id).build();
+      interpreted.add(i);
+      dwcaRecords.add(toDwcaRecord(er));
+    }
+  }
+
+  /** Converts the verbatim record back to a DwC-A row, as the archive reader would produce it */
+  private static Record toDwcaRecord(ExtendedRecord er) {
+    TermFactory termFactory = TermFactory.instance();
+    Map<Term, ArchiveField> fields = new LinkedHashMap<>();
+    String[] row = new String[er.getCoreTerms().size() + 1];
+    row[0] = er.getId();
+    int idx = 1;
+    for (Map.Entry<String, String> entry : er.getCoreTerms().entrySet()) {
+      Term term = termFactory.findTerm(entry.getKey());
+      fields.put(term, new ArchiveField(idx, term));
+      row[idx++] = entry.getValue();
+    }
+    ArchiveField id = new ArchiveField(0, DwcTerm.occurrenceID);
+    RecordImpl record = new RecordImpl(id, fields.values(), DwcTerm.Occurrence, true, true);
+    record.setRow(row);
+    return record;
+  }
+
+  private int next() {
+    if (cursor == interpreted.size()) {
+      cursor = 0;
+    }
+    return cursor++;
+  }
+
+  @Benchmark
+  public OccurrenceJsonRecord occurrenceJson() {
+    Interpreted i = interpreted.get(next());
+    return OccurrenceJsonConverter.builder()
+        .metadata(mdr)
+        .identifier(i.identifier)
+        .clustering(i.clustering)
+        .basic(i.basic)
+        .temporal(i.temporal)
+        .location(i.location)
+        .taxon(i.taxon)
+        .grscicoll(i.grscicoll)
+        .multimedia(i.multimedia)
+        .verbatim(i.verbatim)
+        .build()
+        .convert();
+  }
+
+  @Benchmark
+  public OccurrenceHdfsRecord occurrenceHdfs() {
+    Interpreted i = interpreted.get(next());
+    return OccurrenceHdfsRecordConverter.builder()
+        .metadataRecord(mdr)
+        .identifierRecord(i.identifier)
+        .clusteringRecord(i.clustering)
+        .basicRecord(i.basic)
+        .temporalRecord(i.temporal)
+        .locationRecord(i.location)
+        .taxonRecord(i.taxon)
+        .grscicollRecord(i.grscicoll)
+        .multimediaRecord(i.multimedia)
+        .extendedRecord(i.verbatim)
+        .build()
+        .convert();
+  }
+
+  @Benchmark
+  public ExtendedRecord extendedRecord() {
+    return ExtendedRecordConverter.from(dwcaRecords.get(next()), Collections.emptyMap());
+  }
+
+  /** Interpreted records of one verbatim record */
+  private static class Interpreted {
+    private ExtendedRecord verbatim;
+    private IdentifierRecord identifier;
+    private ClusteringRecord clustering;
+    private BasicRecord basic;
+    private TemporalRecord temporal;
+    private LocationRecord location;
+    private TaxonRecord taxon;
+    private GrscicollRecord grscicoll;
+    private MultimediaRecord multimedia;
+  }
+}
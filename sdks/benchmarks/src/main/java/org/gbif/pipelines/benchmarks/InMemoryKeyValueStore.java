@@ -0,0 +1,30 @@
+package org.gbif.pipelines.benchmarks;
+
+import java.util.function.Function;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import org.gbif.kvs.KeyValueStore;
+
+/**
+ * Stand-in for HBase/REST backed {@link KeyValueStore}s, answers are computed by a function, so
+ * benchmarks measure the interpretation and not the network
+ */
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class InMemoryKeyValueStore<K, V> implements KeyValueStore<K, V> {
+
+  private final Function<K, V> fn;
+
+  public static <K, V> InMemoryKeyValueStore<K, V> create(Function<K, V> fn) {
+    return new InMemoryKeyValueStore<>(fn);
+  }
+
+  @Override
+  public V get(K key) {
+    return fn.apply(key);
+  }
+
+  @Override
+  public void close() {
+    // NOP
+  }
+}
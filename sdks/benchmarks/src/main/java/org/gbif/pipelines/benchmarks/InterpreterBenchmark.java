@@ -0,0 +1,182 @@
+package org.gbif.pipelines.benchmarks;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.gbif.api.vocabulary.OccurrenceStatus;
+import org.gbif.kvs.KeyValueStore;
+import org.gbif.kvs.geocode.LatLng;
+import org.gbif.kvs.species.Identification;
+import org.gbif.pipelines.core.interpreters.InterpretationPlan;
+import org.gbif.pipelines.core.interpreters.core.BasicInterpreter;
+import org.gbif.pipelines.core.interpreters.core.CoreInterpreter;
+import org.gbif.pipelines.core.interpreters.core.LocationInterpreter;
+import org.gbif.pipelines.core.interpreters.core.TaxonomyInterpreter;
+import org.gbif.pipelines.core.interpreters.core.TemporalInterpreter;
+import org.gbif.pipelines.io.avro.BasicRecord;
+import org.gbif.pipelines.io.avro.ExtendedRecord;
+import org.gbif.pipelines.io.avro.LocationRecord;
+import org.gbif.pipelines.io.avro.MetadataRecord;
+import org.gbif.pipelines.io.avro.TaxonRecord;
+import org.gbif.pipelines.io.avro.TemporalRecord;
+import org.gbif.rest.client.geocode.GeocodeResponse;
+import org.gbif.rest.client.species.NameUsageMatch;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Core interpreters applied to one record per operation, the chains follow the core transforms.
+ * Vocabulary based steps are not included, they need a running vocabulary service.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class InterpreterBenchmark {
+
+  /** Path to a verbatim avro file, the generated corpus is used if empty */
+  @Param("")
+  public String corpusPath;
+
+  @Param("10000")
+  public int corpusSize;
+
+  List<ExtendedRecord> records;
+  private int cursor;
+
+  InterpretationPlan<ExtendedRecord, LocationRecord> locationPlan;
+  InterpretationPlan<ExtendedRecord, TemporalRecord> temporalPlan;
+  InterpretationPlan<ExtendedRecord, BasicRecord> basicPlan;
+  InterpretationPlan<ExtendedRecord, TaxonRecord> taxonomyPlan;
+
+  @Setup
+  public void setup() throws IOException {
+    records = RecordFixtures.loadCorpus(corpusPath, corpusSize);
+
+    MetadataRecord mdr = RecordFixtures.createMetadata();
+    KeyValueStore<LatLng, GeocodeResponse> geocodeStore = RecordFixtures.createGeocodeStore();
+    KeyValueStore<Identification, NameUsageMatch> nameStore =
+        RecordFixtures.createNameUsageMatchStore();
+    KeyValueStore<String, OccurrenceStatus> statusStore =
+        RecordFixtures.createOccurrenceStatusStore();
+    TemporalInterpreter temporalInterpreter = TemporalInterpreter.builder().create();
+
+    locationPlan =
+        InterpretationPlan.<ExtendedRecord, LocationRecord>builder()
+            .to(er -> LocationRecord.newBuilder().setId(er.getId()).setCreated(0L).build())
+            .when(er -> !er.getCoreTerms().isEmpty())
+            .via(LocationInterpreter.interpretCountryAndCoordinates(geocodeStore, mdr))
+            .via(LocationInterpreter.interpretContinent(geocodeStore))
+            .via(LocationInterpreter.interpretGadm(geocodeStore))
+            .via(LocationInterpreter::interpretWaterBody)
+            .via(LocationInterpreter::interpretStateProvince)
+            .via(LocationInterpreter::interpretMinimumElevationInMeters)
+            .via(LocationInterpreter::interpretMaximumElevationInMeters)
+            .via(LocationInterpreter::interpretElevation)
+            .via(LocationInterpreter::interpretMinimumDepthInMeters)
+            .via(LocationInterpreter::interpretMaximumDepthInMeters)
+            .via(LocationInterpreter::interpretDepth)
+            .via(LocationInterpreter::interpretMinimumDistanceAboveSurfaceInMeters)
+            .via(LocationInterpreter::interpretMaximumDistanceAboveSurfaceInMeters)
+            .via(LocationInterpreter::interpretCoordinatePrecision)
+            .via(LocationInterpreter::interpretCoordinateUncertaintyInMeters)
+            .via(LocationInterpreter.calculateCentroidDistance(geocodeStore))
+            .via(LocationInterpreter::interpretLocality)
+            .via(LocationInterpreter::interpretFootprintWKT)
+            .via(LocationInterpreter::interpretHigherGeography)
+            .via(LocationInterpreter::interpretGeoreferencedBy)
+            .via(LocationInterpreter::interpretGbifRegion)
+            .via(LocationInterpreter::interpretPublishedByGbifRegion)
+            .via(LocationInterpreter::setCoreId)
+            .via(LocationInterpreter::setParentEventId)
+            .compile();
+
+    temporalPlan =
+        InterpretationPlan.<ExtendedRecord, TemporalRecord>builder()
+            .to(er -> TemporalRecord.newBuilder().setId(er.getId()).setCreated(0L).build())
+            .when(er -> !er.getCoreTerms().isEmpty())
+            .via(temporalInterpreter::interpretTemporal)
+            .via(temporalInterpreter::interpretModified)
+            .via(temporalInterpreter::interpretDateIdentified)
+            .via(TemporalInterpreter::setCoreId)
+            .via(TemporalInterpreter::setParentEventId)
+            .compile();
+
+    basicPlan =
+        InterpretationPlan.<ExtendedRecord, BasicRecord>builder()
+            .to(er -> BasicRecord.newBuilder().setId(er.getId()).setCreated(0L).build())
+            .when(er -> !er.getCoreTerms().isEmpty())
+            .via(BasicInterpreter::interpretBasisOfRecord)
+            .via(BasicInterpreter::interpretTypifiedName)
+            .via(BasicInterpreter::interpretIndividualCount)
+            .via((e, r) -> CoreInterpreter.interpretReferences(e, r, r::setReferences))
+            .via(BasicInterpreter::interpretOrganismQuantity)
+            .via(BasicInterpreter::interpretOrganismQuantityType)
+            .via((e, r) -> CoreInterpreter.interpretSampleSizeUnit(e, r::setSampleSizeUnit))
+            .via((e, r) -> CoreInterpreter.interpretSampleSizeValue(e, r::setSampleSizeValue))
+            .via(BasicInterpreter::interpretRelativeOrganismQuantity)
+            .via((e, r) -> CoreInterpreter.interpretLicense(e, r::setLicense))
+            .via(BasicInterpreter::interpretIdentifiedByIds)
+            .via(BasicInterpreter::interpretRecordedByIds)
+            .via(BasicInterpreter.interpretOccurrenceStatus(statusStore))
+            .via((e, r) -> CoreInterpreter.interpretDatasetID(e, r::setDatasetID))
+            .via((e, r) -> CoreInterpreter.interpretDatasetName(e, r::setDatasetName))
+            .via(BasicInterpreter::interpretOtherCatalogNumbers)
+            .via(BasicInterpreter::interpretRecordedBy)
+            .via(BasicInterpreter::interpretIdentifiedBy)
+            .via(BasicInterpreter::interpretPreparations)
+            .via((e, r) -> CoreInterpreter.interpretSamplingProtocol(e, r::setSamplingProtocol))
+            .via(BasicInterpreter::interpretProjectId)
+            .via(BasicInterpreter::interpretIsSequenced)
+            .via(BasicInterpreter::interpretAssociatedSequences)
+            .compile();
+
+    taxonomyPlan =
+        InterpretationPlan.<ExtendedRecord, TaxonRecord>builder()
+            .to(er -> TaxonRecord.newBuilder().setCreated(0L).build())
+            .when(er -> !er.getCoreTerms().isEmpty())
+            .via(TaxonomyInterpreter.taxonomyInterpreter(nameStore))
+            .via(TaxonomyInterpreter::setCoreId)
+            .via(TaxonomyInterpreter::setParentEventId)
+            .skipWhen(tr -> tr.getId() == null)
+            .compile();
+  }
+
+  private ExtendedRecord next() {
+    if (cursor == records.size()) {
+      cursor = 0;
+    }
+    return records.get(cursor++);
+  }
+
+  @Benchmark
+  public LocationRecord location() {
+    return locationPlan.interpret(next());
+  }
+
+  @Benchmark
+  public TemporalRecord temporal() {
+    return temporalPlan.interpret(next());
+  }
+
+  @Benchmark
+  public BasicRecord basic() {
+    return basicPlan.interpret(next());
+  }
+
+  @Benchmark
+  public TaxonRecord taxonomy() {
+    return taxonomyPlan.interpret(next());
+  }
+}
@@ -0,0 +1,331 @@
+package org.gbif.pipelines.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import org.apache.avro.file.DataFileReader;
+import org.apache.avro.specific.SpecificDatumReader;
+import org.gbif.api.v2.RankedName;
+import org.gbif.api.vocabulary.OccurrenceStatus;
+import org.gbif.api.vocabulary.Rank;
+import org.gbif.dwc.terms.DcTerm;
+import org.gbif.dwc.terms.DwcTerm;
+import org.gbif.dwc.terms.GbifTerm;
+import org.gbif.dwc.terms.Term;
+import org.gbif.kvs.KeyValueStore;
+import org.gbif.kvs.geocode.LatLng;
+import org.gbif.kvs.species.Identification;
+import org.gbif.pipelines.io.avro.ExtendedRecord;
+import org.gbif.pipelines.io.avro.MetadataRecord;
+import org.gbif.rest.client.geocode.GeocodeResponse;
+import org.gbif.rest.client.geocode.Location;
+import org.gbif.rest.client.species.NameUsageMatch;
+import org.gbif.rest.client.species.NameUsageMatch.Diagnostics;
+
+/**
+ * Deterministic corpus of {@link ExtendedRecord}s and in-memory answers for the KV stores. Values
+ * are mixed the way they are in published datasets: several date formats, string coordinates with
+ * different precision, country names and codes, unit suffixes, blank and unparsable values.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class RecordFixtures {
+
+  private static final long SEED = 20240901L;
+
+  private static final String[] BASIS_OF_RECORD = {
+    "PreservedSpecimen", "HumanObservation", "observation", "S", "MaterialSample", "occurrence"
+  };
+
+  private static final String[] EVENT_DATES = {
+    "%1$04d-%2$02d-%3$02d",
+    "%3$02d/%2$02d/%1$04d",
+    "%1$04d-%2$02d",
+    "%1$04d-%2$02d-%3$02dT10:15:00Z",
+    "%1$04d-01-01/%1$04d-12-31",
+    "%1$04d"
+  };
+
+  private static final String[] INDIVIDUAL_COUNTS = {"1", "2", "15", "", "x", "0"};
+
+  private static final String[] OCCURRENCE_STATUS = {"present", "Present", "absent", "", "1"};
+
+  private static final String[] RECORDED_BY = {
+    "Smith, J.", "Smith, J. | Doe, A.", "A. Larsen", "Tanaka H.; Sato K.", ""
+  };
+
+  private static final String[] ELEVATIONS = {"10", "20 m", "100-200", "1.500", "ca. 300m", ""};
+
+  private static final Area[] AREAS = {
+    new Area("DK", "Denmark", 54.6d, 57.7d, 8.1d, 12.6d),
+    new Area("JP", "Japan", 31.0d, 45.4d, 130.0d, 145.5d),
+    new Area("BR", "Brasil", -33.0d, 4.0d, -73.0d, -35.0d),
+    new Area("AU", "Australia", -43.0d, -11.0d, 114.0d, 153.0d),
+    new Area("US", "United States", 25.0d, 49.0d, -124.0d, -67.0d)
+  };
+
+  private static final Taxon[] TAXA = {
+    new Taxon(2435099, "Puma concolor", "(Linnaeus, 1771)", "Animalia", "Felidae", Rank.SPECIES),
+    new Taxon(2480498, "Parus major", "Linnaeus, 1758", "Animalia", "Paridae", Rank.SPECIES),
+    new Taxon(5284517, "Quercus robur", "L.", "Plantae", "Fagaceae", Rank.SPECIES),
+    new Taxon(2878688, "Betula", "", "Plantae", "Betulaceae", Rank.GENUS),
+    new Taxon(1311477, "Apis mellifera", "Linnaeus, 1758", "Animalia", "Apidae", Rank.SPECIES)
+  };
+
+  /** Reads the corpus from the verbatim avro file if the path is set, generates it otherwise */
+  public static List<ExtendedRecord> loadCorpus(String path, int size) throws IOException {
+    if (path == null || path.isEmpty()) {
+      return createCorpus(size, SEED);
+    }
+    return readCorpus(path, size);
+  }
+
+  /** Generates the corpus, the same seed produces the same records */
+  public static List<ExtendedRecord> createCorpus(int size, long seed) {
+    Random random = new Random(seed);
+    List<ExtendedRecord> records = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      records.add(createRecord(i, random));
+    }
+    return records;
+  }
+
+  /** Reads records from a verbatim avro file, for example a verbatim.avro of a real dataset */
+  public static List<ExtendedRecord> readCorpus(String path, int limit) throws IOException {
+    List<ExtendedRecord> records = new ArrayList<>();
+    try (DataFileReader<ExtendedRecord> reader =
+        new DataFileReader<>(new File(path), new SpecificDatumReader<>(ExtendedRecord.class))) {
+      while (reader.hasNext() && records.size() < limit) {
+        records.add(reader.next());
+      }
+    }
+    return records;
+  }
+
+  private static ExtendedRecord createRecord(int idx, Random random) {
+    Area area = pick(AREAS, random);
+    Taxon taxon = pick(TAXA, random);
+    int year = 1850 + random.nextInt(175);
+    int month = 1 + random.nextInt(12);
+    int day = 1 + random.nextInt(28);
+    int precision = 2 + random.nextInt(5);
+
+    Map<String, String> terms = new HashMap<>();
+    put(terms, DwcTerm.occurrenceID, "urn:occurrence:" + idx);
+    put(terms, DwcTerm.catalogNumber, "CAT-" + idx);
+    put(terms, DwcTerm.institutionCode, "NHMD");
+    put(terms, DwcTerm.collectionCode, "ZMUC");
+    put(terms, DwcTerm.basisOfRecord, pick(BASIS_OF_RECORD, random));
+    put(terms, DwcTerm.individualCount, pick(INDIVIDUAL_COUNTS, random));
+    put(terms, DwcTerm.occurrenceStatus, pick(OCCURRENCE_STATUS, random));
+    put(terms, DwcTerm.recordedBy, pick(RECORDED_BY, random));
+    put(terms, DwcTerm.eventDate, String.format(pick(EVENT_DATES, random), year, month, day));
+    put(terms, DwcTerm.year, String.valueOf(year));
+    put(terms, DwcTerm.month, String.valueOf(month));
+    put(terms, DwcTerm.day, String.valueOf(day));
+    put(terms, DwcTerm.dateIdentified, String.format("%04d-%02d", year, month));
+    put(terms, DcTerm.modified, "2021-03-04T12:00:00Z");
+    put(terms, random.nextBoolean() ? DwcTerm.country : DwcTerm.countryCode, area.name(random));
+    put(terms, DwcTerm.decimalLatitude, area.latitude(random, precision));
+    put(terms, DwcTerm.decimalLongitude, area.longitude(random, precision));
+    put(terms, DwcTerm.geodeticDatum, random.nextBoolean() ? "WGS84" : "EPSG:4326");
+    put(terms, DwcTerm.coordinateUncertaintyInMeters, String.valueOf(random.nextInt(5000)));
+    put(terms, DwcTerm.minimumElevationInMeters, pick(ELEVATIONS, random));
+    put(terms, DwcTerm.maximumElevationInMeters, pick(ELEVATIONS, random));
+    put(terms, DwcTerm.minimumDepthInMeters, random.nextInt(4) == 0 ? "5" : "");
+    put(terms, DwcTerm.locality, "Locality " + random.nextInt(1000));
+    put(terms, DwcTerm.stateProvince, "Province " + random.nextInt(20));
+    put(terms, DwcTerm.kingdom, taxon.kingdom);
+    put(terms, DwcTerm.family, taxon.family);
+    put(terms, DwcTerm.scientificName, taxon.name);
+    put(terms, DwcTerm.scientificNameAuthorship, taxon.authorship);
+    put(terms, DwcTerm.taxonRank, taxon.rank.name().toLowerCase(Locale.ROOT));
+    put(terms, DcTerm.license, "http://creativecommons.org/licenses/by/4.0/legalcode");
+    put(terms, GbifTerm.projectId, random.nextInt(10) == 0 ? "project-" + random.nextInt(3) : "");
+
+    Map<String, List<Map<String, String>>> extensions = Collections.emptyMap();
+    if (random.nextInt(4) == 0) {
+      Map<String, String> multimedia = new HashMap<>();
+      put(multimedia, DcTerm.identifier, "https://images.example.org/" + idx + ".jpg");
+      put(multimedia, DcTerm.format, "image/jpeg");
+      extensions =
+          Collections.singletonMap(
+              "http://rs.gbif.org/terms/1.0/Multimedia", Collections.singletonList(multimedia));
+    }
+
+    return ExtendedRecord.newBuilder()
+        .setId(String.valueOf(idx))
+        .setCoreRowType(DwcTerm.Occurrence.qualifiedName())
+        .setCoreTerms(terms)
+        .setExtensions(extensions)
+        .build();
+  }
+
+  public static MetadataRecord createMetadata() {
+    return MetadataRecord.newBuilder()
+        .setId("f6a5c8a4-3cc1-4b56-8d16-0e1d2d0ea7a2")
+        .setDatasetKey("f6a5c8a4-3cc1-4b56-8d16-0e1d2d0ea7a2")
+        .setCrawlId(1)
+        .setLastCrawled(1647941576L)
+        .setDatasetTitle("Benchmark dataset")
+        .setDatasetPublishingCountry("DK")
+        .setLicense("CC_BY_4_0")
+        .setPublishingOrganizationKey("c8a4f6a5-3cc1-4b56-8d16-0e1d2d0ea7a2")
+        .setPublisherTitle("Benchmark publisher")
+        .setHostingOrganizationKey("c8a4f6a5-3cc1-4b56-8d16-0e1d2d0ea7a2")
+        .setInstallationKey("a4f6a5c8-3cc1-4b56-8d16-0e1d2d0ea7a2")
+        .setEndorsingNodeKey("a5c8a4f6-3cc1-4b56-8d16-0e1d2d0ea7a2")
+        .setProtocol("DWC_ARCHIVE")
+        .setNetworkKeys(Collections.emptyList())
+        .build();
+  }
+
+  /** Answers with the country of the first area containing the point, or with no locations */
+  public static KeyValueStore<LatLng, GeocodeResponse> createGeocodeStore() {
+    Map<String, GeocodeResponse> responses = new HashMap<>();
+    for (Area area : AREAS) {
+      responses.put(area.code, area.toResponse());
+    }
+    GeocodeResponse empty = new GeocodeResponse(Collections.emptyList());
+    return InMemoryKeyValueStore.create(
+        latLng -> {
+          for (Area area : AREAS) {
+            if (area.contains(latLng)) {
+              return responses.get(area.code);
+            }
+          }
+          return empty;
+        });
+  }
+
+  /** Answers with an exact match for known names and with an empty match for anything else */
+  public static KeyValueStore<Identification, NameUsageMatch> createNameUsageMatchStore() {
+    Map<String, NameUsageMatch> matches = new HashMap<>();
+    for (Taxon taxon : TAXA) {
+      matches.put(taxon.name, taxon.toMatch());
+    }
+    NameUsageMatch empty = new NameUsageMatch();
+    return InMemoryKeyValueStore.create(
+        id -> matches.getOrDefault(id.getScientificName(), empty));
+  }
+
+  public static KeyValueStore<String, OccurrenceStatus> createOccurrenceStatusStore() {
+    return InMemoryKeyValueStore.create(
+        value -> {
+          String upper = value.trim().toUpperCase(Locale.ROOT);
+          if (upper.equals(OccurrenceStatus.PRESENT.name())) {
+            return OccurrenceStatus.PRESENT;
+          }
+          return upper.equals(OccurrenceStatus.ABSENT.name()) ? OccurrenceStatus.ABSENT : null;
+        });
+  }
+
+  private static void put(Map<String, String> map, Term term, String value) {
+    if (value != null && !value.isEmpty()) {
+      map.put(term.qualifiedName(), value);
+    }
+  }
+
+  private static <T> T pick(T[] values, Random random) {
+    return values[random.nextInt(values.length)];
+  }
+
+  @AllArgsConstructor
+  private static class Area {
+    private final String code;
+    private final String name;
+    private final double minLat;
+    private final double maxLat;
+    private final double minLng;
+    private final double maxLng;
+
+    private String name(Random random) {
+      return random.nextBoolean() ? code : name;
+    }
+
+    private String latitude(Random random, int precision) {
+      return format(minLat + random.nextDouble() * (maxLat - minLat), precision);
+    }
+
+    private String longitude(Random random, int precision) {
+      return format(minLng + random.nextDouble() * (maxLng - minLng), precision);
+    }
+
+    private static String format(double value, int precision) {
+      return String.format(Locale.ROOT, "%." + precision + "f", value);
+    }
+
+    private boolean contains(LatLng latLng) {
+      return latLng.getLatitude() != null
+          && latLng.getLongitude() != null
+          && latLng.getLatitude() >= minLat
+          && latLng.getLatitude() <= maxLat
+          && latLng.getLongitude() >= minLng
+          && latLng.getLongitude() <= maxLng;
+    }
+
+    private GeocodeResponse toResponse() {
+      Location political = new Location();
+      political.setType("Political");
+      political.setDistance(0d);
+      political.setIsoCountryCode2Digit(code);
+
+      Location gadm0 = new Location();
+      gadm0.setId(code + "_0");
+      gadm0.setType("GADM0");
+      gadm0.setSource("http://gadm.org/");
+      gadm0.setName(name);
+      gadm0.setIsoCountryCode2Digit(code);
+      gadm0.setDistance(0d);
+
+      return new GeocodeResponse(Arrays.asList(political, gadm0));
+    }
+  }
+
+  @AllArgsConstructor
+  private static class Taxon {
+    private final int key;
+    private final String name;
+    private final String authorship;
+    private final String kingdom;
+    private final String family;
+    private final Rank rank;
+
+    private NameUsageMatch toMatch() {
+      RankedName usage = new RankedName();
+      usage.setKey(key);
+      usage.setName(authorship.isEmpty() ? name : name + " " + authorship);
+      usage.setRank(rank);
+
+      RankedName kingdomName = new RankedName();
+      kingdomName.setKey(kingdom.equals("Animalia") ? 1 : 6);
+      kingdomName.setName(kingdom);
+      kingdomName.setRank(Rank.KINGDOM);
+
+      RankedName familyName = new RankedName();
+      familyName.setKey(key / 10);
+      familyName.setName(family);
+      familyName.setRank(Rank.FAMILY);
+
+      Diagnostics diagnostics = new Diagnostics();
+      diagnostics.setMatchType(org.gbif.api.model.checklistbank.NameUsageMatch.MatchType.EXACT);
+      diagnostics.setConfidence(99);
+      diagnostics.setAlternatives(Collections.emptyList());
+
+      NameUsageMatch match = new NameUsageMatch();
+      match.setUsage(usage);
+      match.setClassification(Arrays.asList(kingdomName, familyName, usage));
+      match.setDiagnostics(diagnostics);
+      return match;
+    }
+  }
+}
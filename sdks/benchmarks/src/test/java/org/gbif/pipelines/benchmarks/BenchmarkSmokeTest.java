@@ -0,0 +1,50 @@
+package org.gbif.pipelines.benchmarks;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/** Runs every benchmark method once, so broken fixtures are caught by the regular build */
+public class BenchmarkSmokeTest {
+
+  @Test
+  public void interpreterBenchmarkTest() throws Exception {
+    // State
+    InterpreterBenchmark benchmark = new InterpreterBenchmark();
+    benchmark.corpusPath = "";
+    benchmark.corpusSize = 50;
+
+    // When
+    benchmark.setup();
+
+    // Should
+    for (int i = 0; i < benchmark.corpusSize; i++) {
+      Assert.assertNotNull(benchmark.location());
+      Assert.assertNotNull(benchmark.temporal());
+      Assert.assertNotNull(benchmark.basic());
+      Assert.assertNotNull(benchmark.taxonomy());
+    }
+  }
+
+  @Test
+  public void converterBenchmarkTest() throws Exception {
+    // State
+    ConverterBenchmark benchmark = new ConverterBenchmark();
+    benchmark.corpusPath = "";
+    benchmark.corpusSize = 50;
+
+    // When
+    benchmark.setup();
+
+    // Should
+    for (int i = 0; i < benchmark.corpusSize; i++) {
+      Assert.assertNotNull(benchmark.occurrenceJson());
+      Assert.assertNotNull(benchmark.occurrenceHdfs());
+      Assert.assertNotNull(benchmark.extendedRecord().getId());
+    }
+  }
+
+  @Test
+  public void corpusIsDeterministicTest() {
+    Assert.assertEquals(RecordFixtures.createCorpus(20, 1L), RecordFixtures.createCorpus(20, 1L));
+  }
+}
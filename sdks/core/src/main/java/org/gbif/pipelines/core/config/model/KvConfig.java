@@ -31,6 +31,15 @@ public class KvConfig implements Serializable {
 
   private long cacheExpiryTimeInSeconds = 300L;
 
+  /** Max number of entries in the in-memory result cache */
+  private long cacheCapacity = 25_000L;
+
+  /** Max total weight of values in the in-memory result cache, replaces cacheCapacity if set */
+  private Long cacheMaxWeight;
+
+  /** Number of decimal places coordinate keys are rounded to before the lookup, null disables */
+  private Integer latLngPrecision;
+
   private LoaderRetryConfig loaderRetryConfig;
 
   @Data
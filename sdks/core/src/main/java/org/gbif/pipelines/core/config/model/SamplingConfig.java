@@ -32,6 +32,18 @@ public final class SamplingConfig implements Serializable {
   // retries
   private int downloadRetries = 5;
 
+  // number of batches submitted to the sampling service at the same time
+  private int maxBatchesInFlight = 4;
+
+  // reuse samples of coordinates sampled by earlier runs with the same layer list
+  private boolean sampleCacheEnabled = false;
+
+  // coordinates are rounded to this number of decimal places to look up the sample cache
+  private int sampleCacheDecimalPlaces = 5;
+
+  // delete sample caches of other layer lists
+  private boolean deleteStaleSampleCache = true;
+
   // http headers to add to each request
   private Map<String, String> httpHeaders = Collections.emptyMap();
 
@@ -68,9 +68,13 @@ public class OccurrenceJsonConverter {
     return builder.build();
   }
 
-  @SneakyThrows
   public String toJsonWithNulls() {
-    return SerDeFactory.avroMapperWithNulls().writeValueAsString(convert());
+    return toJsonWithNulls(convert());
+  }
+
+  @SneakyThrows
+  public static String toJsonWithNulls(OccurrenceJsonRecord record) {
+    return SerDeFactory.avroMapperWithNulls().writeValueAsString(record);
   }
 
   private void mapProjectIds(OccurrenceJsonRecord.Builder builder) {
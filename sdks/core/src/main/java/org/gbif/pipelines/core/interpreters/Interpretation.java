@@ -30,6 +30,9 @@ import lombok.AllArgsConstructor;
  *     .via(TemporalInterpreter::interpretDayOfYear)
  *     .consume(context::output);
  * }</pre>
+ *
+ * <p>For hot paths, where the same chain is applied to every record, use {@link
+ * InterpretationPlan} which compiles the chain once.
  */
 @AllArgsConstructor(access = AccessLevel.PRIVATE)
 public class Interpretation<S> {
@@ -103,7 +106,9 @@ public class Interpretation<S> {
      *     object and T as a target data object
      */
     public Handler<T> via(BiConsumer<S, T> func) {
-      Optional.ofNullable(target).ifPresent(t -> func.accept(source, t));
+      if (target != null) {
+        func.accept(source, target);
+      }
       return this;
     }
 
@@ -112,7 +117,9 @@ public class Interpretation<S> {
      *     and as a target data object
      */
     public Handler<T> via(Consumer<T> func) {
-      Optional.ofNullable(target).ifPresent(func);
+      if (target != null) {
+        func.accept(target);
+      }
       return this;
     }
 
@@ -152,7 +159,9 @@ public class Interpretation<S> {
      * @param consumer Consumer for consuming target data object
      */
     public void consume(Consumer<T> consumer) {
-      Optional.ofNullable(target).ifPresent(consumer);
+      if (target != null) {
+        consumer.accept(target);
+      }
     }
   }
 }
@@ -0,0 +1,154 @@
+package org.gbif.pipelines.core.interpreters;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Reusable version of {@link Interpretation}, the chain is compiled once into a flat array of
+ * interpretation steps and then applied to every source data object without allocating per step
+ * handlers, optionals or capturing lambdas.
+ *
+ * <p>Example:
+ *
+ * <pre>{@code
+ * InterpretationPlan<ExtendedRecord, TemporalRecord> plan =
+ *     InterpretationPlan.<ExtendedRecord, TemporalRecord>builder()
+ *         .to(er -> TemporalRecord.newBuilder().setId(er.getId()).build())
+ *         .when(er -> !er.getCoreTerms().isEmpty())
+ *         .via(TemporalInterpreter::interpretEventDate)
+ *         .via(TemporalInterpreter::interpretDateIdentified)
+ *         .compile();
+ *
+ * plan.getOfNullable(er).ifPresent(context::output);
+ * }</pre>
+ */
+public class InterpretationPlan<S, T> {
+
+  private final Function<S, T> toFn;
+  private final Predicate<S> whenPredicate;
+  private final BiConsumer<S, T>[] steps;
+  private final Predicate<T> skipPredicate;
+
+  private InterpretationPlan(Builder<S, T> builder) {
+    this.toFn = builder.toFn;
+    this.whenPredicate = builder.whenPredicate;
+    this.skipPredicate = builder.skipPredicate;
+    @SuppressWarnings("unchecked")
+    BiConsumer<S, T>[] array = builder.steps.toArray(new BiConsumer[0]);
+    this.steps = array;
+  }
+
+  public static <S, T> Builder<S, T> builder() {
+    return new Builder<>();
+  }
+
+  /**
+   * Runs all steps for the source data object
+   *
+   * @return target data object or null if the source was filtered or the result was skipped
+   */
+  public T interpret(S source) {
+    if (whenPredicate != null && !whenPredicate.test(source)) {
+      return null;
+    }
+    T target = toFn.apply(source);
+    if (target == null) {
+      return null;
+    }
+    for (BiConsumer<S, T> step : steps) {
+      step.accept(source, target);
+    }
+    if (skipPredicate != null && skipPredicate.test(target)) {
+      return null;
+    }
+    return target;
+  }
+
+  /**
+   * @return target data object
+   */
+  public Optional<T> getOfNullable(S source) {
+    return Optional.ofNullable(interpret(source));
+  }
+
+  /**
+   * @param consumer Consumer for consuming target data object
+   */
+  public void consume(S source, Consumer<T> consumer) {
+    T target = interpret(source);
+    if (target != null) {
+      consumer.accept(target);
+    }
+  }
+
+  /** Number of interpretation steps */
+  public int size() {
+    return steps.length;
+  }
+
+  @NoArgsConstructor(access = AccessLevel.PRIVATE)
+  public static class Builder<S, T> {
+
+    private Function<S, T> toFn;
+    private Predicate<S> whenPredicate;
+    private Predicate<T> skipPredicate;
+    private final List<BiConsumer<S, T>> steps = new ArrayList<>();
+
+    /**
+     * @param func Function converts source data object to target data object
+     */
+    public Builder<S, T> to(Function<S, T> func) {
+      this.toFn = func;
+      return this;
+    }
+
+    /**
+     * @param predicate the source data object is interpreted only if the result is true, the
+     *     predicate is tested before the target data object is created
+     */
+    public Builder<S, T> when(Predicate<S> predicate) {
+      whenPredicate = whenPredicate == null ? predicate : whenPredicate.and(predicate);
+      return this;
+    }
+
+    /**
+     * @param func BiConsumer for applying an interpretation function, where S as a source data
+     *     object and T as a target data object
+     */
+    public Builder<S, T> via(BiConsumer<S, T> func) {
+      steps.add(func);
+      return this;
+    }
+
+    /**
+     * @param func Consumer for applying an interpretation function, where T as a source data object
+     *     and as a target data object
+     */
+    public Builder<S, T> via(Consumer<T> func) {
+      steps.add((s, t) -> func.accept(t));
+      return this;
+    }
+
+    /**
+     * @param func skips the result if the result of predicate is true
+     */
+    public Builder<S, T> skipWhen(Predicate<T> func) {
+      skipPredicate = skipPredicate == null ? func : skipPredicate.and(func);
+      return this;
+    }
+
+    public InterpretationPlan<S, T> compile() {
+      if (toFn == null) {
+        throw new IllegalStateException("Target function must be set, use to(...)");
+      }
+      return new InterpretationPlan<>(this);
+    }
+  }
+}
@@ -3,6 +3,9 @@ package org.gbif.pipelines.core.io;
 import static org.gbif.pipelines.common.PipelinesVariables.Pipeline.AVRO_EXTENSION;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import lombok.SneakyThrows;
@@ -48,6 +51,75 @@ public class AvroReader {
     return readUniqueRecords(hdfsConfigs, clazz, path, null);
   }
 
+  /**
+   * Index {@link Record#getId()} values without keeping records in memory, see {@link
+   * #readUniqueRecords(HdfsConfigs, Class, String, UniqueIdIndex, int, Consumer)}
+   *
+   * @param clazz instance of {@link Record}
+   * @param path sting path, a wildcard can be used in the file name, like /a/b/c*.avro to read
+   *     multiple files
+   */
+  public static <T extends Record> UniqueIdIndex indexUniqueRecords(
+      HdfsConfigs hdfsConfigs, Class<T> clazz, String path, Runnable metrics) {
+    FileSystem fs = FsUtils.getFileSystem(hdfsConfigs, path);
+    List<Path> paths = parseWildcardPath(fs, path);
+    UniqueIdIndex index = UniqueIdIndex.create();
+    readEach(
+        fs,
+        clazz,
+        paths,
+        next -> {
+          if (index.add(next.getId(), next.hashCode())) {
+            log.warn("occurrenceId = {}, duplicates were found", next.getId());
+
+            // Increase metrics for duplicates
+            Optional.ofNullable(metrics).ifPresent(Runnable::run);
+          }
+        });
+    return index;
+  }
+
+  /**
+   * Read {@link Record#getId()} unique records in chunks, only the current chunk is kept in memory
+   *
+   * @param clazz instance of {@link Record}
+   * @param path sting path, a wildcard can be used in the file name, like /a/b/c*.avro to read
+   *     multiple files
+   * @param index unique ids, see {@link #indexUniqueRecords(HdfsConfigs, Class, String, Runnable)}
+   * @param chunkSize max number of records in a chunk
+   * @param chunkConsumer consumes every chunk of records
+   */
+  public static <T extends Record> void readUniqueRecords(
+      HdfsConfigs hdfsConfigs,
+      Class<T> clazz,
+      String path,
+      UniqueIdIndex index,
+      int chunkSize,
+      Consumer<Map<String, T>> chunkConsumer) {
+    FileSystem fs = FsUtils.getFileSystem(hdfsConfigs, path);
+    List<Path> paths = parseWildcardPath(fs, path);
+
+    // Each call is a separate pass, identical copies must be emitted once per pass
+    Predicate<String> emittedFilter = index.emittedFilter();
+    AtomicReference<Map<String, T>> chunk = new AtomicReference<>(new HashMap<>(chunkSize));
+    readEach(
+        fs,
+        clazz,
+        paths,
+        next -> {
+          if (emittedFilter.test(next.getId())) {
+            chunk.get().put(next.getId(), next);
+          }
+          if (chunk.get().size() >= chunkSize) {
+            chunkConsumer.accept(chunk.getAndSet(new HashMap<>(chunkSize)));
+          }
+        });
+
+    if (!chunk.get().isEmpty()) {
+      chunkConsumer.accept(chunk.get());
+    }
+  }
+
   /**
    * Read {@link Record#getId()} distinct records
    *
@@ -172,9 +244,31 @@ public class AvroReader {
     return map;
   }
 
+  /**
+   * Read records one by one
+   *
+   * @param clazz instance of {@link Record}
+   * @param paths list of paths to the files
+   */
+  @SneakyThrows
+  private static <T extends Record> void readEach(
+      FileSystem fs, Class<T> clazz, List<Path> paths, Consumer<T> consumer) {
+    for (Path path : paths) {
+      // Read avro record from disk/hdfs
+      DatumReader<T> reader = new SpecificDatumReader<>(clazz);
+      try (SeekableInput input =
+              new AvroFSInput(fs.open(path), fs.getContentSummary(path).getLength());
+          DataFileReader<T> dataFileReader = new DataFileReader<>(input, reader)) {
+        while (dataFileReader.hasNext()) {
+          consumer.accept(dataFileReader.next());
+        }
+      }
+    }
+  }
+
   /** Read multiple files, with the wildcard in the path */
   @SneakyThrows
-  private static List<Path> parseWildcardPath(FileSystem fs, String path) {
+  static List<Path> parseWildcardPath(FileSystem fs, String path) {
     if (path.contains("*")) {
       Path pp = new Path(path).getParent();
       return FsUtils.getFilesByExt(fs, pp, AVRO_EXTENSION);
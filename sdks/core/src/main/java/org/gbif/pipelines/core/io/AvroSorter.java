@@ -0,0 +1,107 @@
+package org.gbif.pipelines.core.io;
+
+import static org.gbif.pipelines.common.PipelinesVariables.Pipeline.AVRO_EXTENSION;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.avro.Schema;
+import org.apache.avro.file.CodecFactory;
+import org.apache.avro.file.DataFileConstants;
+import org.apache.avro.file.DataFileReader;
+import org.apache.avro.file.DataFileWriter;
+import org.apache.avro.file.SeekableInput;
+import org.apache.avro.specific.SpecificDatumReader;
+import org.apache.avro.specific.SpecificDatumWriter;
+import org.apache.hadoop.fs.AvroFSInput;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.gbif.pipelines.core.pojo.HdfsConfigs;
+import org.gbif.pipelines.core.utils.FsUtils;
+import org.gbif.pipelines.io.avro.Record;
+
+/**
+ * Rewrites avro files as runs sorted by {@link Record#getId()}, so they can be merged by {@link
+ * SortedAvroReader} without reading whole files into memory. Only one run is kept in memory at a
+ * time.
+ */
+@Slf4j
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class AvroSorter {
+
+  static final String RUN_SUFFIX = "-run-";
+
+  private static final Comparator<Record> ID_COMPARATOR = Comparator.comparing(Record::getId);
+
+  /**
+   * Replaces every avro file by runs sorted by {@link Record#getId()}
+   *
+   * @param clazz instance of {@link Record}
+   * @param path sting path, a wildcard can be used in the file name, like /a/b/c*.avro to sort
+   *     multiple files
+   * @param runSize max number of records in a run
+   */
+  @SneakyThrows
+  public static <T extends Record> void sortById(
+      HdfsConfigs hdfsConfigs, Class<T> clazz, String path, int runSize) {
+    FileSystem fs = FsUtils.getFileSystem(hdfsConfigs, path);
+    if (!fs.exists(new Path(path).getParent())) {
+      return;
+    }
+    for (Path p : AvroReader.parseWildcardPath(fs, path)) {
+      if (!p.getName().contains(RUN_SUFFIX)) {
+        sortFile(fs, clazz, p, Math.max(1, runSize));
+      }
+    }
+  }
+
+  private static <T extends Record> void sortFile(
+      FileSystem fs, Class<T> clazz, Path path, int runSize) throws IOException {
+    String fileName = path.getName();
+    String baseName = fileName.substring(0, fileName.length() - AVRO_EXTENSION.length());
+    List<T> run = new ArrayList<>(runSize);
+    int runs = 0;
+
+    try (SeekableInput input =
+            new AvroFSInput(fs.open(path), fs.getContentSummary(path).getLength());
+        DataFileReader<T> reader =
+            new DataFileReader<>(input, new SpecificDatumReader<>(clazz))) {
+      Schema schema = reader.getSchema();
+      String codec = reader.getMetaString(DataFileConstants.CODEC);
+      while (reader.hasNext()) {
+        run.add(reader.next());
+        if (run.size() == runSize) {
+          writeRun(fs, schema, codec, new Path(path.getParent(), runName(baseName, runs++)), run);
+        }
+      }
+      if (!run.isEmpty() || runs == 0) {
+        writeRun(fs, schema, codec, new Path(path.getParent(), runName(baseName, runs++)), run);
+      }
+    }
+
+    fs.delete(path, false);
+    log.info("File {} has been sorted into {} runs", path, runs);
+  }
+
+  private static String runName(String baseName, int run) {
+    return baseName + RUN_SUFFIX + run + AVRO_EXTENSION;
+  }
+
+  private static <T extends Record> void writeRun(
+      FileSystem fs, Schema schema, String codec, Path path, List<T> run) throws IOException {
+    run.sort(ID_COMPARATOR);
+    try (DataFileWriter<T> writer = new DataFileWriter<>(new SpecificDatumWriter<T>(schema))) {
+      writer.setCodec(codec == null ? CodecFactory.nullCodec() : CodecFactory.fromString(codec));
+      writer.create(schema, fs.create(path));
+      for (T t : run) {
+        writer.append(t);
+      }
+    }
+    run.clear();
+  }
+}
@@ -1,22 +1,24 @@
 package org.gbif.pipelines.core.io;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.Optional;
-import java.util.Queue;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.Phaser;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
-import java.util.function.Consumer;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
 import lombok.Builder;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.http.HttpHost;
 import org.elasticsearch.ElasticsearchException;
+import org.elasticsearch.action.bulk.BulkItemResponse;
 import org.elasticsearch.action.bulk.BulkRequest;
 import org.elasticsearch.action.bulk.BulkResponse;
 import org.elasticsearch.action.index.IndexRequest;
@@ -24,11 +26,27 @@ import org.elasticsearch.client.RequestOptions;
 import org.elasticsearch.client.RestClient;
 import org.elasticsearch.client.RestHighLevelClient;
 import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.rest.RestStatus;
 
+/**
+ * Pushes records into Elasticsearch using bulk requests.
+ *
+ * <p>In async mode the number of bulk requests in flight is limited by backPressure credits, a new
+ * request waits for a credit instead of polling. Items rejected by Elasticsearch because of the
+ * overloaded queues (429, es_rejected_execution_exception) are retried with exponential backoff,
+ * any other failed item fails the whole job. If esTargetBatchLatencyMs is set, the number of
+ * actions in a request adapts to the observed latency, up to esMaxBatchSize.
+ *
+ * <p>{@link #write()} pushes the records and closes the client. Records read in chunks can be
+ * pushed by one writer using {@link #write(Collection, Function)}, the client and the adapted batch
+ * size are reused until the writer is closed.
+ */
 @Slf4j
 @Builder
 @SuppressWarnings("all")
-public class ElasticsearchWriter<T> {
+public class ElasticsearchWriter<T> implements Closeable {
+
+  private static final long MIN_BATCH_SIZE = 10L;
 
   private String[] esHosts;
   private int syncModeThreshold;
@@ -38,94 +56,228 @@ public class ElasticsearchWriter<T> {
   private long esMaxBatchSize;
   private long esMaxBatchSizeBytes;
   private Integer backPressure;
+  private Long esTargetBatchLatencyMs;
+  @Builder.Default private int esMaxRetries = 5;
+  @Builder.Default private long esRetryBackoffMs = 500L;
+
+  private final AtomicReference<RestHighLevelClient> client = new AtomicReference<>();
+  private final AtomicLong batchSize = new AtomicLong();
+  private final LongAdder batchCounter = new LongAdder();
+  private final LongAdder actionCounter = new LongAdder();
+  private final LongAdder retryCounter = new LongAdder();
+  private final LongAdder latencyCounter = new LongAdder();
 
+  /** Pushes the records of the builder and closes the client */
   @SneakyThrows
   public void write() {
+    try {
+      write(records, indexRequestFn);
+    } finally {
+      close();
+    }
+  }
+
+  /** Pushes the records using the client of the writer, the client is created on the first call */
+  @SneakyThrows
+  public void write(Collection<T> records, Function<T, IndexRequest> indexRequestFn) {
 
     boolean useSyncMode = syncModeThreshold > records.size();
+    long startTime = System.currentTimeMillis();
+    batchCounter.reset();
+    actionCounter.reset();
+    retryCounter.reset();
+    latencyCounter.reset();
 
-    // Create ES client and extra function
-    HttpHost[] hosts = Arrays.stream(esHosts).map(HttpHost::create).toArray(HttpHost[]::new);
-    try (RestHighLevelClient client = new RestHighLevelClient(RestClient.builder(hosts))) {
-
-      final Phaser phaser = new Phaser(1);
-
-      final Queue<BulkRequest> requests = new LinkedBlockingQueue<>();
-      requests.add(new BulkRequest().timeout(TimeValue.timeValueMinutes(5L)));
-
-      Consumer<T> addIndexRequestFn =
-          br ->
-              Optional.ofNullable(requests.peek())
-                  .ifPresent(req -> req.add(indexRequestFn.apply(br)));
-
-      Consumer<BulkRequest> clientBulkFn =
-          br -> {
-            try {
-              log.info("Push ES request, number of actions - {}", br.numberOfActions());
-              BulkResponse bulk = client.bulk(br, RequestOptions.DEFAULT);
-              phaser.arrive();
-              if (bulk.hasFailures()) {
-                log.error(bulk.buildFailureMessage());
-                throw new ElasticsearchException(bulk.buildFailureMessage());
-              }
-            } catch (IOException ex) {
-              log.error(ex.getMessage(), ex);
-              throw new ElasticsearchException(ex.getMessage(), ex);
-            }
-          };
-
-      Runnable pushIntoEsFn =
-          () ->
-              Optional.ofNullable(requests.poll())
-                  .filter(req -> req.numberOfActions() > 0)
-                  .ifPresent(
-                      req -> {
-                        phaser.register();
-                        if (useSyncMode) {
-                          clientBulkFn.accept(req);
-                        } else {
-                          CompletableFuture.runAsync(() -> clientBulkFn.accept(req), executor);
-                        }
-                      });
+    RestHighLevelClient client = getOrCreateClient();
+
+    final Phaser phaser = new Phaser(1);
+    final Semaphore credits =
+        new Semaphore(backPressure != null && backPressure > 0 ? backPressure : Integer.MAX_VALUE);
+    final AtomicReference<Throwable> failure = new AtomicReference<>();
 
+    try {
       // Push requests into ES
+      BulkRequest request = createBulkRequest();
       for (T t : records) {
-        addIndexRequestFn.accept(t);
-        BulkRequest peek = requests.peek();
-        if (peek == null
-            || peek.numberOfActions() > esMaxBatchSize - 1
-            || peek.estimatedSizeInBytes() > esMaxBatchSizeBytes) {
-          checkBackpressure(useSyncMode, phaser);
-          pushIntoEsFn.run();
-          requests.add(new BulkRequest().timeout(TimeValue.timeValueMinutes(5L)));
+        request.add(indexRequestFn.apply(t));
+        if (request.numberOfActions() >= batchSize.get()
+            || request.estimatedSizeInBytes() > esMaxBatchSizeBytes) {
+          push(client, request, useSyncMode, phaser, credits, failure);
+          request = createBulkRequest();
         }
       }
 
       // Final push
-      pushIntoEsFn.run();
-
-      // Wait for all futures
+      if (request.numberOfActions() > 0) {
+        push(client, request, useSyncMode, phaser, credits, failure);
+      }
+    } finally {
+      // Wait for all futures, also if a request failed, before the client can be closed
       log.info("Waiting for all threads to arrive...");
       phaser.arriveAndAwaitAdvance();
-      log.info("Writing data to ES has been finished");
     }
+    throwIfFailed(failure);
+
+    long batches = batchCounter.sum();
+    long seconds = Math.max(1L, (System.currentTimeMillis() - startTime) / 1_000L);
+    log.info(
+        "Writing data to ES has been finished, actions - {}, bulk requests - {}, retried actions - {}, "
+            + "avg latency - {} ms, throughput - {} actions/s",
+        actionCounter.sum(),
+        batches,
+        retryCounter.sum(),
+        batches == 0 ? 0 : latencyCounter.sum() / batches,
+        actionCounter.sum() / seconds);
+  }
+
+  /** Closes the client, the writer can't be used afterwards */
+  @Override
+  public void close() throws IOException {
+    RestHighLevelClient c = client.getAndSet(null);
+    if (c != null) {
+      c.close();
+    }
+  }
+
+  private RestHighLevelClient getOrCreateClient() {
+    RestHighLevelClient c = client.get();
+    if (c == null) {
+      HttpHost[] hosts = Arrays.stream(esHosts).map(HttpHost::create).toArray(HttpHost[]::new);
+      c = new RestHighLevelClient(RestClient.builder(hosts));
+      client.set(c);
+      batchSize.set(esMaxBatchSize);
+    }
+    return c;
+  }
+
+  /** Runs the request in the current thread or waits for a credit and runs it async */
+  @SneakyThrows
+  private void push(
+      RestHighLevelClient client,
+      BulkRequest request,
+      boolean useSyncMode,
+      Phaser phaser,
+      Semaphore credits,
+      AtomicReference<Throwable> failure) {
+    if (useSyncMode) {
+      bulk(client, request);
+      return;
+    }
+
+    credits.acquire();
+    throwIfFailed(failure);
+    phaser.register();
+    CompletableFuture.runAsync(() -> bulk(client, request), executor)
+        .whenComplete(
+            (r, ex) -> {
+              if (ex != null) {
+                failure.compareAndSet(null, ex);
+              }
+              credits.release();
+              phaser.arriveAndDeregister();
+            });
   }
 
-  /**
-   * If the mode is async, check back pressure, the number of running async tasks must be less than
-   * backPressure setting
-   */
-  private void checkBackpressure(boolean useSyncMode, Phaser phaser) {
-    if (!useSyncMode && backPressure != null && backPressure > 0) {
-      while (phaser.getUnarrivedParties() > backPressure) {
-        log.info("Back pressure barrier: too many rows wainting...");
-        try {
-          TimeUnit.MILLISECONDS.sleep(100L);
-        } catch (InterruptedException ex) {
-          log.warn("Back pressure barrier", ex);
-          Thread.currentThread().interrupt();
+  /** Sends the request, retries items rejected by overloaded nodes */
+  private void bulk(RestHighLevelClient client, BulkRequest request) {
+    BulkRequest current = request;
+    for (int attempt = 0; ; attempt++) {
+      BulkResponse response = send(client, current);
+      if (!response.hasFailures()) {
+        return;
+      }
+
+      BulkRequest retry = createBulkRequest();
+      for (BulkItemResponse item : response.getItems()) {
+        if (item.isFailed()) {
+          if (!isRetryable(item.getFailure()) || attempt >= esMaxRetries) {
+            log.error(response.buildFailureMessage());
+            throw new ElasticsearchException(response.buildFailureMessage());
+          }
+          retry.add(current.requests().get(item.getItemId()));
         }
       }
+
+      long backoff = esRetryBackoffMs << attempt;
+      log.warn(
+          "ES rejected {} actions, retry attempt {} in {} ms",
+          retry.numberOfActions(),
+          attempt + 1,
+          backoff);
+      retryCounter.add(retry.numberOfActions());
+      sleep(backoff);
+      current = retry;
+    }
+  }
+
+  private BulkResponse send(RestHighLevelClient client, BulkRequest request) {
+    try {
+      long start = System.currentTimeMillis();
+      BulkResponse response = client.bulk(request, RequestOptions.DEFAULT);
+      long latency = System.currentTimeMillis() - start;
+
+      batchCounter.increment();
+      actionCounter.add(request.numberOfActions());
+      latencyCounter.add(latency);
+      adaptBatchSize(latency);
+
+      log.info(
+          "Pushed ES request, number of actions - {}, latency - {} ms, throughput - {} actions/s",
+          request.numberOfActions(),
+          latency,
+          request.numberOfActions() * 1_000L / Math.max(1L, latency));
+      return response;
+    } catch (IOException ex) {
+      log.error(ex.getMessage(), ex);
+      throw new ElasticsearchException(ex.getMessage(), ex);
+    }
+  }
+
+  /** Halves the batch size if a request is slower than the target, grows it slowly otherwise */
+  private void adaptBatchSize(long latency) {
+    if (esTargetBatchLatencyMs == null || esTargetBatchLatencyMs <= 0) {
+      return;
+    }
+    long step = Math.max(1L, esMaxBatchSize / 10);
+    batchSize.updateAndGet(
+        size -> {
+          if (latency > esTargetBatchLatencyMs) {
+            return Math.max(Math.min(MIN_BATCH_SIZE, esMaxBatchSize), size / 2);
+          }
+          if (latency < esTargetBatchLatencyMs / 2) {
+            return Math.min(esMaxBatchSize, size + step);
+          }
+          return size;
+        });
+  }
+
+  private static boolean isRetryable(BulkItemResponse.Failure failure) {
+    return failure.getStatus() == RestStatus.TOO_MANY_REQUESTS
+        || (failure.getMessage() != null
+            && failure.getMessage().contains("es_rejected_execution_exception"));
+  }
+
+  private static void throwIfFailed(AtomicReference<Throwable> failure) {
+    Throwable ex = failure.get();
+    if (ex != null) {
+      Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+      if (cause instanceof ElasticsearchException) {
+        throw (ElasticsearchException) cause;
+      }
+      throw new ElasticsearchException(cause.getMessage(), cause);
+    }
+  }
+
+  private static BulkRequest createBulkRequest() {
+    return new BulkRequest().timeout(TimeValue.timeValueMinutes(5L));
+  }
+
+  private static void sleep(long millis) {
+    try {
+      TimeUnit.MILLISECONDS.sleep(millis);
+    } catch (InterruptedException ex) {
+      log.warn("Retry backoff has been interrupted", ex);
+      Thread.currentThread().interrupt();
     }
   }
 }
@@ -0,0 +1,102 @@
+package org.gbif.pipelines.core.io;
+
+import com.google.common.io.CountingOutputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.SneakyThrows;
+import org.apache.avro.Schema;
+import org.apache.avro.file.CodecFactory;
+import org.apache.avro.file.DataFileWriter;
+import org.apache.avro.specific.SpecificDatumWriter;
+
+/**
+ * Avro writer without a shared lock, every thread appends to its own part file. A part file is
+ * closed and replaced by a new one when it reaches maxShardBytes, readers pick up all part files
+ * using a wildcard in the file name, like /a/b/c*.avro
+ */
+public class ShardedDataFileWriter<T> extends SyncDataFileWriter<T> {
+
+  private final Map<Long, Shard<T>> shards = new ConcurrentHashMap<>();
+  private final AtomicInteger shardCounter = new AtomicInteger();
+
+  private final Schema schema;
+  private final String codec;
+  private final Integer syncInterval;
+  private final long maxShardBytes;
+  private final IntFunction<OutputStream> outputStreamFn;
+
+  /**
+   * @param outputStreamFn creates an output stream for the part file number
+   * @param maxShardBytes max size of a part file, the size is checked after every flushed block
+   */
+  @Builder
+  private ShardedDataFileWriter(
+      @NonNull Schema schema,
+      @NonNull String codec,
+      @NonNull IntFunction<OutputStream> outputStreamFn,
+      Integer syncInterval,
+      long maxShardBytes) {
+    this.schema = schema;
+    this.codec = codec;
+    this.outputStreamFn = outputStreamFn;
+    this.syncInterval = syncInterval;
+    this.maxShardBytes = maxShardBytes;
+  }
+
+  /** Appends to the part file of the current thread, no lock is needed */
+  @Override
+  @SneakyThrows
+  public void append(T record) {
+    long threadId = Thread.currentThread().getId();
+    Shard<T> shard = shards.computeIfAbsent(threadId, id -> createShard());
+    shard.writer.append(record);
+    if (maxShardBytes > 0 && shard.counter.getCount() >= maxShardBytes) {
+      shards.remove(threadId);
+      shard.writer.close();
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    // Keep at least one file, readers expect it even for an empty output
+    if (shardCounter.get() == 0) {
+      shards.put(-1L, createShard());
+    }
+    for (Shard<T> shard : shards.values()) {
+      shard.writer.close();
+    }
+    shards.clear();
+  }
+
+  @SneakyThrows
+  private Shard<T> createShard() {
+    CountingOutputStream counter =
+        new CountingOutputStream(outputStreamFn.apply(shardCounter.getAndIncrement()));
+
+    DataFileWriter<T> dataFileWriter = new DataFileWriter<>(new SpecificDatumWriter<>(schema));
+    dataFileWriter.setCodec(CodecFactory.fromString(codec));
+    if (syncInterval != null) {
+      dataFileWriter.setSyncInterval(syncInterval);
+    }
+    dataFileWriter.create(schema, new BufferedOutputStream(counter));
+
+    return new Shard<>(dataFileWriter, counter);
+  }
+
+  private static class Shard<T> {
+    private final DataFileWriter<T> writer;
+    private final CountingOutputStream counter;
+
+    private Shard(DataFileWriter<T> writer, CountingOutputStream counter) {
+      this.writer = writer;
+      this.counter = counter;
+    }
+  }
+}
@@ -0,0 +1,146 @@
+package org.gbif.pipelines.core.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import lombok.SneakyThrows;
+import org.apache.avro.file.DataFileReader;
+import org.apache.avro.file.SeekableInput;
+import org.apache.avro.specific.SpecificDatumReader;
+import org.apache.hadoop.fs.AvroFSInput;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.gbif.pipelines.core.pojo.HdfsConfigs;
+import org.gbif.pipelines.core.utils.FsUtils;
+import org.gbif.pipelines.io.avro.Record;
+
+/**
+ * Merges avro files sorted by {@link Record#getId()}, see {@link AvroSorter}, and returns records
+ * in id order. Only the current record of every file is kept in memory.
+ */
+public class SortedAvroReader<T extends Record> implements Closeable {
+
+  private final PriorityQueue<Run<T>> queue =
+      new PriorityQueue<>(Comparator.comparing((Run<T> r) -> r.head.getId()));
+  private final List<Run<T>> runs = new ArrayList<>();
+
+  private SortedAvroReader() {}
+
+  /**
+   * Opens all files of the path, a missing directory is read as empty
+   *
+   * @param clazz instance of {@link Record}
+   * @param path sting path, a wildcard can be used in the file name, like /a/b/c*.avro to merge
+   *     multiple files
+   */
+  @SneakyThrows
+  public static <T extends Record> SortedAvroReader<T> open(
+      HdfsConfigs hdfsConfigs, Class<T> clazz, String path) {
+    SortedAvroReader<T> reader = new SortedAvroReader<>();
+    FileSystem fs = FsUtils.getFileSystem(hdfsConfigs, path);
+    Path p = new Path(path);
+    if (!fs.exists(path.contains("*") ? p.getParent() : p)) {
+      return reader;
+    }
+    try {
+      for (Path runPath : AvroReader.parseWildcardPath(fs, path)) {
+        SeekableInput input =
+            new AvroFSInput(fs.open(runPath), fs.getContentSummary(runPath).getLength());
+        DataFileReader<T> fileReader =
+            new DataFileReader<>(input, new SpecificDatumReader<>(clazz));
+        Run<T> run = new Run<>(runPath, fileReader);
+        reader.runs.add(run);
+        if (run.advance()) {
+          reader.queue.add(run);
+        }
+      }
+    } catch (IOException | RuntimeException ex) {
+      reader.close();
+      throw ex;
+    }
+    return reader;
+  }
+
+  public boolean hasNext() {
+    return !queue.isEmpty();
+  }
+
+  /** Returns the record with the smallest id */
+  public T next() {
+    Run<T> run = queue.poll();
+    if (run == null) {
+      throw new NoSuchElementException();
+    }
+    T next = run.head;
+    if (run.advance()) {
+      queue.add(run);
+    }
+    return next;
+  }
+
+  /**
+   * Skips records with ids smaller than the given one, ids must be requested in ascending order
+   *
+   * @return the record with the id, the last one if the id is repeated, or null if it is absent
+   */
+  public T seek(String id) {
+    T found = null;
+    while (!queue.isEmpty()) {
+      int cmp = queue.peek().head.getId().compareTo(id);
+      if (cmp > 0) {
+        break;
+      }
+      T next = next();
+      if (cmp == 0) {
+        found = next;
+      }
+    }
+    return found;
+  }
+
+  @Override
+  public void close() throws IOException {
+    IOException exception = null;
+    for (Run<T> run : runs) {
+      try {
+        run.reader.close();
+      } catch (IOException ex) {
+        exception = ex;
+      }
+    }
+    runs.clear();
+    queue.clear();
+    if (exception != null) {
+      throw exception;
+    }
+  }
+
+  /** Sorted file and its current record */
+  private static class Run<T extends Record> {
+    private final Path path;
+    private final DataFileReader<T> reader;
+    private T head;
+
+    private Run(Path path, DataFileReader<T> reader) {
+      this.path = path;
+      this.reader = reader;
+    }
+
+    private boolean advance() {
+      if (!reader.hasNext()) {
+        head = null;
+        return false;
+      }
+      T next = reader.next();
+      if (head != null && head.getId().compareTo(next.getId()) > 0) {
+        throw new IllegalStateException("Avro file is not sorted by id: " + path);
+      }
+      head = next;
+      return true;
+    }
+  }
+}
@@ -2,16 +2,23 @@ package org.gbif.pipelines.core.io;
 
 import java.io.Closeable;
 import java.io.IOException;
-import lombok.AllArgsConstructor;
 import lombok.SneakyThrows;
 import org.apache.avro.file.DataFileWriter;
 
 /** Sync class for avro DataFileWriter, created to avoid an issue during file writing */
-@AllArgsConstructor
 public class SyncDataFileWriter<T> implements Closeable {
 
   private final DataFileWriter<T> dataFileWriter;
 
+  public SyncDataFileWriter(DataFileWriter<T> dataFileWriter) {
+    this.dataFileWriter = dataFileWriter;
+  }
+
+  /** For subclasses which manage their own avro file writers */
+  protected SyncDataFileWriter() {
+    this.dataFileWriter = null;
+  }
+
   /** Synchronized append method, helps avoid the ArrayIndexOutOfBoundsException */
   @SneakyThrows
   public synchronized void append(T record) {
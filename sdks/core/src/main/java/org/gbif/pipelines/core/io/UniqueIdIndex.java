@@ -0,0 +1,88 @@
+package org.gbif.pipelines.core.io;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Predicate;
+import lombok.NoArgsConstructor;
+
+/**
+ * Compact index of {@link org.gbif.pipelines.io.avro.Record#getId()} values, used to detect
+ * duplicates without holding whole records in memory.
+ *
+ * <p>Ids are stored as 64-bit murmur3 hashes and record contents as their 32-bit hash codes, in
+ * primitive collections, so an entry costs roughly 16 bytes regardless of the record size. The
+ * probability of two different ids sharing a hash is negligible for datasets of any realistic size.
+ */
+@NoArgsConstructor(staticName = "create")
+public class UniqueIdIndex {
+
+  private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+
+  private final Long2IntOpenHashMap contentMap = new Long2IntOpenHashMap();
+  private final LongSet repeatedSet = new LongOpenHashSet();
+  private final LongSet duplicateSet = new LongOpenHashSet();
+
+  /**
+   * Adds the id and the content hash of a record
+   *
+   * @return true if the id has just become a duplicate, the same id with a different content
+   */
+  public synchronized boolean add(String id, int contentHash) {
+    long key = hash(id);
+    if (duplicateSet.contains(key)) {
+      return false;
+    }
+    if (!contentMap.containsKey(key)) {
+      contentMap.put(key, contentHash);
+      return false;
+    }
+    if (contentMap.get(key) == contentHash) {
+      repeatedSet.add(key);
+      return false;
+    }
+    contentMap.remove(key);
+    repeatedSet.remove(key);
+    duplicateSet.add(key);
+    return true;
+  }
+
+  /** The id was added and has no duplicates with a different content */
+  public synchronized boolean isUnique(String id) {
+    return contentMap.containsKey(hash(id));
+  }
+
+  /**
+   * Returns a filter for one pass over the records, it passes unique ids and identical copies of the
+   * same record only once. The emitted state belongs to the filter, so every pass needs a new one
+   */
+  public Predicate<String> emittedFilter() {
+    LongSet emittedSet = new LongOpenHashSet();
+    return id -> markEmitted(id, emittedSet);
+  }
+
+  /**
+   * Marks the id as consumed, used to pass identical copies of the same record only once
+   *
+   * @return true if the id is unique and wasn't marked before
+   */
+  private synchronized boolean markEmitted(String id, LongSet emittedSet) {
+    long key = hash(id);
+    if (!contentMap.containsKey(key)) {
+      return false;
+    }
+    return !repeatedSet.contains(key) || emittedSet.add(key);
+  }
+
+  /** Number of unique ids */
+  public synchronized int size() {
+    return contentMap.size();
+  }
+
+  private static long hash(String id) {
+    return HASH_FUNCTION.hashString(id, StandardCharsets.UTF_8).asLong();
+  }
+}
@@ -11,18 +11,15 @@ import org.gbif.kvs.geocode.LatLng;
 public class BinaryBitmapLookup {
 
   // World map image lookup
-  private final BufferedImage img;
-  private static final int BORDER = 0x000000;
+  private final BitmapPaletteIndex bitmap;
   private static final int NOTHING = 0xFFFFFF;
-  private final int imgWidth;
-  private final int imgHeight;
+  private final int nothingIndex;
   private final String kvStoreType;
 
   @SneakyThrows
   private BinaryBitmapLookup(BufferedImage img, String kvStoreType) {
-    this.img = img;
-    this.imgHeight = img != null ? img.getHeight() : -1;
-    this.imgWidth = img != null ? img.getWidth() : -1;
+    this.bitmap = BitmapPaletteIndex.getInstance(img);
+    this.nothingIndex = bitmap.indexOf(NOTHING);
     this.kvStoreType = kvStoreType;
   }
 
@@ -41,27 +38,18 @@ public class BinaryBitmapLookup {
     double lat = latLng.getLatitude();
     double lng = latLng.getLongitude();
     // Convert the latitude and longitude to x,y coordinates on the image.
-    // The axes are swapped, and the image's origin is the top left.
-    int x = (int) Math.round((lng + 180d) / 360d * (imgWidth - 1));
-    int y = imgHeight - 1 - (int) Math.round((lat + 90d) / 180d * (imgHeight - 1));
+    int x = bitmap.toX(lng);
+    int y = bitmap.toY(lat);
 
-    int colour = img.getRGB(x, y) & 0x00FFFFFF; // Ignore possible transparency.
+    int index = bitmap.getIndex(x, y);
 
     if (log.isDebugEnabled()) {
-      String hex = String.format("#%06x", colour);
+      String hex = String.format("#%06x", bitmap.getColour(index));
       log.debug(
           "[{}] LatLong {},{} has pixel {},{} with colour {}", kvStoreType, lat, lng, x, y, hex);
     }
 
-    switch (colour) {
-      case BORDER:
-        return true;
-
-      case NOTHING:
-        return false;
-
-      default:
-        return true;
-    }
+    // Border and any other colour intersect
+    return index != nothingIndex;
   }
 }
@@ -0,0 +1,99 @@
+package org.gbif.pipelines.core.parsers.location.cache;
+
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import java.awt.image.BufferedImage;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bitmap decoded once into an off-heap array of palette indexes, 2 bytes per pixel, and a palette
+ * of distinct colours. Instances are shared by all caches using the same image in a JVM.
+ */
+@Slf4j
+public class BitmapPaletteIndex {
+
+  private static final Map<BufferedImage, BitmapPaletteIndex> INSTANCES =
+      Collections.synchronizedMap(new WeakHashMap<>());
+
+  private final CharBuffer pixels;
+  private final int[] palette;
+  @Getter private final int width;
+  @Getter private final int height;
+
+  private BitmapPaletteIndex(BufferedImage img) {
+    this.width = img.getWidth();
+    this.height = img.getHeight();
+    this.pixels = ByteBuffer.allocateDirect(width * height * Character.BYTES).asCharBuffer();
+
+    Int2IntOpenHashMap colourMap = new Int2IntOpenHashMap();
+    colourMap.defaultReturnValue(-1);
+
+    int[] row = new int[width];
+    for (int y = 0; y < height; y++) {
+      img.getRGB(0, y, width, 1, row, 0, width);
+      for (int x = 0; x < width; x++) {
+        int colour = row[x] & 0x00FFFFFF; // Ignore possible transparency.
+        int index = colourMap.get(colour);
+        if (index == -1) {
+          index = colourMap.size();
+          if (index > Character.MAX_VALUE) {
+            throw new IllegalArgumentException("Bitmap has more than 65536 colours");
+          }
+          colourMap.put(colour, index);
+        }
+        pixels.put(y * width + x, (char) index);
+      }
+    }
+
+    this.palette = new int[colourMap.size()];
+    colourMap.int2IntEntrySet().forEach(e -> palette[e.getIntValue()] = e.getIntKey());
+
+    log.info("Bitmap {}x{} has been decoded, number of colours - {}", width, height, size());
+  }
+
+  /** Decodes the image or returns the instance decoded before for the same image */
+  public static BitmapPaletteIndex getInstance(@NonNull BufferedImage img) {
+    return INSTANCES.computeIfAbsent(img, BitmapPaletteIndex::new);
+  }
+
+  /** Converts the longitude to the x coordinate on the image */
+  public int toX(double lng) {
+    return (int) Math.round((lng + 180d) / 360d * (width - 1));
+  }
+
+  /** Converts the latitude to the y coordinate on the image, the image's origin is the top left */
+  public int toY(double lat) {
+    return height - 1 - (int) Math.round((lat + 90d) / 180d * (height - 1));
+  }
+
+  /** Palette index of the pixel */
+  public int getIndex(int x, int y) {
+    return pixels.get(y * width + x);
+  }
+
+  /** Colour of the palette index */
+  public int getColour(int index) {
+    return palette[index];
+  }
+
+  /** Palette index of the colour, or -1 if the image doesn't contain the colour */
+  public int indexOf(int colour) {
+    for (int i = 0; i < palette.length; i++) {
+      if (palette[i] == colour) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /** Number of distinct colours */
+  public int size() {
+    return palette.length;
+  }
+}
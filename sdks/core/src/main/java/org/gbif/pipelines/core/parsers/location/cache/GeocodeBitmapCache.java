@@ -2,8 +2,7 @@ package org.gbif.pipelines.core.parsers.location.cache;
 
 import java.awt.image.BufferedImage;
 import java.util.Collections;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import lombok.NonNull;
@@ -20,12 +19,14 @@ public class GeocodeBitmapCache {
   private final Function<LatLng, GeocodeResponse> loadFn;
 
   // World map image lookup
-  private final BufferedImage img;
+  private final BitmapPaletteIndex bitmap;
   private static final int BORDER = 0x000000;
   private static final int NOTHING = 0xFFFFFF;
-  private final int imgWidth;
-  private final int imgHeight;
-  private final Map<Integer, GeocodeResponse> colourKey = new ConcurrentHashMap<>();
+  private final int borderIndex;
+  private final int nothingIndex;
+  // Responses by palette index
+  private final AtomicReferenceArray<GeocodeResponse> colourKey;
+  private final GeocodeResponse nothingResponse = new GeocodeResponse(Collections.emptyList());
   public static final String DEFAULT_KV_STORE = "COUNTRY";
   private final String kvStoreType;
   private boolean missEqualsFail = true;
@@ -37,9 +38,10 @@ public class GeocodeBitmapCache {
       String kvStoreType,
       boolean missEqualsFail) {
     this.loadFn = loadFn;
-    this.img = img;
-    this.imgHeight = img != null ? img.getHeight() : -1;
-    this.imgWidth = img != null ? img.getWidth() : -1;
+    this.bitmap = BitmapPaletteIndex.getInstance(img);
+    this.borderIndex = bitmap.indexOf(BORDER);
+    this.nothingIndex = bitmap.indexOf(NOTHING);
+    this.colourKey = new AtomicReferenceArray<>(bitmap.size());
     this.kvStoreType = kvStoreType;
     this.missEqualsFail = missEqualsFail;
   }
@@ -68,39 +70,52 @@ public class GeocodeBitmapCache {
     double lat = latLng.getLatitude();
     double lng = latLng.getLongitude();
     // Convert the latitude and longitude to x,y coordinates on the image.
-    // The axes are swapped, and the image's origin is the top left.
-    int x = (int) Math.round((lng + 180d) / 360d * (imgWidth - 1));
-    int y = imgHeight - 1 - (int) Math.round((lat + 90d) / 180d * (imgHeight - 1));
+    int x = bitmap.toX(lng);
+    int y = bitmap.toY(lat);
 
-    int colour = img.getRGB(x, y) & 0x00FFFFFF; // Ignore possible transparency.
+    int index = bitmap.getIndex(x, y);
 
-    String hex = String.format("#%06x", colour);
-    log.debug(
-        "[{}] LatLong {},{} has pixel {},{} with colour {}", kvStoreType, lat, lng, x, y, hex);
-
-    switch (colour) {
-      case BORDER:
-        return null;
+    if (log.isDebugEnabled()) {
+      log.debug(
+          "[{}] LatLong {},{} has pixel {},{} with colour {}",
+          kvStoreType,
+          lat,
+          lng,
+          x,
+          y,
+          toHex(index));
+    }
 
-      case NOTHING:
-        return new GeocodeResponse(Collections.emptyList());
+    if (index == borderIndex) {
+      return null;
+    }
+    if (index == nothingIndex) {
+      return nothingResponse;
+    }
 
-      default:
-        return getDefaultGeocodeResponse(lat, lng, x, y, colour, hex);
+    GeocodeResponse locations = colourKey.get(index);
+    if (locations != null) {
+      if (log.isDebugEnabled()) {
+        log.debug(
+            "[{}] Known colour {} (LL {},{}; pixel {},{})",
+            kvStoreType,
+            toHex(index),
+            lat,
+            lng,
+            x,
+            y);
+      }
+      return locations;
     }
+    return getDefaultGeocodeResponse(lat, lng, x, y, index);
   }
 
   private GeocodeResponse getDefaultGeocodeResponse(
-      double lat, double lng, int x, int y, int colour, String hex) {
+      double lat, double lng, int x, int y, int index) {
 
-    GeocodeResponse locations;
-    if (colourKey.containsKey(colour)) {
-      locations = colourKey.get(colour);
-      log.debug("[{}] Known colour {} (LL {},{}; pixel {},{})", kvStoreType, hex, lat, lng, x, y);
-      return locations;
-    }
-
-    locations = loadFn.apply(LatLng.builder().withLatitude(lat).withLongitude(lng).build());
+    String hex = toHex(index);
+    GeocodeResponse locations =
+        loadFn.apply(LatLng.builder().withLatitude(lat).withLongitude(lng).build());
     // Don't store this if there aren't any locations.
     if (locations.getLocations().isEmpty()) {
       if (missEqualsFail) {
@@ -122,7 +137,7 @@ public class GeocodeBitmapCache {
             x,
             y);
       }
-      colourKey.put(colour, locations);
+      colourKey.set(index, locations);
     } else {
       log.debug(
           "[{}] New colour {} (LL {},{}; pixel {},{}); remembering as {}",
@@ -133,12 +148,16 @@ public class GeocodeBitmapCache {
           x,
           y,
           joinLocations(locations));
-      colourKey.put(colour, locations);
+      colourKey.set(index, locations);
     }
 
     return locations;
   }
 
+  private String toHex(int index) {
+    return String.format("#%06x", bitmap.getColour(index));
+  }
+
   private String joinLocations(GeocodeResponse loc) {
     return loc.getLocations().stream()
         .map(Location::getId)
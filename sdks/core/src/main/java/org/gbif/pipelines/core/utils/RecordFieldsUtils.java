@@ -0,0 +1,102 @@
+package org.gbif.pipelines.core.utils;
+
+import static org.gbif.pipelines.common.PipelinesVariables.Metrics.INDEXED_FIELDS_FILE_NAME;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.apache.avro.Schema;
+import org.apache.avro.Schema.Field;
+import org.apache.avro.generic.GenericRecord;
+
+/**
+ * Helps to find fields with values in avro records. Field paths are the same as in the json
+ * documents created from the records, fields of nested records are joined by a dot, e.g.
+ * gbifClassification.kingdom. Arrays of records are not traversed.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class RecordFieldsUtils {
+
+  /**
+   * Uses pattern for path - "{repositoryPath}/{datasetId}/{attempt}/indexed-fields.yml", the same
+   * path must be used to write and read counts of indexed fields
+   */
+  public static String indexedFieldCountsPath(
+      String repositoryPath, String datasetId, String attempt) {
+    return String.join("/", repositoryPath, datasetId, attempt, INDEXED_FIELDS_FILE_NAME);
+  }
+
+  /** Returns paths of all fields of the schema */
+  public static List<String> fieldPaths(Schema schema) {
+    List<String> paths = new ArrayList<>();
+    addFieldPaths(schema, "", paths, new HashSet<>());
+    return paths;
+  }
+
+  /**
+   * Passes paths of all fields which have a value to the consumer. Null fields, empty arrays and
+   * empty maps have no value, similar to the Elasticsearch exists query.
+   */
+  public static void forEachPresentField(GenericRecord record, Consumer<String> consumer) {
+    forEachPresentField(record, "", consumer);
+  }
+
+  private static void addFieldPaths(
+      Schema schema, String prefix, List<String> paths, Set<String> parents) {
+    // Recursive schemas are traversed once
+    parents.add(schema.getFullName());
+    for (Field field : schema.getFields()) {
+      String path = prefix + field.name();
+      paths.add(path);
+      Schema recordSchema = recordSchema(field.schema());
+      if (recordSchema != null && !parents.contains(recordSchema.getFullName())) {
+        addFieldPaths(recordSchema, path + ".", paths, parents);
+      }
+    }
+    parents.remove(schema.getFullName());
+  }
+
+  private static void forEachPresentField(
+      GenericRecord record, String prefix, Consumer<String> consumer) {
+    for (Field field : record.getSchema().getFields()) {
+      Object value = record.get(field.pos());
+      if (hasValue(value)) {
+        String path = prefix + field.name();
+        consumer.accept(path);
+        if (value instanceof GenericRecord) {
+          forEachPresentField((GenericRecord) value, path + ".", consumer);
+        }
+      }
+    }
+  }
+
+  private static boolean hasValue(Object value) {
+    if (value instanceof Collection) {
+      return !((Collection<?>) value).isEmpty();
+    }
+    if (value instanceof Map) {
+      return !((Map<?, ?>) value).isEmpty();
+    }
+    return value != null;
+  }
+
+  /** Returns the record schema of a record or a nullable record field, otherwise null */
+  private static Schema recordSchema(Schema schema) {
+    if (schema.getType() == Schema.Type.RECORD) {
+      return schema;
+    }
+    if (schema.getType() == Schema.Type.UNION) {
+      return schema.getTypes().stream()
+          .filter(s -> s.getType() == Schema.Type.RECORD)
+          .findFirst()
+          .orElse(null);
+    }
+    return null;
+  }
+}
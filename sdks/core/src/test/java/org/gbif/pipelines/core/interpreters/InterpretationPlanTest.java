@@ -0,0 +1,61 @@
+package org.gbif.pipelines.core.interpreters;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class InterpretationPlanTest {
+
+  private static InterpretationPlan<Integer, StringBuilder> createPlan() {
+    return InterpretationPlan.<Integer, StringBuilder>builder()
+        .to(i -> new StringBuilder())
+        .when(i -> i > 0)
+        .via((s, t) -> t.append(s + 1))
+        .via(t -> t.append('!'))
+        .skipWhen(t -> !t.toString().equals("1!"))
+        .skipWhen(t -> t.toString().startsWith("9"))
+        .compile();
+  }
+
+  @Test
+  public void reusePlanTest() {
+
+    // State
+    InterpretationPlan<Integer, StringBuilder> plan = createPlan();
+
+    // When
+    Optional<StringBuilder> first = plan.getOfNullable(2);
+    Optional<StringBuilder> second = plan.getOfNullable(4);
+
+    // Should
+    Assert.assertEquals(2, plan.size());
+    Assert.assertTrue(first.isPresent());
+    Assert.assertEquals("3!", first.get().toString());
+    Assert.assertTrue(second.isPresent());
+    Assert.assertEquals("5!", second.get().toString());
+  }
+
+  @Test
+  public void whenAndSkipTest() {
+
+    // State
+    InterpretationPlan<Integer, StringBuilder> plan = createPlan();
+    List<String> list = new ArrayList<>();
+
+    // When
+    plan.consume(-1, x -> list.add(x.toString()));
+    plan.consume(8, x -> list.add(x.toString()));
+    plan.consume(1, x -> list.add(x.toString()));
+
+    // Should
+    Assert.assertEquals(1, list.size());
+    Assert.assertEquals("2!", list.get(0));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void missingTargetTest() {
+    InterpretationPlan.<Integer, StringBuilder>builder().via(t -> t.append('!')).compile();
+  }
+}
@@ -3,8 +3,11 @@ package org.gbif.pipelines.core.io;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
 import lombok.SneakyThrows;
@@ -229,6 +232,82 @@ public class AvroReaderTest {
     Files.deleteIfExists(Paths.get(verbatimPath1.toString()));
   }
 
+  @Test
+  public void uniqueChunksTest() throws IOException {
+
+    // State
+    ExtendedRecord expectedOne = ExtendedRecord.newBuilder().setId("1").build();
+    ExtendedRecord expectedTwo = ExtendedRecord.newBuilder().setId("1").build();
+    ExtendedRecord expectedThree = ExtendedRecord.newBuilder().setId("3").build();
+    ExtendedRecord expectedFour = ExtendedRecord.newBuilder().setId("4").build();
+    ExtendedRecord expectedFive =
+        ExtendedRecord.newBuilder()
+            .setId("4")
+            .setCoreTerms(Collections.singletonMap("key", "value"))
+            .build();
+    ExtendedRecord expectedSix = ExtendedRecord.newBuilder().setId("6").build();
+    writeExtendedRecords(
+        verbatimPath1,
+        expectedOne,
+        expectedTwo,
+        expectedThree,
+        expectedFour,
+        expectedFive,
+        expectedSix);
+    AtomicInteger counter = new AtomicInteger(0);
+
+    // When
+    UniqueIdIndex index =
+        AvroReader.indexUniqueRecords(
+            hdfsConfigs, ExtendedRecord.class, verbatimPath1.toString(), counter::incrementAndGet);
+
+    List<Map<String, ExtendedRecord>> chunks = new ArrayList<>();
+    AvroReader.readUniqueRecords(
+        hdfsConfigs, ExtendedRecord.class, verbatimPath1.toString(), index, 2, chunks::add);
+
+    // Should
+    Assert.assertEquals(3, index.size());
+    Assert.assertEquals(1, counter.get());
+    Assert.assertEquals(2, chunks.size());
+    Assert.assertEquals(2, chunks.get(0).size());
+    Map<String, ExtendedRecord> result = new HashMap<>();
+    chunks.forEach(result::putAll);
+    assertMap(result, expectedOne, expectedThree, expectedSix);
+
+    // Post
+    Files.deleteIfExists(Paths.get(verbatimPath1.toString()));
+  }
+
+  @Test
+  public void uniqueChunksTwoPassesTest() throws IOException {
+
+    // State
+    ExtendedRecord expectedOne = ExtendedRecord.newBuilder().setId("1").build();
+    ExtendedRecord expectedTwo = ExtendedRecord.newBuilder().setId("1").build();
+    ExtendedRecord expectedThree = ExtendedRecord.newBuilder().setId("3").build();
+    writeExtendedRecords(verbatimPath1, expectedOne, expectedTwo, expectedThree);
+
+    // When
+    UniqueIdIndex index =
+        AvroReader.indexUniqueRecords(
+            hdfsConfigs, ExtendedRecord.class, verbatimPath1.toString(), null);
+
+    Map<String, ExtendedRecord> firstPass = new HashMap<>();
+    AvroReader.readUniqueRecords(
+        hdfsConfigs, ExtendedRecord.class, verbatimPath1.toString(), index, 2, firstPass::putAll);
+
+    Map<String, ExtendedRecord> secondPass = new HashMap<>();
+    AvroReader.readUniqueRecords(
+        hdfsConfigs, ExtendedRecord.class, verbatimPath1.toString(), index, 2, secondPass::putAll);
+
+    // Should
+    assertMap(firstPass, expectedOne, expectedThree);
+    assertMap(secondPass, expectedOne, expectedThree);
+
+    // Post
+    Files.deleteIfExists(Paths.get(verbatimPath1.toString()));
+  }
+
   private void assertMap(Map<String, ExtendedRecord> result, ExtendedRecord... expected) {
     Assert.assertEquals(expected.length, result.size());
     Arrays.stream(expected)
@@ -0,0 +1,92 @@
+package org.gbif.pipelines.core.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+import lombok.SneakyThrows;
+import org.apache.commons.io.FileUtils;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.gbif.pipelines.core.pojo.HdfsConfigs;
+import org.gbif.pipelines.core.utils.FsUtils;
+import org.gbif.pipelines.io.avro.ExtendedRecord;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ShardedDataFileWriterTest {
+
+  private final HdfsConfigs hdfsConfigs = HdfsConfigs.nullConfig();
+  private final String dir = "target/sharded";
+
+  @Test
+  public void multiThreadWriteTest() throws Exception {
+
+    // State
+    FileUtils.deleteDirectory(new File(dir));
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    // When
+    try (ShardedDataFileWriter<ExtendedRecord> writer = createWriter(1L)) {
+      CompletableFuture<?>[] futures =
+          IntStream.range(0, 1_000)
+              .mapToObj(i -> ExtendedRecord.newBuilder().setId(String.valueOf(i)).build())
+              .map(er -> CompletableFuture.runAsync(() -> writer.append(er), executor))
+              .toArray(CompletableFuture[]::new);
+      CompletableFuture.allOf(futures).get();
+    } finally {
+      executor.shutdown();
+    }
+
+    Map<String, ExtendedRecord> result =
+        AvroReader.readRecords(hdfsConfigs, ExtendedRecord.class, dir + "/part*.avro");
+
+    // Should
+    Assert.assertEquals(1_000, result.size());
+    Assert.assertTrue(new File(dir).list().length > 1);
+
+    // Post
+    FileUtils.deleteDirectory(new File(dir));
+  }
+
+  @Test
+  public void emptyWriteTest() throws IOException {
+
+    // State
+    FileUtils.deleteDirectory(new File(dir));
+
+    // When
+    createWriter(0L).close();
+
+    Map<String, ExtendedRecord> result =
+        AvroReader.readRecords(hdfsConfigs, ExtendedRecord.class, dir + "/part*.avro");
+
+    // Should
+    Assert.assertTrue(result.isEmpty());
+    Assert.assertEquals(1, new File(dir).list((d, n) -> n.endsWith(".avro")).length);
+
+    // Post
+    FileUtils.deleteDirectory(new File(dir));
+  }
+
+  private ShardedDataFileWriter<ExtendedRecord> createWriter(long maxShardBytes) {
+    return ShardedDataFileWriter.<ExtendedRecord>builder()
+        .schema(ExtendedRecord.getClassSchema())
+        .codec("snappy")
+        .syncInterval(2_097_152)
+        .maxShardBytes(maxShardBytes)
+        .outputStreamFn(this::createOutputStream)
+        .build();
+  }
+
+  @SneakyThrows
+  private OutputStream createOutputStream(int shard) {
+    Path path = new Path(dir + "/part-" + shard + ".avro");
+    FileSystem fs = FsUtils.createParentDirectories(hdfsConfigs, path);
+    return fs.create(path);
+  }
+}
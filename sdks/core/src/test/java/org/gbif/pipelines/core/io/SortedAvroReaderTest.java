@@ -0,0 +1,119 @@
+package org.gbif.pipelines.core.io;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import lombok.SneakyThrows;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.gbif.pipelines.core.pojo.HdfsConfigs;
+import org.gbif.pipelines.core.utils.FsUtils;
+import org.gbif.pipelines.io.avro.ExtendedRecord;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SortedAvroReaderTest {
+
+  private final HdfsConfigs hdfsConfigs = HdfsConfigs.nullConfig();
+
+  private final Path dirPath = new Path("target/sorted-avro");
+  private final Path verbatimPath1 = new Path(dirPath, "verbatim1.avro");
+  private final Path verbatimPath2 = new Path(dirPath, "verbatim2.avro");
+  private final String wildcardPath = new Path(dirPath, "*.avro").toString();
+  private final FileSystem verbatimFs = FsUtils.createParentDirectories(hdfsConfigs, verbatimPath1);
+
+  @After
+  public void clean() throws IOException {
+    verbatimFs.delete(dirPath, true);
+  }
+
+  @Test
+  public void sortAndMergeTest() throws IOException {
+
+    // State
+    writeExtendedRecords(verbatimPath1, er("5"), er("1"), er("9"), er("3"), er("7"));
+    writeExtendedRecords(verbatimPath2, er("8"), er("2"), er("6"), er("4"));
+
+    // When
+    AvroSorter.sortById(hdfsConfigs, ExtendedRecord.class, wildcardPath, 2);
+
+    List<String> result = new ArrayList<>();
+    try (SortedAvroReader<ExtendedRecord> reader =
+        SortedAvroReader.open(hdfsConfigs, ExtendedRecord.class, wildcardPath)) {
+      while (reader.hasNext()) {
+        result.add(reader.next().getId());
+      }
+    }
+
+    // Should
+    Assert.assertFalse(verbatimFs.exists(verbatimPath1));
+    Assert.assertFalse(verbatimFs.exists(verbatimPath2));
+    Assert.assertEquals(5, FsUtils.getFilesByExt(verbatimFs, dirPath, ".avro").size());
+    Assert.assertEquals(Arrays.asList("1", "2", "3", "4", "5", "6", "7", "8", "9"), result);
+  }
+
+  @Test
+  public void seekTest() throws IOException {
+
+    // State
+    writeExtendedRecords(verbatimPath1, er("4"), er("1"), er("3"));
+    AvroSorter.sortById(hdfsConfigs, ExtendedRecord.class, wildcardPath, 10);
+
+    // When
+    try (SortedAvroReader<ExtendedRecord> reader =
+        SortedAvroReader.open(hdfsConfigs, ExtendedRecord.class, wildcardPath)) {
+
+      // Should
+      Assert.assertEquals("1", reader.seek("1").getId());
+      Assert.assertNull(reader.seek("2"));
+      Assert.assertEquals("4", reader.seek("4").getId());
+      Assert.assertNull(reader.seek("5"));
+      Assert.assertFalse(reader.hasNext());
+    }
+  }
+
+  @Test
+  public void missingDirectoryTest() throws IOException {
+
+    // When
+    try (SortedAvroReader<ExtendedRecord> reader =
+        SortedAvroReader.open(hdfsConfigs, ExtendedRecord.class, wildcardPath)) {
+
+      // Should
+      Assert.assertFalse(reader.hasNext());
+    }
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void unsortedFileTest() throws IOException {
+
+    // State
+    writeExtendedRecords(verbatimPath1, er("2"), er("1"));
+
+    // When
+    try (SortedAvroReader<ExtendedRecord> reader =
+        SortedAvroReader.open(hdfsConfigs, ExtendedRecord.class, wildcardPath)) {
+      reader.next();
+    }
+  }
+
+  private static ExtendedRecord er(String id) {
+    return ExtendedRecord.newBuilder().setId(id).build();
+  }
+
+  @SneakyThrows
+  private void writeExtendedRecords(Path path, ExtendedRecord... records) {
+    try (SyncDataFileWriter<ExtendedRecord> verbatimWriter =
+        SyncDataFileWriterBuilder.builder()
+            .schema(ExtendedRecord.getClassSchema())
+            .codec("snappy")
+            .outputStream(verbatimFs.create(path))
+            .syncInterval(2_097_152)
+            .build()
+            .createSyncDataFileWriter()) {
+      Arrays.stream(records).forEach(verbatimWriter::append);
+    }
+  }
+}
@@ -0,0 +1,90 @@
+package org.gbif.pipelines.core.parsers.location.cache;
+
+import java.awt.image.BufferedImage;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.gbif.kvs.geocode.LatLng;
+import org.gbif.rest.client.geocode.GeocodeResponse;
+import org.gbif.rest.client.geocode.Location;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class GeocodeBitmapCacheTest {
+
+  private static final int BORDER = 0x000000;
+  private static final int NOTHING = 0xFFFFFF;
+  private static final int COUNTRY = 0x123456;
+
+  /** 3x3 image, left column is a country, middle column is a border, right column is nothing */
+  private static BufferedImage createImage() {
+    BufferedImage img = new BufferedImage(3, 3, BufferedImage.TYPE_INT_RGB);
+    for (int y = 0; y < 3; y++) {
+      img.setRGB(0, y, COUNTRY);
+      img.setRGB(1, y, BORDER);
+      img.setRGB(2, y, NOTHING);
+    }
+    return img;
+  }
+
+  private static LatLng latLng(double lat, double lng) {
+    return LatLng.builder().withLatitude(lat).withLongitude(lng).build();
+  }
+
+  @Test
+  public void paletteIndexTest() {
+    // State
+    BufferedImage img = createImage();
+
+    // When
+    BitmapPaletteIndex index = BitmapPaletteIndex.getInstance(img);
+
+    // Should
+    Assert.assertSame(index, BitmapPaletteIndex.getInstance(img));
+    Assert.assertEquals(3, index.size());
+    Assert.assertEquals(COUNTRY, index.getColour(index.getIndex(0, 0)));
+    Assert.assertEquals(BORDER, index.getColour(index.getIndex(1, 2)));
+    Assert.assertEquals(NOTHING, index.getColour(index.getIndex(2, 1)));
+    Assert.assertEquals(-1, index.indexOf(0xABCDEF));
+  }
+
+  @Test
+  public void getFromBitmapTest() {
+    // State
+    Location location = new Location();
+    location.setId("DK");
+    GeocodeResponse response = new GeocodeResponse(Collections.singletonList(location));
+    AtomicInteger counter = new AtomicInteger();
+
+    GeocodeBitmapCache cache =
+        GeocodeBitmapCache.create(
+            createImage(),
+            ll -> {
+              counter.incrementAndGet();
+              return response;
+            });
+
+    // When
+    GeocodeResponse country1 = cache.getFromBitmap(latLng(10d, -170d));
+    GeocodeResponse country2 = cache.getFromBitmap(latLng(-10d, -170d));
+    GeocodeResponse border = cache.getFromBitmap(latLng(0d, 0d));
+    GeocodeResponse nothing = cache.getFromBitmap(latLng(0d, 170d));
+
+    // Should
+    Assert.assertSame(response, country1);
+    Assert.assertSame(response, country2);
+    Assert.assertEquals(1, counter.get());
+    Assert.assertNull(border);
+    Assert.assertTrue(nothing.getLocations().isEmpty());
+  }
+
+  @Test
+  public void intersectsTest() {
+    // State
+    BinaryBitmapLookup lookup = BinaryBitmapLookup.create(createImage(), "BIOME");
+
+    // Should
+    Assert.assertTrue(lookup.intersects(latLng(0d, -170d)));
+    Assert.assertTrue(lookup.intersects(latLng(0d, 0d)));
+    Assert.assertFalse(lookup.intersects(latLng(0d, 170d)));
+  }
+}
@@ -0,0 +1,78 @@
+package org.gbif.pipelines.core.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.generic.GenericData;
+import org.gbif.pipelines.io.avro.json.OccurrenceJsonRecord;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RecordFieldsUtilsTest {
+
+  private static final Schema CLASSIFICATION =
+      SchemaBuilder.record("Classification")
+          .fields()
+          .optionalString("kingdom")
+          .optionalString("phylum")
+          .endRecord();
+
+  private static final Schema RECORD =
+      SchemaBuilder.record("Record")
+          .fields()
+          .optionalString("id")
+          .optionalDouble("decimalLatitude")
+          .name("issues")
+          .type()
+          .array()
+          .items()
+          .stringType()
+          .noDefault()
+          .name("classification")
+          .type()
+          .optional()
+          .type(CLASSIFICATION)
+          .endRecord();
+
+  @Test
+  public void fieldPathsTest() {
+    // When
+    List<String> paths = RecordFieldsUtils.fieldPaths(RECORD);
+
+    // Should
+    Assert.assertEquals(
+        Arrays.asList(
+            "id",
+            "decimalLatitude",
+            "issues",
+            "classification",
+            "classification.kingdom",
+            "classification.phylum"),
+        paths);
+    Assert.assertTrue(
+        RecordFieldsUtils.fieldPaths(OccurrenceJsonRecord.getClassSchema())
+            .contains("gbifClassification.kingdom"));
+  }
+
+  @Test
+  public void forEachPresentFieldTest() {
+    // State
+    GenericData.Record classification = new GenericData.Record(CLASSIFICATION);
+    classification.put("kingdom", "Animalia");
+
+    GenericData.Record record = new GenericData.Record(RECORD);
+    record.put("id", "1");
+    record.put("issues", Collections.emptyList());
+    record.put("classification", classification);
+
+    // When
+    List<String> present = new ArrayList<>();
+    RecordFieldsUtils.forEachPresentField(record, present::add);
+
+    // Should
+    Assert.assertEquals(Arrays.asList("id", "classification", "classification.kingdom"), present);
+  }
+}
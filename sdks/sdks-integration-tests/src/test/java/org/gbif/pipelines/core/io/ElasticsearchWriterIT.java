@@ -5,7 +5,9 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -278,6 +280,115 @@ public class ElasticsearchWriterIT {
         basicRecordList.size(), EsService.countIndexDocuments(ES_SERVER.getEsClient(), idxName));
   }
 
+  @Test
+  public void wrongMappingAsyncTest() throws InterruptedException {
+    // State
+    String idxName = "wrong-mapping-async-test";
+    List<BasicRecord> basicRecordList = generateBrList(99);
+    createIndex(idxName, WRONG_MAPPINGS_PATH);
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    // When
+    ElasticsearchException exception = null;
+    try {
+      ElasticsearchWriter.<BasicRecord>builder()
+          .esHosts(ES_SERVER.getEsConfig().getRawHosts())
+          .esMaxBatchSize(10L)
+          .esMaxBatchSizeBytes(250_000L)
+          .executor(executor)
+          .syncModeThreshold(0)
+          .indexRequestFn(createindexRequestFn(idxName))
+          .records(basicRecordList)
+          .backPressure(2)
+          .build()
+          .write();
+    } catch (ElasticsearchException ex) {
+      exception = ex;
+    }
+
+    // Should, all requests in flight have finished before the writer failed
+    Assert.assertNotNull(exception);
+    executor.shutdown();
+    Assert.assertTrue(executor.awaitTermination(1, TimeUnit.SECONDS));
+  }
+
+  @Test(timeout = 60_000L, expected = ElasticsearchException.class)
+  public void wrongMappingIsNotRetriedTest() {
+    // State
+    String idxName = "wrong-mapping-no-retry-test";
+    List<BasicRecord> basicRecordList = generateBrList(9);
+    createIndex(idxName, WRONG_MAPPINGS_PATH);
+
+    // When, a retry would wait for 10 minutes
+    ElasticsearchWriter.<BasicRecord>builder()
+        .esHosts(ES_SERVER.getEsConfig().getRawHosts())
+        .esMaxBatchSize(10L)
+        .esMaxBatchSizeBytes(250_000L)
+        .executor(Executors.newSingleThreadExecutor())
+        .syncModeThreshold(Integer.MAX_VALUE)
+        .indexRequestFn(createindexRequestFn(idxName))
+        .records(basicRecordList)
+        .esMaxRetries(5)
+        .esRetryBackoffMs(600_000L)
+        .build()
+        .write();
+  }
+
+  @Test
+  public void adaptiveBatchSizeAsyncTest() {
+    // State
+    String idxName = "adaptive-batch-size-async-test";
+    List<BasicRecord> basicRecordList = generateBrList(999);
+    createIndex(idxName, MAPPINGS_PATH);
+
+    // When, every request is slower than the target and halves the batch size
+    ElasticsearchWriter.<BasicRecord>builder()
+        .esHosts(ES_SERVER.getEsConfig().getRawHosts())
+        .esMaxBatchSize(200L)
+        .esMaxBatchSizeBytes(250_000L)
+        .executor(Executors.newFixedThreadPool(2))
+        .syncModeThreshold(0)
+        .indexRequestFn(createindexRequestFn(idxName))
+        .records(basicRecordList)
+        .backPressure(2)
+        .esTargetBatchLatencyMs(1L)
+        .build()
+        .write();
+
+    EsService.refreshIndex(ES_SERVER.getEsClient(), idxName);
+
+    // Should
+    Assert.assertEquals(
+        basicRecordList.size(), EsService.countIndexDocuments(ES_SERVER.getEsClient(), idxName));
+  }
+
+  @Test
+  public void chunksOneWriterTest() throws IOException {
+    // State
+    String idxName = "chunks-one-writer-test";
+    List<BasicRecord> basicRecordList = generateBrList(199);
+    createIndex(idxName, MAPPINGS_PATH);
+
+    // When
+    try (ElasticsearchWriter<BasicRecord> writer =
+        ElasticsearchWriter.<BasicRecord>builder()
+            .esHosts(ES_SERVER.getEsConfig().getRawHosts())
+            .esMaxBatchSize(10L)
+            .esMaxBatchSizeBytes(250_000L)
+            .executor(Executors.newFixedThreadPool(2))
+            .syncModeThreshold(0)
+            .build()) {
+      writer.write(basicRecordList.subList(0, 100), createindexRequestFn(idxName));
+      writer.write(basicRecordList.subList(100, 200), createindexRequestFn(idxName));
+    }
+
+    EsService.refreshIndex(ES_SERVER.getEsClient(), idxName);
+
+    // Should
+    Assert.assertEquals(
+        basicRecordList.size(), EsService.countIndexDocuments(ES_SERVER.getEsClient(), idxName));
+  }
+
   private static List<BasicRecord> generateBrList(int count) {
     return IntStream.rangeClosed(0, count)
         .boxed()
@@ -4,15 +4,20 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
-import lombok.Builder;
 import lombok.NoArgsConstructor;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.gbif.converters.converter.ConverterToVerbatim;
 import org.gbif.converters.converter.Metric;
+import org.gbif.converters.converter.ParallelDwcaReader;
+import org.gbif.dwc.Archive;
+import org.gbif.dwc.DwcFiles;
 import org.gbif.pipelines.core.converters.ExtendedRecordConverter;
 import org.gbif.pipelines.core.io.DwcaExtendedRecordReader;
 import org.gbif.pipelines.core.io.SyncDataFileWriter;
@@ -23,9 +28,28 @@ import org.gbif.utils.file.spreadsheet.ExcelXmlConverter;
 /** Converts DWC archive into {@link ExtendedRecord} AVRO file */
 @Slf4j
 @NoArgsConstructor(staticName = "create")
-@Builder
 public class DwcaToAvroConverter extends ConverterToVerbatim {
 
+  private int readerParallelism = 1;
+  private ExecutorService executor;
+
+  /**
+   * @param readerParallelism number of threads reading the archive, values greater than 1 enable
+   *     {@link ParallelDwcaReader}
+   */
+  public DwcaToAvroConverter readerParallelism(int readerParallelism) {
+    this.readerParallelism = readerParallelism;
+    return this;
+  }
+
+  /**
+   * @param executor to use provided ExecutorService for the parallel reader
+   */
+  public DwcaToAvroConverter executor(ExecutorService executor) {
+    this.executor = executor;
+    return this;
+  }
+
   public static void main(String... args) {
     if (args.length < 2) {
       throw new IllegalArgumentException("You must specify input and output paths");
@@ -59,19 +83,33 @@ public class DwcaToAvroConverter extends ConverterToVerbatim {
             .orElse(inputPath)
             .toString();
 
-    DwcaExtendedRecordReader reader;
-    if (inputPath.toString().endsWith(".zip") || inputPath.toString().endsWith(".dwca")) {
-      String tmp;
+    boolean isCompressed =
+        inputPath.toString().endsWith(".zip") || inputPath.toString().endsWith(".dwca");
+    String tmp = null;
+    if (isCompressed) {
       if (Files.isDirectory(inputPath)) {
         tmp = inputPath.resolve("tmp").toString();
       } else {
         tmp = inputPath.getParent().resolve("tmp").toString();
       }
-      reader = DwcaExtendedRecordReader.fromCompressed(realPath, tmp);
-    } else {
-      reader = DwcaExtendedRecordReader.fromLocation(realPath);
     }
 
+    if (readerParallelism > 1) {
+      Archive archive =
+          isCompressed
+              ? DwcFiles.fromCompressed(Paths.get(realPath), Paths.get(tmp))
+              : DwcFiles.fromLocation(Paths.get(realPath));
+      if (ParallelDwcaReader.isSplittable(archive)) {
+        return convertParallel(archive, realPath, dataFileWriter);
+      }
+      log.info("The DwC Archive can't be split, falling back to the single threaded reader");
+    }
+
+    DwcaExtendedRecordReader reader =
+        isCompressed
+            ? DwcaExtendedRecordReader.fromCompressed(realPath, tmp)
+            : DwcaExtendedRecordReader.fromLocation(realPath);
+
     log.info("Exporting the DwC Archive to Avro started {}", realPath);
 
     // Read all records
@@ -86,6 +124,28 @@ public class DwcaToAvroConverter extends ConverterToVerbatim {
     return Metric.create(reader.getRecordsReturned(), reader.getOccurrenceRecordsReturned());
   }
 
+  /** Reads splits of the archive concurrently, records are appended by the reader threads */
+  private Metric convertParallel(
+      Archive archive, String realPath, SyncDataFileWriter<ExtendedRecord> dataFileWriter)
+      throws IOException {
+    boolean ownExecutor = executor == null;
+    ExecutorService readerExecutor =
+        ownExecutor ? Executors.newFixedThreadPool(readerParallelism) : executor;
+    try {
+      log.info("Exporting the DwC Archive to Avro in parallel started {}", realPath);
+      return ParallelDwcaReader.builder()
+          .archive(archive)
+          .executor(readerExecutor)
+          .parallelism(readerParallelism)
+          .create()
+          .read(dataFileWriter::append);
+    } finally {
+      if (ownExecutor) {
+        readerExecutor.shutdown();
+      }
+    }
+  }
+
   @SneakyThrows
   private Optional<Path> normalizeSpreadsheetPath(java.nio.file.Path path) {
     try (Stream<Path> list = Files.list(path)) {
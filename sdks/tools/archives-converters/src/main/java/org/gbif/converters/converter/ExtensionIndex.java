@@ -0,0 +1,122 @@
+package org.gbif.converters.converter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import lombok.extern.slf4j.Slf4j;
+import org.gbif.dwc.ArchiveFile;
+import org.gbif.dwc.record.Record;
+import org.gbif.dwc.terms.Term;
+import org.mapdb.BTreeMap;
+import org.mapdb.DB;
+import org.mapdb.DBMaker;
+import org.mapdb.Serializer;
+
+/**
+ * Extension rows indexed by core id, backed by a temp file using the mapdb library
+ * (http://www.mapdb.org/). Keys are composed of the core id, the split number and the row number
+ * within the split, so rows of a core record are returned in the file order.
+ */
+@Slf4j
+class ExtensionIndex implements Closeable {
+
+  private static final char SEPARATOR = '\u0000';
+  private static final char SEPARATOR_END = '\u0001';
+
+  private final DB dbDisk;
+  private final Map<ArchiveFile, BTreeMap<String, Object>> maps = new HashMap<>();
+
+  private ExtensionIndex() {
+    // see UniquenessValidator for the settings
+    dbDisk =
+        DBMaker.tempFileDB()
+            .fileMmapEnableIfSupported()
+            .cleanerHackEnable()
+            .fileChannelEnable()
+            .make();
+  }
+
+  /** Reads all extension files concurrently and indexes their rows */
+  static ExtensionIndex create(Collection<ArchiveFile> extensions, ParallelDwcaReader reader)
+      throws IOException {
+    ExtensionIndex index = new ExtensionIndex();
+    try {
+      for (ArchiveFile extension : extensions) {
+        index.add(extension, reader);
+      }
+    } catch (IOException | RuntimeException ex) {
+      index.close();
+      throw ex;
+    }
+    return index;
+  }
+
+  private void add(ArchiveFile extension, ParallelDwcaReader reader) throws IOException {
+    if (extension.getId() == null) {
+      log.warn("Extension {} doesn't have a core id column, skipping", extension.getRowType());
+      return;
+    }
+
+    int idIdx = extension.getId().getIndex();
+    BTreeMap<String, Object> map =
+        dbDisk
+            .treeMap(extension.getRowType().qualifiedName(), Serializer.STRING, Serializer.JAVA)
+            .createOrOpen();
+    maps.put(extension, map);
+
+    reader.readAll(
+        extension,
+        (splitIdx, split) -> {
+          long[] rowIdx = {0L};
+          String prefix = String.format("%06d", splitIdx);
+          ParallelDwcaReader.readRows(
+              extension,
+              split,
+              row -> {
+                String coreId = idIdx < row.length ? row[idIdx] : null;
+                if (coreId != null) {
+                  String rowKey = prefix + String.format("%012d", rowIdx[0]++);
+                  map.put(coreId.trim() + SEPARATOR + rowKey, row);
+                }
+              });
+        });
+
+    log.info("Extension {} has been indexed, rows - {}", extension.getRowType(), map.size());
+  }
+
+  /** Extension records of the core id, keyed by extension row type */
+  Map<Term, List<Record>> get(String coreId) {
+    if (coreId == null || maps.isEmpty()) {
+      return Collections.emptyMap();
+    }
+    String trimmed = coreId.trim();
+    Map<Term, List<Record>> result = new HashMap<>(maps.size());
+    maps.forEach(
+        (extension, map) -> {
+          NavigableMap<String, Object> rows =
+              map.subMap(trimmed + SEPARATOR, true, trimmed + SEPARATOR_END, false);
+          if (!rows.isEmpty()) {
+            Term rowType = extension.getRowType();
+            List<Record> records = new ArrayList<>(rows.size());
+            for (Object row : rows.values()) {
+              records.add(ParallelDwcaReader.toRecord(extension, rowType, (String[]) row));
+            }
+            result.put(rowType, records);
+          }
+        });
+    return result;
+  }
+
+  @Override
+  public void close() {
+    if (!dbDisk.isClosed()) {
+      dbDisk.close();
+    }
+  }
+}
@@ -0,0 +1,293 @@
+package org.gbif.converters.converter;
+
+import com.google.common.io.ByteStreams;
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.gbif.dwc.Archive;
+import org.gbif.dwc.ArchiveFile;
+import org.gbif.dwc.record.Record;
+import org.gbif.dwc.record.RecordImpl;
+import org.gbif.dwc.terms.DwcTerm;
+import org.gbif.dwc.terms.Term;
+import org.gbif.pipelines.core.converters.ExtendedRecordConverter;
+import org.gbif.pipelines.io.avro.ExtendedRecord;
+import org.gbif.utils.file.tabular.TabularDataFileReader;
+import org.gbif.utils.file.tabular.TabularFiles;
+
+/**
+ * Reads a DwC archive using several threads. Core files are split into line aligned byte ranges
+ * which are parsed concurrently. Extension rows are indexed by core id in a temporary on-disk map
+ * beforehand, so every core row is joined with its extension rows without sorting the files.
+ *
+ * <pre>{@code
+ * Metric metric = ParallelDwcaReader.builder()
+ *     .archive(archive)
+ *     .executor(executor)
+ *     .parallelism(8)
+ *     .create()
+ *     .read(dataFileWriter::append);
+ * }</pre>
+ */
+@Slf4j
+public class ParallelDwcaReader {
+
+  private static final long MIN_SPLIT_BYTES = 8L * 1024L * 1024L;
+
+  private final Archive archive;
+  private final ExecutorService executor;
+  private final int parallelism;
+
+  private final LongAdder recordsReturned = new LongAdder();
+  private final LongAdder occurrenceRecordsReturned = new LongAdder();
+
+  @Builder(buildMethodName = "create")
+  private ParallelDwcaReader(
+      @NonNull Archive archive, @NonNull ExecutorService executor, int parallelism) {
+    this.archive = archive;
+    this.executor = executor;
+    this.parallelism = Math.max(1, parallelism);
+  }
+
+  /**
+   * Data files can be split only if the byte values of line and quote characters are not a part of
+   * other characters, which is true for UTF-8 and single byte encodings
+   */
+  public static boolean isSplittable(Archive archive) {
+    List<ArchiveFile> files = new ArrayList<>(archive.getExtensions());
+    files.add(archive.getCore());
+    for (ArchiveFile file : files) {
+      Charset charset = Charset.forName(file.getEncoding());
+      if (!charset.equals(StandardCharsets.UTF_8) && charset.newEncoder().maxBytesPerChar() > 1f) {
+        return false;
+      }
+      if (file.getFieldsTerminatedBy() == null || file.getFieldsTerminatedBy().length() != 1) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** Reads all records, the consumer is called concurrently from several threads */
+  public Metric read(Consumer<ExtendedRecord> consumer) throws IOException {
+
+    ArchiveFile core = archive.getCore();
+    core.getHeader().stream()
+        .flatMap(Collection::stream)
+        .forEach(
+            x -> Objects.requireNonNull(x, "One of the terms is NULL, please check meta.xml file"));
+
+    log.info("Reading the DwC Archive using {} threads", parallelism);
+    try (ExtensionIndex index = ExtensionIndex.create(archive.getExtensions(), this)) {
+
+      List<Split> splits = split(core);
+      log.info("Core files have been split into {} ranges", splits.size());
+
+      CompletableFuture<?>[] futures =
+          splits.stream()
+              .map(
+                  s ->
+                      CompletableFuture.runAsync(
+                          () -> readCore(core, s, index, consumer), executor))
+              .toArray(CompletableFuture[]::new);
+      await(futures);
+    }
+
+    log.info(
+        "DwC-A reader has read [{}] records and [{}] occurrence records",
+        recordsReturned.sum(),
+        occurrenceRecordsReturned.sum());
+
+    return Metric.create(recordsReturned.sum(), occurrenceRecordsReturned.sum());
+  }
+
+  private void readCore(
+      ArchiveFile core, Split split, ExtensionIndex index, Consumer<ExtendedRecord> consumer) {
+    Term rowType = core.getRowType();
+    readRows(
+        core,
+        split,
+        row -> {
+          Record record = toRecord(core, rowType, row);
+          Map<Term, List<Record>> extensions = index.get(record.id());
+          ExtendedRecord er = ExtendedRecordConverter.from(record, extensions);
+          if (!er.getId().equals(ExtendedRecordConverter.getRecordIdError())) {
+            countRecord(er);
+            consumer.accept(er);
+          }
+        });
+  }
+
+  private void countRecord(ExtendedRecord er) {
+    recordsReturned.increment();
+    if (er.getCoreRowType().equals(DwcTerm.Occurrence.qualifiedName())) {
+      occurrenceRecordsReturned.increment();
+    } else {
+      Optional.ofNullable(er.getExtensions().get(DwcTerm.Occurrence.qualifiedName()))
+          .map(List::size)
+          .ifPresent(occurrenceRecordsReturned::add);
+    }
+    if (recordsReturned.sum() % 100_000 == 0) {
+      log.info(
+          "Read [{}] records, occurrence records [{}]",
+          recordsReturned.sum(),
+          occurrenceRecordsReturned.sum());
+    }
+  }
+
+  static Record toRecord(ArchiveFile file, Term rowType, String[] row) {
+    RecordImpl record =
+        new RecordImpl(file.getId(), file.getFields().values(), rowType, true, true);
+    record.setRow(row);
+    return record;
+  }
+
+  /** Runs the task for every split of the file and waits for all of them */
+  void readAll(ArchiveFile file, SplitTask task) throws IOException {
+    List<Split> splits = split(file);
+    CompletableFuture<?>[] futures = new CompletableFuture[splits.size()];
+    for (int i = 0; i < splits.size(); i++) {
+      int idx = i;
+      futures[i] = CompletableFuture.runAsync(() -> task.run(idx, splits.get(idx)), executor);
+    }
+    await(futures);
+  }
+
+  /** Parses rows of the byte range, blank lines are skipped */
+  static void readRows(ArchiveFile file, Split split, Consumer<String[]> rowFn) {
+    try (FileChannel channel =
+        FileChannel.open(split.getFile().toPath(), StandardOpenOption.READ)) {
+      channel.position(split.getStart());
+      InputStream in = ByteStreams.limit(Channels.newInputStream(channel), split.getLength());
+      BufferedReader reader =
+          new BufferedReader(new InputStreamReader(in, Charset.forName(file.getEncoding())));
+      try (TabularDataFileReader<List<String>> tabularReader =
+          TabularFiles.newTabularFileReader(
+              reader,
+              file.getFieldsTerminatedBy().charAt(0),
+              file.getLinesTerminatedBy(),
+              file.getFieldsEnclosedBy(),
+              false,
+              null)) {
+        List<String> row;
+        while ((row = tabularReader.read()) != null) {
+          if (row.stream().anyMatch(v -> v != null && !v.trim().isEmpty())) {
+            rowFn.accept(row.toArray(new String[0]));
+          }
+        }
+      }
+    } catch (Exception ex) {
+      throw new CompletionException("Failed to read " + split, ex);
+    }
+  }
+
+  /**
+   * Splits every data file of the archive file into byte ranges of roughly the same size. Header
+   * lines are excluded, a range ends at a line terminator which is not enclosed in quotes.
+   */
+  List<Split> split(ArchiveFile file) throws IOException {
+    long totalBytes = 0L;
+    for (File f : file.getLocationFiles()) {
+      totalBytes += f.length();
+    }
+    long splitBytes = Math.max(MIN_SPLIT_BYTES, totalBytes / (parallelism * 4L));
+    int headerLines = Optional.ofNullable(file.getIgnoreHeaderLines()).orElse(0);
+
+    List<Split> splits = new ArrayList<>();
+    for (File f : file.getLocationFiles()) {
+      splits.addAll(split(f, headerLines, file.getFieldsEnclosedBy(), splitBytes));
+    }
+    return splits;
+  }
+
+  static List<Split> split(File file, int headerLines, Character quote, long splitBytes)
+      throws IOException {
+    List<Split> splits = new ArrayList<>();
+    int quoteByte = quote == null ? -1 : quote;
+    int lines = 0;
+    long offset = 0L;
+    long start = headerLines > 0 ? -1L : 0L;
+    boolean quoted = false;
+
+    try (InputStream in = new BufferedInputStream(Files.newInputStream(file.toPath()), 1 << 16)) {
+      int b;
+      while ((b = in.read()) != -1) {
+        offset++;
+        if (b == quoteByte) {
+          quoted = !quoted;
+        } else if (b == '\n' && !quoted) {
+          if (start < 0L) {
+            lines++;
+            if (lines == headerLines) {
+              start = offset;
+            }
+          } else if (offset - start >= splitBytes) {
+            splits.add(new Split(file, start, offset - start));
+            start = offset;
+          }
+        }
+      }
+    }
+
+    if (start >= 0L && offset > start) {
+      splits.add(new Split(file, start, offset - start));
+    }
+    return splits;
+  }
+
+  private static void await(CompletableFuture<?>[] futures) throws IOException {
+    try {
+      CompletableFuture.allOf(futures).join();
+    } catch (CompletionException ex) {
+      Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+      if (cause instanceof CompletionException && cause.getCause() != null) {
+        cause = cause.getCause();
+      }
+      throw new IOException(cause.getMessage(), cause);
+    }
+  }
+
+  /** Byte range of a data file */
+  @Getter
+  @AllArgsConstructor
+  static class Split {
+    private final File file;
+    private final long start;
+    private final long length;
+
+    @Override
+    public String toString() {
+      return file + "[" + start + ", " + (start + length) + ")";
+    }
+  }
+
+  @FunctionalInterface
+  interface SplitTask {
+    void run(int idx, Split split);
+  }
+}
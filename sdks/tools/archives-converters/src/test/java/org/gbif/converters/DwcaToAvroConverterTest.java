@@ -4,6 +4,8 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
 import org.apache.avro.file.DataFileReader;
 import org.apache.avro.io.DatumReader;
 import org.apache.avro.specific.SpecificDatumReader;
@@ -50,6 +52,31 @@ public class DwcaToAvroConverterTest {
     Files.deleteIfExists(verbatim.toPath());
   }
 
+  @Test
+  public void parallelConverterTest() throws Exception {
+
+    String inpPath = getClass().getResource("/dwca/plants_dwca").getFile();
+    String seqPath = inpPath + "/verbatim-seq.avro";
+    String parPath = inpPath + "/verbatim-par.avro";
+
+    // When
+    DwcaToAvroConverter.create().inputPath(inpPath).outputPath(seqPath).convert();
+    DwcaToAvroConverter.create()
+        .readerParallelism(4)
+        .inputPath(inpPath)
+        .outputPath(parPath)
+        .convert();
+
+    // Should
+    Map<String, ExtendedRecord> expected = readRecords(seqPath);
+    Map<String, ExtendedRecord> result = readRecords(parPath);
+    Assert.assertFalse(expected.isEmpty());
+    Assert.assertEquals(expected, result);
+
+    Files.deleteIfExists(Paths.get(seqPath));
+    Files.deleteIfExists(Paths.get(parPath));
+  }
+
   @Test
   public void csvConverterTest() throws Exception {
 
@@ -140,4 +167,17 @@ public class DwcaToAvroConverterTest {
 
     Files.deleteIfExists(verbatim.toPath());
   }
+
+  private static Map<String, ExtendedRecord> readRecords(String path) throws IOException {
+    Map<String, ExtendedRecord> result = new HashMap<>();
+    DatumReader<ExtendedRecord> datumReader = new SpecificDatumReader<>(ExtendedRecord.class);
+    try (DataFileReader<ExtendedRecord> dataFileReader =
+        new DataFileReader<>(new File(path), datumReader)) {
+      while (dataFileReader.hasNext()) {
+        ExtendedRecord record = dataFileReader.next();
+        result.put(record.getId(), record);
+      }
+    }
+    return result;
+  }
 }
@@ -0,0 +1,53 @@
+package org.gbif.converters.converter;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import org.gbif.converters.converter.ParallelDwcaReader.Split;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ParallelDwcaReaderTest {
+
+  @Test
+  public void splitTest() throws Exception {
+
+    // State
+    String content =
+        "id,name\n" + "1,\"first\nline\"\n" + "2,second\n" + "3,\"third\n\nline\"\n" + "4,fourth\n";
+    File file = File.createTempFile("split", ".csv");
+    file.deleteOnExit();
+    Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+
+    // When
+    List<Split> splits = ParallelDwcaReader.split(file, 1, '"', 1L);
+
+    // Should
+    Assert.assertEquals(4, splits.size());
+    Assert.assertEquals("id,name\n".length(), splits.get(0).getStart());
+    Assert.assertEquals("1,\"first\nline\"\n".length(), splits.get(0).getLength());
+    Assert.assertEquals("3,\"third\n\nline\"\n".length(), splits.get(2).getLength());
+    long total = splits.stream().mapToLong(Split::getLength).sum();
+    Assert.assertEquals(content.length() - "id,name\n".length(), total);
+  }
+
+  @Test
+  public void splitWithoutHeaderTest() throws Exception {
+
+    // State
+    String content = "1\ta\n2\tb\n3\tc";
+    File file = File.createTempFile("split", ".txt");
+    file.deleteOnExit();
+    Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+
+    // When
+    List<Split> splits = ParallelDwcaReader.split(file, 0, null, 5L);
+
+    // Should
+    Assert.assertEquals(2, splits.size());
+    Assert.assertEquals(0L, splits.get(0).getStart());
+    Assert.assertEquals(8L, splits.get(0).getLength());
+    Assert.assertEquals(3L, splits.get(1).getLength());
+  }
+}
@@ -139,6 +139,13 @@ public class PipelinesVariables {
     public static final String TAXON_RECORDS_COUNT = "taxonRecordsCount";
     public static final String GRSCICOLL_RECORDS_COUNT = "grscicollRecordsCount";
     public static final String VERBATIM_RECORDS_COUNT = "verbatimRecordsCount";
+    // KV store caches
+    public static final String GEOCODE_CACHE_HIT_COUNT = "geocodeCacheHitCount";
+    public static final String GEOCODE_CACHE_MISS_COUNT = "geocodeCacheMissCount";
+    public static final String GEOCODE_CACHE_LOAD_TIME_MS = "geocodeCacheLoadTimeMs";
+    public static final String NAME_MATCH_CACHE_HIT_COUNT = "nameMatchCacheHitCount";
+    public static final String NAME_MATCH_CACHE_MISS_COUNT = "nameMatchCacheMissCount";
+    public static final String NAME_MATCH_CACHE_LOAD_TIME_MS = "nameMatchCacheLoadTimeMs";
     // Event core types
     public static final String EVENT_CORE_RECORDS_COUNT = "eventCoreRecordsCount";
     // Extension types
@@ -190,6 +197,9 @@ public class PipelinesVariables {
     // Specific
     public static final String IDENTIFIER_RECORDS_COUNT = "identifierRecordsCount";
     public static final String LOCATION_FEATURE_RECORDS_COUNT = "locationFeatureRecordsCount";
+    // Counts of indexed fields, saved to a separate file next to the metrics file
+    public static final String INDEXED_FIELDS_NAMESPACE = "indexedFields";
+    public static final String INDEXED_FIELDS_FILE_NAME = "indexed-fields.yml";
 
     public static final String ATTEMPTED = "Attempted";
   }